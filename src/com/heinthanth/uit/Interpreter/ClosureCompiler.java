@@ -0,0 +1,899 @@
+package com.heinthanth.uit.Interpreter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.NumberCache;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.UitCallable;
+import com.heinthanth.uit.Runtime.UitClass;
+import com.heinthanth.uit.Runtime.UitFunction;
+import com.heinthanth.uit.Runtime.UitInstance;
+import com.heinthanth.uit.Utils.ErrorHandler;
+
+import org.jline.reader.EndOfFileException;
+import org.jline.reader.LineReader;
+import org.jline.reader.UserInterruptException;
+
+/**
+ * Statement / Expression node တစ်ခုချင်းစီကို တစ်ခါတည်း Java lambda အဖြစ်
+ * ပြောင်းပြီး run မယ့် engine။ variable depth, operator, literal value တွေကို
+ * build လုပ်တုန်းက ဆုံးဖြတ်ပြီးသားမို့ run နေတုန်း visitor dispatch, locals
+ * lookup, operator switch တွေ မလိုတော့ဘူး။ Environment, UitFunction, UitClass
+ * တွေကိုတော့ tree-walking interpreter နဲ့ ဝေမျှသုံးတယ်။
+ */
+public class ClosureCompiler implements Expression.Visitor<ClosureCompiler.Evaluator>,
+        Statement.Visitor<ClosureCompiler.Executor> {
+    /**
+     * compile ပြီးသား expression
+     */
+    interface Evaluator {
+        Object evaluate(Environment environment);
+    }
+
+    /**
+     * resolver က num လို့ သိထားတဲ့ expression။ number() က Double box မလုပ်ဘဲ
+     * ပြန်ပေးမယ်။ generic code က evaluate() နဲ့ ခေါ်မှ box မယ်။
+     */
+    interface NumberEvaluator extends Evaluator {
+        double number(Environment environment);
+
+        @Override
+        default Object evaluate(Environment environment) {
+            return NumberCache.box(number(environment));
+        }
+    }
+
+    /**
+     * compile ပြီးသား statement။ break, continue, return ဖြစ်ခဲ့ရင် အဲ့ဒီ
+     * completion ကို ပြန်ပေးမယ်။
+     */
+    interface Executor {
+        completion_t execute(Environment environment);
+    }
+
+    // resolver result နဲ့ builtin function တွေအတွက်
+    private final Interpreter interpreter;
+
+    // global variable တွေ
+    private final Environment globals;
+
+    private LineReader reader;
+
+    /**
+     * resolver ကို ပေးခဲ့တဲ့ interpreter ကနေ depth တွေ, global တွေ ယူသုံးမယ်။
+     *
+     * @param interpreter
+     */
+    public ClosureCompiler(Interpreter interpreter) {
+        this.interpreter = interpreter;
+        this.globals = interpreter.globals;
+    }
+
+    /**
+     * parser ကရလာတဲ့ statement တွေကို compile ပြီး run မယ်။
+     *
+     * @param statements
+     * @param errorHandler
+     * @param fromREPL
+     * @param reader
+     */
+    public void interpret(List<Statement> statements, ErrorHandler errorHandler, boolean fromREPL, LineReader reader) {
+        this.reader = reader;
+
+        try {
+            if (fromREPL && statements.size() == 1 && statements.get(0) instanceof Statement.ExpressionStatement) {
+                // REPL မှာ expression statement run ခဲ့ရင် auto output ထုတ်ပေးမယ်။
+                Statement.ExpressionStatement statement = (Statement.ExpressionStatement) statements.get(0);
+                Object value = compile(statement.expression).evaluate(globals);
+                if (value != null)
+                    System.out.println(Operators.stringify(value));
+            } else {
+                run(compile(statements), globals);
+            }
+        } catch (RuntimeError error) {
+            errorHandler.reportRuntimeError(error.getMessage(), error.token.line, error.token.col);
+        }
+    }
+
+    @Override
+    public Executor visitExpressionStatement(Statement.ExpressionStatement statement) {
+        Executor effect = effect(statement.expression);
+        if (effect != null)
+            return effect;
+        Evaluator expression = compile(statement.expression);
+        return environment -> {
+            expression.evaluate(environment);
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitOutputStatement(Statement.OutputStatement statement) {
+        Evaluator expression = compile(statement.expression);
+        return environment -> {
+            System.out.print(Operators.stringify(expression.evaluate(environment)));
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+        Token type = statement.type;
+        Token identifier = statement.identifier;
+        if (statement.numeric) {
+            NumberEvaluator value = statement.initializer != null ? number(statement, statement.initializer)
+                    : environment -> 0;
+            return environment -> {
+                environment.defineNumber(value.number(environment));
+                return completion_t.NORMAL;
+            };
+        }
+        Evaluator initializer = statement.initializer != null ? compile(statement.initializer)
+                : constant(defaultValue(type));
+        // type checker က စစ်ပြီးသားဆို type ထပ်မစစ်ဘူး။
+        if (statement.checked) {
+            boolean boxed = statement.boxed;
+            return environment -> {
+                int slot = environment.define(identifier, initializer.evaluate(environment));
+                if (boxed)
+                    environment.box(slot);
+                return completion_t.NORMAL;
+            };
+        }
+        if (statement.boxed) {
+            return environment -> {
+                environment.box(environment.define(type, identifier, initializer.evaluate(environment)));
+                return completion_t.NORMAL;
+            };
+        }
+        return environment -> {
+            environment.define(type, identifier, initializer.evaluate(environment));
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitBlockStatement(Statement.BlockStatement statement) {
+        Executor[] statements = compile(statement.statements);
+        if (!statement.scoped)
+            return environment -> run(statements, environment);
+        return environment -> run(statements, new Environment(environment));
+    }
+
+    @Override
+    public Executor visitIfStatement(Statement.IfStatement statement) {
+        int count = statement.branches.size();
+        Evaluator[] conditions = new Evaluator[count];
+        Executor[] branches = new Executor[count];
+        int i = 0;
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            conditions[i] = compile(branch.getKey());
+            branches[i] = compile(branch.getValue());
+            i++;
+        }
+        Executor elseBranch = statement.elseBranch != null ? compile(statement.elseBranch) : null;
+        return environment -> {
+            for (int j = 0; j < conditions.length; j++) {
+                if (Operators.isTrue(conditions[j].evaluate(environment)))
+                    return branches[j].execute(environment);
+            }
+            if (elseBranch != null)
+                return elseBranch.execute(environment);
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitWhileStatement(Statement.WhileStatement statement) {
+        Evaluator condition = compile(statement.condition);
+        Executor instructions = compile(statement.instructions);
+        return environment -> {
+            while (Operators.isTrue(condition.evaluate(environment))) {
+                completion_t completion = instructions.execute(environment);
+                if (completion == completion_t.BREAK)
+                    break;
+                if (completion == completion_t.RETURN)
+                    return completion;
+            }
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitBreakStatement(Statement.BreakStatement statement) {
+        return environment -> completion_t.BREAK;
+    }
+
+    @Override
+    public Executor visitContinueStatement(Statement.ContinueStatement statement) {
+        return environment -> completion_t.CONTINUE;
+    }
+
+    @Override
+    public Executor visitFunctionStatement(Statement.FunctionStatement statement) {
+        Executor[] body = compile(statement.instructions);
+        int[] captures = statement.captures;
+        if (statement.boxed) {
+            return environment -> {
+                Environment.Cell cell = new Environment.Cell();
+                environment.define(statement.identifier, cell);
+                cell.initialize(new ClosureFunction(statement, body, environment.capture(captures), false));
+                return completion_t.NORMAL;
+            };
+        }
+        return environment -> {
+            environment.define(statement.identifier,
+                    new ClosureFunction(statement, body, environment.capture(captures), false));
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Executor visitReturnStatement(Statement.ReturnStatement statement) {
+        if (statement.tailCall)
+            return tailCall((Expression.CallExpression) statement.value);
+        Evaluator value = statement.value != null ? compile(statement.value) : constant(null);
+        return environment -> {
+            interpreter.returned = value.evaluate(environment);
+            return completion_t.RETURN;
+        };
+    }
+
+    @Override
+    public Executor visitClassStatement(Statement.ClassStatement statement) {
+        Evaluator parent = statement.parent != null ? compile(statement.parent) : null;
+        Token identifier = statement.identifier;
+
+        int count = statement.properties.size();
+        Token[] properties = new Token[count];
+        Token[] propertyAccess = new Token[count];
+        Evaluator[] values = new Evaluator[count];
+        int i = 0;
+        for (Map.Entry<Statement.VariableDeclarationStatement, Token> var : statement.properties.entrySet()) {
+            Statement.VariableDeclarationStatement declaration = var.getKey();
+            properties[i] = declaration.identifier;
+            propertyAccess[i] = var.getValue();
+            values[i] = declaration.initializer != null ? compile(declaration.initializer)
+                    : constant(defaultValue(declaration.type));
+            i++;
+        }
+
+        List<Statement.FunctionStatement> declarations = new ArrayList<>(statement.methods.keySet());
+        List<Token> methodAccess = new ArrayList<>(statement.methods.values());
+        List<Executor[]> bodies = new ArrayList<>();
+        for (Statement.FunctionStatement declaration : declarations) {
+            bodies.add(compile(declaration.instructions));
+        }
+
+        return environment -> {
+            Object superclass = null;
+            if (parent != null) {
+                superclass = parent.evaluate(environment);
+                if (!(superclass instanceof UitClass)) {
+                    throw new RuntimeError(statement.parent.identifier, "Parent must be a class.");
+                }
+            }
+
+            Environment.Cell cell = statement.boxed ? new Environment.Cell() : null;
+            int slot = environment.define(identifier, cell);
+
+            Map<String, Token> accessModifier = new HashMap<>();
+            Map<String, UitFunction> methods = new HashMap<>();
+            Map<String, Object> props = new HashMap<>();
+            for (int j = 0; j < properties.length; j++) {
+                props.put(properties[j].lexeme, values[j].evaluate(environment));
+                accessModifier.put(properties[j].lexeme, propertyAccess[j]);
+            }
+            for (int j = 0; j < declarations.size(); j++) {
+                Statement.FunctionStatement declaration = declarations.get(j);
+                methods.put(declaration.identifier.lexeme, new ClosureFunction(declaration, bodies.get(j),
+                        environment.capture(declaration.captures),
+                        "__construct".equals(declaration.identifier.lexeme)));
+                accessModifier.put(declaration.identifier.lexeme, methodAccess.get(j));
+            }
+
+            UitClass klass = new UitClass(identifier.lexeme, (UitClass) superclass, props, methods, accessModifier);
+            if (cell != null) {
+                cell.initialize(klass);
+            } else if (slot < 0) {
+                environment.cell(identifier.lexeme).set(klass);
+            } else {
+                environment.store(slot, klass);
+            }
+            return completion_t.NORMAL;
+        };
+    }
+
+    @Override
+    public Evaluator visitBinaryExpression(Expression.BinaryExpression expression) {
+        token_t operands = expression.operands;
+        // operand type ကို သိထားရင် operand type မစစ်တဲ့ evaluator ကို compile ချိန်မှာ ရွေးမယ်။
+        if (expression.numeric || operands == token_t.VT_NUMBER
+                && (arithmetic(expression.operator) || comparison(expression.operator))) {
+            if (arithmetic(expression.operator))
+                return number(expression);
+            NumberEvaluator l = number(expression.left);
+            NumberEvaluator r = number(expression.right);
+            switch (expression.operator.type) {
+                case GREATER:
+                    return environment -> l.number(environment) > r.number(environment);
+                case GREATER_EQUAL:
+                    return environment -> l.number(environment) >= r.number(environment);
+                case LESS:
+                    return environment -> l.number(environment) < r.number(environment);
+                case LESS_EQUAL:
+                    return environment -> l.number(environment) <= r.number(environment);
+                default:
+                    Token operator = expression.operator;
+                    return environment -> {
+                        double left = l.number(environment);
+                        return Operators.compare(operator, left, r.number(environment));
+                    };
+            }
+        }
+        Evaluator left = compile(expression.left);
+        Evaluator right = compile(expression.right);
+        Token operator = expression.operator;
+        if (operands == token_t.VT_STRING || operands == token_t.VT_BOOLEAN) {
+            switch (operator.type) {
+                case DOT:
+                    if (operands == token_t.VT_STRING)
+                        return environment -> {
+                            String l = (String) left.evaluate(environment);
+                            return l.concat((String) right.evaluate(environment));
+                        };
+                    break;
+                case EQUAL:
+                    return environment -> left.evaluate(environment).equals(right.evaluate(environment));
+                case NOT_EQUAL:
+                    return environment -> !left.evaluate(environment).equals(right.evaluate(environment));
+                default:
+                    break;
+            }
+        }
+        switch (operator.type) {
+            case PLUS:
+                return new SpecializingNode.Add(left, right, operator);
+            case MINUS:
+                return new SpecializingNode.Subtract(left, right, operator);
+            case STAR:
+                return new SpecializingNode.Multiply(left, right, operator);
+            case SLASH:
+                return new SpecializingNode.Divide(left, right, operator);
+            case PERCENT:
+                return new SpecializingNode.Modulo(left, right, operator);
+            case DOT:
+                return new SpecializingNode.Concat(left, right, operator);
+            case GREATER:
+                return new SpecializingNode.Greater(left, right, operator);
+            case GREATER_EQUAL:
+                return new SpecializingNode.GreaterEqual(left, right, operator);
+            case LESS:
+                return new SpecializingNode.Less(left, right, operator);
+            case LESS_EQUAL:
+                return new SpecializingNode.LessEqual(left, right, operator);
+            case EQUAL:
+                return new SpecializingNode.Equal(left, right, operator, false);
+            case NOT_EQUAL:
+                return new SpecializingNode.Equal(left, right, operator, true);
+            default:
+                // CARET လို သိပ်မသုံးတဲ့ operator တွေကို Operators ဆီပဲ ပို့မယ်။
+                return environment -> {
+                    Object l = left.evaluate(environment);
+                    return Operators.binary(operator, l, right.evaluate(environment));
+                };
+        }
+    }
+
+    @Override
+    public Evaluator visitGroupingExpression(Expression.GroupingExpression expression) {
+        return compile(expression.expression);
+    }
+
+    @Override
+    public Evaluator visitLiteralExpression(Expression.LiteralExpression expression) {
+        return constant(expression.value.getValue());
+    }
+
+    @Override
+    public Evaluator visitUnaryExpression(Expression.UnaryExpression expression) {
+        if (numericUnary(expression))
+            return number(expression);
+        Evaluator right = compile(expression.right);
+        Token operator = expression.operator;
+        switch (operator.type) {
+            case NOT:
+                if (expression.operands == token_t.VT_BOOLEAN)
+                    return environment -> !(boolean) right.evaluate(environment);
+                return environment -> !Operators.isTrue(right.evaluate(environment));
+            case MINUS:
+                return environment -> {
+                    Object value = right.evaluate(environment);
+                    if (!(value instanceof Double))
+                        return Operators.unary(operator, value);
+                    return NumberCache.box(-(double) value);
+                };
+            default:
+                return environment -> Operators.unary(operator, right.evaluate(environment));
+        }
+    }
+
+    @Override
+    public Evaluator visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        return variable(expression.identifier, expression);
+    }
+
+    @Override
+    public Evaluator visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        Evaluator value = compile(expression.value);
+        Token identifier = expression.identifier;
+        Integer depth = interpreter.depth(expression);
+        if (depth == null) {
+            Environment.Cell cell = globals.cell(identifier.lexeme);
+            return environment -> {
+                Object result = value.evaluate(environment);
+                cell.assign(identifier, result);
+                return result;
+            };
+        }
+        int distance = depth;
+        int slot = interpreter.slot(expression);
+        boolean boxed = expression.boxed;
+        if (expression.numeric && !boxed) {
+            NumberEvaluator number = number(expression.value);
+            return environment -> {
+                double result = number.number(environment);
+                environment.storeNumberAt(distance, slot, result);
+                return NumberCache.box(result);
+            };
+        }
+        if (expression.checked) {
+            return environment -> {
+                Object result = value.evaluate(environment);
+                store(environment, distance, slot, boxed, result);
+                return result;
+            };
+        }
+        return environment -> {
+            Object result = value.evaluate(environment);
+            assign(environment, distance, slot, boxed, identifier, result);
+            return result;
+        };
+    }
+
+    @Override
+    public Evaluator visitLogicalExpression(Expression.LogicalExpression expression) {
+        Evaluator left = compile(expression.left);
+        Evaluator right = compile(expression.right);
+        return new SpecializingNode.Logical(left, right, expression.operator.type == token_t.OR);
+    }
+
+    @Override
+    public Evaluator visitInputExpression(Expression.InputExpression expression) {
+        Token identifier = expression.identifier;
+        Integer depth = interpreter.depth(expression);
+        int slot = depth != null ? interpreter.slot(expression) : -1;
+        boolean boxed = expression.boxed;
+        boolean checked = expression.checked;
+        Environment.Cell cell = depth == null ? globals.cell(identifier.lexeme) : null;
+        return environment -> {
+            String input = "";
+            try {
+                input = reader.readLine();
+            } catch (UserInterruptException e) {
+                System.exit(123);
+            } catch (EndOfFileException e) {
+                //
+            }
+            if (checked) {
+                store(environment, depth, slot, boxed, input);
+            } else if (depth != null) {
+                assign(environment, depth, slot, boxed, identifier, input);
+            } else {
+                cell.assign(identifier, input);
+            }
+            return input;
+        };
+    }
+
+    @Override
+    public Evaluator visitIncrementExpression(Expression.IncrementExpression expression) {
+        return step(expression.identifier, expression.operator, expression.mode, 1, "increase");
+    }
+
+    @Override
+    public Evaluator visitDecrementExpression(Expression.DecrementExpression expression) {
+        return step(expression.identifier, expression.operator, expression.mode, -1, "decrease");
+    }
+
+    @Override
+    public Evaluator visitCallExpression(Expression.CallExpression expression) {
+        Evaluator callee = compile(expression.callee);
+        Evaluator[] arguments = new Evaluator[expression.arguments.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = compile(expression.arguments.get(i));
+        }
+        Token paren = expression.paren;
+        return environment -> {
+            Object function = callee.evaluate(environment);
+
+            List<Object> values = new ArrayList<>(arguments.length);
+            for (Evaluator argument : arguments) {
+                values.add(argument.evaluate(environment));
+            }
+            return call(function, values, paren);
+        };
+    }
+
+    private Object call(Object function, List<Object> values, Token paren) {
+        if (!(function instanceof UitCallable)) {
+            throw new RuntimeError(paren, "Cannot invoke non-functions.");
+        }
+        UitCallable callable = (UitCallable) function;
+        if (values.size() != callable.argsCount()) {
+            throw new RuntimeError(paren,
+                    "Expected " + callable.argsCount() + " arguments but got " + values.size() + ".");
+        }
+        try {
+            return callable.invoke(interpreter, values);
+        } catch (RuntimeError error) {
+            throw error.at(paren);
+        }
+    }
+
+    @Override
+    public Evaluator visitGetExpression(Expression.GetExpression expression) {
+        Evaluator object = compile(expression.object);
+        Token name = expression.name;
+        boolean fromThis = expression.fromThis;
+        return environment -> {
+            Object instance = object.evaluate(environment);
+            if (instance instanceof UitInstance) {
+                return ((UitInstance) instance).get(name, fromThis);
+            }
+            throw new RuntimeError(name, "Cannot get member from non-object.");
+        };
+    }
+
+    @Override
+    public Evaluator visitSetExpression(Expression.SetExpression expression) {
+        Evaluator object = compile(expression.object);
+        Evaluator value = compile(expression.value);
+        Token name = expression.name;
+        boolean fromThis = expression.fromThis;
+        return environment -> {
+            Object instance = object.evaluate(environment);
+            if (!(instance instanceof UitInstance)) {
+                throw new RuntimeError(name, "Cannot assign member to non-object.");
+            }
+            Object result = value.evaluate(environment);
+            ((UitInstance) instance).set(name, result, fromThis);
+            return result;
+        };
+    }
+
+    @Override
+    public Evaluator visitThisExpression(Expression.ThisExpression expression) {
+        return variable(expression.thiss, expression);
+    }
+
+    /**
+     * statement list တစ်ခုလုံးကို compile မယ်။
+     *
+     * @param statements
+     * @return
+     */
+    Executor[] compile(List<Statement> statements) {
+        Executor[] executors = new Executor[statements.size()];
+        for (int i = 0; i < executors.length; i++) {
+            executors[i] = compile(statements.get(i));
+        }
+        return executors;
+    }
+
+    /**
+     * statement တွေကို အစဉ်လိုက် run မယ်။ break, continue, return တွေ့ရင် ရပ်ပြီး
+     * အဲ့ဒီ completion ကို ပြန်ပေးမယ်။
+     *
+     * @param statements
+     * @param environment
+     * @return
+     */
+    static completion_t run(Executor[] statements, Environment environment) {
+        for (Executor executor : statements) {
+            completion_t completion = executor.execute(environment);
+            if (completion != completion_t.NORMAL)
+                return completion;
+        }
+        return completion_t.NORMAL;
+    }
+
+    private Executor compile(Statement statement) {
+        return statement.accept(this);
+    }
+
+    private Evaluator compile(Expression expression) {
+        return expression.accept(this);
+    }
+
+    /**
+     * resolver ဆုံးဖြတ်ထားတဲ့ depth နဲ့ variable ဖတ်မယ့် evaluator
+     */
+    private Evaluator variable(Token name, Expression.Reference expression) {
+        Integer depth = interpreter.depth(expression);
+        if (depth == null) {
+            Environment.Cell cell = globals.cell(name.lexeme);
+            return environment -> cell.get(name);
+        }
+        int distance = depth;
+        int slot = interpreter.slot(expression);
+        if (expression.boxed)
+            return environment -> ((Environment.Cell) environment.getAt(distance, slot)).get(name);
+        if (distance == 0)
+            return environment -> environment.load(slot);
+        return environment -> environment.getAt(distance, slot);
+    }
+
+    /**
+     * Resolver.isNumber ဖြစ်တဲ့ ဒါမှမဟုတ် type checker က num လို့ သိထားတဲ့
+     * expression ကို box မလုပ်ဘဲ တွက်မယ့် evaluator။ operand type မသိတဲ့ node ဆို
+     * generic evaluator ရဲ့ result ကိုပဲ ယူမယ်။
+     */
+    private NumberEvaluator number(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression) {
+            double value = ((Expression.LiteralExpression) expression).value.v_number;
+            return environment -> value;
+        }
+        if (expression instanceof Expression.GroupingExpression)
+            return number(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.UnaryExpression
+                && numericUnary((Expression.UnaryExpression) expression)) {
+            NumberEvaluator right = number(((Expression.UnaryExpression) expression).right);
+            return environment -> -right.number(environment);
+        }
+        if (expression instanceof Expression.BinaryExpression && (((Expression.BinaryExpression) expression).numeric
+                || ((Expression.BinaryExpression) expression).operands == token_t.VT_NUMBER
+                        && arithmetic(((Expression.BinaryExpression) expression).operator))) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            NumberEvaluator left = number(binary.left);
+            NumberEvaluator right = number(binary.right);
+            Token operator = binary.operator;
+            switch (operator.type) {
+                case PLUS:
+                    return environment -> left.number(environment) + right.number(environment);
+                case MINUS:
+                    return environment -> left.number(environment) - right.number(environment);
+                case STAR:
+                    return environment -> left.number(environment) * right.number(environment);
+                default:
+                    return environment -> {
+                        double l = left.number(environment);
+                        return Operators.arithmetic(operator, l, right.number(environment));
+                    };
+            }
+        }
+        if (!(expression instanceof Expression.VariableAccessExpression)) {
+            Evaluator value = compile(expression);
+            return environment -> (double) value.evaluate(environment);
+        }
+        Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression;
+        Integer depth = interpreter.depth(variable);
+        if (depth == null || variable.boxed) {
+            Evaluator read = variable(variable.identifier, variable);
+            return environment -> (double) read.evaluate(environment);
+        }
+        int distance = depth;
+        int slot = interpreter.slot(variable);
+        if (distance == 0)
+            return environment -> environment.number(slot);
+        return environment -> environment.numberAt(distance, slot);
+    }
+
+    private static boolean arithmetic(Token operator) {
+        switch (operator.type) {
+            case PLUS:
+            case MINUS:
+            case STAR:
+            case SLASH:
+            case PERCENT:
+            case CARET:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean comparison(Token operator) {
+        switch (operator.type) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+            case EQUAL:
+            case NOT_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean numericUnary(Expression.UnaryExpression expression) {
+        return expression.numeric
+                || expression.operator.type == token_t.MINUS && expression.operands == token_t.VT_NUMBER;
+    }
+
+    /**
+     * num variable ရဲ့ initializer။ static အရ num မဟုတ်ရင် generic evaluator နဲ့
+     * တွက်ပြီး type စစ်မယ်။
+     */
+    private NumberEvaluator number(Statement.VariableDeclarationStatement statement, Expression initializer) {
+        if (Resolver.isNumber(initializer))
+            return number(initializer);
+        Evaluator value = compile(initializer);
+        if (statement.checked)
+            return environment -> (double) value.evaluate(environment);
+        Token type = statement.type;
+        Token identifier = statement.identifier;
+        return environment -> {
+            Object result = value.evaluate(environment);
+            Environment.checkDeclaration(type, identifier, result);
+            return (double) result;
+        };
+    }
+
+    /**
+     * value မလိုတဲ့ expression statement။ num local variable ကို assign / ++ / --
+     * လုပ်တာဆို result ကို box မလုပ်ဘဲ ရေးပဲ ရေးမယ်။ မဟုတ်ရင် null
+     */
+    private Executor effect(Expression expression) {
+        if (expression instanceof Expression.VariableAssignExpression) {
+            Expression.VariableAssignExpression assign = (Expression.VariableAssignExpression) expression;
+            if (!assign.numeric || assign.boxed)
+                return null;
+            NumberEvaluator value = number(assign.value);
+            int distance = assign.depth;
+            int slot = assign.slot;
+            return environment -> {
+                environment.storeNumberAt(distance, slot, value.number(environment));
+                return completion_t.NORMAL;
+            };
+        }
+        Expression target;
+        double delta;
+        if (expression instanceof Expression.IncrementExpression) {
+            target = ((Expression.IncrementExpression) expression).identifier;
+            delta = 1;
+        } else if (expression instanceof Expression.DecrementExpression) {
+            target = ((Expression.DecrementExpression) expression).identifier;
+            delta = -1;
+        } else {
+            return null;
+        }
+        if (!(target instanceof Expression.VariableAccessExpression))
+            return null;
+        Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) target;
+        if (!variable.numeric || variable.boxed)
+            return null;
+        int distance = variable.depth;
+        int slot = variable.slot;
+        return environment -> {
+            Environment scope = environment.ancestor(distance);
+            scope.storeNumber(slot, scope.number(slot) + delta);
+            return completion_t.NORMAL;
+        };
+    }
+
+    /**
+     * `return f(...)`။ ဘယ် function ထဲက return လဲ ဒီမှာ မသိလို့ TailCall ကိုပဲ
+     * ပြန်ပေးပြီး caller frame ကို ကျော်လို့ရမရ UitFunction.invoke ရဲ့ loop က စစ်မယ်။
+     */
+    private Executor tailCall(Expression.CallExpression expression) {
+        Evaluator callee = compile(expression.callee);
+        Evaluator[] arguments = new Evaluator[expression.arguments.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = compile(expression.arguments.get(i));
+        }
+        Token paren = expression.paren;
+        return environment -> {
+            Object function = callee.evaluate(environment);
+
+            List<Object> values = new ArrayList<>(arguments.length);
+            for (Evaluator argument : arguments) {
+                values.add(argument.evaluate(environment));
+            }
+
+            if (function instanceof UitFunction && values.size() == ((UitFunction) function).argsCount()) {
+                interpreter.returned = new UitFunction.TailCall((UitFunction) function, values);
+            } else {
+                interpreter.returned = call(function, values, paren);
+            }
+            return completion_t.RETURN;
+        };
+    }
+
+    /**
+     * ++ / -- အတွက် evaluator
+     */
+    private Evaluator step(Expression target, Token operator, String mode, double delta, String verb) {
+        if (!(target instanceof Expression.VariableAccessExpression)) {
+            return environment -> {
+                throw new RuntimeError(operator, "Cannot " + verb + " non-variable.");
+            };
+        }
+        Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) target;
+        Evaluator read = variable(variable.identifier, variable);
+        Token identifier = variable.identifier;
+        Integer depth = interpreter.depth(variable);
+        int slot = depth != null ? interpreter.slot(variable) : -1;
+        boolean boxed = variable.boxed;
+        Environment.Cell cell = depth == null ? globals.cell(identifier.lexeme) : null;
+        return new SpecializingNode.Step(operator, delta, "prefix".equals(mode), verb) {
+            @Override
+            Object read(Environment environment) {
+                return read.evaluate(environment);
+            }
+
+            @Override
+            void write(Environment environment, Object value) {
+                if (depth != null) {
+                    assign(environment, depth, slot, boxed, identifier, value);
+                } else {
+                    cell.assign(identifier, value);
+                }
+            }
+        };
+    }
+
+    /**
+     * local variable ကို assign မယ်။ closure တွေနဲ့ မျှသုံးတဲ့ variable ဆို cell ထဲ ရေးမယ်။
+     */
+    private static void assign(Environment environment, int distance, int slot, boolean boxed, Token identifier,
+            Object value) {
+        if (boxed) {
+            ((Environment.Cell) environment.getAt(distance, slot)).assign(identifier, value);
+        } else {
+            environment.assignAt(distance, slot, identifier, value);
+        }
+    }
+
+    /**
+     * type checker က စစ်ပြီးသား local variable assign ။ type မစစ်ဘဲ ရေးမယ်။
+     */
+    private static void store(Environment environment, int distance, int slot, boolean boxed, Object value) {
+        if (boxed) {
+            ((Environment.Cell) environment.getAt(distance, slot)).set(value);
+        } else {
+            environment.setAt(distance, slot, value);
+        }
+    }
+
+    private static Evaluator constant(Object value) {
+        return environment -> value;
+    }
+
+    /**
+     * initializer မပါတဲ့ variable ရဲ့ default value
+     */
+    private static Object defaultValue(Token type) {
+        switch (type.type) {
+            case VT_STRING:
+                return "";
+            case VT_BOOLEAN:
+                return false;
+            case VT_NUMBER:
+                return 0.0;
+            case VT_INT:
+                return 0L;
+            default:
+                return null;
+        }
+    }
+}
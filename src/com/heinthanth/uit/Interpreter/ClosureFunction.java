@@ -0,0 +1,44 @@
+package com.heinthanth.uit.Interpreter;
+
+import java.util.List;
+
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.UitFunction;
+import com.heinthanth.uit.Runtime.UitInstance;
+
+/**
+ * ClosureCompiler နဲ့ compile ပြီးသား body ကို run မယ့် function။ UitClass တို့
+ * သုံးလို့ရအောင် UitFunction ကို extend ထားတယ်။
+ */
+final class ClosureFunction extends UitFunction {
+    // compile ပြီးသား function body
+    private final ClosureCompiler.Executor[] body;
+
+    ClosureFunction(Statement.FunctionStatement declaration, ClosureCompiler.Executor[] body, Environment closure,
+            boolean isInitializer) {
+        super(declaration, closure, isInitializer);
+        this.body = body;
+    }
+
+    @Override
+    public UitFunction bind(UitInstance instance) {
+        Environment environment = new Environment(closure);
+        environment._define("this", instance);
+        return new ClosureFunction(declaration, body, environment, isInitializer);
+    }
+
+    @Override
+    protected Object execute(Interpreter interpreter, List<Object> arguments) {
+        completion_t completion;
+        if (declaration.reuseFrame) {
+            try {
+                completion = ClosureCompiler.run(body, frame(interpreter, arguments));
+            } finally {
+                interpreter.releaseFrame();
+            }
+        } else {
+            completion = ClosureCompiler.run(body, frame(interpreter, arguments));
+        }
+        return completion == completion_t.RETURN ? interpreter.takeReturned() : null;
+    }
+}
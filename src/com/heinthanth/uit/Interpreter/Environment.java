@@ -1,28 +1,100 @@
 package com.heinthanth.uit.Interpreter;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Runtime.NumberCache;
 import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.UitInstance;
 import com.heinthanth.uit.Utils.TypeMapper;
 
 public class Environment {
+    private static final Object[] EMPTY = {};
+    private static final double[] NO_NUMBERS = {};
+
     /**
-     * define variable တွေ အားလုံးကို သိမ်းထားတဲ့နေရာ
+     * slot ရဲ့ value က numbers ထဲမှာ ရှိတယ်လို့ slots ထဲမှာ မှတ်ထားမယ့် marker
      */
-    private final Map<String, Object> values = new HashMap<>();
+    private static final Object NUMBER = new Object();
 
     /**
-     * nested loop တွေအတွက် parent variable
+     * global variable တစ်ခုရဲ့ value။ name တစ်ခုကို cell တစ်ခုပဲ ပေးပြီး ဘယ်တော့မှ
+     * မလဲဘူး။ define မလုပ်ရသေးတဲ့ name အတွက်လည်း cell ကို ကြိုယူထားလို့ရတာမို့
+     * node တွေက ပထမဆုံးအကြိမ် ရှာပြီးရင် cache လုပ်ထားနိုင်တယ်။ function တွေ
+     * capture လုပ်ပြီး value ပြောင်းတဲ့ local variable တွေကိုလည်း cell နဲ့ ထုပ်ထားမယ်။
      */
-    public final Environment parent;
+    public static final class Cell {
+        private Object value;
+        private boolean defined = false;
+
+        public Cell() {
+        }
+
+        public Cell(Object value) {
+            initialize(value);
+        }
+
+        /**
+         * function, class လို ကိုယ့်ကိုယ်ကို capture လုပ်တဲ့ declaration တွေအတွက်
+         * cell ကို အရင်ထားပြီးမှ value ထည့်မယ်။
+         */
+        public void initialize(Object value) {
+            this.value = value;
+            this.defined = true;
+        }
+
+        public Object get(Token identifier) {
+            if (!defined)
+                throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "'.");
+            return value;
+        }
+
+        public void assign(Token identifier, Object value) {
+            if (!defined)
+                throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "' does not exists.");
+            checkAssignment(identifier, this.value, value);
+            this.value = value;
+        }
+
+        /**
+         * type checker က type ကိုက်တယ်လို့ သေချာပြီးသား value ကို မစစ်ဘဲ ထည့်မယ်။
+         */
+        public void set(Object value) {
+            this.value = value;
+        }
+    }
 
     /**
-     * assign parent environment
+     * global scope က variable တွေကို name နဲ့ သိမ်းမယ်။ local scope ဆို null
+     */
+    private final Map<String, Cell> values;
+
+    /**
+     * local scope က variable တွေ။ resolver က declare လုပ်တဲ့ အစဉ်အတိုင်း slot
+     * ပေးထားပြီး run တဲ့အခါလည်း အဲ့ဒီ အစဉ်အတိုင်း define မယ်။
+     */
+    private Object[] slots = EMPTY;
+    private int count = 0;
+
+    /**
+     * resolver က num လို့ သိထားတဲ့ variable တွေကို Double box မလုပ်ဘဲ slot index
+     * အတူတူနဲ့ ဒီမှာ သိမ်းမယ်။ generic code က load() နဲ့ ဖတ်ရင်တော့ box လုပ်ပေးမယ်။
+     */
+    private double[] numbers = NO_NUMBERS;
+
+    /**
+     * nested loop တွေအတွက် parent variable။ frame ကို ပြန်သုံးရင် ပြောင်းမယ်။
+     */
+    public Environment parent;
+
+    /**
+     * global environment
      */
     Environment() {
         parent = null;
+        values = new HashMap<>();
     }
 
     /**
@@ -32,6 +104,18 @@ public class Environment {
      */
     public Environment(Environment parent) {
         this.parent = parent;
+        this.values = null;
+    }
+
+    /**
+     * ပြန်သုံးမယ့် frame ကို parent အသစ်နဲ့ ဘာ variable မှမရှိသေးတဲ့ အခြေအနေ ပြန်ထားမယ်။
+     *
+     * @param parent
+     */
+    void reset(Environment parent) {
+        this.parent = parent;
+        Arrays.fill(slots, 0, count, null);
+        count = 0;
     }
 
     /**
@@ -40,113 +124,208 @@ public class Environment {
      * @param type
      * @param identifier
      * @param value
+     * @return local scope ဆို variable ရဲ့ slot၊ global ဆို -1
      */
-    public void define(Token type, Token identifier, Object value) {
-        if (values.containsKey(identifier.lexeme)) {
+    public int define(Token type, Token identifier, Object value) {
+        if (values != null && isDefined(identifier.lexeme))
             throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "' exists.");
-        } else {
-            if (value.getClass() == TypeMapper.Uit2Java.get(type.type)) {
-                values.put(identifier.lexeme, value);
-            } else {
-                StringBuilder msg = new StringBuilder();
-                msg.append("Cannot assign ");
-                msg.append(TypeMapper.JavaT2String.get(value.getClass()));
-                msg.append(" to ");
-                msg.append(TypeMapper.UitT2String.get(type.type));
-                msg.append(" variable '");
-                msg.append(identifier.lexeme);
-                msg.append("'.");
-                throw new RuntimeError(type, msg.toString());
-            }
-        }
+        checkDeclaration(type, identifier, value);
+        return put(identifier.lexeme, value);
     }
 
-    public void define(Token identifier, Object value) {
-        if (values.containsKey(identifier.lexeme)) {
+    public int define(Token identifier, Object value) {
+        if (values != null && isDefined(identifier.lexeme))
             throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "' exists.");
-        } else {
-            values.put(identifier.lexeme, value);
-        }
+        return put(identifier.lexeme, value);
     }
 
     /**
-     * internal interpreter ကနေ built in function တွေ define ဖို့
+     * internal interpreter ကနေ built in function တွေ၊ this တွေ define ဖို့
      */
     public void _define(String identifier, Object value) {
-        values.put(identifier, value);
+        put(identifier, value);
+    }
+
+    private boolean isDefined(String name) {
+        Cell cell = values.get(name);
+        return cell != null && cell.defined;
+    }
+
+    private int put(String name, Object value) {
+        if (values != null) {
+            Cell cell = cell(name);
+            cell.value = value;
+            cell.defined = true;
+            return -1;
+        }
+        if (count == slots.length)
+            slots = Arrays.copyOf(slots, count < 2 ? 4 : count * 2);
+        slots[count] = value;
+        return count++;
     }
 
     /**
-     * ရှိပြီးသား variable ကို value အသစ်ထည့်မယ်။ variable မရှိရင် error တက်မယ်။
+     * num local variable ကို box မလုပ်ဘဲ define မယ်။ type check က caller မှာ
+     * ပြီးပြီ။
      *
-     * @param identifer
      * @param value
+     * @return variable ရဲ့ slot
      */
-    public void assign(Token identifier, Object value) {
-        if (values.containsKey(identifier.lexeme)) {
-            Object old = values.get(identifier.lexeme);
-            if (old != null) {
-                if (value.getClass() == old.getClass()) {
-                    values.put(identifier.lexeme, value);
-                } else {
-                    StringBuilder msg = new StringBuilder();
-                    msg.append("Cannot assign ");
-                    msg.append(TypeMapper.JavaT2String.get(value.getClass()));
-                    msg.append(" to ");
-                    msg.append(TypeMapper.JavaT2String.get(old.getClass()));
-                    msg.append(" variable '");
-                    msg.append(identifier.lexeme);
-                    msg.append("'.");
-                    throw new RuntimeError(identifier, msg.toString());
-                }
-            } else {
-                values.put(identifier.lexeme, value);
+    public int defineNumber(double value) {
+        if (count == slots.length)
+            slots = Arrays.copyOf(slots, count < 2 ? 4 : count * 2);
+        if (numbers.length < slots.length)
+            numbers = Arrays.copyOf(numbers, slots.length);
+        slots[count] = NUMBER;
+        numbers[count] = value;
+        return count++;
+    }
+
+    /**
+     * global variable ရဲ့ cell။ မရှိသေးရင် define မလုပ်ရသေးတဲ့ cell အသစ်ပေးမယ်။
+     *
+     * @param name
+     * @return
+     */
+    public Cell cell(String name) {
+        if (values == null)
+            return parent.cell(name);
+        Cell cell = values.get(name);
+        if (cell == null) {
+            cell = new Cell();
+            values.put(name, cell);
+        }
+        return cell;
+    }
+
+    /**
+     * function ဖန်တီးတဲ့အချိန်မှာ သူသုံးတဲ့ variable တွေကိုပဲ ဒီ environment ကနေ
+     * ကူးပြီး parent မရှိတဲ့ closure environment လုပ်မယ်။ captures က resolver
+     * ပေးထားတဲ့ (distance, slot) အတွဲတွေ။
+     *
+     * @param captures
+     * @return
+     */
+    public Environment capture(int[] captures) {
+        Environment closure = new Environment(null);
+        int count = captures.length / 2;
+        if (count > 0) {
+            closure.slots = new Object[count];
+            for (int i = 0; i < count; i++) {
+                closure.slots[i] = getAt(captures[2 * i], captures[2 * i + 1]);
             }
-        } else if (parent != null) {
-            parent.assign(identifier, value);
-        } else {
-            throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "' does not exists.");
+            closure.count = count;
         }
+        return closure;
+    }
+
+    /**
+     * ရှိပြီးသား global variable ကို value အသစ်ထည့်မယ်။ variable မရှိရင် error တက်မယ်။
+     *
+     * @param identifer
+     * @param value
+     */
+    public void assign(Token identifier, Object value) {
+        cell(identifier.lexeme).assign(identifier, value);
     }
 
     /**
-     * variable တန်ဖိုးယူမယ်။ မရှိရင် error တက်မယ်။
+     * global variable တန်ဖိုးယူမယ်။ မရှိရင် error တက်မယ်။
      *
      * @param identifier
      * @return
      */
     public Object get(Token identifier) {
-        if (values.containsKey(identifier.lexeme)) {
-            return values.get(identifier.lexeme);
+        return cell(identifier.lexeme).get(identifier);
+    }
+
+    /**
+     * resolver ဆုံးဖြတ်ထားတဲ့ (distance, slot) က local variable ကို ဖတ်မယ်။ define
+     * မလုပ်ရသေးတဲ့ slot ဆို null
+     *
+     * @param distance
+     * @param slot
+     * @return
+     */
+    public Object getAt(int distance, int slot) {
+        return ancestor(distance).load(slot);
+    }
+
+    /**
+     * type check မလုပ်ဘဲ assign မယ်။ JIT က type စစ်ပြီးသား value တွေကို ပြန်ရေးဖို့
+     *
+     * @param distance
+     * @param slot
+     * @param value
+     */
+    public void setAt(int distance, int slot, Object value) {
+        ancestor(distance).store(slot, value);
+    }
+
+    /**
+     * num local variable ကို box မလုပ်ဘဲ ဖတ်/ရေး မယ်။ resolver က num လို့
+     * သိထားတဲ့ variable တွေအတွက်ပဲ။
+     */
+    double numberAt(int distance, int slot) {
+        return ancestor(distance).number(slot);
+    }
+
+    void storeNumberAt(int distance, int slot, double value) {
+        ancestor(distance).storeNumber(slot, value);
+    }
+
+    double number(int slot) {
+        Object value = slots[slot];
+        return value == NUMBER ? numbers[slot] : (double) value;
+    }
+
+    void storeNumber(int slot, double value) {
+        if (slots[slot] != NUMBER) {
+            if (numbers.length < slots.length)
+                numbers = Arrays.copyOf(numbers, slots.length);
+            slots[slot] = NUMBER;
         }
-        if (parent != null)
-            return parent.get(identifier);
-        throw new RuntimeError(identifier, "variable '" + identifier.lexeme + "'.");
-    }
-
-    public Object getAt(int distance, String name) {
-        return ancestor(distance).values.get(name);
-    }
-
-    void assignAt(int distance, Token identifier, Object value) {
-        Object old = ancestor(distance).values.get(identifier.lexeme);
-        if (old != null) {
-            if (value.getClass() == old.getClass()) {
-                ancestor(distance).values.put(identifier.lexeme, value);
-            } else {
-                StringBuilder msg = new StringBuilder();
-                msg.append("Cannot assign ");
-                msg.append(TypeMapper.JavaT2String.get(value.getClass()));
-                msg.append(" to ");
-                msg.append(TypeMapper.JavaT2String.get(old.getClass()));
-                msg.append(" variable '");
-                msg.append(identifier.lexeme);
-                msg.append("'.");
-                throw new RuntimeError(identifier, msg.toString());
-            }
-        } else {
-            ancestor(distance).values.put(identifier.lexeme, value);
+        numbers[slot] = value;
+    }
+
+    void assignAt(int distance, int slot, Token identifier, Object value) {
+        Environment environment = ancestor(distance);
+        checkAssignment(identifier, environment.load(slot), value);
+        environment.store(slot, value);
+    }
+
+    /**
+     * ဒီ scope ထဲက slot ကို ဖတ်/ရေး မယ်။ fused node တွေက scope ကို တစ်ခါပဲ ရှာပြီး
+     * သုံးဖို့
+     */
+    Object load(int slot) {
+        if (slot >= count)
+            return null;
+        Object value = slots[slot];
+        return value == NUMBER ? NumberCache.box(numbers[slot]) : value;
+    }
+
+    /**
+     * slot ထဲက value ကို closure တွေနဲ့ မျှသုံးလို့ရအောင် cell နဲ့ ထုပ်မယ်။
+     *
+     * @param slot
+     */
+    public void box(int slot) {
+        slots[slot] = new Cell(load(slot));
+    }
+
+    void store(int slot, Object value) {
+        if (slot >= count) {
+            // define မလုပ်ရသေးတဲ့ slot (method ထဲက property name လိုမျိုး)
+            if (slot >= slots.length)
+                slots = Arrays.copyOf(slots, slot + 1);
+            count = slot + 1;
+        }
+        if (slots[slot] == NUMBER && value instanceof Double) {
+            numbers[slot] = (double) value;
+            return;
         }
+        slots[slot] = value;
     }
 
     Environment ancestor(int distance) {
@@ -156,4 +335,53 @@ public class Environment {
         }
         return environment;
     }
+
+    /**
+     * declare လုပ်တဲ့ type နဲ့ value type ကိုက်မကိုက် စစ်မယ်။ bytecode vm ကလည်း
+     * ဒီ check ကိုပဲ သုံးတယ်။ object variable တွေကို initializer မပါရင် null နဲ့
+     * declare လို့ရတယ်။
+     *
+     * @param type
+     * @param identifier
+     * @param value
+     */
+    public static void checkDeclaration(Token type, Token identifier, Object value) {
+        Class<?> expected = TypeMapper.Uit2Java.get(type.type);
+        if (value == null ? expected == UitInstance.class : value.getClass() == expected)
+            return;
+        StringBuilder msg = new StringBuilder();
+        msg.append("Cannot assign ");
+        msg.append(value == null ? "null" : TypeMapper.JavaT2String.get(value.getClass()));
+        msg.append(" to ");
+        msg.append(TypeMapper.UitT2String.get(type.type));
+        msg.append(" variable '");
+        msg.append(identifier.lexeme);
+        msg.append("'.");
+        throw new RuntimeError(type, msg.toString());
+    }
+
+    /**
+     * ရှိပြီးသား variable ကို ကြေညာထားတဲ့ type နဲ့ value အသစ်ရဲ့ type ကိုက်မကိုက် စစ်မယ်။
+     * checkDeclaration က value type ကို ကြေညာတဲ့ type နဲ့ အတိအကျ တူမှ ထည့်ပေးလို့
+     * လက်ရှိ value ရဲ့ type က ကြေညာထားတဲ့ type ပဲ။ null ကို object variable ပဲ
+     * ကိုင်ထားနိုင်လို့ value မထည့်ရသေးတဲ့ variable ကို object လို့ စစ်မယ်။
+     *
+     * @param identifier
+     * @param old
+     * @param value
+     */
+    public static void checkAssignment(Token identifier, Object old, Object value) {
+        Class<?> declared = old == null ? UitInstance.class : old.getClass();
+        if (value == null ? declared == UitInstance.class : value.getClass() == declared)
+            return;
+        StringBuilder msg = new StringBuilder();
+        msg.append("Cannot assign ");
+        msg.append(value == null ? "null" : TypeMapper.JavaT2String.get(value.getClass()));
+        msg.append(" to ");
+        msg.append(TypeMapper.JavaT2String.get(declared));
+        msg.append(" variable '");
+        msg.append(identifier.lexeme);
+        msg.append("'.");
+        throw new RuntimeError(identifier, msg.toString());
+    }
 }
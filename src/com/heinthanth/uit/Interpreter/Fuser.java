@@ -0,0 +1,955 @@
+package com.heinthanth.uit.Interpreter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Lexer.value_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.NumberCache;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * resolver ပြီးမှ run တဲ့ pass။ loop တွေမှာ အများဆုံးတွေ့ရတဲ့ ပုံစံတွေ
+ * (`i < N`, `set i = i + 1`, `i++`) ကို step တစ်ခုတည်းနဲ့ run မယ့် fused node
+ * တွေနဲ့ အစားထိုးမယ်။ fused node တွေက မူရင်း node class ကို extend ထားလို့
+ * resolver, JIT စတဲ့ တခြား visitor တွေအတွက်တော့ မူရင်းအတိုင်းပဲ မြင်ရမယ်။
+ * tree-walking interpreter ကပဲ accept() ကနေ fused code ကို တန်း run မယ်။
+ * type checker က operand type ကို သိထားတဲ့ operator တွေကိုလည်း operand type
+ * မစစ်တဲ့ typed node (num-add, num-less, string-concat ...) နဲ့ လဲမယ်။
+ */
+public class Fuser implements Expression.Visitor<Expression>, Statement.Visitor<Statement> {
+    /**
+     * fused node အမျိုးအစား
+     */
+    public enum fusion_t {
+        LOOP_CONDITION, BRANCH_CONDITION, COMPARE, SELF_ASSIGN, STEP
+    }
+
+    private final Interpreter interpreter;
+
+    // fused node တစ်မျိုးချင်းစီ run ခဲ့တဲ့ အကြိမ် (--fusion-stats မပေးရင် null)
+    private final long[] counts;
+
+    /**
+     * @param interpreter
+     * @param stats       fused node တွေ run တဲ့ အကြိမ်ကို ရေတွက်မလား
+     */
+    public Fuser(Interpreter interpreter, boolean stats) {
+        this.interpreter = interpreter;
+        this.counts = stats ? new long[fusion_t.values().length] : null;
+    }
+
+    /**
+     * resolve ပြီးသား statement တွေထဲက pattern တွေကို fused node နဲ့ လဲမယ်။
+     *
+     * @param statements
+     * @return
+     */
+    public List<Statement> fuse(List<Statement> statements) {
+        return statements(statements);
+    }
+
+    public long count(fusion_t kind) {
+        return counts == null ? 0 : counts[kind.ordinal()];
+    }
+
+    /**
+     * local variable နဲ့ number (literal သို့ local variable) ကို နှိုင်းယှဉ်တဲ့
+     * < <= > >= ။ while / if condition ဖြစ်ရင် Boolean box မလုပ်ဘဲ test() ကို
+     * interpreter က တန်းခေါ်မယ်။
+     */
+    static final class Compare extends Expression.BinaryExpression {
+        private final Fuser fuser;
+        private final int leftDistance;
+        private final int leftSlot;
+        // right က literal ဆို constant၊ variable ဆို null
+        private final Object constant;
+        private final int rightDistance;
+        private final int rightSlot;
+        // condition အဖြစ် သုံးရင် pass က ပြောင်းမယ်။
+        private fusion_t kind;
+
+        Compare(Fuser fuser, Expression.BinaryExpression original, int leftDistance, Object constant,
+                Integer rightDistance, fusion_t kind) {
+            super(original.left, original.operator, original.right);
+            this.fuser = fuser;
+            this.leftDistance = leftDistance;
+            this.leftSlot = fuser.interpreter.slot(original.left);
+            this.constant = constant;
+            this.rightDistance = rightDistance == null ? 0 : rightDistance;
+            this.rightSlot = constant == null ? fuser.interpreter.slot(original.right) : -1;
+            this.kind = kind;
+            this.numeric = original.numeric;
+            this.operands = original.operands;
+        }
+
+        boolean test(Environment environment) {
+            if (fuser.counts != null)
+                fuser.counts[kind.ordinal()]++;
+            if (numeric || operands == token_t.VT_NUMBER) {
+                double a = environment.numberAt(leftDistance, leftSlot);
+                double b = constant != null ? (double) constant : environment.numberAt(rightDistance, rightSlot);
+                return Operators.compare(operator, a, b);
+            }
+            Object l = environment.getAt(leftDistance, leftSlot);
+            Object r = constant != null ? constant : environment.getAt(rightDistance, rightSlot);
+            if (!(l instanceof Double && r instanceof Double))
+                return (boolean) Operators.binary(operator, l, r);
+            double a = (double) l;
+            double b = (double) r;
+            switch (operator.type) {
+                case LESS:
+                    return a < b;
+                case LESS_EQUAL:
+                    return a <= b;
+                case GREATER:
+                    return a > b;
+                default:
+                    return a >= b;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) (Object) test(fuser.interpreter.environment);
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * `set x = x + e` / `set x = x - e` ။ variable ရှိတဲ့ scope ကို တစ်ခါပဲ ရှာမယ်။
+     */
+    static final class SelfAssign extends Expression.VariableAssignExpression {
+        private final Fuser fuser;
+        private final int distance;
+        private final int slot;
+        private final Token operator;
+        private final Expression operand;
+        private final boolean add;
+        // expression statement ဖြစ်ရင် result ကို box မလုပ်ဘဲ null ပြန်မယ်။
+        boolean discard = false;
+
+        SelfAssign(Fuser fuser, Expression.VariableAssignExpression original, int distance) {
+            super(original.identifier, original.value);
+            Expression.BinaryExpression value = (Expression.BinaryExpression) original.value;
+            this.fuser = fuser;
+            this.distance = distance;
+            this.slot = fuser.interpreter.slot(original);
+            this.operator = value.operator;
+            this.operand = value.right;
+            this.add = value.operator.type == token_t.PLUS;
+        }
+
+        Object run(Interpreter interpreter) {
+            if (fuser.counts != null)
+                fuser.counts[fusion_t.SELF_ASSIGN.ordinal()]++;
+            Environment scope = interpreter.environment.ancestor(distance);
+            if (numeric) {
+                double before = scope.number(slot);
+                double value = interpreter.number(operand);
+                double result = add ? before + value : before - value;
+                scope.storeNumber(slot, result);
+                return discard ? null : NumberCache.box(result);
+            }
+            Object previous = scope.load(slot);
+            Object right = operand.accept(interpreter);
+            if (!(previous instanceof Double && right instanceof Double)) {
+                Object result = Operators.binary(operator, previous, right);
+                if (checked)
+                    scope.store(slot, result);
+                else
+                    interpreter.environment.assignAt(distance, slot, identifier, result);
+                return result;
+            }
+            double value = add ? (double) previous + (double) right : (double) previous - (double) right;
+            Object result = NumberCache.box(value);
+            scope.store(slot, result);
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) run(fuser.interpreter);
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * local variable ကို ++ / -- ။ Increment, Decrement class နှစ်ခုလုံးက ဒီ
+     * helper ကိုပဲ ခေါ်မယ်။ num variable ဆို box မလုပ်ဘဲ တိုးမယ်၊ discard ဆို
+     * result မလိုလို့ null ပြန်မယ်။
+     */
+    private static Object step(Fuser fuser, Environment environment, int distance, int slot, Token operator,
+            String mode, double delta, boolean numeric, boolean discard) {
+        if (fuser.counts != null)
+            fuser.counts[fusion_t.STEP.ordinal()]++;
+        Environment scope = environment.ancestor(distance);
+        if (numeric) {
+            double before = scope.number(slot);
+            double after = before + delta;
+            scope.storeNumber(slot, after);
+            if (discard)
+                return null;
+            return NumberCache.box("prefix".equals(mode) ? after : before);
+        }
+        Object previous = scope.load(slot);
+        Object current;
+        if (previous instanceof Long) {
+            current = (long) previous + (long) delta;
+        } else if (previous instanceof Double) {
+            current = NumberCache.box((double) previous + delta);
+        } else {
+            throw new RuntimeError(operator, delta > 0 ? "Cannot increase non-number." : "Cannot decrease non-number.");
+        }
+        scope.store(slot, current);
+        return "prefix".equals(mode) ? current : previous;
+    }
+
+    static final class Increment extends Expression.IncrementExpression {
+        private final Fuser fuser;
+        private final int distance;
+        private final int slot;
+        private final boolean numeric;
+        boolean discard = false;
+
+        Increment(Fuser fuser, Expression.IncrementExpression original, int distance) {
+            super(original.identifier, original.operator, original.mode);
+            this.fuser = fuser;
+            this.distance = distance;
+            this.slot = fuser.interpreter.slot(original.identifier);
+            this.numeric = ((Expression.VariableAccessExpression) original.identifier).numeric;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) step(fuser, fuser.interpreter.environment, distance, slot, operator, mode, 1, numeric,
+                        discard);
+            return super.accept(visitor);
+        }
+    }
+
+    static final class Decrement extends Expression.DecrementExpression {
+        private final Fuser fuser;
+        private final int distance;
+        private final int slot;
+        private final boolean numeric;
+        boolean discard = false;
+
+        Decrement(Fuser fuser, Expression.DecrementExpression original, int distance) {
+            super(original.identifier, original.operator, original.mode);
+            this.fuser = fuser;
+            this.distance = distance;
+            this.slot = fuser.interpreter.slot(original.identifier);
+            this.numeric = ((Expression.VariableAccessExpression) original.identifier).numeric;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) step(fuser, fuser.interpreter.environment, distance, slot, operator, mode, -1, numeric,
+                        discard);
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * operand နှစ်ခုလုံး num လို့ သိထားတဲ့ + - * / % ^ ။ checkNumberOperands နဲ့
+     * operator switch မလိုဘူး။ interpreter.number() က box မလုပ်ဘဲ number() ကို
+     * တန်းခေါ်မယ်။
+     */
+    abstract static class Arithmetic extends Expression.BinaryExpression {
+        private final Fuser fuser;
+
+        Arithmetic(Fuser fuser, Expression.BinaryExpression original) {
+            super(original.left, original.operator, original.right);
+            this.fuser = fuser;
+            this.numeric = original.numeric;
+            this.operands = original.operands;
+        }
+
+        abstract double apply(double left, double right);
+
+        double number(Interpreter interpreter) {
+            double l = interpreter.number(left);
+            return apply(l, interpreter.number(right));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) NumberCache.box(number(fuser.interpreter));
+            return super.accept(visitor);
+        }
+    }
+
+    static final class Add extends Arithmetic {
+        Add(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            return left + right;
+        }
+    }
+
+    static final class Subtract extends Arithmetic {
+        Subtract(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            return left - right;
+        }
+    }
+
+    static final class Multiply extends Arithmetic {
+        Multiply(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            return left * right;
+        }
+    }
+
+    static final class Divide extends Arithmetic {
+        Divide(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            Operators.checkZeroOperand(operator, right);
+            return left / right;
+        }
+    }
+
+    static final class Modulo extends Arithmetic {
+        Modulo(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            Operators.checkZeroOperand(operator, right);
+            return Operators.modulo(left, right);
+        }
+    }
+
+    static final class Power extends Arithmetic {
+        Power(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        double apply(double left, double right) {
+            return Math.pow(left, right);
+        }
+    }
+
+    /**
+     * operand နှစ်ခုလုံး num လို့ သိထားတဲ့ > >= < <= == != ။ if / while condition
+     * ဆို interpreter က Boolean box မလုပ်ဘဲ test() ကို တန်းခေါ်မယ်။
+     */
+    abstract static class Comparison extends Expression.BinaryExpression {
+        private final Fuser fuser;
+
+        Comparison(Fuser fuser, Expression.BinaryExpression original) {
+            super(original.left, original.operator, original.right);
+            this.fuser = fuser;
+            this.numeric = original.numeric;
+            this.operands = original.operands;
+        }
+
+        abstract boolean apply(double left, double right);
+
+        boolean test(Interpreter interpreter) {
+            double l = interpreter.number(left);
+            return apply(l, interpreter.number(right));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) (Object) test(fuser.interpreter);
+            return super.accept(visitor);
+        }
+    }
+
+    static final class Less extends Comparison {
+        Less(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        boolean apply(double left, double right) {
+            return left < right;
+        }
+    }
+
+    static final class LessEqual extends Comparison {
+        LessEqual(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        boolean apply(double left, double right) {
+            return left <= right;
+        }
+    }
+
+    static final class Greater extends Comparison {
+        Greater(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        boolean apply(double left, double right) {
+            return left > right;
+        }
+    }
+
+    static final class GreaterEqual extends Comparison {
+        GreaterEqual(Fuser fuser, Expression.BinaryExpression original) {
+            super(fuser, original);
+        }
+
+        @Override
+        boolean apply(double left, double right) {
+            return left >= right;
+        }
+    }
+
+    /**
+     * num == / != ။ Operators.isEqual (Double.equals) လိုပဲ bit တွေ နှိုင်းယှဉ်မယ်။
+     */
+    static final class NumberEqual extends Comparison {
+        private final boolean negate;
+
+        NumberEqual(Fuser fuser, Expression.BinaryExpression original, boolean negate) {
+            super(fuser, original);
+            this.negate = negate;
+        }
+
+        @Override
+        boolean apply(double left, double right) {
+            return (Double.doubleToLongBits(left) == Double.doubleToLongBits(right)) != negate;
+        }
+    }
+
+    /**
+     * operand နှစ်ခုလုံး string လို့ သိထားတဲ့ `.` ။ stringify မလိုဘူး။
+     */
+    static final class Concat extends Expression.BinaryExpression {
+        private final Fuser fuser;
+
+        Concat(Fuser fuser, Expression.BinaryExpression original) {
+            super(original.left, original.operator, original.right);
+            this.fuser = fuser;
+            this.operands = original.operands;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter) {
+                String l = (String) left.accept(visitor);
+                return (R) l.concat((String) right.accept(visitor));
+            }
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * operand နှစ်ခုလုံး string ဒါမှမဟုတ် boolean လို့ သိထားတဲ့ == / != ။ value က
+     * null မဖြစ်နိုင်လို့ equals() ကို တန်းခေါ်မယ်။
+     */
+    static final class Equal extends Expression.BinaryExpression {
+        private final Fuser fuser;
+        private final boolean negate;
+
+        Equal(Fuser fuser, Expression.BinaryExpression original, boolean negate) {
+            super(original.left, original.operator, original.right);
+            this.fuser = fuser;
+            this.negate = negate;
+            this.operands = original.operands;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter) {
+                Object l = left.accept(visitor);
+                return (R) (Object) (l.equals(right.accept(visitor)) != negate);
+            }
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * operand က boolean လို့ သိထားတဲ့ `!` ။ isTrue မလိုဘူး။
+     */
+    static final class Not extends Expression.UnaryExpression {
+        private final Fuser fuser;
+
+        Not(Fuser fuser, Expression.UnaryExpression original) {
+            super(original.operator, original.right);
+            this.fuser = fuser;
+            this.operands = original.operands;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) (Object) !(boolean) right.accept(visitor);
+            return super.accept(visitor);
+        }
+    }
+
+    /**
+     * operand က num လို့ သိထားတဲ့ `-` ။
+     */
+    static final class Negate extends Expression.UnaryExpression {
+        private final Fuser fuser;
+
+        Negate(Fuser fuser, Expression.UnaryExpression original) {
+            super(original.operator, original.right);
+            this.fuser = fuser;
+            this.numeric = original.numeric;
+            this.operands = original.operands;
+        }
+
+        double number(Interpreter interpreter) {
+            return -interpreter.number(right);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R accept(Expression.Visitor<R> visitor) {
+            if (visitor == fuser.interpreter)
+                return (R) NumberCache.box(number(fuser.interpreter));
+            return super.accept(visitor);
+        }
+    }
+
+    // ---- pattern တွေ ရှာမယ့်နေရာ ----
+
+    /**
+     * cell နဲ့ မထုပ်ထားတဲ့ local variable ဆိုရင် depth၊ မဟုတ်ရင် null
+     */
+    private Integer local(Expression expression) {
+        if (!(expression instanceof Expression.VariableAccessExpression)
+                || ((Expression.VariableAccessExpression) expression).boxed)
+            return null;
+        return interpreter.depth(expression);
+    }
+
+    private static Double number(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression
+                && ((Expression.LiteralExpression) expression).value.v_type == value_t.VT_NUMBER)
+            return ((Expression.LiteralExpression) expression).value.v_number;
+        return null;
+    }
+
+    /**
+     * while, if ရဲ့ condition
+     */
+    private Expression condition(Expression expression, fusion_t kind) {
+        Expression condition = expression(expression);
+        if (condition instanceof Compare)
+            ((Compare) condition).kind = kind;
+        return condition;
+    }
+
+    private Compare compare(Expression.BinaryExpression expression, fusion_t kind) {
+        switch (expression.operator.type) {
+            case LESS:
+            case LESS_EQUAL:
+            case GREATER:
+            case GREATER_EQUAL:
+                break;
+            default:
+                return null;
+        }
+        Integer left = local(expression.left);
+        if (left == null)
+            return null;
+        Double constant = number(expression.right);
+        Integer right = constant == null ? local(expression.right) : null;
+        if (constant == null && right == null)
+            return null;
+        return new Compare(this, expression, left, constant, right, kind);
+    }
+
+    /**
+     * type checker က operand type ကို သိထားရင် operand type မစစ်တဲ့ typed node နဲ့
+     * လဲမယ်။ မသိရင် (ဒါမှမဟုတ် runtime error တက်မယ့် type ဆို) null
+     */
+    private Expression typed(Expression.BinaryExpression expression) {
+        if (expression.operands == null)
+            return null;
+        switch (expression.operands) {
+            case VT_NUMBER:
+                switch (expression.operator.type) {
+                    case PLUS:
+                        return new Add(this, expression);
+                    case MINUS:
+                        return new Subtract(this, expression);
+                    case STAR:
+                        return new Multiply(this, expression);
+                    case SLASH:
+                        return new Divide(this, expression);
+                    case PERCENT:
+                        return new Modulo(this, expression);
+                    case CARET:
+                        return new Power(this, expression);
+                    case LESS:
+                        return new Less(this, expression);
+                    case LESS_EQUAL:
+                        return new LessEqual(this, expression);
+                    case GREATER:
+                        return new Greater(this, expression);
+                    case GREATER_EQUAL:
+                        return new GreaterEqual(this, expression);
+                    case EQUAL:
+                        return new NumberEqual(this, expression, false);
+                    case NOT_EQUAL:
+                        return new NumberEqual(this, expression, true);
+                    default:
+                        return null;
+                }
+            case VT_STRING:
+                if (expression.operator.type == token_t.DOT)
+                    return new Concat(this, expression);
+                return equality(expression);
+            case VT_BOOLEAN:
+                return equality(expression);
+            default:
+                return null;
+        }
+    }
+
+    private Expression equality(Expression.BinaryExpression expression) {
+        switch (expression.operator.type) {
+            case EQUAL:
+                return new Equal(this, expression, false);
+            case NOT_EQUAL:
+                return new Equal(this, expression, true);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * node အသစ်မှာ resolver ရဲ့ depth, slot ကို ဆက်ထားမယ်။
+     */
+    private Expression keep(Expression original, Expression replacement) {
+        Integer depth = interpreter.depth(original);
+        if (depth != null) {
+            interpreter.resolve((Expression.Reference) replacement, depth, interpreter.slot(original));
+            ((Expression.Reference) replacement).boxed = ((Expression.Reference) original).boxed;
+            ((Expression.Reference) replacement).numeric = ((Expression.Reference) original).numeric;
+            ((Expression.Reference) replacement).checked = ((Expression.Reference) original).checked;
+        }
+        return replacement;
+    }
+
+    private Expression expression(Expression expression) {
+        return expression == null ? null : expression.accept(this);
+    }
+
+    private List<Expression> expressions(List<Expression> expressions) {
+        List<Expression> result = new ArrayList<>(expressions.size());
+        boolean changed = false;
+        for (Expression expression : expressions) {
+            Expression fused = expression(expression);
+            changed |= fused != expression;
+            result.add(fused);
+        }
+        return changed ? result : expressions;
+    }
+
+    private Statement statement(Statement statement) {
+        return statement == null ? null : statement.accept(this);
+    }
+
+    private List<Statement> statements(List<Statement> statements) {
+        List<Statement> result = new ArrayList<>(statements.size());
+        boolean changed = false;
+        for (Statement statement : statements) {
+            Statement fused = statement(statement);
+            changed |= fused != statement;
+            result.add(fused);
+        }
+        return changed ? result : statements;
+    }
+
+    // ---- statement တွေ ----
+
+    @Override
+    public Statement visitExpressionStatement(Statement.ExpressionStatement statement) {
+        Expression expression = expression(statement.expression);
+        // statement ဖြစ်နေရင် value ကို ဘယ်သူမှ မသုံးဘူး။
+        if (expression instanceof SelfAssign)
+            ((SelfAssign) expression).discard = true;
+        else if (expression instanceof Increment)
+            ((Increment) expression).discard = true;
+        else if (expression instanceof Decrement)
+            ((Decrement) expression).discard = true;
+        return expression == statement.expression ? statement : new Statement.ExpressionStatement(expression);
+    }
+
+    @Override
+    public Statement visitOutputStatement(Statement.OutputStatement statement) {
+        Expression expression = expression(statement.expression);
+        return expression == statement.expression ? statement : new Statement.OutputStatement(expression);
+    }
+
+    @Override
+    public Statement visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+        Expression initializer = expression(statement.initializer);
+        if (initializer == statement.initializer)
+            return statement;
+        Statement.VariableDeclarationStatement fused = new Statement.VariableDeclarationStatement(statement.type,
+                statement.identifier, initializer, statement.constant);
+        fused.boxed = statement.boxed;
+        fused.numeric = statement.numeric;
+        fused.checked = statement.checked;
+        return fused;
+    }
+
+    @Override
+    public Statement visitBlockStatement(Statement.BlockStatement statement) {
+        List<Statement> statements = statements(statement.statements);
+        if (statements == statement.statements)
+            return statement;
+        Statement.BlockStatement fused = new Statement.BlockStatement(statements);
+        fused.scoped = statement.scoped;
+        return fused;
+    }
+
+    @Override
+    public Statement visitIfStatement(Statement.IfStatement statement) {
+        Map<Expression, Statement> branches = new LinkedHashMap<>();
+        boolean changed = false;
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            Expression condition = condition(branch.getKey(), fusion_t.BRANCH_CONDITION);
+            Statement body = statement(branch.getValue());
+            changed |= condition != branch.getKey() || body != branch.getValue();
+            branches.put(condition, body);
+        }
+        Statement elseBranch = statement(statement.elseBranch);
+        if (!changed && elseBranch == statement.elseBranch)
+            return statement;
+        return new Statement.IfStatement(branches, elseBranch);
+    }
+
+    @Override
+    public Statement visitWhileStatement(Statement.WhileStatement statement) {
+        Expression condition = condition(statement.condition, fusion_t.LOOP_CONDITION);
+        Statement instructions = statement(statement.instructions);
+        if (condition == statement.condition && instructions == statement.instructions)
+            return statement;
+        return new Statement.WhileStatement(condition, instructions);
+    }
+
+    @Override
+    public Statement visitBreakStatement(Statement.BreakStatement statement) {
+        return statement;
+    }
+
+    @Override
+    public Statement visitContinueStatement(Statement.ContinueStatement statement) {
+        return statement;
+    }
+
+    @Override
+    public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+        List<Statement> instructions = statements(statement.instructions);
+        if (instructions == statement.instructions)
+            return statement;
+        Statement.FunctionStatement fused = new Statement.FunctionStatement(statement.type, statement.identifier,
+                statement.parameters, instructions);
+        fused.boxed = statement.boxed;
+        fused.captures = statement.captures;
+        fused.boxedParameters = statement.boxedParameters;
+        fused.reuseFrame = statement.reuseFrame;
+        fused.checked = statement.checked;
+        return fused;
+    }
+
+    @Override
+    public Statement visitReturnStatement(Statement.ReturnStatement statement) {
+        Expression value = expression(statement.value);
+        if (value == statement.value)
+            return statement;
+        Statement.ReturnStatement fused = new Statement.ReturnStatement(statement.ret, value);
+        fused.tailCall = statement.tailCall;
+        return fused;
+    }
+
+    @Override
+    public Statement visitClassStatement(Statement.ClassStatement statement) {
+        Map<Statement.VariableDeclarationStatement, Token> properties = new LinkedHashMap<>();
+        Map<Statement.FunctionStatement, Token> methods = new LinkedHashMap<>();
+        boolean changed = false;
+        for (Map.Entry<Statement.VariableDeclarationStatement, Token> property : statement.properties.entrySet()) {
+            Statement fused = statement(property.getKey());
+            changed |= fused != property.getKey();
+            properties.put((Statement.VariableDeclarationStatement) fused, property.getValue());
+        }
+        for (Map.Entry<Statement.FunctionStatement, Token> method : statement.methods.entrySet()) {
+            Statement fused = statement(method.getKey());
+            changed |= fused != method.getKey();
+            methods.put((Statement.FunctionStatement) fused, method.getValue());
+        }
+        if (!changed)
+            return statement;
+        Statement.ClassStatement fused = new Statement.ClassStatement(statement.identifier, statement.parent,
+                properties, methods);
+        fused.boxed = statement.boxed;
+        return fused;
+    }
+
+    // ---- expression တွေ ----
+
+    @Override
+    public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+        Expression left = expression(expression.left);
+        Expression right = expression(expression.right);
+        Expression.BinaryExpression result = expression;
+        if (left != expression.left || right != expression.right) {
+            result = new Expression.BinaryExpression(left, expression.operator, right);
+            result.numeric = expression.numeric;
+            result.operands = expression.operands;
+        }
+        Compare fused = compare(result, fusion_t.COMPARE);
+        if (fused != null)
+            return fused;
+        Expression typed = typed(result);
+        return typed != null ? typed : result;
+    }
+
+    @Override
+    public Expression visitGroupingExpression(Expression.GroupingExpression expression) {
+        Expression inner = expression(expression.expression);
+        return inner == expression.expression ? expression : new Expression.GroupingExpression(inner);
+    }
+
+    @Override
+    public Expression visitLiteralExpression(Expression.LiteralExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitUnaryExpression(Expression.UnaryExpression expression) {
+        Expression right = expression(expression.right);
+        Expression.UnaryExpression result = expression;
+        if (right != expression.right) {
+            result = new Expression.UnaryExpression(expression.operator, right);
+            result.numeric = expression.numeric;
+            result.operands = expression.operands;
+        }
+        if (result.operator.type == token_t.NOT && result.operands == token_t.VT_BOOLEAN)
+            return new Not(this, result);
+        if (result.operator.type == token_t.MINUS && result.operands == token_t.VT_NUMBER)
+            return new Negate(this, result);
+        return result;
+    }
+
+    @Override
+    public Expression visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        Expression value = expression(expression.value);
+        Integer distance = expression.boxed ? null : interpreter.depth(expression);
+        if (distance != null && value instanceof Expression.BinaryExpression) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) value;
+            Integer target = local(binary.left);
+            if ((binary.operator.type == token_t.PLUS
+                    || binary.operator.type == token_t.MINUS) && distance.equals(target)
+                    && ((Expression.VariableAccessExpression) binary.left).identifier.lexeme
+                            .equals(expression.identifier.lexeme)) {
+                return keep(expression, new SelfAssign(this, expression, distance));
+            }
+        }
+        if (value == expression.value)
+            return expression;
+        return keep(expression, new Expression.VariableAssignExpression(expression.identifier, value));
+    }
+
+    @Override
+    public Expression visitLogicalExpression(Expression.LogicalExpression expression) {
+        Expression left = expression(expression.left);
+        Expression right = expression(expression.right);
+        return left == expression.left && right == expression.right ? expression
+                : new Expression.LogicalExpression(left, expression.operator, right);
+    }
+
+    @Override
+    public Expression visitInputExpression(Expression.InputExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitIncrementExpression(Expression.IncrementExpression expression) {
+        Integer distance = local(expression.identifier);
+        return distance == null ? expression : new Increment(this, expression, distance);
+    }
+
+    @Override
+    public Expression visitDecrementExpression(Expression.DecrementExpression expression) {
+        Integer distance = local(expression.identifier);
+        return distance == null ? expression : new Decrement(this, expression, distance);
+    }
+
+    @Override
+    public Expression visitCallExpression(Expression.CallExpression expression) {
+        Expression callee = expression(expression.callee);
+        List<Expression> arguments = expressions(expression.arguments);
+        return callee == expression.callee && arguments == expression.arguments ? expression
+                : new Expression.CallExpression(callee, expression.paren, arguments);
+    }
+
+    @Override
+    public Expression visitGetExpression(Expression.GetExpression expression) {
+        Expression object = expression(expression.object);
+        return object == expression.object ? expression
+                : new Expression.GetExpression(object, expression.name, expression.fromThis);
+    }
+
+    @Override
+    public Expression visitSetExpression(Expression.SetExpression expression) {
+        Expression object = expression(expression.object);
+        Expression value = expression(expression.value);
+        return object == expression.object && value == expression.value ? expression
+                : new Expression.SetExpression(object, expression.name, value, expression.fromThis);
+    }
+
+    @Override
+    public Expression visitThisExpression(Expression.ThisExpression expression) {
+        return expression;
+    }
+}
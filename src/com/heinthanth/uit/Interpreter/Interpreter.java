@@ -2,14 +2,22 @@ package com.heinthanth.uit.Interpreter;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.heinthanth.uit.JIT.CompiledCode;
+import com.heinthanth.uit.JIT.Jit;
+import com.heinthanth.uit.JIT.JitRuntime;
 import com.heinthanth.uit.Lexer.Token;
 import com.heinthanth.uit.Lexer.token_t;
 import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.NumberCache;
 import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.Operators;
 import com.heinthanth.uit.Runtime.UitCallable;
 import com.heinthanth.uit.Runtime.UitClass;
 import com.heinthanth.uit.Runtime.UitFunction;
@@ -21,30 +29,33 @@ import org.jline.reader.EndOfFileException;
 import org.jline.reader.LineReader;
 import org.jline.reader.UserInterruptException;
 
-class BreakSignal extends RuntimeException {
+public class Interpreter implements Expression.Visitor<Object>, Statement.Visitor<Void> {
+    // global variable တွေ သိမ်းဖို့
+    public final Environment globals = new Environment();
+    // REPL မှာ အရင် input တွေက ကြေညာခဲ့တဲ့ global const တွေ။ နောက် input တွေကနေ
+    // assign တာကို resolver က စစ်ဖို့
+    public final Set<String> constants = new HashSet<>();
+    // fused node တွေကလည်း သုံးတယ်။
+    Environment environment = globals;
 
-    /**
-     *
-     */
-    private static final long serialVersionUID = 8307277094185297477L;
-};
+    private LineReader reader;
 
-class ContinueSignal extends RuntimeException {
+    // နောက်ဆုံး run ခဲ့တဲ့ statement ရဲ့ completion နဲ့ return statement ရဲ့ value
+    private completion_t completion = completion_t.NORMAL;
+    Object returned;
 
     /**
-     *
+     * --jit ပေးရင် hot function တွေကို compile မယ့် JIT
      */
-    private static final long serialVersionUID = 1L;
-}
+    public Jit jit;
 
-public class Interpreter implements Expression.Visitor<Object>, Statement.Visitor<Void> {
-    // global variable တွေ သိမ်းဖို့
-    public final Environment globals = new Environment();
-    private Environment environment = globals;
+    // အခု run နေတဲ့ function နဲ့ အဲ့ဒီ function ရဲ့ scope (JIT အတွက်)
+    private UitFunction function;
+    private Environment functionEnvironment;
 
-    private LineReader reader;
-
-    private final Map<Expression, Integer> locals = new HashMap<>();
+    // reuseFrame function တွေရဲ့ frame တွေ။ call depth အလိုက် ပြန်သုံးမယ်။
+    private Environment[] frames = new Environment[16];
+    private int frameCount = 0;
 
     // builtin function တွေကို define ဖို့ constructor
     public Interpreter() {
@@ -67,7 +78,7 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
                 Statement.ExpressionStatement statement = (Statement.ExpressionStatement) statements.get(0);
                 Object value = evaluate(statement.expression);
                 if (value != null)
-                    System.out.println(stringify(value));
+                    System.out.println(Operators.stringify(value));
                 return;
             } else {
                 for (Statement statement : statements) {
@@ -84,17 +95,37 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Void visitFunctionStatement(Statement.FunctionStatement statement) {
-        UitFunction function = new UitFunction(statement, environment, false);
-        environment.define(statement.identifier, function);
+        if (statement.boxed) {
+            // function ထဲကနေ ကိုယ့်ကိုယ်ကို ခေါ်ရင် cell ကနေ ဖတ်မယ်။
+            Environment.Cell cell = new Environment.Cell();
+            environment.define(statement.identifier, cell);
+            cell.initialize(new UitFunction(statement, environment.capture(statement.captures), false));
+        } else {
+            environment.define(statement.identifier,
+                    new UitFunction(statement, environment.capture(statement.captures), false));
+        }
         return null;
     }
 
     @Override
     public Void visitReturnStatement(Statement.ReturnStatement statement) {
         Object value = null;
-        if (statement.value != null)
+        if (function != null && statement.tailCall) {
+            Expression.CallExpression expression = (Expression.CallExpression) statement.value;
+            Object callee = evaluate(expression.callee);
+            List<Object> arguments = arguments(expression);
+            // ခေါ်နေတဲ့ UitFunction.invoke ရဲ့ loop ကပဲ callee ကို ဆက် run မယ်။
+            if (function.canTailCall(callee, arguments.size())) {
+                value = new UitFunction.TailCall((UitFunction) callee, arguments);
+            } else {
+                value = call(callee, arguments, expression.paren);
+            }
+        } else if (statement.value != null) {
             value = evaluate(statement.value);
-        throw new UitFunction.ReturnSignal(value);
+        }
+        returned = value;
+        completion = completion_t.RETURN;
+        return null;
     }
 
     @Override
@@ -107,7 +138,8 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             }
         }
 
-        environment.define(statement.identifier, null);
+        Environment.Cell cell = statement.boxed ? new Environment.Cell() : null;
+        int slot = environment.define(statement.identifier, cell);
 
         Map<String, Token> accessModifier = new HashMap<>();
         Map<String, UitFunction> methods = new HashMap<>();
@@ -125,6 +157,9 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
                 case VT_NUMBER:
                     value = 0.0;
                     break;
+                case VT_INT:
+                    value = 0L;
+                    break;
                 default:
                     break;
             }
@@ -135,7 +170,7 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             accessModifier.put(var.getKey().identifier.lexeme, var.getValue());
         }
         for (Map.Entry<Statement.FunctionStatement, Token> method : statement.methods.entrySet()) {
-            UitFunction function = new UitFunction(method.getKey(), environment,
+            UitFunction function = new UitFunction(method.getKey(), environment.capture(method.getKey().captures),
                     "__construct".equals(method.getKey().identifier.lexeme));
             methods.put(method.getKey().identifier.lexeme, function);
             accessModifier.put(method.getKey().identifier.lexeme, method.getValue());
@@ -144,7 +179,13 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         UitClass klass = new UitClass(statement.identifier.lexeme, (UitClass) superclass, props, methods,
                 accessModifier);
 
-        environment.assign(statement.identifier, klass);
+        if (cell != null) {
+            cell.initialize(klass);
+        } else if (slot < 0) {
+            environment.cell(statement.identifier.lexeme).set(klass);
+        } else {
+            environment.store(slot, klass);
+        }
         return null;
     }
 
@@ -164,16 +205,40 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             case VT_NUMBER:
                 value = 0.0;
                 break;
+            case VT_INT:
+                value = 0L;
+                break;
             default:
                 break;
         }
+        if (statement.numeric) {
+            environment.defineNumber(statement.initializer == null ? 0 : number(statement, statement.initializer));
+            return null;
+        }
         if (statement.initializer != null) {
             value = evaluate(statement.initializer);
         }
-        environment.define(statement.type, statement.identifier, value);
+        // type checker က စစ်ပြီးသားဆို type ထပ်မစစ်ဘူး။
+        int slot = statement.checked ? environment.define(statement.identifier, value)
+                : environment.define(statement.type, statement.identifier, value);
+        if (statement.boxed)
+            environment.box(slot);
         return null;
     }
 
+    /**
+     * num variable ရဲ့ initializer။ static အရ num မဟုတ်တဲ့ expression (function
+     * call လိုမျိုး) ဆို generic path နဲ့ တွက်ပြီး type စစ်မယ်။
+     */
+    private double number(Statement.VariableDeclarationStatement statement, Expression initializer) {
+        if (Resolver.isNumber(initializer))
+            return number(initializer);
+        Object value = evaluate(initializer);
+        if (!statement.checked)
+            Environment.checkDeclaration(statement.type, statement.identifier, value);
+        return (double) value;
+    }
+
     /**
      * if statement ကို interpret မယ်။
      *
@@ -183,7 +248,7 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
     @Override
     public Void visitIfStatement(Statement.IfStatement statement) {
         for (Map.Entry<Expression, Statement> stmt : statement.branches.entrySet()) {
-            if (isTrue(evaluate(stmt.getKey()))) {
+            if (condition(stmt.getKey())) {
                 execute(stmt.getValue());
                 return null;
             }
@@ -202,38 +267,77 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Void visitWhileStatement(Statement.WhileStatement statement) {
-        while (isTrue(evaluate(statement.condition))) {
-            try {
-                execute(statement.instructions);
-            } catch (BreakSignal sig) {
-                break;
-            } catch (ContinueSignal sig) {
-                continue;
+        int iterations = 0;
+        while (condition(statement.condition)) {
+            execute(statement.instructions);
+            if (completion != completion_t.NORMAL) {
+                if (completion == completion_t.RETURN)
+                    return null;
+                boolean exit = completion == completion_t.BREAK;
+                completion = completion_t.NORMAL;
+                if (exit)
+                    break;
+                // continue ဆို condition ကို ပြန်စစ်မယ်။
+            }
+            if (jit != null) {
+                if (function != null)
+                    function.backEdges++;
+                // loop အရမ်းကြာနေရင် ကျန်တဲ့ iteration တွေကို compile ပြီး run မယ်။
+                if (++iterations == Jit.BACKEDGE_THRESHOLD && onStackReplace(statement))
+                    break;
             }
         }
         return null;
     }
 
+    /**
+     * run နေတဲ့ loop ကို JIT နဲ့ compile ပြီး လက်ရှိ environment နဲ့ ဆက် run မယ်။
+     * compile မရရင် false
+     *
+     * @param statement
+     * @return
+     */
+    private boolean onStackReplace(Statement.WhileStatement statement) {
+        int scopes = 0;
+        if (function != null) {
+            scopes = 1;
+            for (Environment env = environment; env != functionEnvironment; env = env.parent) {
+                scopes++;
+            }
+        }
+        CompiledCode code = jit.compileLoop(statement, environment, function, scopes);
+        if (code == null)
+            return false;
+        Object result = code.invoke(new Object[] { environment });
+        if (result != JitRuntime.LOOP_EXIT) {
+            returned = result;
+            completion = completion_t.RETURN;
+        }
+        return true;
+    }
+
     // loop break မယ်။
     @Override
     public Void visitBreakStatement(Statement.BreakStatement statement) {
-        throw new BreakSignal();
+        completion = completion_t.BREAK;
+        return null;
     }
 
     // continue break မယ်။
     @Override
     public Void visitContinueStatement(Statement.ContinueStatement statement) {
-        throw new ContinueSignal();
+        completion = completion_t.CONTINUE;
+        return null;
     }
 
     @Override
     public Object visitLogicalExpression(Expression.LogicalExpression expression) {
         Object left = evaluate(expression.left);
         if (expression.operator.type == token_t.OR) {
-            if (isTrue(left))
+            if (Operators.isTrue(left))
                 return left;
         } else {
-            if (!isTrue(left))
+            if (!Operators.isTrue(left))
                 return left;
         }
         return evaluate(expression.right);
@@ -244,7 +348,16 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Void visitBlockStatement(Statement.BlockStatement statement) {
-        executeBlock(statement.statements, new Environment(this.environment));
+        // resolver က scope မလိုဘူးလို့ မှတ်ထားရင် environment အသစ် မဆောက်ဘူး။
+        if (!statement.scoped) {
+            for (Statement stmt : statement.statements) {
+                execute(stmt);
+                if (completion != completion_t.NORMAL)
+                    break;
+            }
+        } else {
+            executeBlock(statement.statements, new Environment(this.environment));
+        }
         return null;
     }
 
@@ -254,7 +367,7 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
     @Override
     public Void visitOutputStatement(Statement.OutputStatement statement) {
         Object value = evaluate(statement.expression);
-        System.out.print(stringify(value));
+        System.out.print(Operators.stringify(value));
         return null;
     }
 
@@ -273,23 +386,33 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
     @Override
     public Object visitCallExpression(Expression.CallExpression expression) {
         Object callee = evaluate(expression.callee);
+        return call(callee, arguments(expression), expression.paren);
+    }
 
+    private List<Object> arguments(Expression.CallExpression expression) {
         List<Object> arguments = new ArrayList<>();
         for (Expression argument : expression.arguments) {
             arguments.add(evaluate(argument));
         }
+        return arguments;
+    }
 
+    private Object call(Object callee, List<Object> arguments, Token paren) {
         if (!(callee instanceof UitCallable)) {
-            throw new RuntimeError(expression.paren, "Cannot invoke non-functions.");
+            throw new RuntimeError(paren, "Cannot invoke non-functions.");
         }
 
         UitCallable function = (UitCallable) callee;
         if (arguments.size() != function.argsCount()) {
-            throw new RuntimeError(expression.paren,
+            throw new RuntimeError(paren,
                     "Expected " + function.argsCount() + " arguments but got " + arguments.size() + ".");
         }
 
-        return function.invoke(this, arguments);
+        try {
+            return function.invoke(this, arguments);
+        } catch (RuntimeError error) {
+            throw error.at(paren);
+        }
     }
 
     @Override
@@ -328,11 +451,10 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         } catch (EndOfFileException e) {
             //
         }
-        Integer distance = locals.get(expression);
-        if (distance != null) {
-            environment.assignAt(distance, expression.identifier, input);
+        if (expression.local) {
+            assignLocal(expression, expression.identifier, input);
         } else {
-            globals.assign(expression.identifier, input);
+            global(expression.identifier, expression).assign(expression.identifier, input);
         }
         return input;
     }
@@ -342,13 +464,17 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Object visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        if (expression.numeric && !expression.boxed) {
+            double value = number(expression.value);
+            environment.storeNumberAt(expression.depth, expression.slot, value);
+            return NumberCache.box(value);
+        }
         Object value = evaluate(expression.value);
 
-        Integer distance = locals.get(expression);
-        if (distance != null) {
-            environment.assignAt(distance, expression.identifier, value);
+        if (expression.local) {
+            assignLocal(expression, expression.identifier, value);
         } else {
-            globals.assign(expression.identifier, value);
+            global(expression.identifier, expression).assign(expression.identifier, value);
         }
 
         return value;
@@ -363,14 +489,14 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression.identifier;
             Object previous = evaluate(variable);
 
-            if (previous instanceof Double) {
-                Object current = (double) previous + 1;
+            if (previous instanceof Double || previous instanceof Long) {
+                Object current = previous instanceof Long ? (Object) ((long) previous + 1)
+                        : NumberCache.box((double) previous + 1);
 
-                Integer distance = locals.get(variable);
-                if (distance != null) {
-                    environment.assignAt(distance, variable.identifier, current);
+                if (variable.local) {
+                    assignLocal(variable, variable.identifier, current);
                 } else {
-                    globals.assign(variable.identifier, current);
+                    global(variable.identifier, variable).assign(variable.identifier, current);
                 }
 
                 if ("prefix".equals(expression.mode)) {
@@ -394,14 +520,14 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         if (expression.identifier instanceof Expression.VariableAccessExpression) {
             Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression.identifier;
             Object previous = evaluate(variable);
-            if (previous instanceof Double) {
-                Object current = (double) previous - 1;
+            if (previous instanceof Double || previous instanceof Long) {
+                Object current = previous instanceof Long ? (Object) ((long) previous - 1)
+                        : NumberCache.box((double) previous - 1);
 
-                Integer distance = locals.get(expression);
-                if (distance != null) {
-                    environment.assignAt(distance, variable.identifier, current);
+                if (variable.local) {
+                    assignLocal(variable, variable.identifier, current);
                 } else {
-                    globals.assign(variable.identifier, current);
+                    global(variable.identifier, variable).assign(variable.identifier, current);
                 }
 
                 if ("prefix".equals(expression.mode)) {
@@ -438,16 +564,10 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Object visitUnaryExpression(Expression.UnaryExpression expression) {
+        if (expression.numeric)
+            return NumberCache.box(-number(expression.right));
         Object right = evaluate(expression.right);
-        switch (expression.operator.type) {
-            case NOT:
-                return !isTrue(right);
-            case MINUS:
-                checkNumberOperand(expression.operator, right);
-                return (double) right;
-            default:
-                return null;
-        }
+        return Operators.unary(expression.operator, right);
     }
 
     /**
@@ -455,51 +575,50 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
      */
     @Override
     public Object visitBinaryExpression(Expression.BinaryExpression expression) {
+        if (expression.numeric) {
+            // operand တွေကို box မလုပ်ဘဲ တွက်ပြီး result ကိုပဲ box မယ်။
+            double left = number(expression.left);
+            double right = number(expression.right);
+            if (Resolver.isNumber(expression))
+                return NumberCache.box(Operators.arithmetic(expression.operator, left, right));
+            return Operators.compare(expression.operator, left, right);
+        }
         Object left = evaluate(expression.left);
         Object right = evaluate(expression.right);
+        return Operators.binary(expression.operator, left, right);
+    }
 
-        switch (expression.operator.type) {
-            case PLUS:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left + (double) right;
-            case MINUS:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left - (double) right;
-            case STAR:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left * (double) right;
-            case SLASH:
-                checkNumberOperands(expression.operator, left, right);
-                checkZeroOprand(expression.operator, right);
-                return (double) left / (double) right;
-            case PERCENT:
-                checkNumberOperands(expression.operator, left, right);
-                checkZeroOprand(expression.operator, right);
-                return (double) left % (double) right;
-            case CARET:
-                checkNumberOperands(expression.operator, left, right);
-                return Math.pow((double) left, (double) right);
-            case DOT:
-                return stringify(left) + stringify(right);
-            case GREATER:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left > (double) right;
-            case GREATER_EQUAL:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left >= (double) right;
-            case LESS:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left < (double) right;
-            case LESS_EQUAL:
-                checkNumberOperands(expression.operator, left, right);
-                return (double) left <= (double) right;
-            case NOT_EQUAL:
-                return !isEqual(left, right);
-            case EQUAL:
-                return isEqual(left, right);
-            default:
-                return null;
+    /**
+     * num ပဲ ထွက်နိုင်တဲ့ expression (Resolver.isNumber ဒါမှမဟုတ် type checker က num
+     * လို့ သိထားတာ) ကို Double box မလုပ်ဘဲ တွက်မယ်။
+     *
+     * @param expression
+     * @return
+     */
+    double number(Expression expression) {
+        if (expression instanceof Expression.VariableAccessExpression) {
+            Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression;
+            if (variable.local && !variable.boxed)
+                return environment.numberAt(variable.depth, variable.slot);
+        } else if (expression instanceof Expression.BinaryExpression) {
+            if (expression instanceof Fuser.Arithmetic)
+                return ((Fuser.Arithmetic) expression).number(this);
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            if (binary.numeric) {
+                double left = number(binary.left);
+                return Operators.arithmetic(binary.operator, left, number(binary.right));
+            }
+        } else if (expression instanceof Expression.LiteralExpression) {
+            return ((Expression.LiteralExpression) expression).value.v_number;
+        } else if (expression instanceof Expression.UnaryExpression) {
+            if (expression instanceof Fuser.Negate)
+                return ((Fuser.Negate) expression).number(this);
+            if (((Expression.UnaryExpression) expression).numeric)
+                return -number(((Expression.UnaryExpression) expression).right);
+        } else if (expression instanceof Expression.GroupingExpression) {
+            return number(((Expression.GroupingExpression) expression).expression);
         }
+        return (double) evaluate(expression);
     }
 
     /**
@@ -510,15 +629,42 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         return lookUpVariable(expression.identifier, expression);
     }
 
-    private Object lookUpVariable(Token name, Expression expr) {
-        Integer distance = locals.get(expr);
-        if (distance != null) {
-            return environment.getAt(distance, name.lexeme);
+    private Object lookUpVariable(Token name, Expression.Reference expr) {
+        if (expr.local) {
+            Object value = environment.getAt(expr.depth, expr.slot);
+            return expr.boxed ? ((Environment.Cell) value).get(name) : value;
         } else {
-            return globals.get(name);
+            return global(name, expr).get(name);
         }
     }
 
+    private void assignLocal(Expression.Reference expr, Token name, Object value) {
+        if (expr.checked) {
+            if (expr.boxed) {
+                ((Environment.Cell) environment.getAt(expr.depth, expr.slot)).set(value);
+            } else {
+                environment.setAt(expr.depth, expr.slot, value);
+            }
+        } else if (expr.boxed) {
+            ((Environment.Cell) environment.getAt(expr.depth, expr.slot)).assign(name, value);
+        } else {
+            environment.assignAt(expr.depth, expr.slot, name, value);
+        }
+    }
+
+    /**
+     * global variable ရဲ့ cell ကို node ပေါ်မှာ မှတ်ထားမယ်။ cell က name တစ်ခုအတွက်
+     * တစ်ခုပဲ ရှိလို့ REPL မှာ ပြန် define လုပ်လည်း မှတ်ထားတာ မှန်နေမယ်။
+     */
+    private Environment.Cell global(Token name, Expression.Reference expr) {
+        Environment.Cell cell = expr.cell;
+        if (cell == null) {
+            cell = globals.cell(name.lexeme);
+            expr.cell = cell;
+        }
+        return cell;
+    }
+
     /**
      * statement တွေကို interpret မယ်။
      *
@@ -529,8 +675,39 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         statement.accept(this);
     }
 
-    public void resolve(Expression expr, int depth) {
-        locals.put(expr, depth);
+    /**
+     * resolver က local variable လို့ ဆုံးဖြတ်ထားတဲ့ နေရာကို node ပေါ်မှာ မှတ်မယ်။
+     *
+     * @param expr
+     * @param depth
+     * @param slot
+     */
+    public void resolve(Expression.Reference expr, int depth, int slot) {
+        expr.local = true;
+        expr.depth = depth;
+        expr.slot = slot;
+    }
+
+    /**
+     * resolver က ဆုံးဖြတ်ထားတဲ့ scope depth ကိုပြန်ပေးမယ်။ global ဆိုရင် null
+     *
+     * @param expr
+     * @return
+     */
+    public Integer depth(Expression expr) {
+        if (!(expr instanceof Expression.Reference) || !((Expression.Reference) expr).local)
+            return null;
+        return ((Expression.Reference) expr).depth;
+    }
+
+    /**
+     * local variable ရဲ့ scope ထဲက slot
+     *
+     * @param expr
+     * @return
+     */
+    public int slot(Expression expr) {
+        return ((Expression.Reference) expr).slot;
     }
 
     /**
@@ -545,12 +722,75 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             this.environment = environment;
             for (Statement statement : statements) {
                 execute(statement);
+                if (completion != completion_t.NORMAL)
+                    break;
             }
         } finally {
             this.environment = previous;
         }
     }
 
+    /**
+     * function body ကို interpret မယ်။ JIT အတွက် ဘယ် function run နေလဲ မှတ်ထားမယ်။
+     * return statement ရဲ့ value ကို ပြန်ပေးမယ်။ return မပါရင် (သို့) value
+     * မပါတဲ့ return ဆို null
+     *
+     * @param function
+     * @param environment
+     * @return
+     */
+    public Object executeBody(UitFunction function, Environment environment) {
+        UitFunction previous = this.function;
+        Environment previousEnvironment = functionEnvironment;
+        try {
+            this.function = function;
+            this.functionEnvironment = environment;
+            executeBlock(function.declaration.instructions, environment);
+        } finally {
+            this.function = previous;
+            this.functionEnvironment = previousEnvironment;
+        }
+        completion = completion_t.NORMAL;
+        return takeReturned();
+    }
+
+    /**
+     * ပြန်သုံးလို့ရတဲ့ frame တစ်ခု ယူမယ်။ run ပြီးရင် releaseFrame နဲ့ ပြန်ပေးရမယ်။
+     *
+     * @param parent
+     * @return
+     */
+    public Environment acquireFrame(Environment parent) {
+        if (frameCount == frames.length)
+            frames = Arrays.copyOf(frames, frameCount * 2);
+        Environment frame = frames[frameCount];
+        if (frame == null)
+            frame = frames[frameCount] = new Environment(parent);
+        else
+            frame.reset(parent);
+        frameCount++;
+        return frame;
+    }
+
+    /**
+     * နောက်ဆုံး ယူထားတဲ့ frame ကို ပြန်ပေးမယ်။ ထဲက value တွေကို နောက်တစ်ခါ
+     * acquireFrame မှ ရှင်းမယ်။
+     */
+    public void releaseFrame() {
+        frameCount--;
+    }
+
+    /**
+     * return statement ပေးခဲ့တဲ့ value ကို ယူမယ်။
+     *
+     * @return
+     */
+    Object takeReturned() {
+        Object value = returned;
+        returned = null;
+        return value;
+    }
+
     /**
      * Expression ကနေ value ရအောင်ပြောင်းမယ်။
      *
@@ -561,6 +801,17 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
         return expression.accept(this);
     }
 
+    /**
+     * while / if condition။ fuse လုပ်ထားတဲ့ comparison ဆို boolean ကို တန်းယူမယ်။
+     */
+    private boolean condition(Expression expression) {
+        if (expression instanceof Fuser.Compare)
+            return ((Fuser.Compare) expression).test(environment);
+        if (expression instanceof Fuser.Comparison)
+            return ((Fuser.Comparison) expression).test(this);
+        return Operators.isTrue(evaluate(expression));
+    }
+
     private void loadBuiltins() {
         // native time function -> return Unix Epoch
         globals._define("time", new UitCallable() {
@@ -590,7 +841,7 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
 
             @Override
             public Object invoke(Interpreter interpreter, List<Object> arguments) {
-                return stringify(arguments.get(0));
+                return Operators.stringify(arguments.get(0));
             }
 
             @Override
@@ -621,6 +872,56 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             }
         });
 
+        // num to int (အနောက်က ဒဿမကို ဖြတ်မယ်)
+        globals._define("Num2Int", new UitCallable() {
+            @Override
+            public int argsCount() {
+                return 1;
+            }
+
+            @Override
+            public Object invoke(Interpreter interpreter, List<Object> arguments) {
+                Object value = arguments.get(0);
+                if (value instanceof Long)
+                    return value;
+                if (!(value instanceof Double))
+                    throw new RuntimeError("Argument must be a number.");
+                double number = (double) value;
+                // NaN, Infinity နဲ့ long ထဲ မဆံ့တဲ့ number တွေကို 0 / အစွန်ဆုံး value မပြောင်းဘဲ error ပြမယ်။
+                if (!(number >= -0x1p63 && number < 0x1p63))
+                    throw new RuntimeError("Cannot convert " + Operators.stringify(value) + " to int.");
+                return (long) number;
+            }
+
+            @Override
+            public String toString() {
+                return "[ builtin fn - Num2Int ]";
+            }
+        });
+
+        // int to num
+        globals._define("Int2Num", new UitCallable() {
+            @Override
+            public int argsCount() {
+                return 1;
+            }
+
+            @Override
+            public Object invoke(Interpreter interpreter, List<Object> arguments) {
+                Object value = arguments.get(0);
+                if (value instanceof Long)
+                    return NumberCache.box((long) value);
+                if (value instanceof Double)
+                    return value;
+                return 0.0;
+            }
+
+            @Override
+            public String toString() {
+                return "[ builtin fn - Int2Num ]";
+            }
+        });
+
         globals._define("exit", new UitCallable() {
             @Override
             public int argsCount() {
@@ -644,97 +945,4 @@ public class Interpreter implements Expression.Visitor<Object>, Statement.Visito
             }
         });
     }
-
-    /**
-     * evaluate လုပ်လို့ ရလာတဲ့ object ကို string ပြောင်းမယ်။
-     *
-     * @param object
-     * @return
-     */
-    private String stringify(Object object) {
-        if (object == null)
-            return "null";
-        if (object instanceof Double) {
-            double value = (double) object;
-            if ((value == Math.floor(value)) && !Double.isInfinite(value)) {
-                return String.valueOf((long) value);
-            } else {
-                String text = object.toString();
-                if (text.endsWith(".0")) {
-                    text = text.substring(0, text.length() - 2);
-                }
-                return text;
-            }
-        }
-        return object.toString();
-    }
-
-    /**
-     * value တစ်ခုကို boolean true ဟုတ် မဟုတ် စစ်မယ်။ null ဆို false, bool ဆို သူ့
-     * value အတိုင်း ကျန်တာက exists သဘောနဲ့ true
-     *
-     * @param value
-     * @return
-     */
-    private boolean isTrue(Object value) {
-        if (value == null)
-            return false;
-        if (value instanceof Boolean)
-            return (boolean) value;
-        return true;
-    }
-
-    /**
-     * unary operand က number ဖြစ်ကြောင်း စစ်မယ်။
-     *
-     * @param operator
-     * @param operand
-     */
-    private void checkNumberOperand(Token operator, Object operand) {
-        if (operand instanceof Double)
-            return;
-        throw new RuntimeError(operator, "Operand must be a number.");
-    }
-
-    /**
-     * binary operands က number ဖြစ်ကြောင်း စစ်မယ်။
-     *
-     * @param operator
-     * @param left
-     * @param right
-     */
-    private void checkNumberOperands(Token operator, Object left, Object right) {
-        if (left instanceof Double && right instanceof Double)
-            return;
-
-        throw new RuntimeError(operator, "Operands must be numbers.");
-    }
-
-    /**
-     * အစား, ဘာညာအတွက် zero ဟုတ် မဟုတ် စစ်မယ်။
-     *
-     * @param operator
-     * @param right
-     */
-    private void checkZeroOprand(Token operator, Object right) {
-        if ((double) right != 0)
-            return;
-        throw new RuntimeError(operator, "Divider must not be zero.");
-    }
-
-    /**
-     * Object (value) နှစ်ခုတူမတူစစ်မယ်။
-     *
-     * @param a
-     * @param b
-     * @return
-     */
-    private boolean isEqual(Object a, Object b) {
-        if (a == null && b == null)
-            return true;
-        if (a == null)
-            return false;
-
-        return a.equals(b);
-    }
 }
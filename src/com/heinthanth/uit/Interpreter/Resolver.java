@@ -1,12 +1,19 @@
 package com.heinthanth.uit.Interpreter;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Lexer.value_t;
 import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
 import com.heinthanth.uit.Runtime.Statement;
 import com.heinthanth.uit.Runtime.Expression.GetExpression;
 import com.heinthanth.uit.Runtime.Expression.SetExpression;
@@ -15,6 +22,7 @@ import com.heinthanth.uit.Runtime.Statement.ClassStatement;
 import com.heinthanth.uit.Runtime.Statement.FunctionStatement;
 import com.heinthanth.uit.Runtime.Statement.VariableDeclarationStatement;
 import com.heinthanth.uit.Utils.ErrorHandler;
+import com.heinthanth.uit.Utils.TypeMapper;
 
 public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Void> {
     /**
@@ -30,8 +38,65 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
     // scope list
     private final Stack<Map<String, Boolean>> scopes = new Stack<>();
 
+    // scope တစ်ခုချင်းစီထဲက variable တွေ (slot က declare လုပ်တဲ့ အစဉ်)
+    private final Stack<Map<String, Variable>> variables = new Stack<>();
+
     private function_t currentFunction = function_t.NONE;
 
+    // resolve နေတဲ့ function ရဲ့ capture တွေ။ top-level code ဆို null
+    private FunctionScope currentScope = null;
+
+    // top-level မှာ ကြေညာထားတဲ့ const တွေ။ value ကို compile time မှာ တွက်လို့ရရင်
+    // constants ထဲ ထည့်မယ်။
+    private final Map<String, VariableDeclarationStatement> globalConstants = new HashMap<>();
+    private final Map<String, Object> constants = new HashMap<>();
+
+    /**
+     * scope ထဲက local variable တစ်ခု။ function တစ်ခုက capture လုပ်ပြီး value
+     * ပြောင်းနိုင်ရင် Environment.Cell နဲ့ ထုပ်ရမယ်။
+     */
+    private static final class Variable {
+        final int slot;
+        // ကြေညာတဲ့ statement။ function parameter ဆို parameter index ပါမယ်။
+        final Statement declaration;
+        final int parameter;
+        final List<Expression.Reference> references = new ArrayList<>();
+        boolean captured = false;
+        boolean assigned = false;
+        // ကိုယ့် function / class body ကို resolve နေတုန်း (value မထည့်ရသေး)
+        boolean initializing = false;
+        // num လို့ ကြေညာထားတဲ့ local variable / parameter (class property မပါ)
+        boolean numeric = false;
+        // compile time မှာ value ကို သိတဲ့ const variable ဆို သူ့ value
+        Object value = null;
+
+        Variable(int slot, Statement declaration, int parameter) {
+            this.slot = slot;
+            this.declaration = declaration;
+            this.parameter = parameter;
+        }
+    }
+
+    /**
+     * function တစ်ခု အပြင်ဘက်ကနေ သုံးတဲ့ variable တွေ။ function ဖန်တီးချိန်မှာ
+     * ဒီ variable တွေကိုပဲ closure ထဲ ကူးမယ်။
+     */
+    private static final class FunctionScope {
+        final FunctionScope enclosing;
+        // function ရဲ့ ပထမဆုံး scope (method ဆို class scope) ရဲ့ index
+        final int base;
+        final Map<Variable, Integer> captures = new LinkedHashMap<>();
+        // function ကြေညာတဲ့နေရာကနေ ဖတ်ရမယ့် (distance, slot) အတွဲတွေ
+        final List<Integer> sources = new ArrayList<>();
+        // function ထဲမှာ function / class ကြေညာရင် frame ကို ပြန်မသုံးဘူး
+        boolean declares = false;
+
+        FunctionScope(FunctionScope enclosing, int base) {
+            this.enclosing = enclosing;
+            this.base = base;
+        }
+    }
+
     /**
      * interpreter ကို initialize လုပ်ဖို့
      *
@@ -54,6 +119,12 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
 
     @Override
     public Void visitBlockStatement(Statement.BlockStatement statement) {
+        // ဘာမှ declare မလုပ်ရင် scope မလိုဘူး။
+        if (!declares(statement.statements)) {
+            statement.scoped = false;
+            resolve(statement.statements);
+            return null;
+        }
         // scope အသစ်လုပ်မယ်။
         beginScope();
         resolve(statement.statements);
@@ -62,6 +133,16 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
         return null;
     }
 
+    private static boolean declares(List<Statement> statements) {
+        for (Statement statement : statements) {
+            if (statement instanceof Statement.VariableDeclarationStatement
+                    || statement instanceof Statement.FunctionStatement
+                    || statement instanceof Statement.ClassStatement)
+                return true;
+        }
+        return false;
+    }
+
     @Override
     public Void visitThisExpression(ThisExpression expression) {
         if (currentClass == class_t.NONE) {
@@ -74,21 +155,29 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
 
     @Override
     public Void visitClassStatement(ClassStatement statement) {
+        if (currentScope != null)
+            currentScope.declares = true;
         class_t enclosingClass = currentClass;
         currentClass = class_t.CLASS;
 
-        declare(statement.identifier);
+        Variable klass = declare(statement.identifier, statement, -1);
         define(statement.identifier);
 
         if (statement.parent != null && statement.identifier.lexeme.equals(statement.parent.identifier.lexeme)) {
             errorHandler.reportError(statement.parent.identifier, "A class can't inherit from itself.");
         }
 
+        // method တွေက class ကို capture လုပ်ရင် class မဆောက်ရသေးလို့
+        if (klass != null)
+            klass.initializing = true;
+
         beginScope();
         scopes.peek().put("this", true);
+        // bind လုပ်တဲ့ environment မှာ this တစ်ခုတည်းရှိလို့ slot 0
+        variables.peek().put("this", new Variable(0, null, -1));
 
         for (Map.Entry<VariableDeclarationStatement, Token> var : statement.properties.entrySet()) {
-            declare(var.getKey().identifier);
+            declare(var.getKey().identifier, var.getKey(), -1);
             if (var.getKey().initializer != null)
                 resolve(var.getKey().initializer);
             define(var.getKey().identifier);
@@ -103,6 +192,8 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
         }
 
         endScope();
+        if (klass != null)
+            klass.initializing = false;
 
         currentClass = enclosingClass;
         return null;
@@ -110,55 +201,91 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
 
     @Override
     public Void visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
-        declare(statement.identifier);
+        Variable variable = declare(statement.identifier, statement, -1);
+        if (variable != null)
+            variable.numeric = statement.type.type == token_t.VT_NUMBER;
         if (statement.initializer != null)
             resolve(statement.initializer);
         define(statement.identifier);
+        if (statement.constant)
+            resolveConstant(statement, variable);
         return null;
     }
 
+    /**
+     * const ရဲ့ initializer ကို compile time မှာ တွက်ကြည့်မယ်။ ကြေညာထားတဲ့ type
+     * နဲ့ ကိုက်မှ value ကို မှတ်မယ်။ မကိုက်ရင် type checker က error ပြမယ်။
+     */
+    private void resolveConstant(VariableDeclarationStatement statement, Variable variable) {
+        if (statement.initializer == null) {
+            errorHandler.reportError(statement.identifier,
+                    "Const variable '" + statement.identifier.lexeme + "' must be initialized.");
+            return;
+        }
+        Object value = constant(statement.initializer);
+        if (value == null || TypeMapper.Java2Uit.get(value.getClass()) != statement.type.type)
+            return;
+        if (variable != null)
+            variable.value = value;
+        else if (globalConstants.get(statement.identifier.lexeme) == statement)
+            constants.put(statement.identifier.lexeme, value);
+    }
+
     @Override
     public Void visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
         if (!scopes.isEmpty() && scopes.peek().get(expression.identifier.lexeme) == Boolean.FALSE) {
             errorHandler.reportError(expression.identifier, "Can't read local variable in its own initializer.");
         }
-        resolveLocal(expression, expression.identifier);
+        Variable variable = resolveLocal(expression, expression.identifier);
+        Object value = variable != null ? variable.value : constants.get(expression.identifier.lexeme);
+        if (value != null)
+            expression.constant = literal(value, expression.identifier);
         return null;
     }
 
     @Override
     public Void visitInputExpression(Expression.InputExpression expression) {
-        resolveLocal(expression, expression.identifier);
+        assign(resolveLocal(expression, expression.identifier), expression.identifier);
+        // input က string ပဲ ရေးလို့ generic path နဲ့ပဲ assign မယ်။
+        expression.numeric = false;
         return null;
     }
 
     @Override
     public Void visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
         resolve(expression.value);
-        resolveLocal(expression, expression.identifier);
+        assign(resolveLocal(expression, expression.identifier), expression.identifier);
+        expression.numeric = expression.numeric && isNumber(expression.value);
         return null;
     }
 
     @Override
     public Void visitIncrementExpression(Expression.IncrementExpression expression) {
         Expression.VariableAccessExpression var = (Expression.VariableAccessExpression) expression.identifier;
-        resolveLocal(var, var.identifier);
+        assign(resolveLocal(var, var.identifier), var.identifier);
         return null;
     }
 
     @Override
     public Void visitDecrementExpression(Expression.DecrementExpression expression) {
         Expression.VariableAccessExpression var = (Expression.VariableAccessExpression) expression.identifier;
-        resolveLocal(var, var.identifier);
+        assign(resolveLocal(var, var.identifier), var.identifier);
         return null;
     }
 
     @Override
     public Void visitFunctionStatement(Statement.FunctionStatement stmt) {
-        declare(stmt.identifier);
+        if (currentScope != null)
+            currentScope.declares = true;
+        Variable function = declare(stmt.identifier, stmt, -1);
         define(stmt.identifier);
 
+        // recursive function က ကိုယ့်ကိုယ်ကို capture လုပ်ရင် function မဆောက်ရသေးလို့
+        if (function != null)
+            function.initializing = true;
         resolveFunction(stmt, function_t.FUNCTION);
+        if (function != null)
+            function.initializing = false;
         return null;
     }
 
@@ -195,6 +322,9 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
                 errorHandler.reportError(stmt.ret, "Can't return a value from a constructor.");
             }
             resolve(stmt.value);
+            // return f(...) ဆို caller ရဲ့ frame ကို ပြန်သုံးလို့ရတယ်။
+            if (stmt.value instanceof Expression.CallExpression && currentFunction != function_t.INITIALIZER)
+                stmt.tailCall = true;
         }
         return null;
     }
@@ -210,6 +340,24 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
     public Void visitBinaryExpression(Expression.BinaryExpression expression) {
         resolve(expression.left);
         resolve(expression.right);
+        switch (expression.operator.type) {
+            case PLUS:
+            case MINUS:
+            case STAR:
+            case SLASH:
+            case PERCENT:
+            case CARET:
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+            case EQUAL:
+            case NOT_EQUAL:
+                expression.numeric = isNumber(expression.left) && isNumber(expression.right);
+                break;
+            default:
+                break;
+        }
         return null;
     }
 
@@ -266,6 +414,7 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
     @Override
     public Void visitUnaryExpression(Expression.UnaryExpression expression) {
         resolve(expression.right);
+        expression.numeric = expression.operator.type == token_t.MINUS && isNumber(expression.right);
         return null;
     }
 
@@ -275,11 +424,28 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
      * @param statements
      */
     public void resolve(List<Statement> statements) {
+        // top-level const တွေကို function body တွေထဲကနေ assign တာကို စစ်ဖို့ အရင်မှတ်မယ်။
+        if (scopes.isEmpty() && currentFunction == function_t.NONE) {
+            for (Statement statement : statements) {
+                if (statement instanceof VariableDeclarationStatement
+                        && ((VariableDeclarationStatement) statement).constant)
+                    globalConstants.putIfAbsent(((VariableDeclarationStatement) statement).identifier.lexeme,
+                            (VariableDeclarationStatement) statement);
+            }
+        }
         for (Statement statement : statements) {
             resolve(statement);
         }
     }
 
+    /**
+     * resolve ခဲ့တဲ့ code ရဲ့ top-level မှာ ကြေညာထားတဲ့ const တွေ။ REPL မှာ input
+     * run ခွင့်ရရင် interpreter ထဲ မှတ်ထားပြီး နောက် input တွေမှာ စစ်ဖို့
+     */
+    public Set<String> constants() {
+        return globalConstants.keySet();
+    }
+
     /**
      * fake interpret မယ်။
      */
@@ -294,40 +460,127 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
         expr.accept(this);
     }
 
-    private void resolveLocal(Expression expr, Token name) {
+    /**
+     * local variable ဆို depth, slot ကို node ပေါ်မှာ မှတ်မယ်။ function အပြင်ဘက်က
+     * variable ဆို function ရဲ့ closure environment ထဲက slot ကို ပေးမယ်။
+     *
+     * @return local variable၊ global ဆို null
+     */
+    private Variable resolveLocal(Expression.Reference expr, Token name) {
         for (int i = scopes.size() - 1; i >= 0; i--) {
             if (scopes.get(i).containsKey(name.lexeme)) {
-                interpreter.resolve(expr, scopes.size() - 1 - i);
-                return;
+                Variable variable = variables.get(i).get(name.lexeme);
+                variable.references.add(expr);
+                expr.numeric = variable.numeric;
+                if (currentScope == null || i >= currentScope.base) {
+                    interpreter.resolve(expr, scopes.size() - 1 - i, variable.slot);
+                } else {
+                    // closure environment က function ရဲ့ scope တွေ အပြင်ဘက်မှာ
+                    interpreter.resolve(expr, scopes.size() - currentScope.base, capture(currentScope, variable, i));
+                }
+                return variable;
             }
         }
+        return null;
+    }
+
+    /**
+     * scope index မှာ ကြေညာထားတဲ့ variable ကို function ရဲ့ closure ထဲ ထည့်မယ်။
+     * အလယ်က function တွေကလည်း ဆက်ပေးနိုင်အောင် capture လုပ်ရမယ်။
+     *
+     * @return closure environment ထဲက slot
+     */
+    private int capture(FunctionScope function, Variable variable, int index) {
+        Integer slot = function.captures.get(variable);
+        if (slot != null)
+            return slot;
+        variable.captured = true;
+        if (variable.initializing)
+            variable.assigned = true;
+        FunctionScope outer = function.enclosing;
+        if (outer == null || index >= outer.base) {
+            function.sources.add(function.base - 1 - index);
+            function.sources.add(variable.slot);
+        } else {
+            int source = capture(outer, variable, index);
+            function.sources.add(function.base - outer.base);
+            function.sources.add(source);
+        }
+        slot = function.captures.size();
+        function.captures.put(variable, slot);
+        return slot;
+    }
+
+    private static void assigned(Variable variable) {
+        if (variable != null)
+            variable.assigned = true;
+    }
+
+    /**
+     * variable ထဲကို value ထည့်မယ်။ const ဆို error ပြမယ်။ global ဆို REPL
+     * ရဲ့ အရင် input တွေက ကြေညာခဲ့တဲ့ const တွေကိုလည်း စစ်မယ်။
+     *
+     * @param variable local variable၊ global ဆို null
+     */
+    private void assign(Variable variable, Token name) {
+        assigned(variable);
+        if (variable != null ? variable.declaration instanceof VariableDeclarationStatement
+                && ((VariableDeclarationStatement) variable.declaration).constant
+                : globalConstants.containsKey(name.lexeme) || interpreter.constants.contains(name.lexeme)) {
+            errorHandler.reportError(name, "Cannot assign to const variable '" + name.lexeme + "'.");
+        }
     }
 
     private void resolveFunction(Statement.FunctionStatement function, function_t type) {
         function_t enclosingFunction = currentFunction;
         currentFunction = type;
+        FunctionScope enclosingScope = currentScope;
+        // method ဆို this ရှိတဲ့ class scope ကလည်း method ရဲ့ scope
+        currentScope = new FunctionScope(enclosingScope,
+                type == function_t.FUNCTION ? scopes.size() : scopes.size() - 1);
 
         beginScope();
-        for (List<Token> param : function.parameters) {
-            declare(param.get(1));
-            define(param.get(1));
+        for (int i = 0; i < function.parameters.size(); i++) {
+            Token param = function.parameters.get(i).get(1);
+            Variable parameter = declare(param, function, i);
+            if (parameter != null)
+                parameter.numeric = function.parameters.get(i).get(0).type == token_t.VT_NUMBER;
+            define(param);
         }
         resolve(function.instructions);
         endScope();
+
+        int[] captures = new int[currentScope.sources.size()];
+        for (int i = 0; i < captures.length; i++) {
+            captures[i] = currentScope.sources.get(i);
+        }
+        function.captures = captures;
+        // frame ကို ဘယ်သူမှ မကိုင်ထားနိုင်ရင် call ပြီးတာနဲ့ နောက် call အတွက် ပြန်သုံးမယ်။
+        function.reuseFrame = !currentScope.declares;
+        currentScope = enclosingScope;
         currentFunction = enclosingFunction;
     }
 
     /**
      * variable declare မယ်။
+     *
+     * @return local variable၊ global ဆို null
      */
-    private void declare(Token name) {
-        if (scopes.isEmpty())
-            return;
+    private Variable declare(Token name, Statement declaration, int parameter) {
+        if (scopes.isEmpty()) {
+            VariableDeclarationStatement constant = globalConstants.get(name.lexeme);
+            if (constant != null ? constant != declaration : interpreter.constants.contains(name.lexeme))
+                errorHandler.reportError(name, "Cannot redeclare const variable '" + name.lexeme + "'.");
+            return null;
+        }
         Map<String, Boolean> scope = scopes.peek();
         if (scope.containsKey(name.lexeme)) {
             errorHandler.reportError(name, "variable with name '" + name.lexeme + "' exists in this scope.");
         }
         scope.put(name.lexeme, false);
+        Map<String, Variable> declared = variables.peek();
+        declared.putIfAbsent(name.lexeme, new Variable(declared.size(), declaration, parameter));
+        return declared.get(name.lexeme);
     }
 
     /**
@@ -344,12 +597,139 @@ public class Resolver implements Expression.Visitor<Void>, Statement.Visitor<Voi
      */
     private void beginScope() {
         scopes.push(new HashMap<String, Boolean>());
+        variables.push(new HashMap<String, Variable>());
     }
 
     /**
-     * scope ပြန်ဖျက်မယ်။
+     * scope ပြန်ဖျက်မယ်။ capture လုပ်ထားပြီး value ပြောင်းတဲ့ variable တွေကို
+     * closure တွေနဲ့ မျှသုံးလို့ရအောင် cell နဲ့ ထုပ်ဖို့ မှတ်မယ်။
      */
     private void endScope() {
         scopes.pop();
+        for (Variable variable : variables.pop().values()) {
+            if (variable.captured && variable.assigned) {
+                box(variable);
+            } else if (variable.numeric && variable.declaration instanceof VariableDeclarationStatement) {
+                // cell နဲ့ မထုပ်ရတဲ့ num variable ကို box မလုပ်ဘဲ သိမ်းမယ်။
+                ((VariableDeclarationStatement) variable.declaration).numeric = true;
+            }
+        }
+    }
+
+    /**
+     * static အရ num ပဲ ထွက်နိုင်တဲ့ expression လား။ num literal၊ num variable နဲ့
+     * အဲ့ဒါတွေကို + - * / % ^ နဲ့ တွက်ထားတာတွေ။ resolve ပြီးသား node တွေကိုပဲ
+     * စစ်လို့ရတယ်။
+     *
+     * @param expression
+     * @return
+     */
+    public static boolean isNumber(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression)
+            return ((Expression.LiteralExpression) expression).value.v_type == value_t.VT_NUMBER;
+        if (expression instanceof Expression.VariableAccessExpression)
+            return ((Expression.VariableAccessExpression) expression).numeric;
+        if (expression instanceof Expression.GroupingExpression)
+            return isNumber(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.UnaryExpression)
+            return ((Expression.UnaryExpression) expression).numeric;
+        if (expression instanceof Expression.BinaryExpression) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            switch (binary.operator.type) {
+                case GREATER:
+                case GREATER_EQUAL:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL:
+                case NOT_EQUAL:
+                    return false;
+                default:
+                    return binary.numeric;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * compile time မှာ value ကို သိနိုင်တဲ့ expression ဆို value ကို ပြန်ပေးမယ်။
+     * literal၊ value သိပြီးသား const နဲ့ အဲ့ဒါတွေကို operator တွေနဲ့ တွက်ထားတာတွေ။
+     * runtime error တက်မယ့် expression (eg. 1 / 0) ဆို run တဲ့အချိန်မှ error
+     * ပြဖို့ null ပြန်မယ်။
+     *
+     * @param expression
+     * @return value၊ မသိရင် null
+     */
+    public static Object constant(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression)
+            return ((Expression.LiteralExpression) expression).value.getValue();
+        if (expression instanceof Expression.VariableAccessExpression) {
+            Token constant = ((Expression.VariableAccessExpression) expression).constant;
+            return constant == null ? null : constant.getValue();
+        }
+        if (expression instanceof Expression.GroupingExpression)
+            return constant(((Expression.GroupingExpression) expression).expression);
+        try {
+            if (expression instanceof Expression.UnaryExpression) {
+                Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+                Object right = constant(unary.right);
+                return right == null ? null : Operators.unary(unary.operator, right);
+            }
+            if (expression instanceof Expression.BinaryExpression) {
+                Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+                Object left = constant(binary.left);
+                Object right = left == null ? null : constant(binary.right);
+                return right == null ? null : Operators.binary(binary.operator, left, right);
+            }
+        } catch (RuntimeError error) {
+            return null;
+        }
+        if (expression instanceof Expression.LogicalExpression) {
+            Expression.LogicalExpression logical = (Expression.LogicalExpression) expression;
+            Object left = constant(logical.left);
+            if (left == null)
+                return null;
+            if (logical.operator.type == token_t.OR ? Operators.isTrue(left) : !Operators.isTrue(left))
+                return left;
+            return constant(logical.right);
+        }
+        return null;
+    }
+
+    /**
+     * value ကို at နေရာမှာ ရေးထားတဲ့ literal token အဖြစ် ပြောင်းမယ်။
+     *
+     * @param value constant() က ပြန်ပေးတဲ့ value
+     * @param at    error ပြရင် သုံးမယ့် line, col
+     * @return
+     */
+    public static Token literal(Object value, Token at) {
+        String lexeme = Operators.stringify(value);
+        if (value instanceof Double)
+            return new Token(token_t.NUMBER_LITERAL, lexeme, (double) value, at.line, at.col);
+        if (value instanceof Long)
+            return new Token(token_t.INT_LITERAL, lexeme, (long) value, at.line, at.col);
+        if (value instanceof Boolean)
+            return new Token(token_t.BOOLEAN_LITERAL, lexeme, (boolean) value, at.line, at.col);
+        return new Token(token_t.STRING_LITERAL, lexeme, (String) value, at.line, at.col);
+    }
+
+    private static void box(Variable variable) {
+        for (Expression.Reference reference : variable.references) {
+            reference.boxed = true;
+        }
+        if (variable.declaration instanceof VariableDeclarationStatement) {
+            ((VariableDeclarationStatement) variable.declaration).boxed = true;
+        } else if (variable.declaration instanceof ClassStatement) {
+            ((ClassStatement) variable.declaration).boxed = true;
+        } else if (variable.declaration instanceof FunctionStatement) {
+            FunctionStatement function = (FunctionStatement) variable.declaration;
+            if (variable.parameter < 0) {
+                function.boxed = true;
+            } else {
+                if (function.boxedParameters == null)
+                    function.boxedParameters = new boolean[function.parameters.size()];
+                function.boxedParameters[variable.parameter] = true;
+            }
+        }
     }
 }
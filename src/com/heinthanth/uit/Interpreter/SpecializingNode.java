@@ -0,0 +1,400 @@
+package com.heinthanth.uit.Interpreter;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Runtime.NumberCache;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+
+/**
+ * closure engine ရဲ့ operator node တွေ။ စ run ချိန်မှာ operand type တွေကို
+ * မှတ်ထားပြီး warm-up ပြီးရင် တွေ့ခဲ့တဲ့ type (num, string, bool) တစ်မျိုးတည်း
+ * အတွက် fast path ကို ကိုယ့်ဘာသာ ပြောင်းသုံးမယ်။ fast path ရဲ့ guard မကိုက်တဲ့
+ * value တစ်ခါရောက်လာရင် generic (Operators) path ကို အပြီးပြောင်းမယ်။ result
+ * နဲ့ error message တွေက Operators နဲ့ အတူတူပဲ။
+ */
+abstract class SpecializingNode implements ClosureCompiler.Evaluator {
+    // node ရဲ့ state / တွေ့ခဲ့တဲ့ operand type
+    static final int UNINITIALIZED = 0;
+    static final int NUM = 1;
+    static final int STRING = 2;
+    static final int BOOLEAN = 3;
+    static final int GENERIC = 4;
+
+    /**
+     * specialize မလုပ်ခင် type ကြည့်မယ့် အကြိမ်
+     */
+    static final int WARMUP = 8;
+
+    // UNINITIALIZED ဆို warm-up လုပ်နေတုန်း
+    int state = UNINITIALIZED;
+
+    private int observed = UNINITIALIZED;
+    private int samples = 0;
+
+    static int kindOf(Object value) {
+        if (value instanceof Double)
+            return NUM;
+        if (value instanceof String)
+            return STRING;
+        if (value instanceof Boolean)
+            return BOOLEAN;
+        return GENERIC;
+    }
+
+    /**
+     * warm-up တုန်း operand type ကို မှတ်မယ်။ အကြိမ်ပြည့်ရင် တစ်မျိုးတည်း
+     * တွေ့ခဲ့ပြီး node က support လုပ်တဲ့ type ဆို အဲ့ဒီ path ကို ပြောင်းမယ်။
+     */
+    final void observe(int kind) {
+        if (observed == UNINITIALIZED) {
+            observed = kind;
+        } else if (observed != kind) {
+            observed = GENERIC;
+        }
+        if (++samples >= WARMUP) {
+            state = supports(observed) ? observed : GENERIC;
+        }
+    }
+
+    /**
+     * guard မကိုက်တော့ရင် generic node အဖြစ် ပြန်ပြောင်းမယ်။
+     */
+    final void deoptimize() {
+        state = GENERIC;
+    }
+
+    abstract boolean supports(int kind);
+
+    /**
+     * binary operator node
+     */
+    abstract static class Binary extends SpecializingNode {
+        final ClosureCompiler.Evaluator left;
+        final ClosureCompiler.Evaluator right;
+        final Token operator;
+
+        Binary(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        public final Object evaluate(Environment environment) {
+            Object l = left.evaluate(environment);
+            Object r = right.evaluate(environment);
+            switch (state) {
+                case NUM:
+                    if (l instanceof Double && r instanceof Double)
+                        return num((double) l, (double) r);
+                    break;
+                case STRING:
+                    if (l instanceof String && r instanceof String)
+                        return string((String) l, (String) r);
+                    break;
+                case BOOLEAN:
+                    if (l instanceof Boolean && r instanceof Boolean)
+                        return bool((boolean) l, (boolean) r);
+                    break;
+                case GENERIC:
+                    return generic(l, r);
+                default: {
+                    int kind = kindOf(l);
+                    observe(kind == kindOf(r) ? kind : GENERIC);
+                    return generic(l, r);
+                }
+            }
+            deoptimize();
+            return generic(l, r);
+        }
+
+        Object num(double l, double r) {
+            return generic(l, r);
+        }
+
+        Object string(String l, String r) {
+            return generic(l, r);
+        }
+
+        Object bool(boolean l, boolean r) {
+            return generic(l, r);
+        }
+
+        Object generic(Object l, Object r) {
+            return Operators.binary(operator, l, r);
+        }
+    }
+
+    /**
+     * + - * / % > >= < <= လို number ပဲ လက်ခံတဲ့ operator
+     */
+    abstract static class Numeric extends Binary {
+        Numeric(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        boolean supports(int kind) {
+            return kind == NUM;
+        }
+    }
+
+    static final class Add extends Numeric {
+        Add(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return NumberCache.box(l + r);
+        }
+    }
+
+    static final class Subtract extends Numeric {
+        Subtract(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return NumberCache.box(l - r);
+        }
+    }
+
+    static final class Multiply extends Numeric {
+        Multiply(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return NumberCache.box(l * r);
+        }
+    }
+
+    static final class Divide extends Numeric {
+        Divide(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            if (r == 0)
+                throw new RuntimeError(operator, "Divider must not be zero.");
+            return NumberCache.box(l / r);
+        }
+    }
+
+    static final class Modulo extends Numeric {
+        Modulo(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            if (r == 0)
+                throw new RuntimeError(operator, "Divider must not be zero.");
+            return NumberCache.box(Operators.modulo(l, r));
+        }
+    }
+
+    static final class Greater extends Numeric {
+        Greater(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return l > r;
+        }
+    }
+
+    static final class GreaterEqual extends Numeric {
+        GreaterEqual(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return l >= r;
+        }
+    }
+
+    static final class Less extends Numeric {
+        Less(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return l < r;
+        }
+    }
+
+    static final class LessEqual extends Numeric {
+        LessEqual(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return l <= r;
+        }
+    }
+
+    /**
+     * string concat (.) ။ string နှစ်ခုဆို stringify မလိုဘူး။ number နှစ်ခုဆို
+     * Operators.stringify ကိုပဲ သုံးမယ်။
+     */
+    static final class Concat extends Binary {
+        Concat(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator) {
+            super(left, right, operator);
+        }
+
+        @Override
+        boolean supports(int kind) {
+            return kind == NUM || kind == STRING;
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return Operators.stringify(l) + Operators.stringify(r);
+        }
+
+        @Override
+        Object string(String l, String r) {
+            return l.concat(r);
+        }
+
+        @Override
+        Object generic(Object l, Object r) {
+            return Operators.stringify(l) + Operators.stringify(r);
+        }
+    }
+
+    /**
+     * == နဲ့ != ။ Operators.isEqual က equals() နဲ့ စစ်တာမို့ num path မှာလည်း
+     * NaN, -0 အတွက် Double.equals နဲ့ ရလဒ်တူအောင် bit တွေ နှိုင်းယှဉ်မယ်။
+     */
+    static final class Equal extends Binary {
+        private final boolean negate;
+
+        Equal(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, Token operator, boolean negate) {
+            super(left, right, operator);
+            this.negate = negate;
+        }
+
+        @Override
+        boolean supports(int kind) {
+            return kind != GENERIC;
+        }
+
+        @Override
+        Object num(double l, double r) {
+            return (Double.doubleToLongBits(l) == Double.doubleToLongBits(r)) != negate;
+        }
+
+        @Override
+        Object string(String l, String r) {
+            return l.equals(r) != negate;
+        }
+
+        @Override
+        Object bool(boolean l, boolean r) {
+            return (l == r) != negate;
+        }
+
+        @Override
+        Object generic(Object l, Object r) {
+            return Operators.isEqual(l, r) != negate;
+        }
+    }
+
+    /**
+     * and / or ။ left value က bool ပဲ ဖြစ်နေရင် isTrue မလိုဘဲ တန်းစစ်မယ်။
+     */
+    static final class Logical extends SpecializingNode {
+        private final ClosureCompiler.Evaluator left;
+        private final ClosureCompiler.Evaluator right;
+        private final boolean or;
+
+        Logical(ClosureCompiler.Evaluator left, ClosureCompiler.Evaluator right, boolean or) {
+            this.left = left;
+            this.right = right;
+            this.or = or;
+        }
+
+        @Override
+        boolean supports(int kind) {
+            return kind == BOOLEAN;
+        }
+
+        @Override
+        public Object evaluate(Environment environment) {
+            Object value = left.evaluate(environment);
+            boolean truth;
+            if (state == BOOLEAN && value instanceof Boolean) {
+                truth = (boolean) value;
+            } else {
+                if (state == BOOLEAN) {
+                    deoptimize();
+                } else if (state == UNINITIALIZED) {
+                    observe(kindOf(value));
+                }
+                truth = Operators.isTrue(value);
+            }
+            return truth == or ? value : right.evaluate(environment);
+        }
+    }
+
+    /**
+     * ++ / -- ။ variable ကို ဘယ်လို ဖတ်/ရေးမလဲဆိုတာ ClosureCompiler က ပေးမယ်။
+     */
+    abstract static class Step extends SpecializingNode {
+        private final Token operator;
+        private final double delta;
+        private final boolean prefix;
+        private final String verb;
+
+        Step(Token operator, double delta, boolean prefix, String verb) {
+            this.operator = operator;
+            this.delta = delta;
+            this.prefix = prefix;
+            this.verb = verb;
+        }
+
+        abstract Object read(Environment environment);
+
+        abstract void write(Environment environment, Object value);
+
+        @Override
+        boolean supports(int kind) {
+            return kind == NUM;
+        }
+
+        @Override
+        public final Object evaluate(Environment environment) {
+            Object previous = read(environment);
+            if (state == NUM && previous instanceof Double) {
+                Object current = NumberCache.box((double) previous + delta);
+                write(environment, current);
+                return prefix ? current : previous;
+            }
+            if (state == NUM) {
+                deoptimize();
+            } else if (state == UNINITIALIZED) {
+                observe(kindOf(previous));
+            }
+            Object current;
+            if (previous instanceof Long) {
+                current = (long) previous + (long) delta;
+            } else if (previous instanceof Double) {
+                current = NumberCache.box((double) previous + delta);
+            } else {
+                throw new RuntimeError(operator, "Cannot " + verb + " non-number.");
+            }
+            write(environment, current);
+            return prefix ? current : previous;
+        }
+    }
+}
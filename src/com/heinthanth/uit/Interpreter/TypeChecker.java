@@ -0,0 +1,515 @@
+package com.heinthanth.uit.Interpreter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Lexer.value_t;
+import com.heinthanth.uit.Optimizer.Rewriter;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.Statement.FunctionStatement;
+import com.heinthanth.uit.Runtime.Statement.VariableDeclarationStatement;
+import com.heinthanth.uit.Utils.ErrorHandler;
+import com.heinthanth.uit.Utils.TypeMapper;
+
+/**
+ * resolver နောက်မှာ run မယ့် static type check ။ expression တစ်ခုချင်းစီက num, int,
+ * string, boolean ထဲက ဘာ type ထွက်မလဲ သေချာရင် assign / declare / return တွေကို
+ * run မလုပ်ခင် စစ်မယ်။ မကိုက်ရင် error တက်မယ်၊ ကိုက်ရင် node ပေါ်မှာ checked လို့
+ * မှတ်ပြီး engine တွေက runtime check ကို ကျော်မယ်။ type မသေချာရင် (null)
+ * runtime မှာပဲ အရင်လို စစ်မယ်။ operator node တွေမှာလည်း operand type ကို မှတ်ထားလို့
+ * engine တွေက operand type မစစ်တဲ့ node ကို ရွေးလို့ရမယ်။
+ *
+ * global variable တွေက REPL မှာ ဒါမှမဟုတ် မ run ဖြစ်တဲ့ branch ထဲမှာ တခြား type နဲ့
+ * ပြန် declare လို့ရလို့ local variable / parameter တွေရဲ့ type ကိုပဲ ယုံမယ်။
+ *
+ * int ဖြစ်ရမယ့်နေရာ (int variable ကို declare / assign၊ int function က return၊
+ * int နဲ့ တွက်တဲ့ operator) မှာ ဒဿမ မပါတဲ့ num literal ရေးထားရင် int literal လို့
+ * ယူမယ်။ typed() က အဲ့ literal တွေကို int literal နဲ့ လဲပေးမယ်။
+ */
+public class TypeChecker implements Expression.Visitor<token_t>, Statement.Visitor<Void> {
+    private final ErrorHandler errorHandler;
+
+    // local scope တစ်ခုချင်းစီက variable တွေကို ကြေညာထားတဲ့ type (object လည်းပါ)။
+    // function၊ class လို type မရှိတာဆို null
+    private final Stack<Map<String, token_t>> scopes = new Stack<>();
+
+    // စစ်နေတဲ့ function။ top-level code ဆို null
+    private FunctionStatement currentFunction = null;
+
+    // currentFunction ထဲက value ပါတဲ့ return တွေ အကုန် type ကိုက်တယ်လို့ သေချာလား
+    private boolean proven = true;
+
+    // int literal၊ int variable ဒါမှမဟုတ် Num2Int တွေ့ခဲ့လား
+    private boolean usesInt = false;
+
+    // int နေရာမှာ ရေးထားလို့ int literal အဖြစ် ပြောင်းရမယ့် num literal တွေ
+    private final Set<Expression.LiteralExpression> ints = new HashSet<>();
+
+    // global variable တွေကို ကြေညာခဲ့တဲ့ type။ runtime check ကို ကျော်ဖို့ မယုံဘဲ
+    // literal ကို int လို့ ယူမလား ဆုံးဖြတ်ဖို့ပဲ သုံးမယ်။
+    private final Map<String, token_t> globals;
+
+    public TypeChecker(ErrorHandler errorHandler) {
+        this(errorHandler, new HashMap<>());
+    }
+
+    /**
+     * @param globals REPL မှာ input တွေကြား မျှသုံးမယ့် global variable type တွေ
+     */
+    public TypeChecker(ErrorHandler errorHandler, Map<String, token_t> globals) {
+        this.errorHandler = errorHandler;
+        this.globals = globals;
+    }
+
+    public void check(List<Statement> statements) {
+        for (Statement statement : statements) {
+            check(statement);
+        }
+    }
+
+    /**
+     * check() က int literal လို့ ယူခဲ့တဲ့ num literal တွေကို int literal နဲ့ လဲထားတဲ့
+     * statement တွေ။ လဲစရာ မရှိရင် ပေးလိုက်တဲ့ list ပဲ ပြန်ပေးမယ်။
+     */
+    public List<Statement> typed(List<Statement> statements) {
+        if (ints.isEmpty())
+            return statements;
+        return new Rewriter(null, null) {
+            @Override
+            public Expression visitLiteralExpression(Expression.LiteralExpression expression) {
+                if (!ints.contains(expression))
+                    return expression;
+                return new Expression.LiteralExpression(
+                        Resolver.literal((long) expression.value.v_number, expression.value));
+            }
+        }.rewrite(statements);
+    }
+
+    /**
+     * စစ်ခဲ့တဲ့ code ထဲမှာ int value ထွက်နိုင်လား။ JIT က num ကိုပဲ compile
+     * တတ်လို့ ဒါကို ကြည့်ပြီး num လို့ မသေချာတဲ့ operand တွေကို compile မလုပ်ဘူး။
+     */
+    public boolean usesInt() {
+        return usesInt;
+    }
+
+    private void check(Statement statement) {
+        statement.accept(this);
+    }
+
+    private token_t type(Expression expression) {
+        return expression.accept(this);
+    }
+
+    @Override
+    public Void visitExpressionStatement(Statement.ExpressionStatement statement) {
+        type(statement.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitOutputStatement(Statement.OutputStatement statement) {
+        type(statement.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitVariableDeclarationStatement(VariableDeclarationStatement statement) {
+        token_t declared = statement.type.type;
+        if (declared == token_t.VT_INT)
+            usesInt = true;
+        if (statement.initializer == null) {
+            // default value က type နဲ့ အမြဲကိုက်တယ်။
+            statement.checked = true;
+        } else {
+            token_t value = integral(statement.initializer, declared, type(statement.initializer));
+            if (value == declared) {
+                statement.checked = true;
+            } else if (value != null) {
+                errorHandler.reportError(statement.type, "Cannot assign " + TypeMapper.UitT2String.get(value)
+                        + " to " + TypeMapper.UitT2String.get(declared) + " variable '"
+                        + statement.identifier.lexeme + "'.");
+            }
+        }
+        // initializer မပါလည်း နောက်မှ assign တာတွေကို ကြေညာထားတဲ့ type နဲ့ စစ်ဖို့ မှတ်ထားမယ်။
+        declare(statement.identifier, declared);
+        if (scopes.isEmpty())
+            globals.put(statement.identifier.lexeme, declared);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStatement(Statement.BlockStatement statement) {
+        scopes.push(new HashMap<>());
+        check(statement.statements);
+        scopes.pop();
+        return null;
+    }
+
+    @Override
+    public Void visitIfStatement(Statement.IfStatement statement) {
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            type(branch.getKey());
+            check(branch.getValue());
+        }
+        if (statement.elseBranch != null)
+            check(statement.elseBranch);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStatement(Statement.WhileStatement statement) {
+        type(statement.condition);
+        check(statement.instructions);
+        return null;
+    }
+
+    @Override
+    public Void visitBreakStatement(Statement.BreakStatement statement) {
+        return null;
+    }
+
+    @Override
+    public Void visitContinueStatement(Statement.ContinueStatement statement) {
+        return null;
+    }
+
+    @Override
+    public Void visitFunctionStatement(FunctionStatement statement) {
+        declare(statement.identifier, null);
+        checkFunction(statement);
+        return null;
+    }
+
+    @Override
+    public Void visitReturnStatement(Statement.ReturnStatement statement) {
+        // value မပါတဲ့ return ကို runtime မှာလည်း မစစ်ဘူး။
+        if (statement.value == null)
+            return null;
+        token_t value = type(statement.value);
+        if (currentFunction == null || currentFunction.type == null)
+            return null;
+        value = integral(statement.value, currentFunction.type.type, value);
+        if (value == null) {
+            proven = false;
+        } else if (value != currentFunction.type.type) {
+            errorHandler.reportError(currentFunction.type, "Cannot return " + TypeMapper.UitT2String.get(value)
+                    + " from " + TypeMapper.UitT2String.get(currentFunction.type.type) + " function '"
+                    + currentFunction.identifier.lexeme + "'.");
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitClassStatement(Statement.ClassStatement statement) {
+        declare(statement.identifier, null);
+        scopes.push(new HashMap<>());
+        scopes.peek().put("this", null);
+        for (VariableDeclarationStatement property : statement.properties.keySet()) {
+            // property ကို instance ပေါ်မှာ UitClass က သီးသန့်စစ်တယ်။
+            if (property.initializer != null)
+                integral(property.initializer, property.type.type, type(property.initializer));
+            scopes.peek().put(property.identifier.lexeme, property.type.type);
+        }
+        for (FunctionStatement method : statement.methods.keySet()) {
+            checkFunction(method);
+        }
+        scopes.pop();
+        return null;
+    }
+
+    @Override
+    public token_t visitBinaryExpression(Expression.BinaryExpression expression) {
+        token_t left = type(expression.left);
+        token_t right = type(expression.right);
+        if (expression.operator.type != token_t.DOT) {
+            left = integral(expression.left, hint(expression.right, right), left);
+            right = integral(expression.right, hint(expression.left, left), right);
+        }
+        // operand type နှစ်ခုတူမှ type စစ်စရာမလိုတဲ့ node နဲ့ run လို့ရမယ်။
+        expression.operands = left == right ? left : null;
+        switch (expression.operator.type) {
+            case DOT:
+                return token_t.VT_STRING;
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+            case EQUAL:
+            case NOT_EQUAL:
+                return token_t.VT_BOOLEAN;
+            case PLUS:
+            case MINUS:
+            case STAR:
+            case SLASH:
+            case PERCENT:
+            case CARET:
+                return arithmetic(left, right);
+            case AMPERSAND:
+            case PIPE:
+            case TILDE:
+            case LESS_LESS:
+            case GREATER_GREATER:
+                return token_t.VT_INT;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public token_t visitGroupingExpression(Expression.GroupingExpression expression) {
+        return type(expression.expression);
+    }
+
+    @Override
+    public token_t visitLiteralExpression(Expression.LiteralExpression expression) {
+        switch (expression.value.v_type) {
+            case VT_NUMBER:
+                return token_t.VT_NUMBER;
+            case VT_INT:
+                usesInt = true;
+                return token_t.VT_INT;
+            case VT_STRING:
+                return token_t.VT_STRING;
+            case VT_BOOLEAN:
+                return token_t.VT_BOOLEAN;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public token_t visitUnaryExpression(Expression.UnaryExpression expression) {
+        expression.operands = type(expression.right);
+        switch (expression.operator.type) {
+            case NOT:
+                return token_t.VT_BOOLEAN;
+            case MINUS:
+                return arithmetic(expression.operands, null);
+            case TILDE:
+                return token_t.VT_INT;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public token_t visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        if ("Num2Int".equals(expression.identifier.lexeme))
+            usesInt = true;
+        token_t type = lookup(expression.identifier);
+        // object variable ထဲမှာ null လည်း ရှိနိုင်လို့ expression type အဖြစ် မယုံဘူး။
+        return primitive(type) ? type : null;
+    }
+
+    @Override
+    public token_t visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        token_t value = integral(expression.value, declared(expression.identifier), type(expression.value));
+        expression.checked = assignable(expression.identifier, value);
+        return value;
+    }
+
+    @Override
+    public token_t visitLogicalExpression(Expression.LogicalExpression expression) {
+        // and / or က operand value တစ်ခုကို ပြန်ပေးလို့ နှစ်ဖက်တူမှ type သေချာမယ်။
+        token_t left = type(expression.left);
+        token_t right = type(expression.right);
+        return left == right ? left : null;
+    }
+
+    @Override
+    public token_t visitInputExpression(Expression.InputExpression expression) {
+        expression.checked = assignable(expression.identifier, token_t.VT_STRING);
+        return token_t.VT_STRING;
+    }
+
+    @Override
+    public token_t visitIncrementExpression(Expression.IncrementExpression expression) {
+        return arithmetic(type(expression.identifier), null);
+    }
+
+    @Override
+    public token_t visitDecrementExpression(Expression.DecrementExpression expression) {
+        return arithmetic(type(expression.identifier), null);
+    }
+
+    @Override
+    public token_t visitCallExpression(Expression.CallExpression expression) {
+        type(expression.callee);
+        for (Expression argument : expression.arguments) {
+            type(argument);
+        }
+        return null;
+    }
+
+    @Override
+    public token_t visitGetExpression(Expression.GetExpression expression) {
+        type(expression.object);
+        return null;
+    }
+
+    @Override
+    public token_t visitSetExpression(Expression.SetExpression expression) {
+        type(expression.value);
+        type(expression.object);
+        return null;
+    }
+
+    @Override
+    public token_t visitThisExpression(Expression.ThisExpression expression) {
+        return null;
+    }
+
+    /**
+     * function body ကို parameter type တွေနဲ့ စစ်မယ်။ value ပါတဲ့ return တွေ အကုန်
+     * သေချာရင် function ကို checked လို့ မှတ်မယ်။
+     */
+    private void checkFunction(FunctionStatement function) {
+        FunctionStatement enclosingFunction = currentFunction;
+        boolean enclosingProven = proven;
+        currentFunction = function;
+        proven = true;
+
+        if (function.type != null && function.type.type == token_t.VT_INT)
+            usesInt = true;
+        scopes.push(new HashMap<>());
+        for (List<Token> parameter : function.parameters) {
+            token_t type = parameter.get(0).type;
+            if (type == token_t.VT_INT)
+                usesInt = true;
+            scopes.peek().put(parameter.get(1).lexeme, type);
+        }
+        check(function.instructions);
+        scopes.pop();
+
+        function.checked = proven;
+        currentFunction = enclosingFunction;
+        proven = enclosingProven;
+    }
+
+    /**
+     * local variable ထဲကို value type ထည့်လို့ရမရ။ မရရင် error တက်မယ်။
+     *
+     * @return runtime check မလိုရင် true
+     */
+    private boolean assignable(Token identifier, token_t value) {
+        token_t variable = lookup(identifier);
+        if (variable == null || value == null)
+            return false;
+        if (variable != value) {
+            errorHandler.reportError(identifier, "Cannot assign " + TypeMapper.UitT2String.get(value) + " to "
+                    + TypeMapper.UitT2String.get(variable) + " variable '" + identifier.lexeme + "'.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * int ဖြစ်ရမယ့်နေရာမှာ ဒဿမ မပါတဲ့ num literal ရေးထားရင် (-5၊ (3) လည်းရ) int literal
+     * လို့ မှတ်မယ်။
+     *
+     * @param expected အဲ့ဒီနေရာမှာ ဖြစ်ရမယ့် type
+     * @param type     expression ရဲ့ type
+     * @return int literal လို့ ယူရင် int၊ မဟုတ်ရင် type
+     */
+    private token_t integral(Expression expression, token_t expected, token_t type) {
+        if (expected != token_t.VT_INT || type != token_t.VT_NUMBER || !integral(expression))
+            return type;
+        retype(expression);
+        return token_t.VT_INT;
+    }
+
+    /**
+     * literal ကို int လို့ ယူမလား ဆုံးဖြတ်ဖို့ expression type။ type မသိတဲ့ global
+     * variable ဆို ကြေညာခဲ့တဲ့ type ကို သုံးမယ်။
+     */
+    private token_t hint(Expression expression, token_t type) {
+        if (type != null || !(expression instanceof Expression.VariableAccessExpression))
+            return type;
+        return declared(((Expression.VariableAccessExpression) expression).identifier);
+    }
+
+    /**
+     * variable ကို ကြေညာထားတဲ့ type။ local မှာ မရှိရင် global ရဲ့ type
+     */
+    private token_t declared(Token identifier) {
+        for (int i = scopes.size() - 1; i >= 0; i--) {
+            if (scopes.get(i).containsKey(identifier.lexeme))
+                return scopes.get(i).get(identifier.lexeme);
+        }
+        return globals.get(identifier.lexeme);
+    }
+
+    private static boolean integral(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression) {
+            Token value = ((Expression.LiteralExpression) expression).value;
+            // 2^63 က long ထဲ မဆံ့ဘူး။
+            return value.v_type == value_t.VT_NUMBER && value.v_number == Math.rint(value.v_number)
+                    && value.v_number < 0x1p63;
+        }
+        if (expression instanceof Expression.GroupingExpression)
+            return integral(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.UnaryExpression) {
+            Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+            return unary.operator.type == token_t.MINUS && integral(unary.right);
+        }
+        return false;
+    }
+
+    private void retype(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression) {
+            ints.add((Expression.LiteralExpression) expression);
+        } else if (expression instanceof Expression.GroupingExpression) {
+            retype(((Expression.GroupingExpression) expression).expression);
+        } else {
+            // resolver က num literal ကို ပြောင်းပြန်လုပ်တာလို့ မှတ်ထားတာကို ပြင်မယ်။
+            Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+            unary.numeric = false;
+            unary.operands = token_t.VT_INT;
+            retype(unary.right);
+        }
+    }
+
+    /**
+     * + - * / % ^ ++ -- ရဲ့ result type။ int နဲ့ int ဆို int၊ ကျန်တာ num ပဲ
+     * ထွက်နိုင်တယ်။ operand တစ်ဖက်ပဲ သိရင် ကျန်တစ်ဖက်ကလည်း အဲ့ type ဖြစ်မှ
+     * run လို့ရမယ်။ နှစ်ဖက်လုံး မသိရင် int လား num လား မသေချာဘူး။
+     */
+    private static token_t arithmetic(token_t left, token_t right) {
+        if (left == null)
+            left = right;
+        else if (right == null)
+            right = left;
+        if (left == null || left != right)
+            return null;
+        return left == token_t.VT_INT ? token_t.VT_INT : token_t.VT_NUMBER;
+    }
+
+    private void declare(Token identifier, token_t type) {
+        if (!scopes.isEmpty())
+            scopes.peek().put(identifier.lexeme, type);
+    }
+
+    /**
+     * local variable ကို ကြေညာထားတဲ့ type။ global ဒါမှမဟုတ် type မသေချာရင် null
+     */
+    private token_t lookup(Token identifier) {
+        for (int i = scopes.size() - 1; i >= 0; i--) {
+            if (scopes.get(i).containsKey(identifier.lexeme))
+                return scopes.get(i).get(identifier.lexeme);
+        }
+        return null;
+    }
+
+    private static boolean primitive(token_t type) {
+        return type == token_t.VT_NUMBER || type == token_t.VT_INT || type == token_t.VT_STRING
+                || type == token_t.VT_BOOLEAN;
+    }
+}
@@ -0,0 +1,9 @@
+package com.heinthanth.uit.Interpreter;
+
+/**
+ * statement တစ်ခု run ပြီးရင် ဘယ်လို ဆက်လုပ်ရမလဲ။ break, continue, return
+ * တွေကို exception မသုံးဘဲ loop (သို့) function body အထိ ပြန်ပို့မယ်။
+ */
+enum completion_t {
+    NORMAL, BREAK, CONTINUE, RETURN
+}
@@ -0,0 +1,325 @@
+package com.heinthanth.uit.JIT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * method တစ်ခုရဲ့ bytecode ကို ရေးမယ့် assembler။ instruction တစ်ခုချင်းစီရဲ့
+ * stack effect ကို မှတ်ပြီး max stack ကို တွက်ပေးတယ်။
+ */
+final class Code {
+    static final int ACONST_NULL = 1;
+    static final int ICONST_0 = 3;
+    static final int ICONST_1 = 4;
+    static final int DCONST_0 = 14;
+    static final int DCONST_1 = 15;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC = 18;
+    static final int LDC_W = 19;
+    static final int LDC2_W = 20;
+    static final int ILOAD = 21;
+    static final int DLOAD = 24;
+    static final int ALOAD = 25;
+    static final int AALOAD = 50;
+    static final int ISTORE = 54;
+    static final int DSTORE = 57;
+    static final int ASTORE = 58;
+    static final int AASTORE = 83;
+    static final int POP = 87;
+    static final int POP2 = 88;
+    static final int DUP = 89;
+    static final int DUP_X1 = 90;
+    static final int DUP2 = 92;
+    static final int DUP2_X1 = 93;
+    static final int DUP2_X2 = 94;
+    static final int SWAP = 95;
+    static final int DADD = 99;
+    static final int DSUB = 103;
+    static final int DMUL = 107;
+    static final int DDIV = 111;
+    static final int DNEG = 119;
+    static final int IXOR = 130;
+    static final int DCMPL = 151;
+    static final int DCMPG = 152;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int IFGE = 156;
+    static final int IFGT = 157;
+    static final int IFLE = 158;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int IF_ACMPEQ = 165;
+    static final int IF_ACMPNE = 166;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int DRETURN = 175;
+    static final int ARETURN = 176;
+    static final int RETURN = 177;
+    static final int GETSTATIC = 178;
+    static final int PUTSTATIC = 179;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESPECIAL = 183;
+    static final int INVOKESTATIC = 184;
+    static final int INVOKEINTERFACE = 185;
+    static final int NEW = 187;
+    static final int ANEWARRAY = 189;
+    static final int ATHROW = 191;
+    static final int CHECKCAST = 192;
+    static final int INSTANCEOF = 193;
+    static final int WIDE = 196;
+    static final int IFNULL = 198;
+    static final int IFNONNULL = 199;
+
+    /**
+     * jump target
+     */
+    static final class Label {
+        private int position = -1;
+        private int stack = -1;
+        private final List<int[]> fixups = new ArrayList<>();
+    }
+
+    private final ClassFile classFile;
+    private byte[] bytes = new byte[256];
+    private int length = 0;
+
+    private int stack = 0;
+    private int maxStack = 0;
+    private int maxLocals;
+
+    // goto, return, athrow နောက်မှာ label မရောက်မချင်း code မရောက်နိုင်ဘူး။
+    private boolean reachable = true;
+
+    Code(ClassFile classFile, int parameterSlots) {
+        this.classFile = classFile;
+        this.maxLocals = parameterSlots;
+    }
+
+    int maxStack() {
+        return maxStack;
+    }
+
+    int maxLocals() {
+        return maxLocals;
+    }
+
+    boolean reachable() {
+        return reachable;
+    }
+
+    /**
+     * local variable slot အသစ်ယူမယ်။ double ဆို size 2
+     */
+    int newLocal(int size) {
+        int index = maxLocals;
+        maxLocals += size;
+        return index;
+    }
+
+    void op(int opcode, int effect) {
+        u1(opcode);
+        adjust(effect);
+        if (opcode == ATHROW || (opcode >= IRETURN && opcode <= RETURN))
+            reachable = false;
+    }
+
+    void iconst(int value) {
+        if (value >= -1 && value <= 5) {
+            u1(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            u1(BIPUSH);
+            u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            u1(SIPUSH);
+            u2(value);
+        } else {
+            ldc(classFile.integer(value));
+        }
+        adjust(1);
+    }
+
+    void dconst(double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            u1(DCONST_0);
+        } else if (value == 1.0) {
+            u1(DCONST_1);
+        } else {
+            u1(LDC2_W);
+            u2(classFile.doubleConst(value));
+        }
+        adjust(2);
+    }
+
+    void sconst(String value) {
+        ldc(classFile.string(value));
+        adjust(1);
+    }
+
+    void load(int opcode, int index) {
+        local(opcode, index);
+        adjust(opcode == DLOAD ? 2 : 1);
+    }
+
+    void store(int opcode, int index) {
+        local(opcode, index);
+        adjust(opcode == DSTORE ? -2 : -1);
+    }
+
+    void type(int opcode, String internalName) {
+        u1(opcode);
+        u2(classFile.classRef(internalName));
+        if (opcode == NEW)
+            adjust(1);
+    }
+
+    void getstatic(String owner, String name, String descriptor) {
+        u1(GETSTATIC);
+        u2(classFile.fieldRef(owner, name, descriptor));
+        adjust(size(descriptor));
+    }
+
+    void putstatic(String owner, String name, String descriptor) {
+        u1(PUTSTATIC);
+        u2(classFile.fieldRef(owner, name, descriptor));
+        adjust(-size(descriptor));
+    }
+
+    void invoke(int opcode, String owner, String name, String descriptor) {
+        u1(opcode);
+        if (opcode == INVOKEINTERFACE) {
+            u2(classFile.interfaceMethodRef(owner, name, descriptor));
+            u1(argumentSlots(descriptor) + 1);
+            u1(0);
+        } else {
+            u2(classFile.methodRef(owner, name, descriptor));
+        }
+        int effect = size(descriptor.substring(descriptor.indexOf(')') + 1)) - argumentSlots(descriptor);
+        if (opcode != INVOKESTATIC)
+            effect--;
+        adjust(effect);
+    }
+
+    void jump(int opcode, Label label) {
+        int at = length;
+        u1(opcode);
+        u2(0);
+        if (opcode == IF_ICMPEQ || opcode == IF_ICMPNE || opcode == IF_ACMPEQ || opcode == IF_ACMPNE) {
+            adjust(-2);
+        } else if (opcode != GOTO) {
+            adjust(-1);
+        }
+        if (label.stack < 0)
+            label.stack = stack;
+        if (label.position >= 0) {
+            patch(at, label.position);
+        } else {
+            label.fixups.add(new int[] { at });
+        }
+        if (opcode == GOTO)
+            reachable = false;
+    }
+
+    void mark(Label label) {
+        label.position = length;
+        for (int[] fixup : label.fixups) {
+            patch(fixup[0], label.position);
+        }
+        label.fixups.clear();
+        if (!reachable && label.stack >= 0) {
+            stack = label.stack;
+        } else if (label.stack < 0) {
+            label.stack = stack;
+        }
+        reachable = reachable || label.stack >= 0;
+    }
+
+    byte[] toByteArray() {
+        if (length > 0xFFFF)
+            throw new JitCompiler.Unsupported("method too large");
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * descriptor ကနေ argument slot အရေအတွက်ကို တွက်မယ်။
+     */
+    static int argumentSlots(String descriptor) {
+        int slots = 0;
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            if (c == 'D' || c == 'J') {
+                slots += 2;
+                i++;
+            } else {
+                while (descriptor.charAt(i) == '[')
+                    i++;
+                if (descriptor.charAt(i) == 'L')
+                    i = descriptor.indexOf(';', i);
+                slots++;
+                i++;
+            }
+        }
+        return slots;
+    }
+
+    private static int size(String descriptor) {
+        switch (descriptor.charAt(0)) {
+            case 'V':
+                return 0;
+            case 'D':
+            case 'J':
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    private void local(int opcode, int index) {
+        if (index > 255) {
+            u1(WIDE);
+            u1(opcode);
+            u2(index);
+        } else {
+            u1(opcode);
+            u1(index);
+        }
+    }
+
+    private void ldc(int index) {
+        if (index > 255) {
+            u1(LDC_W);
+            u2(index);
+        } else {
+            u1(LDC);
+            u1(index);
+        }
+    }
+
+    private void patch(int at, int target) {
+        int offset = target - at;
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+            throw new JitCompiler.Unsupported("jump too far");
+        bytes[at + 1] = (byte) (offset >> 8);
+        bytes[at + 2] = (byte) offset;
+    }
+
+    private void adjust(int effect) {
+        stack += effect;
+        if (stack > maxStack)
+            maxStack = stack;
+    }
+
+    private void u1(int value) {
+        if (length + 3 > bytes.length)
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        bytes[length++] = (byte) value;
+    }
+
+    private void u2(int value) {
+        u1(value >> 8);
+        u1(value);
+    }
+}
@@ -0,0 +1,554 @@
+package com.heinthanth.uit.JIT;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * JIT ကထုတ်ထားတဲ့ class တွေကို disk ပေါ်မှာ သိမ်းထားမယ့် code cache
+ * (--jit-cache)။ function ရဲ့ AST (resolver depth အပါအဝင်) ကနေ တွက်ထားတဲ့
+ * hash နဲ့ သိမ်းတာမို့ code ပြင်လိုက်ရင် key ပြောင်းသွားမယ်။ entry ထဲမှာ class
+ * bytes နဲ့ compile တုန်းက parameter / return type assumption တွေ၊ K array
+ * ထဲက token တွေရဲ့ နေရာ (AST ထဲက အစဉ်) ကို သိမ်းတယ်။ token တွေကို နောက် process
+ * ရဲ့ AST ကနေ ပြန်ယူတာမို့ function နေရာရွှေ့လည်း error position မှန်နေမယ်။
+ * file name မှာ script နဲ့ function name ကနေ တွက်ထားတဲ့ slot ပါတာမို့ code
+ * ပြင်လိုက်ရင် အဲ့ function ရဲ့ အဟောင်း entry ကို ဖျက်ပစ်နိုင်တယ်။
+ */
+final class CodeCache {
+    private static final int MAGIC = 0x5549544A;
+
+    /**
+     * JitCompiler ရဲ့ output ပြောင်းရင် တိုးပေးရမယ်။
+     */
+    private static final int VERSION = 5;
+
+    // K[0..3] (globals, interpreter, function, closure) ပြီးမှ token တွေ
+    private static final int FIXED_CONSTANTS = 4;
+
+    /**
+     * declaration တစ်ခုရဲ့ key နဲ့ AST ထဲက token တွေ
+     */
+    static final class Key {
+        final String slot;
+        final String hash;
+        final String fingerprint;
+        final String assumptions;
+        final List<Token> tokens;
+
+        Key(String slot, String hash, String fingerprint, String assumptions, List<Token> tokens) {
+            this.slot = slot;
+            this.hash = hash;
+            this.fingerprint = fingerprint;
+            this.assumptions = assumptions;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * disk ကနေ ဖတ်ထားတဲ့ class
+     */
+    static final class Entry {
+        final String name;
+        final byte[] bytes;
+        // K[4..] ရဲ့ token index တွေ
+        final int[] tokens;
+
+        Entry(String name, byte[] bytes, int[] tokens) {
+            this.name = name;
+            this.bytes = bytes;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * support မလုပ်တဲ့ syntax ပါတဲ့ function (JIT လည်း compile မလုပ်ဘူး)
+     */
+    private static final class Uncacheable extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Uncacheable() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final Path directory;
+    private final Interpreter interpreter;
+
+    // run နေတဲ့ script ရဲ့ path (REPL ဆို empty)
+    private String source = "";
+
+    // AST ကို တစ်ခါပဲ လှည့်မယ်။ cache မလုပ်နိုင်ရင် null
+    private final Map<Statement.FunctionStatement, Key> keys = new IdentityHashMap<>();
+
+    CodeCache(Path directory, Interpreter interpreter) {
+        this.directory = directory;
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * run မယ့် script ကို မှတ်မယ်။ script မတူရင် function name တူလည်း entry
+     * အချင်းချင်း မဖျက်ဘူး။
+     *
+     * @param path
+     */
+    void source(String path) {
+        source = path;
+    }
+
+    Key key(Statement.FunctionStatement declaration, boolean ints) {
+        if (keys.containsKey(declaration))
+            return keys.get(declaration);
+        Key key;
+        try {
+            Fingerprint fingerprint = new Fingerprint();
+            fingerprint.function(declaration);
+            String text = fingerprint.text.toString();
+            String slot = hash(source + '\0' + declaration.identifier.lexeme).substring(0, 16);
+            key = new Key(slot, hash(text), text, assumptions(declaration, ints), fingerprint.tokens);
+        } catch (Uncacheable e) {
+            key = null;
+        }
+        keys.put(declaration, key);
+        return key;
+    }
+
+    /**
+     * key နဲ့ ကိုက်တဲ့ entry ကို ဖတ်မယ်။ မရှိရင် null။ ဖတ်မရတဲ့၊ version
+     * မတူတဲ့၊ assumption မကိုက်တဲ့ entry တွေကို ဖျက်ပစ်မယ်။ မရှိရင် source
+     * ပြောင်းသွားလို့ hash မတူတော့တဲ့ slot တူ entry တွေကို ဖျက်မယ်။
+     */
+    Entry load(Key key) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) {
+            evict(key);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("stale entry");
+            if (!key.fingerprint.equals(readString(in)) || !key.assumptions.equals(in.readUTF()))
+                throw new IOException("mismatched entry");
+            String name = in.readUTF();
+            int[] tokens = new int[in.readInt()];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = in.readInt();
+                if (tokens[i] < 0 || tokens[i] >= key.tokens.size())
+                    throw new IOException("mismatched entry");
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new Entry(name, bytes, tokens);
+        } catch (IOException | RuntimeException e) {
+            drop(key);
+            return null;
+        }
+    }
+
+    /**
+     * entry ရဲ့ K array ကို လက်ရှိ runtime object တွေနဲ့ ပြန်ဆောက်မယ်။
+     */
+    Object[] constants(Key key, Entry entry, Object function, Object closure) {
+        Object[] constants = new Object[FIXED_CONSTANTS + entry.tokens.length];
+        constants[0] = interpreter.globals;
+        constants[1] = interpreter;
+        constants[2] = function;
+        constants[3] = closure;
+        for (int i = 0; i < entry.tokens.length; i++) {
+            constants[FIXED_CONSTANTS + i] = key.tokens.get(entry.tokens[i]);
+        }
+        return constants;
+    }
+
+    /**
+     * compile ပြီးသား class ကို သိမ်းမယ်။ process တွေ ပြိုင်ရေးလည်း ရအောင်
+     * temp file ရေးပြီးမှ rename မယ်။ မရေးနိုင်ရင် ဘာမှမလုပ်ဘူး။
+     */
+    void store(Key key, JitCompiler.Result result) {
+        Map<Token, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < key.tokens.size(); i++) {
+            index.putIfAbsent(key.tokens.get(i), i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, key.fingerprint);
+            out.writeUTF(key.assumptions);
+            out.writeUTF(result.name);
+            out.writeInt(result.constants.length - FIXED_CONSTANTS);
+            for (int i = FIXED_CONSTANTS; i < result.constants.length; i++) {
+                Integer token = index.get(result.constants[i]);
+                // AST ထဲမှာ မရှိတဲ့ constant ဆို နောက် process မှာ ပြန်ဆောက်လို့ မရဘူး။
+                if (token == null)
+                    return;
+                out.writeInt(token);
+            }
+            out.writeInt(result.bytes.length);
+            out.write(result.bytes);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key.hash, ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            // cache မရေးနိုင်လည်း run တာကို မထိခိုက်ဘူး။
+        }
+    }
+
+    /**
+     * define မရတဲ့ entry စတာတွေကို ဖျက်မယ်။
+     */
+    void drop(Key key) {
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            // နောက်တစ်ခါ ပြန်စစ်မယ်။
+        }
+    }
+
+    /**
+     * slot တူပြီး hash မတူတဲ့ entry တွေကို ဖျက်မယ်။ script တစ်ခုထဲမှာ name တူ
+     * function နှစ်ခုရှိရင် တစ်ခုနဲ့တစ်ခု ဖျက်ပြီး ပြန် compile ရမယ်။
+     */
+    private void evict(Key key) {
+        Path current = file(key);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, key.slot + "-*.uitj")) {
+            for (Path file : stale) {
+                if (!file.equals(current))
+                    Files.deleteIfExists(file);
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            // cache directory မရှိသေးတာ စတာတွေ
+        }
+    }
+
+    private Path file(Key key) {
+        return directory.resolve(key.slot + "-" + key.hash + ".uitj");
+    }
+
+    /**
+     * compile တုန်းက ယူဆထားတဲ့ parameter နဲ့ return type တွေ။ int မသုံးဘူးလို့
+     * ယူဆပြီး compile ထားတာကို int သုံးတဲ့ program မှာ မသုံးရဘူး။
+     */
+    private static String assumptions(Statement.FunctionStatement declaration, boolean ints) {
+        StringBuilder builder = new StringBuilder("(");
+        for (List<Token> parameter : declaration.parameters) {
+            builder.append(parameter.get(0).type.name()).append(';');
+        }
+        builder.append(')');
+        builder.append(declaration.type == null ? "-" : declaration.type.type.name());
+        if (ints)
+            builder.append("+int");
+        return builder.toString();
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * function ရဲ့ AST ကို position မပါဘဲ စာသားအဖြစ် ရေးမယ်။ JitCompiler
+     * compile နိုင်တဲ့ syntax ပဲ လက်ခံတယ်။ လှည့်တဲ့ အစဉ်အတိုင်း token တွေကို
+     * မှတ်ထားမယ်။
+     */
+    private final class Fingerprint implements Expression.Visitor<Void>, Statement.Visitor<Void> {
+        final StringBuilder text = new StringBuilder();
+        final List<Token> tokens = new ArrayList<>();
+
+        void function(Statement.FunctionStatement declaration) {
+            text.append("function ");
+            token(declaration.type);
+            token(declaration.identifier);
+            for (List<Token> parameter : declaration.parameters) {
+                token(parameter.get(0));
+                token(parameter.get(1));
+            }
+            statements(declaration.instructions);
+        }
+
+        private void statements(List<Statement> statements) {
+            text.append('{');
+            for (Statement statement : statements) {
+                statement.accept(this);
+            }
+            text.append('}');
+        }
+
+        private void token(Token token) {
+            tokens.add(token);
+            if (token == null) {
+                text.append("_ ");
+                return;
+            }
+            text.append(token.type.name()).append(' ');
+            text.append(token.lexeme.length()).append(':').append(token.lexeme).append(' ');
+        }
+
+        // resolver ရဲ့ depth, slot ပြောင်းရင်လည်း compile ရလဒ် ပြောင်းတယ်။
+        private void depth(Expression expression) {
+            Integer depth = interpreter.depth(expression);
+            text.append('@');
+            if (depth == null) {
+                text.append('g');
+            } else {
+                text.append(depth).append('.').append(interpreter.slot(expression));
+                if (((Expression.Reference) expression).boxed)
+                    text.append('b');
+            }
+            text.append(' ');
+        }
+
+        private void expression(String name, Expression... expressions) {
+            text.append('(').append(name).append(' ');
+            for (Expression expression : expressions) {
+                if (expression == null) {
+                    text.append("_ ");
+                } else {
+                    expression.accept(this);
+                }
+            }
+            text.append(')');
+        }
+
+        @Override
+        public Void visitExpressionStatement(Statement.ExpressionStatement statement) {
+            expression("expression", statement.expression);
+            return null;
+        }
+
+        @Override
+        public Void visitOutputStatement(Statement.OutputStatement statement) {
+            expression("output", statement.expression);
+            return null;
+        }
+
+        @Override
+        public Void visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+            text.append("(declare ");
+            token(statement.type);
+            token(statement.identifier);
+            expression("=", statement.initializer);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitBlockStatement(Statement.BlockStatement statement) {
+            // scope မရှိတဲ့ block ဆို JIT ရဲ့ scope အရေအတွက် ပြောင်းတယ်။
+            if (!statement.scoped)
+                text.append("(inline ");
+            statements(statement.statements);
+            if (!statement.scoped)
+                text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitIfStatement(Statement.IfStatement statement) {
+            text.append("(if ");
+            for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+                expression("branch", branch.getKey());
+                branch.getValue().accept(this);
+            }
+            if (statement.elseBranch != null) {
+                text.append("else ");
+                statement.elseBranch.accept(this);
+            }
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitWhileStatement(Statement.WhileStatement statement) {
+            expression("while", statement.condition);
+            statement.instructions.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitBreakStatement(Statement.BreakStatement statement) {
+            text.append("(break)");
+            return null;
+        }
+
+        @Override
+        public Void visitContinueStatement(Statement.ContinueStatement statement) {
+            text.append("(continue)");
+            return null;
+        }
+
+        @Override
+        public Void visitFunctionStatement(Statement.FunctionStatement statement) {
+            throw new Uncacheable();
+        }
+
+        @Override
+        public Void visitReturnStatement(Statement.ReturnStatement statement) {
+            text.append("(return ");
+            token(statement.ret);
+            expression("value", statement.value);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitClassStatement(Statement.ClassStatement statement) {
+            throw new Uncacheable();
+        }
+
+        @Override
+        public Void visitBinaryExpression(Expression.BinaryExpression expression) {
+            text.append("(binary ");
+            token(expression.operator);
+            expression.left.accept(this);
+            expression.right.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitGroupingExpression(Expression.GroupingExpression expression) {
+            expression("group", expression.expression);
+            return null;
+        }
+
+        @Override
+        public Void visitLiteralExpression(Expression.LiteralExpression expression) {
+            String value = String.valueOf(expression.value.getValue());
+            text.append("(literal ").append(expression.value.v_type.name()).append(' ');
+            text.append(value.length()).append(':').append(value).append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryExpression(Expression.UnaryExpression expression) {
+            text.append("(unary ");
+            token(expression.operator);
+            expression.right.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+            text.append("(variable ");
+            token(expression.identifier);
+            depth(expression);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+            text.append("(assign ");
+            token(expression.identifier);
+            depth(expression);
+            expression.value.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalExpression(Expression.LogicalExpression expression) {
+            text.append("(logical ");
+            token(expression.operator);
+            expression.left.accept(this);
+            expression.right.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitInputExpression(Expression.InputExpression expression) {
+            throw new Uncacheable();
+        }
+
+        @Override
+        public Void visitIncrementExpression(Expression.IncrementExpression expression) {
+            text.append("(increment ").append(expression.mode).append(' ');
+            token(expression.operator);
+            expression.identifier.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitDecrementExpression(Expression.DecrementExpression expression) {
+            text.append("(decrement ").append(expression.mode).append(' ');
+            token(expression.operator);
+            expression.identifier.accept(this);
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitCallExpression(Expression.CallExpression expression) {
+            text.append("(call ");
+            token(expression.paren);
+            expression.callee.accept(this);
+            for (Expression argument : expression.arguments) {
+                argument.accept(this);
+            }
+            text.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitGetExpression(Expression.GetExpression expression) {
+            throw new Uncacheable();
+        }
+
+        @Override
+        public Void visitSetExpression(Expression.SetExpression expression) {
+            throw new Uncacheable();
+        }
+
+        @Override
+        public Void visitThisExpression(Expression.ThisExpression expression) {
+            throw new Uncacheable();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.heinthanth.uit.JIT;
+
+/**
+ * JIT ကထုတ်တဲ့ class တိုင်း implement လုပ်မယ့် interface
+ */
+public interface CompiledCode {
+    /**
+     * type စစ်ပြီးသား argument တွေနဲ့ function body ကို run မယ်။
+     *
+     * @param arguments
+     * @return
+     */
+    Object invoke(Object[] arguments);
+}
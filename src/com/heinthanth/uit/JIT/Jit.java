@@ -0,0 +1,240 @@
+package com.heinthanth.uit.JIT;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Environment;
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.UitFunction;
+
+/**
+ * ခဏခဏ ခေါ်တဲ့ (hot) function တွေကို JVM bytecode အဖြစ် compile ပြီး load
+ * လုပ်ပေးမယ့် JIT (--jit)။ compile လို့မရတဲ့ function တွေက interpreter
+ * နဲ့ပဲ ဆက် run မယ်။
+ */
+public class Jit {
+    /**
+     * ဒီလောက် ခေါ်ပြီးရင် compile မယ်။
+     */
+    public static final int INVOCATION_THRESHOLD = 1000;
+
+    /**
+     * function ထဲက loop တွေ ဒီလောက် ပတ်ပြီးရင် compile မယ်။ loop တစ်ခုတည်း
+     * ဒီလောက်ပတ်ရင် အဲ့ဒီ loop ကို on-stack replacement နဲ့ compile မယ်။
+     */
+    public static final int BACKEDGE_THRESHOLD = 10000;
+
+    /**
+     * generated class တွေကို define လုပ်မယ့် class loader
+     */
+    private static final class Loader extends ClassLoader {
+        Loader() {
+            super(Jit.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private final Interpreter interpreter;
+    private final Loader loader = new Loader();
+    private int count = 0;
+
+    // OSR နဲ့ compile ထားတဲ့ loop တွေ (compile မရရင် null)
+    private final Map<Statement.WhileStatement, CompiledCode> loops = new HashMap<>();
+
+    // --jit-cache ပေးထားရင်
+    private CodeCache cache;
+
+    // cache ကနေ load ပြီးသား declaration တွေ
+    private final Map<Statement.FunctionStatement, Boolean> restored = new IdentityHashMap<>();
+
+    // program ထဲမှာ int value ထွက်နိုင်လား (useInts)
+    private boolean ints = false;
+
+    // int မသုံးဘူးလို့ ယူဆပြီး compile ထားတဲ့ function တွေ
+    private final List<UitFunction> compiled = new ArrayList<>();
+
+    public Jit(Interpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * compile ထားတဲ့ function တွေကို directory ထဲမှာ သိမ်းပြီး နောက် process
+     * တွေမှာ ပြန်သုံးမယ်။
+     *
+     * @param directory
+     */
+    public void useCache(Path directory) {
+        cache = new CodeCache(directory, interpreter);
+    }
+
+    /**
+     * run မယ့် script ရဲ့ path။ cache ထဲက entry တွေကို script အလိုက် ခွဲထားမယ်။
+     *
+     * @param path
+     */
+    public void useSource(String path) {
+        if (cache != null)
+            cache.source(path);
+    }
+
+    /**
+     * type checker က int value ထွက်နိုင်တာ တွေ့ရင် ခေါ်မယ်။ ဒီနောက်ပိုင်း num လို့
+     * မသေချာတဲ့ operand နဲ့ arithmetic လုပ်တဲ့ code ကို compile မလုပ်တော့ဘူး။ အရင်က
+     * compile ထားတဲ့ code တွေကိုလည်း ဖျက်ပြီး လိုရင် ပြန် compile မယ်။
+     */
+    public void useInts() {
+        if (ints)
+            return;
+        ints = true;
+        for (UitFunction function : compiled) {
+            function.deoptimize();
+        }
+        compiled.clear();
+        loops.clear();
+    }
+
+    /**
+     * function ကို compile မယ်။ မရရင် null
+     *
+     * @param function
+     * @param closure  function ရဲ့ closure environment
+     * @return
+     */
+    public CompiledCode compile(UitFunction function, Environment closure) {
+        JitCompiler compiler = new JitCompiler(interpreter, function, closure,
+                className(function.declaration.identifier.lexeme), ints);
+        JitCompiler.Result result = generate(compiler);
+        if (result == null)
+            return null;
+        CompiledCode code = instantiate(loader, result.name, result.bytes, result.constants);
+        if (cache != null) {
+            CodeCache.Key key = cache.key(function.declaration, ints);
+            if (key != null)
+                cache.store(key, result);
+        }
+        if (!ints)
+            compiled.add(function);
+        return code;
+    }
+
+    /**
+     * ယခင် process က compile ပြီး cache ထဲ သိမ်းထားတဲ့ class ကို load မယ်။
+     * declaration တစ်ခုကို ပထမဆုံး ခေါ်တဲ့ function object အတွက်ပဲ သုံးမယ်။
+     * မရှိရင် null
+     *
+     * @param function
+     * @param closure  function ရဲ့ closure environment
+     * @return
+     */
+    public CompiledCode restore(UitFunction function, Environment closure) {
+        if (cache == null || restored.put(function.declaration, Boolean.TRUE) != null)
+            return null;
+        CodeCache.Key key = cache.key(function.declaration, ints);
+        if (key == null)
+            return null;
+        CodeCache.Entry entry = cache.load(key);
+        if (entry == null)
+            return null;
+        CompiledCode code;
+        try {
+            // class name တူတာ ရှိနိုင်လို့ entry တစ်ခုချင်းစီကို သီးသန့် loader နဲ့ define မယ်။
+            code = instantiate(new Loader(), entry.name, entry.bytes,
+                    cache.constants(key, entry, function, closure));
+        } catch (LinkageError | ClassCastException | IllegalStateException e) {
+            // disk ပေါ်က entry ပျက်နေတာ (သို့) runtime နဲ့ မကိုက်တော့တာမို့ ဖျက်ပြီး ပြန် compile မယ်။
+            cache.drop(key);
+            return null;
+        }
+        if (!ints)
+            compiled.add(function);
+        return code;
+    }
+
+    /**
+     * run နေတဲ့ while loop ကို compile မယ် (on-stack replacement)။ compile ပြီးသား
+     * code ရဲ့ invoke ကို loop ရဲ့ environment ပေးပြီး ခေါ်ရမယ်။ loop ပြီးရင်
+     * JitRuntime.LOOP_EXIT၊ return statement တွေ့ရင် return value ကို ပြန်ပေးမယ်။
+     *
+     * @param loop
+     * @param environment loop ကို run နေတဲ့ environment
+     * @param function    loop ပါတဲ့ function (global code ဆိုရင် null)
+     * @param scopes      environment ကနေ function scope အဆုံးထိ scope အရေအတွက်
+     * @return
+     */
+    public CompiledCode compileLoop(Statement.WhileStatement loop, Environment environment, UitFunction function,
+            int scopes) {
+        if (loops.containsKey(loop))
+            return loops.get(loop);
+        // nested function တွေက function ရဲ့ variable တွေကို သုံးနိုင်လို့ JVM local ထဲ မယူဘူး။
+        if (function != null && hasClosures(function.declaration.instructions))
+            scopes = 0;
+        CompiledCode code = load(
+                new JitCompiler(interpreter, loop, environment, scopes, className(
+                        function == null ? "loop" : function.declaration.identifier.lexeme + "_loop"), ints));
+        loops.put(loop, code);
+        return code;
+    }
+
+    private String className(String name) {
+        return "uit/jit/" + name.replaceAll("[^A-Za-z0-9_]", "_") + "$" + (++count);
+    }
+
+    private CompiledCode load(JitCompiler compiler) {
+        JitCompiler.Result result = generate(compiler);
+        return result == null ? null : instantiate(loader, result.name, result.bytes, result.constants);
+    }
+
+    /**
+     * compile မလုပ်နိုင်တဲ့ code (class file ရဲ့ အကန့်အသတ် ကျော်တာ အပါအဝင်) ဆို
+     * null။ တခြား exception တွေက JIT ရဲ့ bug မို့ ဖုံးမထားဘူး။
+     */
+    private static JitCompiler.Result generate(JitCompiler compiler) {
+        try {
+            return compiler.compile();
+        } catch (JitCompiler.Unsupported e) {
+            return null;
+        }
+    }
+
+    /**
+     * class ကို define ပြီး instance ဆောက်မယ်။ verify မအောင်တဲ့ bytecode
+     * (LinkageError) ကို ဒီမှာ မဖမ်းဘူး။
+     */
+    private static CompiledCode instantiate(Loader loader, String name, byte[] bytes, Object[] constants) {
+        Class<?> generated = loader.define(name.replace('/', '.'), bytes);
+        try {
+            generated.getField("K").set(null, constants);
+            return (CompiledCode) generated.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean hasClosures(List<Statement> statements) {
+        for (Statement statement : statements) {
+            if (statement instanceof Statement.FunctionStatement || statement instanceof Statement.ClassStatement)
+                return true;
+            if (statement instanceof Statement.BlockStatement
+                    && hasClosures(((Statement.BlockStatement) statement).statements))
+                return true;
+            if (statement instanceof Statement.WhileStatement
+                    && hasClosures(List.of(((Statement.WhileStatement) statement).instructions)))
+                return true;
+            if (statement instanceof Statement.IfStatement) {
+                Statement.IfStatement branch = (Statement.IfStatement) statement;
+                if (hasClosures(List.copyOf(branch.branches.values()))
+                        || (branch.elseBranch != null && hasClosures(List.of(branch.elseBranch))))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,1272 @@
+package com.heinthanth.uit.JIT;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Environment;
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.UitFunction;
+
+/**
+ * uit function တစ်ခုကို JVM class အဖြစ် compile မယ်။ num, boolean variable
+ * တွေကို unboxed double / int local အဖြစ်ထားပြီး type check တွေကို static type
+ * နဲ့ မသေချာတဲ့နေရာမှာပဲ ထည့်တယ်။ function ကိုယ်တိုင်ကို ပြန်ခေါ်တာ (recursion)
+ * ဆိုရင် boxing မပါဘဲ static method ကို တိုက်ရိုက်ခေါ်တယ်။ support မလုပ်တဲ့
+ * syntax (class, nested function, input စသည်) တွေ့ရင် compile မလုပ်ဘဲ
+ * interpreter ကိုပဲ ဆက်သုံးမယ်။
+ */
+final class JitCompiler implements Expression.Visitor<Integer>, Statement.Visitor<Void> {
+    // expression ရဲ့ JVM stack ပေါ်က ပုံစံ
+    static final int NUM = 0;
+    static final int BOOL = 1;
+    static final int STR = 2;
+    static final int OBJ = 3;
+
+    static final String OBJECT = "java/lang/Object";
+    static final String DOUBLE = "java/lang/Double";
+    static final String BOOLEAN = "java/lang/Boolean";
+    static final String STRING = "java/lang/String";
+    static final String TOKEN = "com/heinthanth/uit/Lexer/Token";
+    static final String ENVIRONMENT = "com/heinthanth/uit/Interpreter/Environment";
+    static final String CELL = ENVIRONMENT + "$Cell";
+    static final String INTERPRETER = "com/heinthanth/uit/Interpreter/Interpreter";
+    static final String FUNCTION = "com/heinthanth/uit/Runtime/UitFunction";
+    static final String OPERATORS = "com/heinthanth/uit/Runtime/Operators";
+    // generated code ကပဲ သုံးတဲ့ class တွေကိုလည်း javac က compile အောင် class literal နဲ့ ရေးထားတယ်။
+    static final String RUNTIME = JitRuntime.class.getName().replace('.', '/');
+    static final String COMPILED = CompiledCode.class.getName().replace('.', '/');
+
+    /**
+     * compile မလုပ်နိုင်တဲ့ code တွေ့ရင်
+     */
+    static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+
+    /**
+     * double return နဲ့ compile လို့မရရင် Object return နဲ့ ပြန် compile ဖို့
+     */
+    private static final class Retry extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Retry() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Local {
+        final int index;
+        final int kind;
+
+        // OSR loop အပြင်ဘက်က variable ဆိုရင် environment ထဲက နေရာ
+        final int distance;
+        final int slot;
+
+        Local(int index, int kind) {
+            this(index, kind, -1, -1);
+        }
+
+        Local(int index, int kind, int distance, int slot) {
+            this.index = index;
+            this.kind = kind;
+            this.distance = distance;
+            this.slot = slot;
+        }
+    }
+
+    private static final class Loop {
+        final Loop enclosing;
+        final Code.Label start = new Code.Label();
+        final Code.Label end = new Code.Label();
+
+        Loop(Loop enclosing) {
+            this.enclosing = enclosing;
+        }
+    }
+
+    /**
+     * Object ကို double ပြောင်းတဲ့ code ထုတ်ဖို့
+     */
+    private interface Converter {
+        void emit();
+    }
+
+    /**
+     * compile ပြီးသား class
+     */
+    static final class Result {
+        final String name;
+        final byte[] bytes;
+        final Object[] constants;
+
+        Result(String name, byte[] bytes, Object[] constants) {
+            this.name = name;
+            this.bytes = bytes;
+            this.constants = constants;
+        }
+    }
+
+    private final Interpreter interpreter;
+    private final UitFunction function;
+    private final Statement.FunctionStatement declaration;
+    private final Environment closure;
+    private final String className;
+    private final int[] parameterKinds;
+
+    // program ထဲမှာ int value ထွက်နိုင်ရင် num လို့ မသေချာတဲ့ operand တွေလည်း int ဖြစ်နိုင်တယ်။
+    private final boolean ints;
+
+    // OSR နဲ့ compile မယ့် loop နဲ့ အဲ့ဒီ loop ကို run နေတဲ့ environment
+    private final Statement.WhileStatement osrLoop;
+    private final Environment environment;
+
+    // loop ရဲ့ environment ကနေ function scope အဆုံးထိ scope အရေအတွက်။ ဒီထဲက
+    // variable တွေကို JVM local ထဲ ယူသုံးပြီး loop ပြီးမှ ပြန်ရေးမယ်။
+    private final int functionScopes;
+    private Map<String, Local> outerLocals;
+
+    private ClassFile classFile;
+    private Code code;
+    private List<Object> constants;
+    private Map<Object, Integer> constantIndex;
+    private LinkedList<Map<String, Local>> scopes;
+    private Loop loop;
+
+    // function body ရဲ့ အစ နဲ့ parameter တွေ (self tail call အတွက်)
+    private Code.Label entry;
+    private Local[] parameters;
+
+    // body ကို double return နဲ့ compile နေလား
+    private boolean numeric;
+
+    JitCompiler(Interpreter interpreter, UitFunction function, Environment closure, String className,
+            boolean ints) {
+        this.interpreter = interpreter;
+        this.function = function;
+        this.declaration = function.declaration;
+        this.closure = closure;
+        this.className = className;
+        this.ints = ints;
+        // parameter type တွေကို compile() ကျမှ ဖြည့်မယ်။ int ဆို Unsupported
+        this.parameterKinds = new int[declaration.parameters.size()];
+        this.osrLoop = null;
+        this.environment = null;
+        this.functionScopes = 0;
+    }
+
+    /**
+     * run နေတဲ့ while loop တစ်ခုတည်းကို compile ဖို့ (on-stack replacement)
+     *
+     * @param interpreter
+     * @param loop
+     * @param environment    loop ကို run နေတဲ့ environment
+     * @param functionScopes environment ကနေ function scope အဆုံးထိ scope အရေအတွက်
+     * @param className
+     * @param ints           program ထဲမှာ int value ထွက်နိုင်လား
+     */
+    JitCompiler(Interpreter interpreter, Statement.WhileStatement loop, Environment environment,
+            int functionScopes, String className, boolean ints) {
+        this.interpreter = interpreter;
+        this.function = null;
+        this.declaration = null;
+        this.closure = null;
+        this.className = className;
+        this.ints = ints;
+        this.parameterKinds = new int[0];
+        this.osrLoop = loop;
+        this.environment = environment;
+        this.functionScopes = functionScopes;
+    }
+
+    /**
+     * function ကို compile မယ်။ မရရင် Unsupported
+     *
+     * @return
+     */
+    Result compile() {
+        for (int i = 0; i < parameterKinds.length; i++) {
+            parameterKinds[i] = kindOf(declaration.parameters.get(i).get(0));
+        }
+        if (declaration != null && declaration.type != null && declaration.type.type == token_t.VT_NUMBER) {
+            try {
+                return generate(true);
+            } catch (Retry retry) {
+                // Object return နဲ့ ပြန်လုပ်မယ်။
+            }
+        }
+        return generate(false);
+    }
+
+    private Result generate(boolean numeric) {
+        this.numeric = numeric;
+        constants = new ArrayList<>();
+        constantIndex = new IdentityHashMap<>();
+        scopes = new LinkedList<>();
+        outerLocals = new LinkedHashMap<>();
+        loop = null;
+
+        // K[0..3] ကို ပုံသေထားမယ်။ closure က globals ဖြစ်နေရင်လည်း နေရာ မရွှေ့အောင်
+        // dedup မလုပ်ဘူး။
+        for (Object value : new Object[] { interpreter.globals, interpreter, function, closure }) {
+            constantIndex.putIfAbsent(value, constants.size());
+            constants.add(value);
+        }
+
+        classFile = new ClassFile(className, OBJECT, COMPILED);
+        classFile.field(ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC, "K", "[Ljava/lang/Object;");
+
+        if (osrLoop != null) {
+            loopBody();
+        } else {
+            functionBody();
+        }
+
+        // constructor
+        code = new Code(classFile, 1);
+        code.load(Code.ALOAD, 0);
+        code.invoke(Code.INVOKESPECIAL, OBJECT, "<init>", "()V");
+        code.op(Code.RETURN, 0);
+        classFile.method(ClassFile.ACC_PUBLIC, "<init>", "()V", code);
+
+        // interpreter ကခေါ်မယ့် boxed entry point
+        code = new Code(classFile, 2);
+        if (osrLoop != null) {
+            code.load(Code.ALOAD, 1);
+            code.iconst(0);
+            code.op(Code.AALOAD, -1);
+            code.type(Code.CHECKCAST, ENVIRONMENT);
+        }
+        for (int i = 0; i < parameterKinds.length; i++) {
+            code.load(Code.ALOAD, 1);
+            code.iconst(i);
+            code.op(Code.AALOAD, -1);
+            unbox(parameterKinds[i]);
+        }
+        code.invoke(Code.INVOKESTATIC, className, "body", bodyDescriptor());
+        if (numeric)
+            box(NUM);
+        code.op(Code.ARETURN, -1);
+        classFile.method(ClassFile.ACC_PUBLIC, "invoke", "([Ljava/lang/Object;)Ljava/lang/Object;", code);
+
+        return new Result(className, classFile.toByteArray(), constants.toArray());
+    }
+
+    private void functionBody() {
+        int slots = 0;
+        for (int kind : parameterKinds) {
+            slots += kind == NUM ? 2 : 1;
+        }
+        code = new Code(classFile, slots);
+        scopes.push(new HashMap<>());
+        parameters = new Local[parameterKinds.length];
+        int slot = 0;
+        for (int i = 0; i < parameterKinds.length; i++) {
+            parameters[i] = new Local(slot, parameterKinds[i]);
+            scopes.peek().put(declaration.parameters.get(i).get(1).lexeme, parameters[i]);
+            slot += parameterKinds[i] == NUM ? 2 : 1;
+        }
+        entry = new Code.Label();
+        code.mark(entry);
+        statements(declaration.instructions);
+        if (code.reachable()) {
+            if (numeric)
+                throw new Retry();
+            voidReturn();
+        }
+        scopes.pop();
+        classFile.method(ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC, "body", bodyDescriptor(), code);
+    }
+
+    /**
+     * OSR loop ရဲ့ body(Environment)။ loop ပြီးရင် JitRuntime.LOOP_EXIT၊ return
+     * statement တွေ့ရင် return value ကိုပြန်ပေးမယ်။ loop အပြင်ဘက် variable
+     * တွေကို ဘယ်နှစ်ခုသုံးလဲသိအောင် တစ်ခါ အရင် compile ကြည့်မယ်။
+     */
+    private void loopBody() {
+        code = new Code(classFile, 1);
+        osrLoop.accept(this);
+        Map<String, Local> used = outerLocals;
+
+        code = new Code(classFile, 1);
+        outerLocals = new LinkedHashMap<>();
+        for (Map.Entry<String, Local> entry : used.entrySet()) {
+            Local old = entry.getValue();
+            Local local = new Local(code.newLocal(old.kind == NUM ? 2 : 1), old.kind, old.distance, old.slot);
+            outerLocals.put(entry.getKey(), local);
+            code.load(Code.ALOAD, 0);
+            code.iconst(local.distance);
+            code.iconst(local.slot);
+            code.invoke(Code.INVOKEVIRTUAL, ENVIRONMENT, "getAt", "(II)Ljava/lang/Object;");
+            unbox(local.kind);
+            store(local);
+        }
+        osrLoop.accept(this);
+        if (code.reachable()) {
+            writeBack();
+            code.getstatic(RUNTIME, "LOOP_EXIT", "Ljava/lang/Object;");
+            code.op(Code.ARETURN, -1);
+        }
+        classFile.method(ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC, "body", bodyDescriptor(), code);
+    }
+
+    /**
+     * JVM local ထဲယူထားတဲ့ variable တွေကို environment ထဲ ပြန်ရေးမယ်။
+     */
+    private void writeBack() {
+        for (Local local : outerLocals.values()) {
+            code.load(Code.ALOAD, 0);
+            code.iconst(local.distance);
+            code.iconst(local.slot);
+            load(local);
+            box(local.kind);
+            code.invoke(Code.INVOKEVIRTUAL, ENVIRONMENT, "setAt", "(IILjava/lang/Object;)V");
+        }
+    }
+
+    @Override
+    public Void visitExpressionStatement(Statement.ExpressionStatement statement) {
+        pop(compile(statement.expression));
+        return null;
+    }
+
+    @Override
+    public Void visitOutputStatement(Statement.OutputStatement statement) {
+        string(compile(statement.expression));
+        code.getstatic("java/lang/System", "out", "Ljava/io/PrintStream;");
+        code.op(Code.SWAP, 0);
+        code.invoke(Code.INVOKEVIRTUAL, "java/io/PrintStream", "print", "(Ljava/lang/String;)V");
+        return null;
+    }
+
+    @Override
+    public Void visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+        int kind = kindOf(statement.type);
+        if (statement.initializer == null) {
+            switch (kind) {
+                case NUM:
+                    code.dconst(0.0);
+                    break;
+                case BOOL:
+                    code.iconst(0);
+                    break;
+                case STR:
+                    code.sconst("");
+                    break;
+                default:
+                    code.op(Code.ACONST_NULL, 1);
+                    break;
+            }
+        } else {
+            int actual = compile(statement.initializer);
+            if (actual != kind) {
+                box(actual);
+                token(statement.type);
+                token(statement.identifier);
+                switch (kind) {
+                    case NUM:
+                        code.invoke(Code.INVOKESTATIC, RUNTIME, "declareNum",
+                                "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)D");
+                        break;
+                    case BOOL:
+                        code.invoke(Code.INVOKESTATIC, RUNTIME, "declareBool",
+                                "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)Z");
+                        break;
+                    default:
+                        code.invoke(Code.INVOKESTATIC, RUNTIME, "declareObject",
+                                "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)Ljava/lang/Object;");
+                        break;
+                }
+            }
+        }
+        Local local = new Local(code.newLocal(kind == NUM ? 2 : 1), kind);
+        store(local);
+        scopes.peek().put(statement.identifier.lexeme, local);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStatement(Statement.BlockStatement statement) {
+        // resolver ရဲ့ scope အရေအတွက်နဲ့ ကိုက်အောင် scope မရှိတဲ့ block ကို push မလုပ်ဘူး။
+        if (!statement.scoped) {
+            statements(statement.statements);
+            return null;
+        }
+        scopes.push(new HashMap<>());
+        statements(statement.statements);
+        scopes.pop();
+        return null;
+    }
+
+    @Override
+    public Void visitIfStatement(Statement.IfStatement statement) {
+        Code.Label end = new Code.Label();
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            Code.Label next = new Code.Label();
+            truthy(compile(branch.getKey()));
+            code.jump(Code.IFEQ, next);
+            branch.getValue().accept(this);
+            if (code.reachable())
+                code.jump(Code.GOTO, end);
+            code.mark(next);
+        }
+        if (statement.elseBranch != null)
+            statement.elseBranch.accept(this);
+        code.mark(end);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStatement(Statement.WhileStatement statement) {
+        loop = new Loop(loop);
+        code.mark(loop.start);
+        truthy(compile(statement.condition));
+        code.jump(Code.IFEQ, loop.end);
+        statement.instructions.accept(this);
+        if (code.reachable())
+            code.jump(Code.GOTO, loop.start);
+        code.mark(loop.end);
+        loop = loop.enclosing;
+        return null;
+    }
+
+    @Override
+    public Void visitBreakStatement(Statement.BreakStatement statement) {
+        code.jump(Code.GOTO, loop.end);
+        return null;
+    }
+
+    @Override
+    public Void visitContinueStatement(Statement.ContinueStatement statement) {
+        code.jump(Code.GOTO, loop.start);
+        return null;
+    }
+
+    @Override
+    public Void visitFunctionStatement(Statement.FunctionStatement statement) {
+        throw new Unsupported("nested function");
+    }
+
+    @Override
+    public Void visitReturnStatement(Statement.ReturnStatement statement) {
+        if (numeric) {
+            if (statement.value == null || compile(statement.value) != NUM)
+                throw new Retry();
+            code.op(Code.DRETURN, -2);
+            return null;
+        }
+        if (osrLoop != null) {
+            // function ရဲ့ return ကို interpreter က ဆက်လုပ်မယ်။
+            if (statement.value == null) {
+                code.op(Code.ACONST_NULL, 1);
+            } else {
+                box(compile(statement.value));
+            }
+            writeBack();
+            code.op(Code.ARETURN, -1);
+            return null;
+        }
+        if (statement.value == null) {
+            voidReturn();
+            return null;
+        }
+        if (statement.tailCall) {
+            // return check ကို JitRuntime.tailCall က လုပ်ပြီးသား
+            call((Expression.CallExpression) statement.value, null, true);
+            code.op(Code.ARETURN, -1);
+            return null;
+        }
+        box(compile(statement.value));
+        constant(function, FUNCTION);
+        code.op(Code.SWAP, 0);
+        code.invoke(Code.INVOKEVIRTUAL, FUNCTION, "returnValue", "(Ljava/lang/Object;)Ljava/lang/Object;");
+        code.op(Code.ARETURN, -1);
+        return null;
+    }
+
+    @Override
+    public Void visitClassStatement(Statement.ClassStatement statement) {
+        throw new Unsupported("class");
+    }
+
+    @Override
+    public Integer visitBinaryExpression(Expression.BinaryExpression expression) {
+        Token operator = expression.operator;
+        switch (operator.type) {
+            case PLUS:
+            case MINUS:
+            case STAR:
+            case SLASH:
+            case PERCENT:
+            case CARET:
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+                return arithmetic(expression);
+            case DOT:
+                string(compile(expression.left));
+                string(compile(expression.right));
+                code.invoke(Code.INVOKEVIRTUAL, STRING, "concat", "(Ljava/lang/String;)Ljava/lang/String;");
+                return STR;
+            case EQUAL:
+            case NOT_EQUAL:
+                return equality(expression);
+            default:
+                throw new Unsupported("operator " + operator.lexeme);
+        }
+    }
+
+    @Override
+    public Integer visitGroupingExpression(Expression.GroupingExpression expression) {
+        return compile(expression.expression);
+    }
+
+    @Override
+    public Integer visitLiteralExpression(Expression.LiteralExpression expression) {
+        Object value = expression.value.getValue();
+        if (value instanceof Double) {
+            code.dconst((double) value);
+            return NUM;
+        }
+        if (value instanceof Boolean) {
+            code.iconst((boolean) value ? 1 : 0);
+            return BOOL;
+        }
+        if (value instanceof Long)
+            throw new Unsupported("int literal");
+        code.sconst((String) value);
+        return STR;
+    }
+
+    @Override
+    public Integer visitUnaryExpression(Expression.UnaryExpression expression) {
+        int kind = compile(expression.right);
+        switch (expression.operator.type) {
+            case NOT:
+                truthy(kind);
+                code.iconst(1);
+                code.op(Code.IXOR, -1);
+                return BOOL;
+            case MINUS:
+                numbers(expression.operands, expression.operator, expression.right);
+                if (kind == NUM) {
+                    code.op(Code.DNEG, 0);
+                } else {
+                    box(kind);
+                    token(expression.operator);
+                    code.invoke(Code.INVOKESTATIC, RUNTIME, "negate", "(Ljava/lang/Object;L" + TOKEN + ";)D");
+                }
+                return NUM;
+            default:
+                throw new Unsupported("operator " + expression.operator.lexeme);
+        }
+    }
+
+    @Override
+    public Integer visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        Local local = lookup(expression, expression.identifier.lexeme);
+        if (local != null) {
+            load(local);
+            return local.kind;
+        }
+        Integer depth = interpreter.depth(expression);
+        if (depth == null) {
+            constant(interpreter.globals, ENVIRONMENT);
+            token(expression.identifier);
+            code.invoke(Code.INVOKEVIRTUAL, ENVIRONMENT, "get", "(L" + TOKEN + ";)Ljava/lang/Object;");
+            return OBJ;
+        }
+        // function အပြင်ဘက် scope က variable
+        int distance = depth - scopes.size();
+        if (distance < 0)
+            throw new Unsupported("unresolved variable");
+        enclosing();
+        code.iconst(distance);
+        code.iconst(interpreter.slot(expression));
+        code.invoke(Code.INVOKEVIRTUAL, ENVIRONMENT, "getAt", "(II)Ljava/lang/Object;");
+        if (expression.boxed) {
+            // closure တွေနဲ့ မျှသုံးတဲ့ variable ဆို cell ထဲက value
+            code.type(Code.CHECKCAST, CELL);
+            token(expression.identifier);
+            code.invoke(Code.INVOKEVIRTUAL, CELL, "get", "(L" + TOKEN + ";)Ljava/lang/Object;");
+        }
+        return OBJ;
+    }
+
+    @Override
+    public Integer visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        Local local = lookup(expression, expression.identifier.lexeme);
+        if (local == null) {
+            if (interpreter.depth(expression) != null)
+                throw new Unsupported("assignment to enclosing variable");
+            box(compile(expression.value));
+            constant(interpreter.globals, ENVIRONMENT);
+            token(expression.identifier);
+            code.invoke(Code.INVOKESTATIC, RUNTIME, "assignGlobal",
+                    "(Ljava/lang/Object;L" + ENVIRONMENT + ";L" + TOKEN + ";)Ljava/lang/Object;");
+            return OBJ;
+        }
+        int kind = compile(expression.value);
+        if (local.kind == OBJ) {
+            box(kind);
+            load(local);
+            token(expression.identifier);
+            code.invoke(Code.INVOKESTATIC, RUNTIME, "assignObject",
+                    "(Ljava/lang/Object;Ljava/lang/Object;L" + TOKEN + ";)Ljava/lang/Object;");
+        } else if (kind != local.kind) {
+            box(kind);
+            token(expression.identifier);
+            switch (local.kind) {
+                case NUM:
+                    code.invoke(Code.INVOKESTATIC, RUNTIME, "assignNum", "(Ljava/lang/Object;L" + TOKEN + ";)D");
+                    break;
+                case BOOL:
+                    code.invoke(Code.INVOKESTATIC, RUNTIME, "assignBool", "(Ljava/lang/Object;L" + TOKEN + ";)Z");
+                    break;
+                default:
+                    code.invoke(Code.INVOKESTATIC, RUNTIME, "assignString",
+                            "(Ljava/lang/Object;L" + TOKEN + ";)Ljava/lang/Object;");
+                    break;
+            }
+        }
+        code.op(local.kind == NUM ? Code.DUP2 : Code.DUP, local.kind == NUM ? 2 : 1);
+        store(local);
+        return local.kind;
+    }
+
+    @Override
+    public Integer visitLogicalExpression(Expression.LogicalExpression expression) {
+        int kind = kindOf(expression.left) == kindOf(expression.right) ? kindOf(expression.left) : OBJ;
+        Code.Label end = new Code.Label();
+        convert(compile(expression.left), kind);
+        code.op(kind == NUM ? Code.DUP2 : Code.DUP, kind == NUM ? 2 : 1);
+        truthy(kind);
+        code.jump(expression.operator.type == token_t.OR ? Code.IFNE : Code.IFEQ, end);
+        pop(kind);
+        convert(compile(expression.right), kind);
+        code.mark(end);
+        return kind;
+    }
+
+    @Override
+    public Integer visitInputExpression(Expression.InputExpression expression) {
+        throw new Unsupported("input");
+    }
+
+    @Override
+    public Integer visitIncrementExpression(Expression.IncrementExpression expression) {
+        return step(expression.identifier, expression.operator, expression.mode, 1.0);
+    }
+
+    @Override
+    public Integer visitDecrementExpression(Expression.DecrementExpression expression) {
+        return step(expression.identifier, expression.operator, expression.mode, -1.0);
+    }
+
+    @Override
+    public Integer visitCallExpression(Expression.CallExpression expression) {
+        call(expression, null, false);
+        return OBJ;
+    }
+
+    @Override
+    public Integer visitGetExpression(Expression.GetExpression expression) {
+        throw new Unsupported("member access");
+    }
+
+    @Override
+    public Integer visitSetExpression(Expression.SetExpression expression) {
+        throw new Unsupported("member access");
+    }
+
+    @Override
+    public Integer visitThisExpression(Expression.ThisExpression expression) {
+        throw new Unsupported("this");
+    }
+
+    private void statements(List<Statement> statements) {
+        for (Statement statement : statements) {
+            if (!code.reachable())
+                break;
+            statement.accept(this);
+        }
+    }
+
+    private int compile(Expression expression) {
+        return expression.accept(this);
+    }
+
+    /**
+     * number operand နှစ်ခုသုံးတဲ့ operator တွေ။ interpreter လိုပဲ operand
+     * နှစ်ခုလုံး evaluate ပြီးမှ type စစ်မယ်။
+     */
+    private int arithmetic(Expression.BinaryExpression expression) {
+        Token operator = expression.operator;
+        numbers(expression.operands, operator, expression.left, expression.right);
+
+        // left operand က number မဟုတ်ရင် right ကို evaluate ပြီးမှ error တက်ရမယ်။
+        int flag = code.newLocal(1);
+        code.iconst(0);
+        code.store(Code.ISTORE, flag);
+        number(expression.left, () -> {
+            Code.Label bad = new Code.Label();
+            Code.Label ok = new Code.Label();
+            code.op(Code.DUP, 1);
+            code.type(Code.INSTANCEOF, DOUBLE);
+            code.jump(Code.IFEQ, bad);
+            unbox(NUM);
+            code.jump(Code.GOTO, ok);
+            code.mark(bad);
+            code.op(Code.POP, -1);
+            code.dconst(0.0);
+            code.iconst(1);
+            code.store(Code.ISTORE, flag);
+            code.mark(ok);
+        });
+        number(expression.right, () -> {
+            token(operator);
+            code.invoke(Code.INVOKESTATIC, RUNTIME, "number", "(Ljava/lang/Object;L" + TOKEN + ";)D");
+        });
+        Code.Label checked = new Code.Label();
+        code.load(Code.ILOAD, flag);
+        code.jump(Code.IFEQ, checked);
+        throwError("operands", operator);
+        code.mark(checked);
+
+        switch (operator.type) {
+            case PLUS:
+                code.op(Code.DADD, -2);
+                return NUM;
+            case MINUS:
+                code.op(Code.DSUB, -2);
+                return NUM;
+            case STAR:
+                code.op(Code.DMUL, -2);
+                return NUM;
+            case SLASH:
+                checkZero(operator);
+                code.op(Code.DDIV, -2);
+                return NUM;
+            case PERCENT:
+                checkZero(operator);
+                code.invoke(Code.INVOKESTATIC, OPERATORS, "modulo", "(DD)D");
+                return NUM;
+            case CARET:
+                code.invoke(Code.INVOKESTATIC, "java/lang/Math", "pow", "(DD)D");
+                return NUM;
+            case GREATER:
+                code.op(Code.DCMPL, -3);
+                return condition(Code.IFLE);
+            case GREATER_EQUAL:
+                code.op(Code.DCMPL, -3);
+                return condition(Code.IFLT);
+            case LESS:
+                code.op(Code.DCMPG, -3);
+                return condition(Code.IFGE);
+            default:
+                code.op(Code.DCMPG, -3);
+                return condition(Code.IFGT);
+        }
+    }
+
+    private int equality(Expression.BinaryExpression expression) {
+        int left = compile(expression.left);
+        int right = compile(expression.right);
+        if (left == NUM && right == NUM) {
+            code.invoke(Code.INVOKESTATIC, DOUBLE, "compare", "(DD)I");
+            condition(Code.IFNE);
+        } else if (left == BOOL && right == BOOL) {
+            Code.Label no = new Code.Label();
+            Code.Label end = new Code.Label();
+            code.jump(Code.IF_ICMPNE, no);
+            code.iconst(1);
+            code.jump(Code.GOTO, end);
+            code.mark(no);
+            code.iconst(0);
+            code.mark(end);
+        } else {
+            box(right);
+            if (left == NUM) {
+                code.invoke(Code.INVOKESTATIC, RUNTIME, "isEqual", "(DLjava/lang/Object;)Z");
+            } else if (left == BOOL) {
+                code.invoke(Code.INVOKESTATIC, RUNTIME, "isEqual", "(ZLjava/lang/Object;)Z");
+            } else {
+                code.invoke(Code.INVOKESTATIC, OPERATORS, "isEqual", "(Ljava/lang/Object;Ljava/lang/Object;)Z");
+            }
+        }
+        if (expression.operator.type == token_t.NOT_EQUAL) {
+            code.iconst(1);
+            code.op(Code.IXOR, -1);
+        }
+        return BOOL;
+    }
+
+    /**
+     * expression ကို double အဖြစ် evaluate မယ်။ number မဟုတ်နိုင်ရင် converter
+     * နဲ့ ပြောင်းမယ်။
+     */
+    private void number(Expression expression, Converter converter) {
+        if (expression instanceof Expression.CallExpression) {
+            call((Expression.CallExpression) expression, converter, false);
+            return;
+        }
+        int kind = compile(expression);
+        if (kind != NUM) {
+            box(kind);
+            converter.emit();
+        }
+    }
+
+    /**
+     * function call. converter ပါရင် result ကို double အဖြစ်ထားမယ်၊ မပါရင်
+     * Object။ tail ဆိုရင် ကိုယ့်ကိုယ်ကိုခေါ်တာကို parameter တွေ ပြန်ရေးပြီး
+     * body အစကို jump မယ်။ တခြား function ဆိုရင် return check ပြီးသား value
+     * (သို့) UitFunction.TailCall ကို ပြန်ပေးမယ်။
+     */
+    private void call(Expression.CallExpression expression, Converter converter, boolean tail) {
+        List<Expression> arguments = expression.arguments;
+        boolean self = isSelfCall(expression);
+
+        box(compile(expression.callee));
+        int callee = code.newLocal(1);
+        code.store(Code.ASTORE, callee);
+
+        // interpreter လိုပဲ argument အားလုံးကို အရင် evaluate မယ်။
+        Local[] values = new Local[arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            int kind = compile(arguments.get(i));
+            if (!self || kind != parameterKinds[i]) {
+                box(kind);
+                kind = OBJ;
+            }
+            values[i] = new Local(code.newLocal(kind == NUM ? 2 : 1), kind);
+            store(values[i]);
+        }
+
+        Code.Label generic = new Code.Label();
+        Code.Label end = new Code.Label();
+        if (self) {
+            code.load(Code.ALOAD, callee);
+            constant(function, FUNCTION);
+            code.jump(Code.IF_ACMPNE, generic);
+            for (int i = 0; i < values.length; i++) {
+                load(values[i]);
+                if (values[i].kind != parameterKinds[i]) {
+                    // parameter type check (define လုပ်သလို)
+                    List<Token> parameter = declaration.parameters.get(i);
+                    token(parameter.get(0));
+                    token(parameter.get(1));
+                    switch (parameterKinds[i]) {
+                        case NUM:
+                            code.invoke(Code.INVOKESTATIC, RUNTIME, "declareNum",
+                                    "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)D");
+                            break;
+                        case BOOL:
+                            code.invoke(Code.INVOKESTATIC, RUNTIME, "declareBool",
+                                    "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)Z");
+                            break;
+                        default:
+                            code.invoke(Code.INVOKESTATIC, RUNTIME, "declareObject",
+                                    "(Ljava/lang/Object;L" + TOKEN + ";L" + TOKEN + ";)Ljava/lang/Object;");
+                            break;
+                    }
+                }
+            }
+            if (tail) {
+                // argument တွေ အကုန် stack ပေါ်ရောက်မှ နောက်ဆုံးကနေ ပြန်ရေးမယ်။
+                for (int i = parameters.length - 1; i >= 0; i--) {
+                    store(parameters[i]);
+                }
+                code.jump(Code.GOTO, entry);
+                code.mark(generic);
+                call(values, callee, expression.paren, converter, true);
+                return;
+            }
+            code.invoke(Code.INVOKESTATIC, className, "body", bodyDescriptor());
+            if (numeric) {
+                if (converter == null)
+                    box(NUM);
+            } else {
+                // body ထဲက tail call ကို ဒီမှာ ဆုံးအောင် run မယ်။
+                constant(interpreter, INTERPRETER);
+                code.invoke(Code.INVOKESTATIC, RUNTIME, "complete",
+                        "(Ljava/lang/Object;L" + INTERPRETER + ";)Ljava/lang/Object;");
+                if (converter != null)
+                    converter.emit();
+            }
+            code.jump(Code.GOTO, end);
+        }
+        code.mark(generic);
+        call(values, callee, expression.paren, converter, tail);
+        code.mark(end);
+    }
+
+    /**
+     * JitRuntime.call (tail ဆို JitRuntime.tailCall) နဲ့ ခေါ်မယ်။
+     */
+    private void call(Local[] values, int callee, Token paren, Converter converter, boolean tail) {
+        code.load(Code.ALOAD, callee);
+        code.iconst(values.length);
+        code.type(Code.ANEWARRAY, OBJECT);
+        for (int i = 0; i < values.length; i++) {
+            code.op(Code.DUP, 1);
+            code.iconst(i);
+            load(values[i]);
+            box(values[i].kind);
+            code.op(Code.AASTORE, -3);
+        }
+        token(paren);
+        constant(interpreter, INTERPRETER);
+        if (tail) {
+            constant(function, FUNCTION);
+            code.invoke(Code.INVOKESTATIC, RUNTIME, "tailCall", "(Ljava/lang/Object;[Ljava/lang/Object;L" + TOKEN
+                    + ";L" + INTERPRETER + ";L" + FUNCTION + ";)Ljava/lang/Object;");
+            return;
+        }
+        code.invoke(Code.INVOKESTATIC, RUNTIME, "call", "(Ljava/lang/Object;[Ljava/lang/Object;L" + TOKEN + ";L"
+                + INTERPRETER + ";)Ljava/lang/Object;");
+        if (converter != null)
+            converter.emit();
+    }
+
+    /**
+     * compile နေတဲ့ function ကိုယ်တိုင်ကို ပြန်ခေါ်တာလား
+     */
+    private boolean isSelfCall(Expression.CallExpression expression) {
+        if (!(expression.callee instanceof Expression.VariableAccessExpression))
+            return false;
+        Token name = ((Expression.VariableAccessExpression) expression.callee).identifier;
+        return declaration != null && name.lexeme.equals(declaration.identifier.lexeme)
+                && lookup(expression.callee, name.lexeme) == null
+                && expression.arguments.size() == parameterKinds.length;
+    }
+
+    /**
+     * ++ / --
+     */
+    private int step(Expression target, Token operator, String mode, double delta) {
+        if (!(target instanceof Expression.VariableAccessExpression))
+            throw new Unsupported("non-variable increment");
+        Token identifier = ((Expression.VariableAccessExpression) target).identifier;
+        boolean prefix = "prefix".equals(mode);
+        Local local = lookup(target, identifier.lexeme);
+        if (local == null) {
+            if (interpreter.depth(target) != null)
+                throw new Unsupported("increment of enclosing variable");
+            constant(interpreter.globals, ENVIRONMENT);
+            token(identifier);
+            token(operator);
+            code.dconst(delta);
+            code.iconst(prefix ? 1 : 0);
+            code.invoke(Code.INVOKESTATIC, RUNTIME, "stepGlobal",
+                    "(L" + ENVIRONMENT + ";L" + TOKEN + ";L" + TOKEN + ";DZ)Ljava/lang/Object;");
+            return OBJ;
+        }
+        if (local.kind != NUM)
+            throw new Unsupported("increment of non-number");
+        code.load(Code.DLOAD, local.index);
+        if (!prefix)
+            code.op(Code.DUP2, 2);
+        code.dconst(1.0);
+        code.op(delta > 0 ? Code.DADD : Code.DSUB, -2);
+        if (prefix)
+            code.op(Code.DUP2, 2);
+        code.store(Code.DSTORE, local.index);
+        return NUM;
+    }
+
+    /**
+     * arithmetic ကို double နဲ့ပဲ compile တတ်လို့ type checker က int လို့ သိထားတဲ့
+     * operand ဆို Unsupported။ program ထဲမှာ int သုံးရင် num လို့ မသေချာတဲ့ operand
+     * (global, call result) တွေကလည်း int ဖြစ်နိုင်လို့ double local မဟုတ်ရင် Unsupported
+     */
+    private void numbers(token_t operands, Token operator, Expression... values) {
+        if (operands == token_t.VT_INT)
+            throw new Unsupported("int operator " + operator.lexeme);
+        if (!ints || operands == token_t.VT_NUMBER)
+            return;
+        for (Expression value : values) {
+            if (kindOf(value) != NUM)
+                throw new Unsupported("untyped operand of " + operator.lexeme);
+        }
+    }
+
+    /**
+     * static type ကို ခန့်မှန်းမယ်။ compile() ရဲ့ result နဲ့ ကိုက်ရမယ်။
+     */
+    private int kindOf(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression) {
+            Object value = ((Expression.LiteralExpression) expression).value.getValue();
+            return value instanceof Double ? NUM : value instanceof Boolean ? BOOL : STR;
+        }
+        if (expression instanceof Expression.GroupingExpression)
+            return kindOf(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.VariableAccessExpression) {
+            Local local = lookup(expression, ((Expression.VariableAccessExpression) expression).identifier.lexeme);
+            return local != null ? local.kind : OBJ;
+        }
+        if (expression instanceof Expression.VariableAssignExpression) {
+            Local local = lookup(expression, ((Expression.VariableAssignExpression) expression).identifier.lexeme);
+            return local != null ? local.kind : OBJ;
+        }
+        if (expression instanceof Expression.UnaryExpression)
+            return ((Expression.UnaryExpression) expression).operator.type == token_t.NOT ? BOOL : NUM;
+        if (expression instanceof Expression.BinaryExpression) {
+            switch (((Expression.BinaryExpression) expression).operator.type) {
+                case PLUS:
+                case MINUS:
+                case STAR:
+                case SLASH:
+                case PERCENT:
+                case CARET:
+                    return NUM;
+                case DOT:
+                    return STR;
+                default:
+                    return BOOL;
+            }
+        }
+        if (expression instanceof Expression.LogicalExpression) {
+            Expression.LogicalExpression logical = (Expression.LogicalExpression) expression;
+            int left = kindOf(logical.left);
+            return left == kindOf(logical.right) ? left : OBJ;
+        }
+        if (expression instanceof Expression.IncrementExpression) {
+            Expression target = ((Expression.IncrementExpression) expression).identifier;
+            return target instanceof Expression.VariableAccessExpression
+                    && lookup(target, ((Expression.VariableAccessExpression) target).identifier.lexeme) != null ? NUM
+                            : OBJ;
+        }
+        if (expression instanceof Expression.DecrementExpression) {
+            Expression target = ((Expression.DecrementExpression) expression).identifier;
+            return target instanceof Expression.VariableAccessExpression
+                    && lookup(target, ((Expression.VariableAccessExpression) target).identifier.lexeme) != null ? NUM
+                            : OBJ;
+        }
+        return OBJ;
+    }
+
+    private static int kindOf(Token type) {
+        switch (type.type) {
+            case VT_NUMBER:
+                return NUM;
+            case VT_BOOLEAN:
+                return BOOL;
+            case VT_STRING:
+                return STR;
+            case OBJECT:
+                return OBJ;
+            default:
+                throw new Unsupported("type " + type.lexeme);
+        }
+    }
+
+    /**
+     * compile နေတဲ့ code ထဲမှာ declare ထားတဲ့ variable ကိုရှာမယ်။ OSR loop
+     * ဆိုရင် loop အပြင်ဘက်၊ function ထဲက variable တွေကိုလည်း JVM local အဖြစ်
+     * ယူသုံးမယ်။
+     */
+    private Local lookup(Expression expression, String name) {
+        for (Map<String, Local> scope : scopes) {
+            Local local = scope.get(name);
+            if (local != null)
+                return local;
+        }
+        // cell နဲ့ ထုပ်ထားတဲ့ variable ကို closure တွေကလည်း ရေးနိုင်လို့ JVM local ထဲ မယူဘူး။
+        Integer depth = osrLoop == null || ((Expression.Reference) expression).boxed ? null
+                : interpreter.depth(expression);
+        if (depth == null)
+            return null;
+        int distance = depth - scopes.size();
+        if (distance < 0 || distance >= functionScopes)
+            return null;
+        String key = distance + " " + name;
+        Local local = outerLocals.get(key);
+        if (local == null) {
+            int slot = interpreter.slot(expression);
+            Object value = environment.getAt(distance, slot);
+            int kind = value instanceof Double ? NUM
+                    : value instanceof Boolean ? BOOL : value instanceof String ? STR : OBJ;
+            local = new Local(code.newLocal(kind == NUM ? 2 : 1), kind, distance, slot);
+            outerLocals.put(key, local);
+        }
+        return local;
+    }
+
+    /**
+     * function အပြင်ဘက် variable တွေရှိတဲ့ environment
+     */
+    private void enclosing() {
+        if (osrLoop != null) {
+            code.load(Code.ALOAD, 0);
+        } else {
+            constant(closure, ENVIRONMENT);
+        }
+    }
+
+    private String bodyDescriptor() {
+        if (osrLoop != null)
+            return "(L" + ENVIRONMENT + ";)Ljava/lang/Object;";
+        StringBuilder descriptor = new StringBuilder("(");
+        for (int kind : parameterKinds) {
+            descriptor.append(kind == NUM ? "D" : kind == BOOL ? "Z" : "Ljava/lang/Object;");
+        }
+        descriptor.append(numeric ? ")D" : ")Ljava/lang/Object;");
+        return descriptor.toString();
+    }
+
+    private void voidReturn() {
+        constant(function, FUNCTION);
+        code.invoke(Code.INVOKEVIRTUAL, FUNCTION, "voidValue", "()Ljava/lang/Object;");
+        code.op(Code.ARETURN, -1);
+    }
+
+    private int condition(int jumpIfFalse) {
+        Code.Label no = new Code.Label();
+        Code.Label end = new Code.Label();
+        code.jump(jumpIfFalse, no);
+        code.iconst(1);
+        code.jump(Code.GOTO, end);
+        code.mark(no);
+        code.iconst(0);
+        code.mark(end);
+        return BOOL;
+    }
+
+    private void checkZero(Token operator) {
+        Code.Label ok = new Code.Label();
+        code.op(Code.DUP2, 2);
+        code.dconst(0.0);
+        code.op(Code.DCMPL, -3);
+        code.jump(Code.IFNE, ok);
+        throwError("divider", operator);
+        code.mark(ok);
+    }
+
+    private void throwError(String factory, Token operator) {
+        token(operator);
+        code.invoke(Code.INVOKESTATIC, RUNTIME, factory,
+                "(L" + TOKEN + ";)Lcom/heinthanth/uit/Runtime/RuntimeError;");
+        code.op(Code.ATHROW, -1);
+    }
+
+    /**
+     * stack ပေါ်က value ကို boolean (int) ပြောင်းမယ်။
+     */
+    private void truthy(int kind) {
+        switch (kind) {
+            case BOOL:
+                break;
+            case NUM:
+                code.op(Code.POP2, -2);
+                code.iconst(1);
+                break;
+            case STR:
+                code.op(Code.POP, -1);
+                code.iconst(1);
+                break;
+            default:
+                code.invoke(Code.INVOKESTATIC, OPERATORS, "isTrue", "(Ljava/lang/Object;)Z");
+                break;
+        }
+    }
+
+    /**
+     * stack ပေါ်က value ကို string ပြောင်းမယ် (Operators.stringify)
+     */
+    private void string(int kind) {
+        switch (kind) {
+            case NUM:
+                code.invoke(Code.INVOKESTATIC, RUNTIME, "str", "(D)Ljava/lang/String;");
+                break;
+            case BOOL:
+                code.invoke(Code.INVOKESTATIC, STRING, "valueOf", "(Z)Ljava/lang/String;");
+                break;
+            case STR:
+                code.type(Code.CHECKCAST, STRING);
+                break;
+            default:
+                code.invoke(Code.INVOKESTATIC, OPERATORS, "stringify", "(Ljava/lang/Object;)Ljava/lang/String;");
+                break;
+        }
+    }
+
+    private void convert(int actual, int kind) {
+        if (actual == kind)
+            return;
+        if (kind != OBJ)
+            throw new Unsupported("type mismatch");
+        box(actual);
+    }
+
+    private void box(int kind) {
+        if (kind == NUM) {
+            code.invoke(Code.INVOKESTATIC, DOUBLE, "valueOf", "(D)Ljava/lang/Double;");
+        } else if (kind == BOOL) {
+            code.invoke(Code.INVOKESTATIC, BOOLEAN, "valueOf", "(Z)Ljava/lang/Boolean;");
+        }
+    }
+
+    private void unbox(int kind) {
+        if (kind == NUM) {
+            code.type(Code.CHECKCAST, DOUBLE);
+            code.invoke(Code.INVOKEVIRTUAL, DOUBLE, "doubleValue", "()D");
+        } else if (kind == BOOL) {
+            code.type(Code.CHECKCAST, BOOLEAN);
+            code.invoke(Code.INVOKEVIRTUAL, BOOLEAN, "booleanValue", "()Z");
+        }
+    }
+
+    private void pop(int kind) {
+        if (kind == NUM) {
+            code.op(Code.POP2, -2);
+        } else {
+            code.op(Code.POP, -1);
+        }
+    }
+
+    private void load(Local local) {
+        code.load(local.kind == NUM ? Code.DLOAD : local.kind == BOOL ? Code.ILOAD : Code.ALOAD, local.index);
+    }
+
+    private void store(Local local) {
+        code.store(local.kind == NUM ? Code.DSTORE : local.kind == BOOL ? Code.ISTORE : Code.ASTORE, local.index);
+    }
+
+    private void token(Token token) {
+        constant(token, TOKEN);
+    }
+
+    /**
+     * K array ထဲကို constant ထည့်ပြီး index ပြန်ပေးမယ်။
+     */
+    private int constant(Object value) {
+        Integer index = constantIndex.get(value);
+        if (index == null) {
+            index = constants.size();
+            constants.add(value);
+            constantIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private void constant(Object value, String type) {
+        code.getstatic(className, "K", "[Ljava/lang/Object;");
+        code.iconst(constant(value));
+        code.op(Code.AALOAD, -1);
+        code.type(Code.CHECKCAST, type);
+    }
+}
@@ -0,0 +1,165 @@
+package com.heinthanth.uit.JIT;
+
+import java.util.Arrays;
+
+import com.heinthanth.uit.Interpreter.Environment;
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.UitCallable;
+import com.heinthanth.uit.Runtime.UitFunction;
+
+/**
+ * JIT ကထုတ်တဲ့ class တွေက ခေါ်သုံးမယ့် helper တွေ။ interpreter နဲ့ error
+ * message, position တွေတူအောင် Operators, Environment ရဲ့ check တွေကိုပဲ
+ * ပြန်သုံးထားတယ်။ generated code က တခြား class loader ထဲမှာ ရှိလို့ public
+ * ဖြစ်နေရမယ်။
+ */
+public final class JitRuntime {
+    private static final Double ZERO = 0.0;
+
+    /**
+     * OSR loop က return statement မတွေ့ဘဲ ပြီးသွားရင် ပြန်ပေးမယ့် value
+     */
+    public static final Object LOOP_EXIT = new Object();
+
+    private JitRuntime() {
+    }
+
+    /**
+     * binary operator ရဲ့ right operand ကို number ပြောင်းမယ်။
+     */
+    public static double number(Object value, Token operator) {
+        if (value instanceof Double)
+            return (double) value;
+        throw operands(operator);
+    }
+
+    public static RuntimeError operands(Token operator) {
+        return new RuntimeError(operator, "Operands must be numbers.");
+    }
+
+    public static RuntimeError divider(Token operator) {
+        return new RuntimeError(operator, "Divider must not be zero.");
+    }
+
+    public static double negate(Object value, Token operator) {
+        Operators.checkNumberOperand(operator, value);
+        return -(double) value;
+    }
+
+    public static String str(double value) {
+        return Operators.stringify(value);
+    }
+
+    public static boolean isEqual(double left, Object right) {
+        return Operators.isEqual(left, right);
+    }
+
+    public static boolean isEqual(boolean left, Object right) {
+        return Operators.isEqual(left, right);
+    }
+
+    /**
+     * interpreter ရဲ့ visitCallExpression နဲ့ check တွေ တူတူပဲ။
+     */
+    public static Object call(Object callee, Object[] arguments, Token paren, Interpreter interpreter) {
+        if (!(callee instanceof UitCallable)) {
+            throw new RuntimeError(paren, "Cannot invoke non-functions.");
+        }
+        UitCallable function = (UitCallable) callee;
+        if (arguments.length != function.argsCount()) {
+            throw new RuntimeError(paren,
+                    "Expected " + function.argsCount() + " arguments but got " + arguments.length + ".");
+        }
+        try {
+            return function.invoke(interpreter, Arrays.asList(arguments));
+        } catch (RuntimeError error) {
+            throw error.at(paren);
+        }
+    }
+
+    /**
+     * `return f(...)` ။ caller frame ကို ကျော်လို့ရရင် UitFunction.invoke ရဲ့
+     * loop က ဆက် run ဖို့ TailCall ကို ပြန်ပေးမယ်။ မရရင် ခေါ်ပြီး function ရဲ့
+     * return check နဲ့ ပြန်ပေးမယ်။
+     */
+    public static Object tailCall(Object callee, Object[] arguments, Token paren, Interpreter interpreter,
+            UitFunction function) {
+        if (function.canTailCall(callee, arguments.length))
+            return new UitFunction.TailCall((UitFunction) callee, Arrays.asList(arguments));
+        return function.returnValue(call(callee, arguments, paren, interpreter));
+    }
+
+    /**
+     * compile ပြီးသား body ကို တိုက်ရိုက်ခေါ်ရင် ပြန်လာတဲ့ TailCall ကို run ပြီးမှ
+     * value သုံးမယ်။
+     */
+    public static Object complete(Object value, Interpreter interpreter) {
+        if (value instanceof UitFunction.TailCall) {
+            UitFunction.TailCall call = (UitFunction.TailCall) value;
+            return call.function.invoke(interpreter, call.arguments);
+        }
+        return value;
+    }
+
+    public static Object assignGlobal(Object value, Environment globals, Token identifier) {
+        globals.assign(identifier, value);
+        return value;
+    }
+
+    /**
+     * global variable ကို ++ / -- လုပ်မယ်။
+     */
+    public static Object stepGlobal(Environment globals, Token identifier, Token operator, double delta,
+            boolean prefix) {
+        Object previous = globals.get(identifier);
+        Object current;
+        if (previous instanceof Long) {
+            current = (long) previous + (long) delta;
+        } else if (previous instanceof Double) {
+            current = (double) previous + delta;
+        } else {
+            throw new RuntimeError(operator,
+                    delta > 0 ? "Cannot increase non-number." : "Cannot decrease non-number.");
+        }
+        globals.assign(identifier, current);
+        return prefix ? current : previous;
+    }
+
+    public static double assignNum(Object value, Token identifier) {
+        Environment.checkAssignment(identifier, ZERO, value);
+        return (double) value;
+    }
+
+    public static boolean assignBool(Object value, Token identifier) {
+        Environment.checkAssignment(identifier, Boolean.FALSE, value);
+        return (boolean) value;
+    }
+
+    public static Object assignString(Object value, Token identifier) {
+        Environment.checkAssignment(identifier, "", value);
+        return value;
+    }
+
+    public static Object assignObject(Object value, Object old, Token identifier) {
+        Environment.checkAssignment(identifier, old, value);
+        return value;
+    }
+
+    public static double declareNum(Object value, Token type, Token identifier) {
+        Environment.checkDeclaration(type, identifier, value);
+        return (double) value;
+    }
+
+    public static boolean declareBool(Object value, Token type, Token identifier) {
+        Environment.checkDeclaration(type, identifier, value);
+        return (boolean) value;
+    }
+
+    public static Object declareObject(Object value, Token type, Token identifier) {
+        Environment.checkDeclaration(type, identifier, value);
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.heinthanth.uit;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.heinthanth.uit.Utils.ErrorHandler;
+import com.heinthanth.uit.VM.Image;
+import com.heinthanth.uit.VM.VirtualMachine;
+
+import org.fusesource.jansi.AnsiConsole;
+import org.jline.reader.LineReader;
+import org.jline.reader.LineReaderBuilder;
+import org.jline.reader.LineReader.Option;
+import org.jline.reader.impl.DefaultParser;
+
+/**
+ * `uit build` နဲ့ ထုတ်ထားတဲ့ jar ရဲ့ main class။ jar ထဲက compile ပြီးသား
+ * program ကို vm နဲ့ တန်း run မယ်။ lexer, parser တွေ jar ထဲမှာ မပါဘူး။
+ */
+public class Launcher {
+    public static void main(String[] args) throws IOException {
+        AnsiConsole.systemInstall();
+
+        InputStream stream = Launcher.class.getClassLoader().getResourceAsStream(Image.RESOURCE);
+        if (stream == null) {
+            System.err.println("\nError: compiled program not found.\n");
+            System.exit(1);
+        }
+        Image image;
+        try (InputStream in = stream) {
+            image = Image.read(in);
+        }
+
+        DefaultParser parser = new DefaultParser();
+        parser.setEscapeChars(null);
+        LineReader reader = LineReaderBuilder.builder().option(Option.INSERT_TAB, true).parser(parser).build();
+
+        ErrorHandler errorHandler = new ErrorHandler(image.source, image.filename, false);
+        new VirtualMachine().interpret(image, errorHandler, reader);
+    }
+}
@@ -26,6 +26,7 @@ public class Lexer {
         reserved = new HashMap<>();
         reserved.put("string", VT_STRING);
         reserved.put("num", VT_NUMBER);
+        reserved.put("int", VT_INT);
         reserved.put("boolean", VT_BOOLEAN);
         reserved.put("void", FRT_VOID);
         reserved.put("start", START);
@@ -59,6 +60,7 @@ public class Lexer {
         reserved.put("set", SET);
         reserved.put("input", INPUT);
         reserved.put("output", OUTPUT);
+        reserved.put("const", CONST);
         reserved.put("true", BOOLEAN_LITERAL);
         reserved.put("false", BOOLEAN_LITERAL);
     }
@@ -141,18 +143,13 @@ public class Lexer {
                 addToken(RIGHT_CURLY);
                 break;
             case '&':
-                if (match('&')) {
-                    addToken(AND);
-                } else {
-                    errorHandler.reportError("Expecting '&&', but not found.", line, current);
-                }
+                addToken(match('&') ? AND : AMPERSAND);
                 break;
             case '|':
-                if (match('|')) {
-                    addToken(OR);
-                } else {
-                    errorHandler.reportError("Expecting '||', but not found.", line, current);
-                }
+                addToken(match('|') ? OR : PIPE);
+                break;
+            case '~':
+                addToken(TILDE);
                 break;
             case '!':
                 addToken(match('=') ? NOT_EQUAL : NOT);
@@ -173,13 +170,22 @@ public class Lexer {
                     type = NOT_EQUAL;
                 } else if (match('=')) {
                     type = LESS_EQUAL;
+                } else if (match('<')) {
+                    type = LESS_LESS;
                 }
                 addToken(type);
                 break;
             }
-            case '>':
-                addToken(match('=') ? GREATER_EQUAL : GREATER);
+            case '>': {
+                token_t type = GREATER;
+                if (match('=')) {
+                    type = GREATER_EQUAL;
+                } else if (match('>')) {
+                    type = GREATER_GREATER;
+                }
+                addToken(type);
                 break;
+            }
             case ';':
                 addToken(SEMICOLON);
                 break;
@@ -285,6 +291,17 @@ public class Lexer {
         tokens.add(new Token(type, lexeme, value, line, current - 1));
     }
 
+    /**
+     * int token တစ်ခုလုပ်ဖို့။
+     *
+     * @param type  token type
+     * @param value long value
+     */
+    private void addToken(token_t type, long value) {
+        String lexeme = source.substring(start, current);
+        tokens.add(new Token(type, lexeme, value, line, current - 1));
+    }
+
     /**
      * boolean token တစ်ခုလုပ်ဖို့။
      *
@@ -377,7 +394,13 @@ public class Lexer {
                 advance();
         }
 
-        addToken(NUMBER_LITERAL, Double.parseDouble(source.substring(start, current)));
+        String number = source.substring(start, current);
+        if (!number.contains(".") && getCurrentCharacter() == 'L' && !isAlphaNumeric(peekNext())) {
+            advance();
+            makeInt(number);
+            return;
+        }
+        addToken(NUMBER_LITERAL, Double.parseDouble(number));
     }
 
     // source string တွေကနေ number token တစ်ခု ဆောက်မယ်။
@@ -398,9 +421,23 @@ public class Lexer {
                 .replace("၃", "3").replace("၄", "4").replace("၅", "5").replace("၆", "6").replace("၇", "7")
                 .replace("၈", "8").replace("၉", "9");
 
+        if (!number.contains(".") && getCurrentCharacter() == 'L' && !isAlphaNumeric(peekNext())) {
+            advance();
+            makeInt(number);
+            return;
+        }
         addToken(NUMBER_LITERAL, Double.parseDouble(number));
     }
 
+    // L နောက်ဆက်ပါတဲ့ digit တွေ (eg. 42L) ကနေ int token တစ်ခု ဆောက်မယ်။
+    private void makeInt(String number) {
+        try {
+            addToken(INT_LITERAL, Long.parseLong(number));
+        } catch (NumberFormatException e) {
+            errorHandler.reportError("Integer literal out of range", line, current);
+        }
+    }
+
     // source string ကနေ identifier တစ်ခုဆောက်မယ်။
     private void makeIdentifier() {
         while (isAlphaNumeric(getCurrentCharacter()))
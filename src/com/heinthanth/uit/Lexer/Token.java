@@ -14,9 +14,14 @@ public class Token {
     // value က value ပေါ့။ string value, number value, boolean value စသည်ဖြင့်။
     public final String v_string;
     public final double v_number;
+    public final long v_int;
     public final boolean v_boolean;
     // public final Object v_object;
 
+    // getValue() ပြန်ပေးမယ့် value။ literal တစ်ခါ run တိုင်း box အသစ် မဆောက်ရအောင်
+    // token ဆောက်တုန်းက တစ်ခါပဲ box ထားမယ်။
+    private final Object value;
+
     // source code မှာရှိတဲ့ position (line, col)
     public final int line;
     public final int col;
@@ -30,8 +35,10 @@ public class Token {
 
         this.v_type = VT_STRING;
         this.v_string = value;
+        this.value = value;
 
         this.v_number = 0.0;
+        this.v_int = 0;
         this.v_boolean = false;
         // this.v_object = null;
     }
@@ -45,8 +52,27 @@ public class Token {
 
         this.v_type = VT_NUMBER;
         this.v_number = value;
+        this.value = value;
 
         this.v_string = "";
+        this.v_int = 0;
+        this.v_boolean = false;
+        // this.v_object = null;
+    }
+
+    // int token အတွက် constructor
+    public Token(token_t type, String lexeme, long value, int line, int col) {
+        this.type = type;
+        this.lexeme = lexeme;
+        this.line = line;
+        this.col = col;
+
+        this.v_type = VT_INT;
+        this.v_int = value;
+        this.value = value;
+
+        this.v_string = "";
+        this.v_number = 0.0;
         this.v_boolean = false;
         // this.v_object = null;
     }
@@ -60,9 +86,11 @@ public class Token {
 
         this.v_type = VT_BOOLEAN;
         this.v_boolean = value;
+        this.value = value;
 
         this.v_string = "";
         this.v_number = 0.0;
+        this.v_int = 0;
         // this.v_object = null;
     }
 
@@ -89,25 +117,18 @@ public class Token {
         this.col = col;
 
         this.v_type = VT_VOID;
+        this.value = "null";
 
         this.v_string = "";
         this.v_number = 0.0;
+        this.v_int = 0;
         this.v_boolean = false;
         // this.v_object = null;
     }
 
     // token ရဲ့ value ကိုယူဖို့
     public Object getValue() {
-        switch (v_type) {
-            case VT_STRING:
-                return v_string;
-            case VT_NUMBER:
-                return v_number;
-            case VT_BOOLEAN:
-                return v_boolean;
-            default:
-                return "null";
-        }
+        return value;
     }
 
     // ဒါက token ကို string အနေနဲ့ ေဖာ်ပြဖို့အတွက်
@@ -116,6 +137,8 @@ public class Token {
         switch (v_type) {
             case VT_NUMBER:
                 return "[" + type + ":" + lexeme + "|" + v_number + "(" + line + "," + col + ")]";
+            case VT_INT:
+                return "[" + type + ":" + lexeme + "|" + v_int + "(" + line + "," + col + ")]";
             case VT_STRING:
                 return "[" + type + ":" + lexeme + "|" + v_string + "(" + line + "," + col + ")]";
             case VT_BOOLEAN:
@@ -5,12 +5,14 @@ public enum token_t {
     PLUS, MINUS, STAR, SLASH, CARET, PERCENT, INCREMENT, DECREMENT,
     // logical operators
     NOT, EQUAL, NOT_EQUAL, LESS, GREATER, LESS_EQUAL, GREATER_EQUAL,
+    // int အတွက် bitwise operators (& | ~ << >>)
+    AMPERSAND, PIPE, TILDE, LESS_LESS, GREATER_GREATER,
     // grouping expression
     LEFT_PAREN, RIGHT_PAREN, LEFT_CURLY, RIGHT_CURLY,
     // literal တွေ
-    STRING_LITERAL, NUMBER_LITERAL, BOOLEAN_LITERAL, IDENTIFIER,
+    STRING_LITERAL, NUMBER_LITERAL, INT_LITERAL, BOOLEAN_LITERAL, IDENTIFIER,
     // variable declaration အတွက် type (eg. String demo = "HELLO")
-    VT_STRING, VT_NUMBER, VT_BOOLEAN, FRT_VOID, OBJECT,
+    VT_STRING, VT_NUMBER, VT_INT, VT_BOOLEAN, FRT_VOID, OBJECT,
     // program main function start & stop
     START, STOP,
     // and or
@@ -30,7 +32,7 @@ public enum token_t {
     // class
     CLASS, ENDCLASS, NEW, DART, PUBLIC, PRIVATE, PROTECTED, EXTENDS, THIS, SUPER,
     // other keywords
-    SET, INPUT, OUTPUT,
+    SET, INPUT, OUTPUT, CONST,
     // other operator
     ASSIGN, COMMA, DOT, SEMICOLON, EOF,
 }
\ No newline at end of file
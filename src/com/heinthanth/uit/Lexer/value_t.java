@@ -2,5 +2,5 @@ package com.heinthanth.uit.Lexer;
 
 // token မှာထည့်ထားတဲ့ value တွေအတွက် type enum
 public enum value_t {
-    VT_NUMBER, VT_STRING, VT_BOOLEAN, VT_OBJECT, VT_VOID
+    VT_NUMBER, VT_INT, VT_STRING, VT_BOOLEAN, VT_OBJECT, VT_VOID
 }
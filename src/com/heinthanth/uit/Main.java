@@ -2,21 +2,35 @@ package com.heinthanth.uit;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
+import com.heinthanth.uit.Interpreter.ClosureCompiler;
+import com.heinthanth.uit.Interpreter.Fuser;
 import com.heinthanth.uit.Interpreter.Interpreter;
 import com.heinthanth.uit.Interpreter.Resolver;
+import com.heinthanth.uit.Interpreter.TypeChecker;
+import com.heinthanth.uit.JIT.Jit;
 import com.heinthanth.uit.Lexer.Lexer;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Optimizer.ConstantFolder;
+import com.heinthanth.uit.Optimizer.LoopOptimizer;
 import com.heinthanth.uit.Parser.Parser;
 import com.heinthanth.uit.Lexer.Token;
 import com.heinthanth.uit.Runtime.Statement;
 import com.heinthanth.uit.Utils.ErrorHandler;
+import com.heinthanth.uit.Utils.JarBuilder;
+import com.heinthanth.uit.VM.Image;
+import com.heinthanth.uit.VM.VirtualMachine;
 
 import org.fusesource.jansi.Ansi;
 import org.fusesource.jansi.AnsiConsole;
@@ -39,6 +53,24 @@ public class Main {
     // interpreter instance
     private static final Interpreter interpreter = new Interpreter();
 
+    // bytecode vm instance (--engine=vm)
+    private static VirtualMachine vm;
+
+    // closure compiler instance (--engine=closure)
+    private static ClosureCompiler closures;
+
+    // ast engine အတွက် resolver နောက်က pass
+    private static Fuser fuser;
+
+    // REPL input တွေကြားမှာ type checker က သုံးမယ့် global variable type တွေ
+    private static final Map<String, token_t> globalTypes = new HashMap<>();
+
+    // --fusion-stats
+    private static boolean fusionStats = false;
+
+    // --dump-optimized
+    private static boolean dumpOptimized = false;
+
     private static LineReader reader;
 
     public static void main(String[] args) throws IOException {
@@ -46,6 +78,12 @@ public class Main {
         AnsiConsole.systemInstall();
 
         reader = createReader();
+        args = parseEngine(args);
+        // uit build script.uit -o app.jar
+        if (args.length > 0 && "build".equals(args[0])) {
+            build(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         // argument ဘာမှ မပါဘူးဆိုတာက stdin run ဖို့များတယ်။ အဲ့တော့
         // runFromStandardInput()
         // ကိုခေါ်လိုက်မယ်။
@@ -190,6 +228,8 @@ public class Main {
         if (script.canRead()) {
             // file content ကို ဖတ်ပြီး run မယ်။
             byte[] bytes = Files.readAllBytes(Paths.get(path));
+            if (interpreter.jit != null)
+                interpreter.jit.useSource(script.getAbsolutePath());
             runFromString(new String(bytes, Charset.defaultCharset()), false, script.getName());
             // အဲ့တော့ file content ကို ဖတ်လို့မရရင် error ပြမယ်။
         } else {
@@ -200,6 +240,51 @@ public class Main {
         }
     }
 
+    /**
+     * script ကို vm bytecode အဖြစ် compile ပြီး lexer, parser မပါဘဲ run လို့ရတဲ့
+     * jar ထုတ်ပေးမယ်။ output မပေးရင် script name နဲ့ပဲ .jar ထုတ်မယ်။
+     *
+     * @param args build ရဲ့ arguments (script.uit -o app.jar)
+     * @throws IOException
+     */
+    private static void build(String[] args) throws IOException {
+        String path = null;
+        String output = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                output = args[++i];
+            } else if (path == null && !args[i].startsWith("-")) {
+                path = args[i];
+            } else {
+                showUsage(1);
+            }
+        }
+        if (path == null)
+            showUsage(1);
+
+        File script = new File(path);
+        if (!script.canRead()) {
+            System.err.println("\nError: cannot READ '" + script.getName() + "'. Possible error: ENOENT, EACCES.\n");
+            System.exit(2);
+        }
+        if (output == null)
+            output = path.replaceFirst("\\.uit$", "") + ".jar";
+
+        String code = new String(Files.readAllBytes(Paths.get(path)), Charset.defaultCharset());
+        ErrorHandler errorHandler = new ErrorHandler(code, script.getName(), false);
+        List<Token> tokens = new Lexer(code, errorHandler).tokenize();
+        List<Statement> statements = new Parser(tokens, errorHandler, false).parse();
+        new Resolver(interpreter, errorHandler).resolve(statements);
+        TypeChecker checker = new TypeChecker(errorHandler);
+        checker.check(statements);
+        handleError(errorHandler, false);
+        statements = optimize(checker.typed(statements), errorHandler);
+        // optimize လုပ်ပြီး ပြန် resolve, type check တုန်းက error တက်ရင်လည်း ရပ်မယ်။
+        handleError(errorHandler, false);
+
+        JarBuilder.write(Image.compile(statements, code, script.getName()), output, Launcher.class.getName());
+    }
+
     /**
      * uit source code ကို interpret လုပ်ပေးတဲ့ function ပေါ့။ token လုပ်မယ်။ parse
      * မယ်။ ရလာတဲ့ ast ကို interpret မယ်။
@@ -235,9 +320,121 @@ public class Main {
         if (!handleError(errorHandler, fromREPL))
             return;
 
+        // assign, return တွေရဲ့ type ကို run မလုပ်ခင် စစ်မယ်။
+        TypeChecker checker = new TypeChecker(errorHandler, globalTypes);
+        checker.check(statements);
+        if (!handleError(errorHandler, fromREPL))
+            return;
+        // JIT က operand တွေကို num လို့ပဲ compile တတ်လို့ int သုံးရင် သိအောင် ပြောမယ်။
+        if (checker.usesInt() && interpreter.jit != null)
+            interpreter.jit.useInts();
+
+        statements = optimize(checker.typed(statements), errorHandler);
+        // optimize လုပ်ပြီး ပြန် resolve, type check တုန်းက error တက်ရင်လည်း ရပ်မယ်။
+        if (!handleError(errorHandler, fromREPL))
+            return;
+        // run မယ့် input ရဲ့ const တွေကို နောက် REPL input တွေကနေ assign လို့မရအောင် မှတ်မယ်။
+        interpreter.constants.addAll(resolver.constants());
+
         // AstPrinter printer = new AstPrinter();
         // System.out.println(printer.print(expression));
-        interpreter.interpret(statements, errorHandler, fromREPL, reader);
+        if (vm != null) {
+            vm.interpret(statements, errorHandler, fromREPL, reader);
+        } else if (closures != null) {
+            closures.interpret(statements, errorHandler, fromREPL, reader);
+        } else {
+            if (fuser == null) {
+                fuser = new Fuser(interpreter, fusionStats);
+                if (fusionStats)
+                    Runtime.getRuntime().addShutdownHook(new Thread(Main::showFusionStats));
+            }
+            interpreter.interpret(fuser.fuse(statements), errorHandler, fromREPL, reader);
+        }
+    }
+
+    /**
+     * const တွေ၊ constant expression တွေကို literal နဲ့ လဲပြီး မလိုတဲ့ code တွေကို
+     * ဖြတ်မယ်။ ပြီးရင် loop တွေထဲက မပြောင်းတဲ့ expression တွေကို loop အပြင်ထုတ်မယ်။
+     * loop optimizer က temporary variable အသစ်တွေ ထည့်ရင် slot, type တွေကို
+     * ပြန်တွက်ရမယ်။
+     *
+     * @param statements resolve, type check ပြီးသား statement တွေ
+     * @return ပြန် resolve, type check တုန်းက error တက်ရင် errorHandler မှာ မှတ်ထားမယ်။
+     */
+    private static List<Statement> optimize(List<Statement> statements, ErrorHandler errorHandler) {
+        PrintStream dump = dumpOptimized ? System.err : null;
+        statements = new ConstantFolder(interpreter, dump).rewrite(statements);
+        List<Statement> optimized = new LoopOptimizer(interpreter, dump).rewrite(statements);
+        if (optimized != statements) {
+            new Resolver(interpreter, errorHandler).resolve(optimized);
+            new TypeChecker(errorHandler).check(optimized);
+        }
+        return optimized;
+    }
+
+    /**
+     * fused node တစ်မျိုးချင်းစီ ဘယ်နှခါ run ခဲ့လဲ stderr မှာ ပြမယ်။
+     */
+    private static void showFusionStats() {
+        System.err.println("\nfused nodes:");
+        for (Fuser.fusion_t kind : Fuser.fusion_t.values()) {
+            System.err.printf("  %-18s %d%n", kind.name().toLowerCase(), fuser.count(kind));
+        }
+    }
+
+    /**
+     * ရှေ့ဆုံးက --engine=ast|closure|vm, --jit, --jit-cache, --fusion-stats, --dump-optimized, --max-frames option တွေကို ဖတ်ပြီး ကျန်တဲ့ argument တွေကို
+     * ပြန်ပေးမယ်။
+     *
+     * @param args command line arguments
+     * @return engine option တွေ ဖယ်ပြီးသား arguments
+     */
+    private static String[] parseEngine(String[] args) {
+        int i = 0;
+        int maxFrames = VirtualMachine.MAX_FRAMES;
+        for (; i < args.length && isEngineOption(args[i]); i++) {
+            if ("--fusion-stats".equals(args[i])) {
+                fusionStats = true;
+            } else if ("--dump-optimized".equals(args[i])) {
+                dumpOptimized = true;
+            } else if (args[i].startsWith("--max-frames=")) {
+                try {
+                    maxFrames = Integer.parseInt(args[i].substring("--max-frames=".length()));
+                } catch (NumberFormatException e) {
+                    maxFrames = 0;
+                }
+                if (maxFrames <= 0) {
+                    System.err.println("\nError: invalid frame budget '" + args[i] + "'.\n");
+                    System.exit(1);
+                }
+            } else if ("--jit".equals(args[i]) || args[i].startsWith("--jit-cache=")) {
+                if (interpreter.jit == null)
+                    interpreter.jit = new Jit(interpreter);
+                if (args[i].startsWith("--jit-cache="))
+                    interpreter.jit.useCache(Paths.get(args[i].substring("--jit-cache=".length())));
+            } else {
+                String engine = args[i].substring("--engine=".length());
+                vm = null;
+                closures = null;
+                if ("vm".equals(engine)) {
+                    vm = new VirtualMachine();
+                } else if ("closure".equals(engine)) {
+                    closures = new ClosureCompiler(interpreter);
+                } else if (!"ast".equals(engine)) {
+                    System.err.println("\nError: invalid engine '" + engine + "'.\n");
+                    System.exit(1);
+                }
+            }
+        }
+        if (vm != null)
+            vm.setMaxFrames(maxFrames);
+        return Arrays.copyOfRange(args, i, args.length);
+    }
+
+    private static boolean isEngineOption(String arg) {
+        return arg.startsWith("--engine=") || "--jit".equals(arg) || arg.startsWith("--jit-cache=")
+                || "--fusion-stats".equals(arg) || "--dump-optimized".equals(arg)
+                || arg.startsWith("--max-frames=");
     }
 
     private static boolean handleError(ErrorHandler errorHandler, boolean fromREPL) {
@@ -281,6 +478,19 @@ public class Main {
         System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t-i").reset().a(", ").fgBright(Color.GREEN)
                 .a("--interactive").reset());
         System.out.println("\t\tRun interpreter in REPL mode.");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--engine=ast|closure|vm").reset());
+        System.out.println(
+                "\t\tSelect execution engine: tree-walking interpreter (default), closure compiler or bytecode vm.");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--jit").reset());
+        System.out.println("\t\tCompile hot functions to JVM bytecode (ast and closure engines).");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--jit-cache=DIR").reset());
+        System.out.println("\t\tLike --jit, and keep compiled functions in DIR for later runs.");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--fusion-stats").reset());
+        System.out.println("\t\tPrint how often each fused node ran (ast engine) on exit.");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--dump-optimized").reset());
+        System.out.println("\t\tPrint each rewrite the optimizer makes before running.");
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\t--max-frames=N").reset());
+        System.out.println("\t\tLimit nested uit calls on the vm engine (default " + VirtualMachine.MAX_FRAMES + ").");
 
         System.out.println(Ansi.ansi().fgBright(Color.YELLOW).a("\nExamples:").reset());
         System.out.println(
@@ -288,7 +498,11 @@ public class Main {
         System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\tuit hello-world.uit").reset()
                 .a("\n\t\tInterpret code from 'hello-world.uit'."));
         System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\tuit -i").reset()
-                .a("\n\t\tRun interpreter in REPL mode. Get input and interpret it.\n"));
+                .a("\n\t\tRun interpreter in REPL mode. Get input and interpret it."));
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\tuit --engine=vm hello-world.uit").reset()
+                .a("\n\t\tCompile 'hello-world.uit' to bytecode and run it on the vm."));
+        System.out.println(Ansi.ansi().fgBright(Color.GREEN).a("\tuit build hello-world.uit -o hello.jar").reset()
+                .a("\n\t\tCompile 'hello-world.uit' into 'hello.jar'. Run it with 'java -jar hello.jar'.\n"));
         System.exit(exitStatus);
     }
 
@@ -0,0 +1,131 @@
+package com.heinthanth.uit.Optimizer;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Interpreter.Resolver;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * const တွေကို အစားထိုးပြီးရင် literal ချည်းပဲ operand ဖြစ်နေတဲ့ arithmetic,
+ * comparison, `.` concat တွေကို run မလုပ်ခင် တွက်ထားမယ်။ value ကို ဘယ်သူမှ
+ * မသုံးတဲ့ side effect မရှိတဲ့ expression statement (eg. `1 == 1;`) နဲ့
+ * `while (false)` loop တွေကို ဖျက်မယ်။ runtime error တက်မယ့် expression
+ * (eg. `1 / 0`) ကိုတော့ run တဲ့အချိန်မှ error ပြဖို့ မထိဘူး။
+ */
+public class ConstantFolder extends ConstantPropagator {
+    public ConstantFolder(Interpreter interpreter, PrintStream dump) {
+        super(interpreter, dump);
+    }
+
+    @Override
+    public List<Statement> rewrite(List<Statement> statements) {
+        // REPL မှာ expression တစ်ခုတည်း ရိုက်ရင် result ကို ပြရမှာမို့ မဖျက်ဘူး။
+        if (statements.size() == 1 && statements.get(0) instanceof Statement.ExpressionStatement)
+            return Collections.singletonList(
+                    super.visitExpressionStatement((Statement.ExpressionStatement) statements.get(0)));
+        return super.rewrite(statements);
+    }
+
+    /**
+     * literal ဆို သူ့ value၊ မဟုတ်ရင် null
+     */
+    private static Object value(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression)
+            return ((Expression.LiteralExpression) expression).value.getValue();
+        return null;
+    }
+
+    /**
+     * original ကို value literal နဲ့ လဲမယ်။
+     */
+    private Expression fold(Expression original, Object value, Token at) {
+        Expression literal = new Expression.LiteralExpression(Resolver.literal(value, at));
+        report(at, "fold " + describe(original) + " to " + describe(literal));
+        return literal;
+    }
+
+    // ---- statement တွေ ----
+
+    @Override
+    public Statement visitExpressionStatement(Statement.ExpressionStatement statement) {
+        Statement rewritten = super.visitExpressionStatement(statement);
+        Expression expression = ((Statement.ExpressionStatement) rewritten).expression;
+        if (!pure(expression))
+            return rewritten;
+        report(at(expression), "remove " + describe(expression) + " (no effect)");
+        return null;
+    }
+
+    @Override
+    public Statement visitWhileStatement(Statement.WhileStatement statement) {
+        Statement rewritten = super.visitWhileStatement(statement);
+        Object condition = value(((Statement.WhileStatement) rewritten).condition);
+        if (condition == null || Operators.isTrue(condition))
+            return rewritten;
+        report(at(((Statement.WhileStatement) rewritten).condition), "remove while loop that never runs");
+        return null;
+    }
+
+    // ---- expression တွေ ----
+
+    @Override
+    public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+        Expression rewritten = super.visitBinaryExpression(expression);
+        Expression.BinaryExpression binary = (Expression.BinaryExpression) rewritten;
+        Object left = value(binary.left);
+        Object right = value(binary.right);
+        if (left == null || right == null)
+            return rewritten;
+        try {
+            Object value = Operators.binary(binary.operator, left, right);
+            return value == null ? rewritten : fold(binary, value, binary.operator);
+        } catch (RuntimeError error) {
+            return rewritten;
+        }
+    }
+
+    @Override
+    public Expression visitUnaryExpression(Expression.UnaryExpression expression) {
+        Expression rewritten = super.visitUnaryExpression(expression);
+        Expression.UnaryExpression unary = (Expression.UnaryExpression) rewritten;
+        Object right = value(unary.right);
+        if (right == null)
+            return rewritten;
+        try {
+            Object value = Operators.unary(unary.operator, right);
+            return value == null ? rewritten : fold(unary, value, unary.operator);
+        } catch (RuntimeError error) {
+            return rewritten;
+        }
+    }
+
+    @Override
+    public Expression visitGroupingExpression(Expression.GroupingExpression expression) {
+        Expression rewritten = super.visitGroupingExpression(expression);
+        Expression inner = ((Expression.GroupingExpression) rewritten).expression;
+        return inner instanceof Expression.LiteralExpression ? inner : rewritten;
+    }
+
+    @Override
+    public Expression visitLogicalExpression(Expression.LogicalExpression expression) {
+        Expression rewritten = super.visitLogicalExpression(expression);
+        Expression.LogicalExpression logical = (Expression.LogicalExpression) rewritten;
+        Object left = value(logical.left);
+        if (left == null)
+            return rewritten;
+        // and / or က ဆုံးဖြတ်ပြီးသား operand ရဲ့ value ကို ပြန်ပေးတာမို့
+        boolean shortCircuit = logical.operator.type == token_t.OR ? Operators.isTrue(left)
+                : !Operators.isTrue(left);
+        Expression result = shortCircuit ? logical.left : logical.right;
+        report(logical.operator, "simplify " + describe(logical) + " to " + describe(result));
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.heinthanth.uit.Optimizer;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Interpreter.Resolver;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * resolver က value သိထားတဲ့ const variable ကို ဖတ်တဲ့နေရာတွေကို literal နဲ့
+ * အစားထိုးမယ်။ ပြီးရင် condition က constant ဖြစ်သွားတဲ့ if branch တွေကို
+ * ဖြတ်မယ်။ eg. `const boolean DEBUG = false;` ဆို `if (DEBUG) ... endif`
+ * တစ်ခုလုံး run မယ့် code ထဲ မပါတော့ဘူး။
+ */
+public class ConstantPropagator extends Rewriter {
+    public ConstantPropagator(Interpreter interpreter, PrintStream dump) {
+        super(interpreter, dump);
+    }
+
+    @Override
+    public Expression visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        if (expression.constant == null)
+            return expression;
+        Expression literal = new Expression.LiteralExpression(expression.constant);
+        report(expression.identifier, "replace const " + expression.identifier.lexeme + " with " + describe(literal));
+        return literal;
+    }
+
+    @Override
+    public Statement visitIfStatement(Statement.IfStatement statement) {
+        Statement.IfStatement rewritten = (Statement.IfStatement) super.visitIfStatement(statement);
+        Map<Expression, Statement> branches = new LinkedHashMap<>();
+        for (Map.Entry<Expression, Statement> branch : rewritten.branches.entrySet()) {
+            Object value = Resolver.constant(branch.getKey());
+            if (value == null) {
+                branches.put(branch.getKey(), branch.getValue());
+            } else if (Operators.isTrue(value)) {
+                // ဒီ branch က အမြဲ run မယ်။ နောက်က branch တွေကို ဘယ်တော့မှ မရောက်ဘူး။
+                report(at(branch.getKey()), "keep only the always-true branch of if");
+                if (branches.isEmpty())
+                    return branch.getValue();
+                return new Statement.IfStatement(branches, branch.getValue());
+            } else {
+                report(at(branch.getKey()), "remove never-taken if branch");
+            }
+        }
+        if (branches.size() == rewritten.branches.size())
+            return rewritten;
+        if (branches.isEmpty())
+            return rewritten.elseBranch;
+        return new Statement.IfStatement(branches, rewritten.elseBranch);
+    }
+}
@@ -0,0 +1,582 @@
+package com.heinthanth.uit.Optimizer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Interpreter.Resolver;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Lexer.value_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Utils.TypeMapper;
+
+/**
+ * while loop တွေ (for loop ကို parser က while ပြောင်းထားတာလည်း ပါ) ကို
+ * ပြန်ရေးမယ်။
+ *
+ * 1. strength reduction: loop ထဲမှာ `i++`, `set i = i + 2` လို step တစ်ခုတည်းနဲ့ပဲ
+ * ပြောင်းတဲ့ variable (induction variable) ကို constant နဲ့ မြှောက်ထားရင်
+ * (`i * stride`) loop မစခင် တစ်ခါပဲ မြှောက်ပြီး i ပြောင်းတိုင်း step * stride
+ * ကို ပေါင်းသွားမယ်။
+ *
+ * 2. loop-invariant code motion: loop ထဲမှာ ဘယ်တော့မှ မပြောင်းတဲ့ variable တွေကိုပဲ
+ * သုံးထားတဲ့ expression (`n * 2`, `base ^ 2`) ကို loop မစခင် တစ်ခါပဲ တွက်မယ်။
+ * loop တစ်ခါမှ မပတ်ရင်လည်း အရင်တွက်ထားလို့ ပြဿနာ မရှိအောင် error မတက်နိုင်၊
+ * side effect မရှိတဲ့ expression (pure) တွေကိုပဲ ရွှေ့မယ်။
+ *
+ * တွက်ထားတဲ့ value တွေကို loop နဲ့အတူ block အသစ်ထဲမှာ ကြေညာတဲ့ temporary
+ * variable (`$loop0` ...) တွေထဲ ထည့်ထားမယ်။ variable အသစ်တွေ ပါလာလို့ ဒီ pass
+ * ပြီးရင် resolver, type checker ကို ပြန် run ရမယ်။ function call ပါတဲ့ loop ဆို
+ * closure တွေက ပြောင်းနိုင်တဲ့ (cell နဲ့ ထုပ်ထားတဲ့) variable တွေကို invariant လို့
+ * မယူဘူး။ input က ထည့်တဲ့ variable ကိုလည်း assign လိုပဲ ယူမယ်။ class method ထဲက
+ * loop တွေကိုတော့ မထိဘူး။
+ */
+public class LoopOptimizer extends Rewriter {
+    // temporary variable နာမည်အတွက် counter (source ထဲမှာ $ မပါနိုင်လို့ မထပ်ဘူး)
+    private int temporaries = 0;
+
+    // အခု ပြန်ရေးနေတဲ့ while ရဲ့ ရှေ့က statement (for loop ဆို initializer)
+    private Statement preceding = null;
+
+    public LoopOptimizer(Interpreter interpreter, PrintStream dump) {
+        super(interpreter, dump);
+    }
+
+    @Override
+    protected List<Statement> statements(List<Statement> statements) {
+        List<Statement> result = new ArrayList<>(statements.size());
+        boolean changed = false;
+        Statement previous = null;
+        for (Statement statement : statements) {
+            preceding = previous;
+            Statement rewritten = statement(statement);
+            changed |= rewritten != statement;
+            if (rewritten != null)
+                result.add(rewritten);
+            previous = statement;
+        }
+        return changed ? result : statements;
+    }
+
+    @Override
+    public Statement visitClassStatement(Statement.ClassStatement statement) {
+        return statement;
+    }
+
+    @Override
+    public Statement visitWhileStatement(Statement.WhileStatement statement) {
+        Statement before = preceding;
+        // statement list ထဲက မဟုတ်တဲ့ loop (eg. `for (...) then while ...`) မှာ ရှေ့က statement မရှိဘူး။
+        preceding = null;
+        // အတွင်းက loop တွေကို အရင်လုပ်မယ်။ သူတို့ရွှေ့ထားတဲ့ expression က ဒီ loop
+        // အတွက်လည်း invariant ဆိုရင် ဆက်ရွှေ့လို့ရအောင်။
+        Statement.WhileStatement loop = (Statement.WhileStatement) super.visitWhileStatement(statement);
+        List<Statement> temps = new ArrayList<>();
+        loop = reduce(loop, before, temps);
+        loop = hoist(loop, temps);
+        if (temps.isEmpty())
+            return loop;
+        temps.add(loop);
+        return new Statement.BlockStatement(temps);
+    }
+
+    // ---- loop ထဲမှာ ပြောင်းနိုင်တာတွေ ----
+
+    /**
+     * loop ထဲမှာ value ထည့်တဲ့ variable name တွေ (ကြေညာတာ၊ parameter လည်း ပါ)
+     * နဲ့ function call ပါ/မပါ။ name နဲ့ပဲ မှတ်လို့ shadow လုပ်ထားတာတွေအတွက်ပါ
+     * ပြောင်းတယ်လို့ ယူမယ်။
+     */
+    private static final class Effects extends Rewriter {
+        final Map<String, Integer> writes = new HashMap<>();
+        boolean calls = false;
+
+        Effects(Statement.WhileStatement loop) {
+            super(null, null);
+            expression(loop.condition);
+            statement(loop.instructions);
+        }
+
+        boolean writes(String name) {
+            return writes.containsKey(name);
+        }
+
+        private void write(Token name) {
+            writes.merge(name.lexeme, 1, Integer::sum);
+        }
+
+        @Override
+        public Statement visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+            write(statement.identifier);
+            return super.visitVariableDeclarationStatement(statement);
+        }
+
+        @Override
+        public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+            write(statement.identifier);
+            for (List<Token> parameter : statement.parameters) {
+                write(parameter.get(1));
+            }
+            return super.visitFunctionStatement(statement);
+        }
+
+        @Override
+        public Statement visitClassStatement(Statement.ClassStatement statement) {
+            write(statement.identifier);
+            return statement;
+        }
+
+        @Override
+        public Expression visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+            write(expression.identifier);
+            return super.visitVariableAssignExpression(expression);
+        }
+
+        @Override
+        public Expression visitInputExpression(Expression.InputExpression expression) {
+            write(expression.identifier);
+            return expression;
+        }
+
+        @Override
+        public Expression visitIncrementExpression(Expression.IncrementExpression expression) {
+            write(((Expression.VariableAccessExpression) expression.identifier).identifier);
+            return expression;
+        }
+
+        @Override
+        public Expression visitDecrementExpression(Expression.DecrementExpression expression) {
+            write(((Expression.VariableAccessExpression) expression.identifier).identifier);
+            return expression;
+        }
+
+        @Override
+        public Expression visitCallExpression(Expression.CallExpression expression) {
+            calls = true;
+            return super.visitCallExpression(expression);
+        }
+    }
+
+    /**
+     * loop တစ်ပတ်လုံး value မပြောင်းတဲ့ expression လား။ local variable တွေကိုပဲ
+     * သုံးရမယ်။ pure() နဲ့ တွဲစစ်ရမယ်။
+     */
+    private static boolean invariant(Expression expression, Effects effects) {
+        if (expression instanceof Expression.LiteralExpression || expression instanceof Expression.ThisExpression)
+            return true;
+        if (expression instanceof Expression.VariableAccessExpression) {
+            Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression;
+            return variable.local && !effects.writes(variable.identifier.lexeme)
+                    && !(effects.calls && variable.boxed);
+        }
+        if (expression instanceof Expression.GroupingExpression)
+            return invariant(((Expression.GroupingExpression) expression).expression, effects);
+        if (expression instanceof Expression.UnaryExpression)
+            return invariant(((Expression.UnaryExpression) expression).right, effects);
+        if (expression instanceof Expression.BinaryExpression)
+            return invariant(((Expression.BinaryExpression) expression).left, effects)
+                    && invariant(((Expression.BinaryExpression) expression).right, effects);
+        if (expression instanceof Expression.LogicalExpression)
+            return invariant(((Expression.LogicalExpression) expression).left, effects)
+                    && invariant(((Expression.LogicalExpression) expression).right, effects);
+        return false;
+    }
+
+    /**
+     * temporary variable ကြေညာဖို့ expression ရဲ့ type။ type checker က operand
+     * type ကို သိထားမှ။
+     */
+    private static token_t type(Expression expression) {
+        if (expression instanceof Expression.GroupingExpression)
+            return type(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.UnaryExpression) {
+            Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+            switch (unary.operator.type) {
+                case NOT:
+                    return token_t.VT_BOOLEAN;
+                case TILDE:
+                    return token_t.VT_INT;
+                default:
+                    return unary.operands;
+            }
+        }
+        if (expression instanceof Expression.BinaryExpression) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            switch (binary.operator.type) {
+                case DOT:
+                    return token_t.VT_STRING;
+                case GREATER:
+                case GREATER_EQUAL:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL:
+                case NOT_EQUAL:
+                    return token_t.VT_BOOLEAN;
+                default:
+                    return binary.operands;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * loop မစခင် ကြေညာမယ့် temporary variable
+     */
+    private Expression.VariableAccessExpression temporary(token_t type, Expression initializer, Token at,
+            List<Statement> temps) {
+        Token name = new Token(token_t.IDENTIFIER, "$loop" + temporaries++, at.line, at.col);
+        Token typeName = new Token(type, TypeMapper.UitT2String.get(type), at.line, at.col);
+        temps.add(new Statement.VariableDeclarationStatement(typeName, name, initializer, false));
+        return new Expression.VariableAccessExpression(name);
+    }
+
+    // ---- loop-invariant code motion ----
+
+    private Statement.WhileStatement hoist(Statement.WhileStatement loop, List<Statement> temps) {
+        Effects effects = new Effects(loop);
+        Map<String, Expression.VariableAccessExpression> hoisted = new HashMap<>();
+        Rewriter hoister = new Rewriter(interpreter, null) {
+            private Expression hoist(Expression expression) {
+                token_t type = type(expression);
+                if (type == null || !pure(expression) || !invariant(expression, effects))
+                    return null;
+                // တူတဲ့ expression တွေက temporary တစ်ခုတည်းကို သုံးမယ်။
+                String key = describe(expression);
+                Expression.VariableAccessExpression temp = hoisted.get(key);
+                if (temp == null) {
+                    temp = temporary(type, expression, at(expression), temps);
+                    hoisted.put(key, temp);
+                    LoopOptimizer.this.report(at(expression),
+                            "hoist " + key + " out of loop into " + temp.identifier.lexeme);
+                }
+                return new Expression.VariableAccessExpression(temp.identifier);
+            }
+
+            @Override
+            public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+                Expression temp = hoist(expression);
+                return temp != null ? temp : super.visitBinaryExpression(expression);
+            }
+
+            @Override
+            public Expression visitUnaryExpression(Expression.UnaryExpression expression) {
+                Expression temp = hoist(expression);
+                return temp != null ? temp : super.visitUnaryExpression(expression);
+            }
+
+            // function body က loop ရဲ့ frame မှာ run တာ မဟုတ်လို့ မရွှေ့ဘူး။
+            @Override
+            public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+                return statement;
+            }
+
+            @Override
+            public Statement visitClassStatement(Statement.ClassStatement statement) {
+                return statement;
+            }
+        };
+        Expression condition = hoister.expression(loop.condition);
+        Statement instructions = hoister.statement(loop.instructions);
+        if (condition == loop.condition && instructions == loop.instructions)
+            return loop;
+        return new Statement.WhileStatement(condition, instructions);
+    }
+
+    // ---- strength reduction ----
+
+    /**
+     * `v * k` (သို့ `k * v`) ပုံစံ။ v က induction variable ဖြစ်နိုင်တဲ့ local variable၊
+     * k က literal (int ဆို invariant variable လည်း ရ)။
+     */
+    private static final class Product {
+        final Expression.BinaryExpression expression;
+        final Expression.VariableAccessExpression variable;
+        final Expression factor;
+
+        Product(Expression.BinaryExpression expression, Expression.VariableAccessExpression variable,
+                Expression factor) {
+            this.expression = expression;
+            this.variable = variable;
+            this.factor = factor;
+        }
+    }
+
+    /**
+     * v ကို step တစ်ခုနဲ့ ပြောင်းတဲ့ statement ဆို step၊ မဟုတ်ရင် null။ `v++`,
+     * `++v`, `v--`, `set v = v + c`, `set v = c + v`, `set v = v - c`
+     */
+    private static Object step(Statement statement, String name, token_t type) {
+        if (!(statement instanceof Statement.ExpressionStatement))
+            return null;
+        Expression expression = ((Statement.ExpressionStatement) statement).expression;
+        if (expression instanceof Expression.IncrementExpression
+                && named(((Expression.IncrementExpression) expression).identifier, name))
+            return type == token_t.VT_INT ? (Object) 1L : (Object) 1.0;
+        if (expression instanceof Expression.DecrementExpression
+                && named(((Expression.DecrementExpression) expression).identifier, name))
+            return type == token_t.VT_INT ? (Object) (-1L) : (Object) (-1.0);
+        if (!(expression instanceof Expression.VariableAssignExpression)
+                || !((Expression.VariableAssignExpression) expression).identifier.lexeme.equals(name)
+                || !(((Expression.VariableAssignExpression) expression).value instanceof Expression.BinaryExpression))
+            return null;
+        Expression.BinaryExpression value = (Expression.BinaryExpression) ((Expression.VariableAssignExpression) expression).value;
+        Object constant;
+        if (named(value.left, name) && value.right instanceof Expression.LiteralExpression)
+            constant = ((Expression.LiteralExpression) value.right).value.getValue();
+        else if (value.operator.type == token_t.PLUS && named(value.right, name)
+                && value.left instanceof Expression.LiteralExpression)
+            constant = ((Expression.LiteralExpression) value.left).value.getValue();
+        else
+            return null;
+        if (TypeMapper.Java2Uit.get(constant.getClass()) != type)
+            return null;
+        if (value.operator.type == token_t.PLUS)
+            return constant;
+        if (value.operator.type == token_t.MINUS)
+            return type == token_t.VT_INT ? (Object) (-(long) constant) : (Object) (-(double) constant);
+        return null;
+    }
+
+    private static boolean named(Expression expression, String name) {
+        return expression instanceof Expression.VariableAccessExpression
+                && ((Expression.VariableAccessExpression) expression).identifier.lexeme.equals(name);
+    }
+
+    /**
+     * num ဆို double ပေါင်းတာ မြှောက်တာနဲ့ အမြဲတူဖို့ integer တွေပဲ ဖြစ်ရမယ်။
+     * (2^53 အောက်ဆို integer တွေရဲ့ ပေါင်း၊ မြှောက် က တိကျတယ်။)
+     */
+    private static boolean integral(Object value) {
+        return value instanceof Double && (double) value == Math.rint((double) value)
+                && Math.abs((double) value) <= (1 << 20);
+    }
+
+    private Statement.WhileStatement reduce(Statement.WhileStatement loop, Statement before, List<Statement> temps) {
+        Effects effects = new Effects(loop);
+        Map<String, Product> products = new LinkedHashMap<>();
+        // v * k တွေကို ရှာမယ်။
+        Rewriter finder = new Rewriter(interpreter, null) {
+            @Override
+            public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+                Product product = product(expression, effects, before);
+                if (product != null)
+                    products.putIfAbsent(key(product), product);
+                return super.visitBinaryExpression(expression);
+            }
+
+            @Override
+            public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+                return statement;
+            }
+
+            @Override
+            public Statement visitClassStatement(Statement.ClassStatement statement) {
+                return statement;
+            }
+        };
+        finder.expression(loop.condition);
+        finder.statement(loop.instructions);
+
+        // induction variable တစ်ခုချင်းစီရဲ့ step ကို စစ်မယ်။
+        Map<String, Object> steps = new HashMap<>();
+        Map<String, token_t> types = new HashMap<>();
+        Map<String, List<Product>> reduced = new LinkedHashMap<>();
+        for (Product product : products.values()) {
+            String name = product.variable.identifier.lexeme;
+            if (!steps.containsKey(name)) {
+                steps.put(name, steps(loop.instructions, name, product.expression.operands, effects));
+                types.put(name, product.expression.operands);
+            }
+            Object step = steps.get(name);
+            if (step == null)
+                continue;
+            reduced.computeIfAbsent(name, k -> new ArrayList<>()).add(product);
+        }
+        if (reduced.isEmpty())
+            return loop;
+
+        // temporary = v * k ၊ i ပြောင်းတိုင်း temporary = temporary + step * k
+        Map<String, Expression.VariableAccessExpression> replaced = new HashMap<>();
+        Map<String, List<Statement>> updates = new HashMap<>();
+        for (Map.Entry<String, List<Product>> entry : reduced.entrySet()) {
+            List<Statement> update = new ArrayList<>();
+            for (Product product : entry.getValue()) {
+                token_t type = product.expression.operands;
+                Token at = product.expression.operator;
+                Expression.VariableAccessExpression temp = temporary(type, product.expression, at(product.expression),
+                        temps);
+                Expression increment = increment(product, steps.get(entry.getKey()), temps);
+                Expression.BinaryExpression sum = new Expression.BinaryExpression(
+                        new Expression.VariableAccessExpression(temp.identifier),
+                        new Token(token_t.PLUS, "+", at.line, at.col), increment);
+                update.add(new Statement.ExpressionStatement(
+                        new Expression.VariableAssignExpression(temp.identifier, sum)));
+                replaced.put(key(product), temp);
+                report(at(product.expression), "reduce " + describe(product.expression) + " in loop to "
+                        + temp.identifier.lexeme + " + " + describe(increment) + " per step");
+            }
+            updates.put(entry.getKey(), update);
+        }
+
+        Rewriter reducer = new Rewriter(interpreter, null) {
+            @Override
+            public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+                Product product = product(expression, effects, before);
+                Expression.VariableAccessExpression temp = product == null ? null : replaced.get(key(product));
+                if (temp != null)
+                    return new Expression.VariableAccessExpression(temp.identifier);
+                return super.visitBinaryExpression(expression);
+            }
+
+            @Override
+            public Statement visitExpressionStatement(Statement.ExpressionStatement statement) {
+                for (Map.Entry<String, List<Statement>> update : updates.entrySet()) {
+                    if (step(statement, update.getKey(), types.get(update.getKey())) != null) {
+                        List<Statement> statements = new ArrayList<>();
+                        statements.add(statement);
+                        statements.addAll(update.getValue());
+                        Statement.BlockStatement block = new Statement.BlockStatement(statements);
+                        block.scoped = false;
+                        return block;
+                    }
+                }
+                return super.visitExpressionStatement(statement);
+            }
+
+            @Override
+            public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+                return statement;
+            }
+
+            @Override
+            public Statement visitClassStatement(Statement.ClassStatement statement) {
+                return statement;
+            }
+        };
+        Expression condition = reducer.expression(loop.condition);
+        Statement instructions = reducer.statement(loop.instructions);
+        return new Statement.WhileStatement(condition, instructions);
+    }
+
+    private static String key(Product product) {
+        return product.variable.identifier.lexeme + " * " + describe(product.factor);
+    }
+
+    /**
+     * v * k ဆို Product၊ မဟုတ်ရင် null
+     */
+    private static Product product(Expression.BinaryExpression expression, Effects effects, Statement before) {
+        if (expression.operator.type != token_t.STAR
+                || (expression.operands != token_t.VT_NUMBER && expression.operands != token_t.VT_INT))
+            return null;
+        Expression.VariableAccessExpression variable;
+        Expression factor;
+        if (induction(expression.left, effects)) {
+            variable = (Expression.VariableAccessExpression) expression.left;
+            factor = expression.right;
+        } else if (induction(expression.right, effects)) {
+            variable = (Expression.VariableAccessExpression) expression.right;
+            factor = expression.left;
+        } else {
+            return null;
+        }
+        if (expression.operands == token_t.VT_INT) {
+            if (factor instanceof Expression.LiteralExpression
+                    || pure(factor) && factor instanceof Expression.VariableAccessExpression
+                            && invariant(factor, effects))
+                return new Product(expression, variable, factor);
+            return null;
+        }
+        // num ဆို v က integer literal နဲ့ စပြီး (for loop ရဲ့ initializer) k က
+        // အပေါင်း integer literal ဖြစ်မှ ပေါင်းတာနဲ့ မြှောက်တာ တူမယ်။
+        if (!(factor instanceof Expression.LiteralExpression))
+            return null;
+        Object k = ((Expression.LiteralExpression) factor).value.getValue();
+        if (!integral(k) || (double) k <= 0)
+            return null;
+        if (!(before instanceof Statement.VariableDeclarationStatement))
+            return null;
+        Statement.VariableDeclarationStatement declaration = (Statement.VariableDeclarationStatement) before;
+        if (!declaration.identifier.lexeme.equals(variable.identifier.lexeme)
+                || !(declaration.initializer instanceof Expression.LiteralExpression)
+                || ((Expression.LiteralExpression) declaration.initializer).value.v_type != value_t.VT_NUMBER
+                || !integral(((Expression.LiteralExpression) declaration.initializer).value.getValue()))
+            return null;
+        return new Product(expression, variable, factor);
+    }
+
+    /**
+     * loop ထဲမှာ ပြောင်းတဲ့ cell နဲ့ မထုပ်ထားတဲ့ local variable
+     */
+    private static boolean induction(Expression expression, Effects effects) {
+        if (!(expression instanceof Expression.VariableAccessExpression))
+            return false;
+        Expression.VariableAccessExpression variable = (Expression.VariableAccessExpression) expression;
+        return variable.local && !variable.boxed && effects.writes(variable.identifier.lexeme);
+    }
+
+    /**
+     * loop body ထဲမှာ name ကို ပြောင်းတာ အားလုံးက statement အဖြစ် ရေးထားတဲ့ တူညီတဲ့
+     * step ဆို step၊ မဟုတ်ရင် null
+     */
+    private static Object steps(Statement body, String name, token_t type, Effects effects) {
+        List<Object> found = new ArrayList<>();
+        Rewriter scanner = new Rewriter(null, null) {
+            @Override
+            public Statement visitExpressionStatement(Statement.ExpressionStatement statement) {
+                Object step = step(statement, name, type);
+                if (step != null)
+                    found.add(step);
+                return statement;
+            }
+
+            @Override
+            public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+                return statement;
+            }
+
+            @Override
+            public Statement visitClassStatement(Statement.ClassStatement statement) {
+                return statement;
+            }
+        };
+        scanner.statement(body);
+        // condition ထဲ၊ expression အလယ်မှာ ပြောင်းတာတွေ ရှိရင် အရေအတွက် မကိုက်ဘူး။
+        if (found.isEmpty() || found.size() != effects.writes.get(name))
+            return null;
+        Object step = found.get(0);
+        for (Object other : found) {
+            if (!other.equals(step))
+                return null;
+        }
+        if (type == token_t.VT_NUMBER && !integral(step))
+            return null;
+        return step;
+    }
+
+    /**
+     * temporary ကို step တစ်ခါမှာ ပေါင်းရမယ့် step * k
+     */
+    private Expression increment(Product product, Object step, List<Statement> temps) {
+        Token at = product.expression.operator;
+        if (product.factor instanceof Expression.LiteralExpression) {
+            Object k = ((Expression.LiteralExpression) product.factor).value.getValue();
+            Token literal = new Token(token_t.STAR, "*", at.line, at.col);
+            Object value = Operators.binary(literal, step, k);
+            return new Expression.LiteralExpression(Resolver.literal(value, at));
+        }
+        // int variable နဲ့ မြှောက်တာဆို step * k ကိုလည်း loop မစခင် တွက်ထားမယ်။
+        Expression.BinaryExpression stride = new Expression.BinaryExpression(
+                new Expression.LiteralExpression(Resolver.literal(step, at)),
+                new Token(token_t.STAR, "*", at.line, at.col), product.factor);
+        return new Expression.VariableAccessExpression(
+                temporary(token_t.VT_INT, stride, at, temps).identifier);
+    }
+}
@@ -0,0 +1,483 @@
+package com.heinthanth.uit.Optimizer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * resolve, type check ပြီးသား ast ကို ပြန်ရေးတဲ့ pass တွေရဲ့ base။ ဘာမှ
+ * override မလုပ်ရင် node တွေကို မူရင်းအတိုင်း ပြန်ပေးမယ်။ child တစ်ခုခု
+ * ပြောင်းသွားမှ node အသစ်ဆောက်ပြီး resolver, type checker ဖြည့်ထားတဲ့ field
+ * တွေကို ကူးမယ်။ statement နေရာမှာ null ပြန်ရင် အဲ့ statement ကို ဖျက်မယ်။
+ * dump ပေးထားရင် ပြန်ရေးတာ တစ်ခုချင်းစီကို အဲ့ဒီမှာ ထုတ်ပြမယ် (--dump-optimized)။
+ */
+public abstract class Rewriter implements Expression.Visitor<Expression>, Statement.Visitor<Statement> {
+    protected final Interpreter interpreter;
+
+    // --dump-optimized မပါရင် null
+    private final PrintStream dump;
+
+    protected Rewriter(Interpreter interpreter, PrintStream dump) {
+        this.interpreter = interpreter;
+        this.dump = dump;
+    }
+
+    /**
+     * top-level statement တွေကို ပြန်ရေးမယ်။
+     *
+     * @param statements
+     * @return
+     */
+    public List<Statement> rewrite(List<Statement> statements) {
+        return statements(statements);
+    }
+
+    // ---- helper တွေ ----
+
+    /**
+     * source ထဲက at နေရာမှာ ပြန်ရေးလိုက်တာကို dump ထဲ ထုတ်မယ်။ token line က 0 က စလို့ +1
+     */
+    protected void report(Token at, String message) {
+        if (dump != null)
+            dump.println("optimize line " + (at.line + 1) + ": " + message);
+    }
+
+    /**
+     * expression ရဲ့ ပထမဆုံး token (report မှာ နေရာပြဖို့)
+     */
+    protected static Token at(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression)
+            return ((Expression.LiteralExpression) expression).value;
+        if (expression instanceof Expression.VariableAccessExpression)
+            return ((Expression.VariableAccessExpression) expression).identifier;
+        if (expression instanceof Expression.VariableAssignExpression)
+            return ((Expression.VariableAssignExpression) expression).identifier;
+        if (expression instanceof Expression.InputExpression)
+            return ((Expression.InputExpression) expression).identifier;
+        if (expression instanceof Expression.ThisExpression)
+            return ((Expression.ThisExpression) expression).thiss;
+        if (expression instanceof Expression.GroupingExpression)
+            return at(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.UnaryExpression)
+            return ((Expression.UnaryExpression) expression).operator;
+        if (expression instanceof Expression.BinaryExpression)
+            return at(((Expression.BinaryExpression) expression).left);
+        if (expression instanceof Expression.LogicalExpression)
+            return at(((Expression.LogicalExpression) expression).left);
+        if (expression instanceof Expression.IncrementExpression)
+            return ((Expression.IncrementExpression) expression).operator;
+        if (expression instanceof Expression.DecrementExpression)
+            return ((Expression.DecrementExpression) expression).operator;
+        if (expression instanceof Expression.CallExpression)
+            return at(((Expression.CallExpression) expression).callee);
+        if (expression instanceof Expression.GetExpression)
+            return at(((Expression.GetExpression) expression).object);
+        return at(((Expression.SetExpression) expression).object);
+    }
+
+    /**
+     * report မှာ ပြဖို့ expression ကို source လိုမျိုး ပြန်ရေးမယ်။
+     */
+    protected static String describe(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression) {
+            Object value = ((Expression.LiteralExpression) expression).value.getValue();
+            return value instanceof String
+                    ? "\"" + ((String) value).replace("\n", "\\n").replace("\t", "\\t") + "\""
+                    : value instanceof Long ? value + "L" : Operators.stringify(value);
+        }
+        if (expression instanceof Expression.VariableAccessExpression)
+            return ((Expression.VariableAccessExpression) expression).identifier.lexeme;
+        if (expression instanceof Expression.GroupingExpression)
+            return "(" + describe(((Expression.GroupingExpression) expression).expression) + ")";
+        if (expression instanceof Expression.UnaryExpression) {
+            Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+            return unary.operator.lexeme + describe(unary.right);
+        }
+        if (expression instanceof Expression.BinaryExpression) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            return describe(binary.left) + " " + binary.operator.lexeme + " " + describe(binary.right);
+        }
+        if (expression instanceof Expression.LogicalExpression) {
+            Expression.LogicalExpression logical = (Expression.LogicalExpression) expression;
+            return describe(logical.left) + " " + logical.operator.lexeme + " " + describe(logical.right);
+        }
+        if (expression instanceof Expression.CallExpression)
+            return describe(((Expression.CallExpression) expression).callee) + "(...)";
+        return at(expression).lexeme + " ...";
+    }
+
+    /**
+     * run ရင် side effect လည်း မရှိ၊ runtime error လည်း မတက်နိုင်တဲ့ expression လား။
+     * operator တွေအတွက် type checker က operand type ကို သက်သေပြထားမှ (operands)
+     * ယုံမယ်။ global variable ကို ဖတ်တာက undefined ဖြစ်နိုင်လို့ မပါဘူး။
+     *
+     * @param expression
+     * @return
+     */
+    protected static boolean pure(Expression expression) {
+        if (expression instanceof Expression.LiteralExpression || expression instanceof Expression.ThisExpression)
+            return true;
+        if (expression instanceof Expression.VariableAccessExpression)
+            return ((Expression.VariableAccessExpression) expression).local;
+        if (expression instanceof Expression.GroupingExpression)
+            return pure(((Expression.GroupingExpression) expression).expression);
+        if (expression instanceof Expression.LogicalExpression)
+            return pure(((Expression.LogicalExpression) expression).left)
+                    && pure(((Expression.LogicalExpression) expression).right);
+        if (expression instanceof Expression.UnaryExpression) {
+            Expression.UnaryExpression unary = (Expression.UnaryExpression) expression;
+            if (!pure(unary.right))
+                return false;
+            switch (unary.operator.type) {
+                case NOT:
+                    return true;
+                case MINUS:
+                    return unary.operands == token_t.VT_NUMBER || unary.operands == token_t.VT_INT;
+                default:
+                    return unary.operands == token_t.VT_INT;
+            }
+        }
+        if (expression instanceof Expression.BinaryExpression) {
+            Expression.BinaryExpression binary = (Expression.BinaryExpression) expression;
+            if (!pure(binary.left) || !pure(binary.right))
+                return false;
+            boolean number = binary.operands == token_t.VT_NUMBER || binary.operands == token_t.VT_INT;
+            switch (binary.operator.type) {
+                case EQUAL:
+                case NOT_EQUAL:
+                case DOT:
+                    return true;
+                case PLUS:
+                case MINUS:
+                case STAR:
+                case GREATER:
+                case GREATER_EQUAL:
+                case LESS:
+                case LESS_EQUAL:
+                    return number;
+                case SLASH:
+                case PERCENT:
+                    // သုည နဲ့ စားရင် error တက်လို့ သုည မဟုတ်တဲ့ literal နဲ့ စားမှ
+                    return number && binary.right instanceof Expression.LiteralExpression
+                            && !isZero(((Expression.LiteralExpression) binary.right).value.getValue());
+                case CARET:
+                    // int ဆို exponent အနုတ်မှာ error တက်မယ်။
+                    return binary.operands == token_t.VT_NUMBER;
+                default:
+                    return binary.operands == token_t.VT_INT;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(Object value) {
+        return value instanceof Double ? (double) value == 0 : value instanceof Long && (long) value == 0;
+    }
+
+    protected Expression expression(Expression expression) {
+        return expression == null ? null : expression.accept(this);
+    }
+
+    protected List<Expression> expressions(List<Expression> expressions) {
+        List<Expression> result = new ArrayList<>(expressions.size());
+        boolean changed = false;
+        for (Expression expression : expressions) {
+            Expression rewritten = expression(expression);
+            changed |= rewritten != expression;
+            result.add(rewritten);
+        }
+        return changed ? result : expressions;
+    }
+
+    protected Statement statement(Statement statement) {
+        return statement == null ? null : statement.accept(this);
+    }
+
+    /**
+     * if, while ရဲ့ body လို statement တစ်ခု မဖြစ်မနေ လိုတဲ့နေရာ။ ဖျက်လိုက်ရင် block
+     * အလွတ်နဲ့ အစားထိုးမယ်။
+     */
+    protected Statement body(Statement statement) {
+        if (statement == null)
+            return null;
+        Statement rewritten = statement(statement);
+        return rewritten != null ? rewritten : empty();
+    }
+
+    protected List<Statement> statements(List<Statement> statements) {
+        List<Statement> result = new ArrayList<>(statements.size());
+        boolean changed = false;
+        for (Statement statement : statements) {
+            Statement rewritten = statement(statement);
+            changed |= rewritten != statement;
+            if (rewritten != null)
+                result.add(rewritten);
+        }
+        return changed ? result : statements;
+    }
+
+    /**
+     * scope မလိုတဲ့ block အလွတ်
+     */
+    protected static Statement.BlockStatement empty() {
+        Statement.BlockStatement block = new Statement.BlockStatement(new ArrayList<>());
+        block.scoped = false;
+        return block;
+    }
+
+    /**
+     * node အသစ်မှာ resolver ရဲ့ depth, slot နဲ့ flag တွေကို ဆက်ထားမယ်။
+     */
+    protected static <T extends Expression.Reference> T keep(Expression.Reference original, T replacement) {
+        replacement.local = original.local;
+        replacement.depth = original.depth;
+        replacement.slot = original.slot;
+        replacement.boxed = original.boxed;
+        replacement.numeric = original.numeric;
+        replacement.checked = original.checked;
+        return replacement;
+    }
+
+    protected static Expression.BinaryExpression binary(Expression.BinaryExpression original, Expression left,
+            Expression right) {
+        Expression.BinaryExpression result = new Expression.BinaryExpression(left, original.operator, right);
+        result.numeric = original.numeric;
+        result.operands = original.operands;
+        return result;
+    }
+
+    protected static Expression.UnaryExpression unary(Expression.UnaryExpression original, Expression right) {
+        Expression.UnaryExpression result = new Expression.UnaryExpression(original.operator, right);
+        result.numeric = original.numeric;
+        result.operands = original.operands;
+        return result;
+    }
+
+    protected static Statement.VariableDeclarationStatement declaration(
+            Statement.VariableDeclarationStatement original, Expression initializer) {
+        Statement.VariableDeclarationStatement result = new Statement.VariableDeclarationStatement(original.type,
+                original.identifier, initializer, original.constant);
+        result.boxed = original.boxed;
+        result.numeric = original.numeric;
+        result.checked = original.checked;
+        return result;
+    }
+
+    protected static Statement.BlockStatement block(Statement.BlockStatement original, List<Statement> statements) {
+        Statement.BlockStatement result = new Statement.BlockStatement(statements);
+        result.scoped = original.scoped;
+        return result;
+    }
+
+    protected static Statement.FunctionStatement function(Statement.FunctionStatement original,
+            List<Statement> instructions) {
+        Statement.FunctionStatement result = new Statement.FunctionStatement(original.type, original.identifier,
+                original.parameters, instructions);
+        result.boxed = original.boxed;
+        result.captures = original.captures;
+        result.boxedParameters = original.boxedParameters;
+        result.reuseFrame = original.reuseFrame;
+        result.checked = original.checked;
+        return result;
+    }
+
+    // ---- statement တွေ ----
+
+    @Override
+    public Statement visitExpressionStatement(Statement.ExpressionStatement statement) {
+        Expression expression = expression(statement.expression);
+        return expression == statement.expression ? statement : new Statement.ExpressionStatement(expression);
+    }
+
+    @Override
+    public Statement visitOutputStatement(Statement.OutputStatement statement) {
+        Expression expression = expression(statement.expression);
+        return expression == statement.expression ? statement : new Statement.OutputStatement(expression);
+    }
+
+    @Override
+    public Statement visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+        Expression initializer = expression(statement.initializer);
+        return initializer == statement.initializer ? statement : declaration(statement, initializer);
+    }
+
+    @Override
+    public Statement visitBlockStatement(Statement.BlockStatement statement) {
+        List<Statement> statements = statements(statement.statements);
+        return statements == statement.statements ? statement : block(statement, statements);
+    }
+
+    @Override
+    public Statement visitIfStatement(Statement.IfStatement statement) {
+        Map<Expression, Statement> branches = new LinkedHashMap<>();
+        boolean changed = false;
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            Expression condition = expression(branch.getKey());
+            Statement body = body(branch.getValue());
+            changed |= condition != branch.getKey() || body != branch.getValue();
+            branches.put(condition, body);
+        }
+        Statement elseBranch = body(statement.elseBranch);
+        if (!changed && elseBranch == statement.elseBranch)
+            return statement;
+        return new Statement.IfStatement(branches, elseBranch);
+    }
+
+    @Override
+    public Statement visitWhileStatement(Statement.WhileStatement statement) {
+        Expression condition = expression(statement.condition);
+        Statement instructions = body(statement.instructions);
+        if (condition == statement.condition && instructions == statement.instructions)
+            return statement;
+        return new Statement.WhileStatement(condition, instructions);
+    }
+
+    @Override
+    public Statement visitBreakStatement(Statement.BreakStatement statement) {
+        return statement;
+    }
+
+    @Override
+    public Statement visitContinueStatement(Statement.ContinueStatement statement) {
+        return statement;
+    }
+
+    @Override
+    public Statement visitFunctionStatement(Statement.FunctionStatement statement) {
+        List<Statement> instructions = statements(statement.instructions);
+        return instructions == statement.instructions ? statement : function(statement, instructions);
+    }
+
+    @Override
+    public Statement visitReturnStatement(Statement.ReturnStatement statement) {
+        Expression value = expression(statement.value);
+        if (value == statement.value)
+            return statement;
+        Statement.ReturnStatement result = new Statement.ReturnStatement(statement.ret, value);
+        // tail call ဆိုတာ call expression ဖြစ်နေမှ
+        result.tailCall = statement.tailCall && value instanceof Expression.CallExpression;
+        return result;
+    }
+
+    @Override
+    public Statement visitClassStatement(Statement.ClassStatement statement) {
+        Map<Statement.VariableDeclarationStatement, Token> properties = new LinkedHashMap<>();
+        Map<Statement.FunctionStatement, Token> methods = new LinkedHashMap<>();
+        boolean changed = false;
+        for (Map.Entry<Statement.VariableDeclarationStatement, Token> property : statement.properties.entrySet()) {
+            Statement rewritten = statement(property.getKey());
+            changed |= rewritten != property.getKey();
+            properties.put((Statement.VariableDeclarationStatement) rewritten, property.getValue());
+        }
+        for (Map.Entry<Statement.FunctionStatement, Token> method : statement.methods.entrySet()) {
+            Statement rewritten = statement(method.getKey());
+            changed |= rewritten != method.getKey();
+            methods.put((Statement.FunctionStatement) rewritten, method.getValue());
+        }
+        if (!changed)
+            return statement;
+        Statement.ClassStatement result = new Statement.ClassStatement(statement.identifier, statement.parent,
+                properties, methods);
+        result.boxed = statement.boxed;
+        return result;
+    }
+
+    // ---- expression တွေ ----
+
+    @Override
+    public Expression visitBinaryExpression(Expression.BinaryExpression expression) {
+        Expression left = expression(expression.left);
+        Expression right = expression(expression.right);
+        return left == expression.left && right == expression.right ? expression : binary(expression, left, right);
+    }
+
+    @Override
+    public Expression visitGroupingExpression(Expression.GroupingExpression expression) {
+        Expression inner = expression(expression.expression);
+        return inner == expression.expression ? expression : new Expression.GroupingExpression(inner);
+    }
+
+    @Override
+    public Expression visitLiteralExpression(Expression.LiteralExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitUnaryExpression(Expression.UnaryExpression expression) {
+        Expression right = expression(expression.right);
+        return right == expression.right ? expression : unary(expression, right);
+    }
+
+    @Override
+    public Expression visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        Expression value = expression(expression.value);
+        return value == expression.value ? expression
+                : keep(expression, new Expression.VariableAssignExpression(expression.identifier, value));
+    }
+
+    @Override
+    public Expression visitLogicalExpression(Expression.LogicalExpression expression) {
+        Expression left = expression(expression.left);
+        Expression right = expression(expression.right);
+        return left == expression.left && right == expression.right ? expression
+                : new Expression.LogicalExpression(left, expression.operator, right);
+    }
+
+    @Override
+    public Expression visitInputExpression(Expression.InputExpression expression) {
+        return expression;
+    }
+
+    // ++, -- ရဲ့ operand က variable ဖြစ်ရမှာမို့ မပြောင်းဘူး။
+    @Override
+    public Expression visitIncrementExpression(Expression.IncrementExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitDecrementExpression(Expression.DecrementExpression expression) {
+        return expression;
+    }
+
+    @Override
+    public Expression visitCallExpression(Expression.CallExpression expression) {
+        Expression callee = expression(expression.callee);
+        List<Expression> arguments = expressions(expression.arguments);
+        return callee == expression.callee && arguments == expression.arguments ? expression
+                : new Expression.CallExpression(callee, expression.paren, arguments);
+    }
+
+    @Override
+    public Expression visitGetExpression(Expression.GetExpression expression) {
+        Expression object = expression(expression.object);
+        return object == expression.object ? expression
+                : new Expression.GetExpression(object, expression.name, expression.fromThis);
+    }
+
+    @Override
+    public Expression visitSetExpression(Expression.SetExpression expression) {
+        Expression object = expression(expression.object);
+        Expression value = expression(expression.value);
+        return object == expression.object && value == expression.value ? expression
+                : new Expression.SetExpression(object, expression.name, value, expression.fromThis);
+    }
+
+    @Override
+    public Expression visitThisExpression(Expression.ThisExpression expression) {
+        return expression;
+    }
+}
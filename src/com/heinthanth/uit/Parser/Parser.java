@@ -2,7 +2,7 @@ package com.heinthanth.uit.Parser;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -79,8 +79,10 @@ public class Parser {
                 return classDeclaration();
             if (match(FRT_VOID))
                 return functionDeclaration();
-            if (match(VT_NUMBER, VT_STRING, VT_BOOLEAN))
+            if (match(VT_NUMBER, VT_INT, VT_STRING, VT_BOOLEAN))
                 return variableDeclaration();
+            if (match(CONST))
+                return constDeclaration();
             if (match(OBJECT))
                 return objectDeclaration();
             return statement();
@@ -102,8 +104,8 @@ public class Parser {
 
     private Statement classDeclaration() {
         Token identifier = expect(IDENTIFIER, "Expect class identifier.");
-        Map<Statement.VariableDeclarationStatement, Token> properties = new HashMap<>();
-        Map<Statement.FunctionStatement, Token> methods = new HashMap<>();
+        Map<Statement.VariableDeclarationStatement, Token> properties = new LinkedHashMap<>();
+        Map<Statement.FunctionStatement, Token> methods = new LinkedHashMap<>();
 
         Expression.VariableAccessExpression parent = null;
         if (match(EXTENDS)) {
@@ -132,9 +134,25 @@ public class Parser {
      * variable အသစ်ကို declare လုပ်မယ်။
      */
     private Statement variableDeclaration() {
+        return variableDeclaration(false);
+    }
+
+    /**
+     * const variable (eg. const num LIMIT = 10;) ။ value ပြန်ထည့်လို့ မရတာကို
+     * resolver က စစ်မယ်။
+     */
+    private Statement constDeclaration() {
+        if (!match(VT_NUMBER, VT_INT, VT_STRING, VT_BOOLEAN))
+            throw error(getCurrentToken(), "Expect data type after 'const'.");
+        return variableDeclaration(true);
+    }
+
+    private Statement variableDeclaration(boolean constant) {
         Token type = previous();
         Token next = peekNext();
         if (next != null && next.type == LEFT_PAREN) {
+            if (constant)
+                throw error(getCurrentToken(), "Function can't be const.");
             return functionDeclaration();
         }
         Token identifier = expect(IDENTIFIER, "Expect variable identifier.");
@@ -145,7 +163,7 @@ public class Parser {
         }
         expect(SEMICOLON, "Expect ';' after statement.");
 
-        return new Statement.VariableDeclarationStatement(type, identifier, initializer);
+        return new Statement.VariableDeclarationStatement(type, identifier, initializer, constant);
     }
 
     private Statement objectDeclaration() {
@@ -158,7 +176,7 @@ public class Parser {
         }
         expect(SEMICOLON, "Expect ';' after statement.");
 
-        return new Statement.VariableDeclarationStatement(type, identifier, initializer);
+        return new Statement.VariableDeclarationStatement(type, identifier, initializer, false);
     }
 
     private Statement functionDeclaration() {
@@ -176,7 +194,7 @@ public class Parser {
                 List<Token> param = new ArrayList<>();
                 if (check(FRT_VOID))
                     throw error(getCurrentToken(), "Invalid data type for variable.");
-                if (!(check(VT_NUMBER) || check(VT_STRING) || check(VT_BOOLEAN))) {
+                if (!(check(VT_NUMBER) || check(VT_INT) || check(VT_STRING) || check(VT_BOOLEAN))) {
                     throw error(getCurrentToken(), "Expect parameter data type.");
                 } else {
                     param.add(advance());
@@ -189,7 +207,11 @@ public class Parser {
         if (match(THEN)) {
             return new Statement.FunctionStatement(type, identifier, parameters, Arrays.asList(statement()));
         }
+        // function body ထဲမှာ အပြင်က loop ကို break / continue လို့ မရဘူး။
+        int enclosingLoopDepth = loopDepth;
+        loopDepth = 0;
         List<Statement> instructions = block(ENDFUNC, "endfunc");
+        loopDepth = enclosingLoopDepth;
         return new Statement.FunctionStatement(type, identifier, parameters, instructions);
     }
 
@@ -254,7 +276,7 @@ public class Parser {
         Statement initializer;
         if (match(SEMICOLON)) {
             initializer = null;
-        } else if (match(VT_NUMBER, VT_STRING, VT_BOOLEAN)) {
+        } else if (match(VT_NUMBER, VT_INT, VT_STRING, VT_BOOLEAN)) {
             initializer = variableDeclaration();
         } else {
             initializer = expressionStatement();
@@ -331,7 +353,7 @@ public class Parser {
         Expression condition = expression();
         expect(RIGHT_PAREN, "Expect ')' after if condition.");
 
-        Map<Expression, Statement> branches = new HashMap<>();
+        Map<Expression, Statement> branches = new LinkedHashMap<>();
         List<Statement> branch = new ArrayList<>();
 
         // single line then statement
@@ -472,12 +494,56 @@ public class Parser {
         return left;
     }
 
-    // comparison ထက်မြင့်တာက term
+    // comparison ထက်မြင့်တာက bitwise or
     private Expression comparison() {
-        Expression left = term();
+        Expression left = bitOr();
         // >, <, >=, <= ရှိမရှိ ... ရှိရင် binary operation ေပါ့ မဟုတ်ရင် ကျန် node
         // အတိုင်းပေါ့။
         while (match(GREATER, GREATER_EQUAL, LESS, LESS_EQUAL)) {
+            Token operator = previous();
+            Expression right = bitOr();
+            left = new Expression.BinaryExpression(left, operator, right);
+        }
+        return left;
+    }
+
+    // bitwise or (|) ထက်မြင့်တာ bitwise xor
+    private Expression bitOr() {
+        Expression left = bitXor();
+        while (match(PIPE)) {
+            Token operator = previous();
+            Expression right = bitXor();
+            left = new Expression.BinaryExpression(left, operator, right);
+        }
+        return left;
+    }
+
+    // bitwise xor (~) ထက်မြင့်တာ bitwise and
+    private Expression bitXor() {
+        Expression left = bitAnd();
+        while (match(TILDE)) {
+            Token operator = previous();
+            Expression right = bitAnd();
+            left = new Expression.BinaryExpression(left, operator, right);
+        }
+        return left;
+    }
+
+    // bitwise and (&) ထက်မြင့်တာ shift
+    private Expression bitAnd() {
+        Expression left = shift();
+        while (match(AMPERSAND)) {
+            Token operator = previous();
+            Expression right = shift();
+            left = new Expression.BinaryExpression(left, operator, right);
+        }
+        return left;
+    }
+
+    // shift (<<, >>) ထက်မြင့်တာ term
+    private Expression shift() {
+        Expression left = term();
+        while (match(LESS_LESS, GREATER_GREATER)) {
             Token operator = previous();
             Expression right = term();
             left = new Expression.BinaryExpression(left, operator, right);
@@ -524,10 +590,10 @@ public class Parser {
         return left;
     }
 
-    // unary (!, -)
+    // unary (!, -, ~)
     private Expression unary() {
-        // -, ! မရှိရင် primary ဆီသွားမယ်။
-        if (match(NOT, MINUS)) {
+        // -, !, ~ မရှိရင် primary ဆီသွားမယ်။
+        if (match(NOT, MINUS, TILDE)) {
             Token operator = previous();
             Expression right = unary();
             return new Expression.UnaryExpression(operator, right);
@@ -605,7 +671,7 @@ public class Parser {
 
     // ဒါက ထပ်ခွဲမရတော့တဲ့ basic element တွေ literal ဘာညာ
     private Expression primary() {
-        if (match(NUMBER_LITERAL, STRING_LITERAL, BOOLEAN_LITERAL))
+        if (match(NUMBER_LITERAL, INT_LITERAL, STRING_LITERAL, BOOLEAN_LITERAL))
             return new Expression.LiteralExpression(previous());
 
         if (match(THIS))
@@ -646,7 +712,9 @@ public class Parser {
             switch (getCurrentToken().type) {
                 case VT_STRING:
                 case VT_NUMBER:
+                case VT_INT:
                 case VT_BOOLEAN:
+                case CONST:
                 case FRT_VOID:
                 case BLOCK:
                 case IF:
@@ -1,7 +1,9 @@
 package com.heinthanth.uit.Runtime;
 
 import java.util.List;
+import com.heinthanth.uit.Interpreter.Environment;
 import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
 
 public abstract class Expression {
 
@@ -24,11 +26,33 @@ public abstract class Expression {
 
     public abstract <R> R accept(Visitor<R> visitor);
 
+    public abstract static class Reference extends Expression {
+
+        // local variable ဆိုရင် resolver က depth နဲ့ slot ကို ဖြည့်မယ်။ မဖြည့်ရင် global
+        public boolean local = false;
+        public int depth = -1;
+        public int slot = -1;
+
+        // function တွေ capture လုပ်ပြီး value ပြောင်းတဲ့ variable ဆို slot ထဲမှာ Environment.Cell ရှိမယ်။
+        public boolean boxed = false;
+
+        // num လို့ ကြေညာထားတဲ့ local variable (assign ဆို value ကလည်း num)။ resolver က ဖြည့်မယ်။
+        public boolean numeric = false;
+
+        // type checker က value type ကိုက်တယ်လို့ သက်သေပြပြီးသား assign ဆို runtime မှာ မစစ်တော့ဘူး။
+        public boolean checked = false;
+
+        // global ဆိုရင် ပထမဆုံး ရှာပြီးတာနဲ့ cell ကို မှတ်ထားမယ်။
+        public Environment.Cell cell = null;
+    }
+
     public static class BinaryExpression extends Expression {
 
         public final Expression left;
         public final Token operator;
         public final Expression right;
+        public boolean numeric = false;
+        public token_t operands = null;
 
         public BinaryExpression(Expression left, Token operator, Expression right) {
             this.left = left;
@@ -74,6 +98,8 @@ public abstract class Expression {
 
         public final Token operator;
         public final Expression right;
+        public boolean numeric = false;
+        public token_t operands = null;
 
         public UnaryExpression(Token operator, Expression right) {
             this.operator = operator;
@@ -86,9 +112,10 @@ public abstract class Expression {
         }
     }
 
-    public static class VariableAccessExpression extends Expression {
+    public static class VariableAccessExpression extends Reference {
 
         public final Token identifier;
+        public Token constant = null;
 
         public VariableAccessExpression(Token identifier) {
             this.identifier = identifier;
@@ -100,7 +127,7 @@ public abstract class Expression {
         }
     }
 
-    public static class VariableAssignExpression extends Expression {
+    public static class VariableAssignExpression extends Reference {
 
         public final Token identifier;
         public final Expression value;
@@ -134,7 +161,7 @@ public abstract class Expression {
         }
     }
 
-    public static class InputExpression extends Expression {
+    public static class InputExpression extends Reference {
 
         public final Token identifier;
 
@@ -240,7 +267,7 @@ public abstract class Expression {
         }
     }
 
-    public static class ThisExpression extends Expression {
+    public static class ThisExpression extends Reference {
 
         public final Token thiss;
 
@@ -0,0 +1,37 @@
+package com.heinthanth.uit.Runtime;
+
+/**
+ * မကြာခဏ ထွက်တဲ့ num value တွေ (loop counter, index လို integer အသေးလေးတွေ)
+ * ရဲ့ Double box တွေကို တစ်ခါပဲ ဆောက်ပြီး ပြန်သုံးမယ်။ arithmetic result ကို
+ * box လုပ်ရမယ့် နေရာတိုင်းက Double.valueOf အစား ဒီ box() ကို ခေါ်မယ်။
+ */
+public final class NumberCache {
+    private static final int LOW = -128;
+    private static final int HIGH = 1024;
+
+    private static final Double[] CACHE = new Double[HIGH - LOW];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = (double) (i + LOW);
+        }
+    }
+
+    private NumberCache() {
+    }
+
+    /**
+     * value ကို box မယ်။ cache ထဲမှာ ရှိရင် ရှိပြီးသား box ကို ပြန်ပေးမယ်။ -0 က
+     * Double.equals အရ 0 နဲ့ မတူလို့ cache ထဲက 0 ကို မပေးဘူး။
+     *
+     * @param value
+     * @return
+     */
+    public static Double box(double value) {
+        int index = (int) value;
+        if (index == value && index >= LOW && index < HIGH
+                && (index != 0 || Double.doubleToRawLongBits(value) == 0L))
+            return CACHE[index - LOW];
+        return value;
+    }
+}
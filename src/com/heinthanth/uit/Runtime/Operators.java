@@ -0,0 +1,354 @@
+package com.heinthanth.uit.Runtime;
+
+import com.heinthanth.uit.Lexer.Token;
+
+/**
+ * operator တွေရဲ့ semantics ကို တစ်နေရာတည်းမှာ ထားတာ။ tree-walking interpreter
+ * ရော bytecode vm ရော ဒီ helper တွေကိုပဲ ခေါ်တယ်။ ဒါမှ engine နှစ်ခုရဲ့ result,
+ * error message တွေ တူမှာ။
+ */
+public final class Operators {
+    private Operators() {
+    }
+
+    /**
+     * unary operation တွေကို ေဖြရှင်းမယ်။
+     *
+     * @param operator
+     * @param right
+     * @return
+     */
+    public static Object unary(Token operator, Object right) {
+        switch (operator.type) {
+            case NOT:
+                return !isTrue(right);
+            case MINUS:
+                if (right instanceof Long)
+                    return -(long) right;
+                checkNumberOperand(operator, right);
+                return NumberCache.box(-(double) right);
+            case TILDE:
+                checkIntOperand(operator, right);
+                return ~(long) right;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * binary operation တွေကို ေဖြရှင်းမယ်။
+     *
+     * @param operator
+     * @param left
+     * @param right
+     * @return
+     */
+    public static Object binary(Token operator, Object left, Object right) {
+        if (left instanceof Long && right instanceof Long)
+            return integer(operator, (long) left, (long) right);
+        switch (operator.type) {
+            case PLUS:
+                checkNumberOperands(operator, left, right);
+                return NumberCache.box((double) left + (double) right);
+            case MINUS:
+                checkNumberOperands(operator, left, right);
+                return NumberCache.box((double) left - (double) right);
+            case STAR:
+                checkNumberOperands(operator, left, right);
+                return NumberCache.box((double) left * (double) right);
+            case SLASH:
+                checkNumberOperands(operator, left, right);
+                checkZeroOperand(operator, right);
+                return NumberCache.box((double) left / (double) right);
+            case PERCENT:
+                checkNumberOperands(operator, left, right);
+                checkZeroOperand(operator, right);
+                return NumberCache.box(modulo((double) left, (double) right));
+            case CARET:
+                checkNumberOperands(operator, left, right);
+                return NumberCache.box(Math.pow((double) left, (double) right));
+            case DOT:
+                return stringify(left) + stringify(right);
+            case GREATER:
+                checkNumberOperands(operator, left, right);
+                return (double) left > (double) right;
+            case GREATER_EQUAL:
+                checkNumberOperands(operator, left, right);
+                return (double) left >= (double) right;
+            case LESS:
+                checkNumberOperands(operator, left, right);
+                return (double) left < (double) right;
+            case LESS_EQUAL:
+                checkNumberOperands(operator, left, right);
+                return (double) left <= (double) right;
+            case NOT_EQUAL:
+                return !isEqual(left, right);
+            case EQUAL:
+                return isEqual(left, right);
+            case AMPERSAND:
+            case PIPE:
+            case TILDE:
+            case LESS_LESS:
+            case GREATER_GREATER:
+                throw new RuntimeError(operator, "Operands must be ints.");
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * int operand နှစ်ခုကို long နဲ့ တွက်မယ်။ / နဲ့ % က integer division ၊ ^ ဆို
+     * exponent အနုတ်မရဘူး။ overflow ဖြစ်ရင် Java long လို wrap ဖြစ်မယ်။
+     *
+     * @param operator
+     * @param left
+     * @param right
+     * @return
+     */
+    public static Object integer(Token operator, long left, long right) {
+        switch (operator.type) {
+            case PLUS:
+                return left + right;
+            case MINUS:
+                return left - right;
+            case STAR:
+                return left * right;
+            case SLASH:
+                checkZeroOperand(operator, right);
+                return left / right;
+            case PERCENT:
+                checkZeroOperand(operator, right);
+                return left % right;
+            case CARET:
+                return power(operator, left, right);
+            case AMPERSAND:
+                return left & right;
+            case PIPE:
+                return left | right;
+            case TILDE:
+                return left ^ right;
+            case LESS_LESS:
+                return left << right;
+            case GREATER_GREATER:
+                return left >> right;
+            case DOT:
+                return left + "" + right;
+            case GREATER:
+                return left > right;
+            case GREATER_EQUAL:
+                return left >= right;
+            case LESS:
+                return left < right;
+            case LESS_EQUAL:
+                return left <= right;
+            case NOT_EQUAL:
+                return left != right;
+            case EQUAL:
+                return left == right;
+            default:
+                return null;
+        }
+    }
+
+    private static long power(Token operator, long base, long exponent) {
+        if (exponent < 0)
+            throw new RuntimeError(operator, "Exponent must not be negative.");
+        long result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0)
+                result *= base;
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * num operand နှစ်ခုကို box မလုပ်ဘဲ တွက်မယ်။ + - * / % ^ အတွက်ပဲ။ result နဲ့
+     * error message က binary() နဲ့ အတူတူပဲ။
+     *
+     * @param operator
+     * @param left
+     * @param right
+     * @return
+     */
+    public static double arithmetic(Token operator, double left, double right) {
+        switch (operator.type) {
+            case PLUS:
+                return left + right;
+            case MINUS:
+                return left - right;
+            case STAR:
+                return left * right;
+            case SLASH:
+                checkZeroOperand(operator, right);
+                return left / right;
+            case PERCENT:
+                checkZeroOperand(operator, right);
+                return modulo(left, right);
+            default:
+                return Math.pow(left, right);
+        }
+    }
+
+    /**
+     * num operand နှစ်ခုကို box မလုပ်ဘဲ နှိုင်းယှဉ်မယ်။ > >= < <= == != အတွက်ပဲ။
+     * == က isEqual (Double.equals) လိုပဲ NaN == NaN၊ 0 != -0 ။
+     *
+     * @param operator
+     * @param left
+     * @param right
+     * @return
+     */
+    public static boolean compare(Token operator, double left, double right) {
+        switch (operator.type) {
+            case GREATER:
+                return left > right;
+            case GREATER_EQUAL:
+                return left >= right;
+            case LESS:
+                return left < right;
+            case LESS_EQUAL:
+                return left <= right;
+            case EQUAL:
+                return Double.doubleToLongBits(left) == Double.doubleToLongBits(right);
+            default:
+                return Double.doubleToLongBits(left) != Double.doubleToLongBits(right);
+        }
+    }
+
+    /**
+     * double % ကို hotspot က runtime call နဲ့ တွက်လို့ နှေးတယ်။ integer value
+     * တွေဆိုရင် long နဲ့ တွက်မယ်။ result က double % နဲ့ အတူတူပဲ (-0 အပါအဝင်)
+     *
+     * @param left
+     * @param right
+     * @return
+     */
+    public static double modulo(double left, double right) {
+        long a = (long) left;
+        long b = (long) right;
+        if (a == left && b == right && b != 0 && Math.abs(a) < (1L << 53) && Math.abs(b) < (1L << 53)) {
+            long result = a % b;
+            return result == 0 ? Math.copySign(0.0, left) : result;
+        }
+        return left % right;
+    }
+
+    /**
+     * evaluate လုပ်လို့ ရလာတဲ့ object ကို string ပြောင်းမယ်။
+     *
+     * @param object
+     * @return
+     */
+    public static String stringify(Object object) {
+        if (object == null)
+            return "null";
+        if (object instanceof Double) {
+            double value = (double) object;
+            if ((value == Math.floor(value)) && !Double.isInfinite(value)) {
+                return String.valueOf((long) value);
+            } else {
+                String text = object.toString();
+                if (text.endsWith(".0")) {
+                    text = text.substring(0, text.length() - 2);
+                }
+                return text;
+            }
+        }
+        return object.toString();
+    }
+
+    /**
+     * value တစ်ခုကို boolean true ဟုတ် မဟုတ် စစ်မယ်။ null ဆို false, bool ဆို သူ့
+     * value အတိုင်း ကျန်တာက exists သဘောနဲ့ true
+     *
+     * @param value
+     * @return
+     */
+    public static boolean isTrue(Object value) {
+        if (value == null)
+            return false;
+        if (value instanceof Boolean)
+            return (boolean) value;
+        return true;
+    }
+
+    /**
+     * Object (value) နှစ်ခုတူမတူစစ်မယ်။
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public static boolean isEqual(Object a, Object b) {
+        if (a == null && b == null)
+            return true;
+        if (a == null)
+            return false;
+
+        return a.equals(b);
+    }
+
+    /**
+     * unary operand က number ဖြစ်ကြောင်း စစ်မယ်။
+     *
+     * @param operator
+     * @param operand
+     */
+    public static void checkNumberOperand(Token operator, Object operand) {
+        if (operand instanceof Double)
+            return;
+        throw new RuntimeError(operator, "Operand must be a number.");
+    }
+
+    /**
+     * binary operands က number ဖြစ်ကြောင်း စစ်မယ်။
+     *
+     * @param operator
+     * @param left
+     * @param right
+     */
+    public static void checkNumberOperands(Token operator, Object left, Object right) {
+        if (left instanceof Double && right instanceof Double)
+            return;
+        if ((left instanceof Long || left instanceof Double) && (right instanceof Long || right instanceof Double))
+            throw new RuntimeError(operator, "Cannot mix int and num operands.");
+
+        throw new RuntimeError(operator, "Operands must be numbers.");
+    }
+
+    /**
+     * unary operand က int ဖြစ်ကြောင်း စစ်မယ်။
+     *
+     * @param operator
+     * @param operand
+     */
+    public static void checkIntOperand(Token operator, Object operand) {
+        if (operand instanceof Long)
+            return;
+        throw new RuntimeError(operator, "Operand must be an int.");
+    }
+
+    /**
+     * အစား, ဘာညာအတွက် zero ဟုတ် မဟုတ် စစ်မယ်။
+     *
+     * @param operator
+     * @param right
+     */
+    public static void checkZeroOperand(Token operator, Object right) {
+        checkZeroOperand(operator, (double) right);
+    }
+
+    public static void checkZeroOperand(Token operator, double right) {
+        if (right != 0)
+            return;
+        throw new RuntimeError(operator, "Divider must not be zero.");
+    }
+
+    public static void checkZeroOperand(Token operator, long right) {
+        if (right != 0)
+            return;
+        throw new RuntimeError(operator, "Divider must not be zero.");
+    }
+}
@@ -15,4 +15,22 @@ public class RuntimeError extends RuntimeException {
         super(message);
         this.token = token;
     }
+
+    /**
+     * builtin function တွေက သူ့ကို ခေါ်တဲ့နေရာကို မသိလို့ token မပါဘဲ throw မယ်။
+     * ခေါ်တဲ့ engine က at() နဲ့ call ရဲ့ token ကို ထည့်ပေးမယ်။
+     */
+    public RuntimeError(String message) {
+        this(null, message);
+    }
+
+    /**
+     * token မပါတဲ့ error ဆို token ထည့်ထားတဲ့ error အသစ်၊ ပါပြီးသားဆို ဒီ error ပဲ
+     *
+     * @param token
+     * @return
+     */
+    public RuntimeError at(Token token) {
+        return this.token != null ? this : new RuntimeError(token, getMessage());
+    }
 }
@@ -55,11 +55,16 @@ public abstract class Statement {
         public final Token type;
         public final Token identifier;
         public final Expression initializer;
+        public final boolean constant;
+        public boolean boxed = false;
+        public boolean numeric = false;
+        public boolean checked = false;
 
-        public VariableDeclarationStatement(Token type, Token identifier, Expression initializer) {
+        public VariableDeclarationStatement(Token type, Token identifier, Expression initializer, boolean constant) {
             this.type = type;
             this.identifier = identifier;
             this.initializer = initializer;
+            this.constant = constant;
         }
 
         @Override
@@ -71,6 +76,7 @@ public abstract class Statement {
     public static class BlockStatement extends Statement {
 
         public final List<Statement> statements;
+        public boolean scoped = true;
 
         public BlockStatement(List<Statement> statements) {
             this.statements = statements;
@@ -144,6 +150,11 @@ public abstract class Statement {
         public final Token identifier;
         public final List<List<Token>> parameters;
         public final List<Statement> instructions;
+        public boolean boxed = false;
+        public int[] captures = {};
+        public boolean[] boxedParameters = null;
+        public boolean reuseFrame = false;
+        public boolean checked = false;
 
         public FunctionStatement(Token type, Token identifier, List<List<Token>> parameters, List<Statement> instructions) {
             this.type = type;
@@ -162,6 +173,7 @@ public abstract class Statement {
 
         public final Token ret;
         public final Expression value;
+        public boolean tailCall = false;
 
         public ReturnStatement(Token ret, Expression value) {
             this.ret = ret;
@@ -180,6 +192,7 @@ public abstract class Statement {
         public final Expression.VariableAccessExpression parent;
         public final Map<Statement.VariableDeclarationStatement,Token> properties;
         public final Map<Statement.FunctionStatement,Token> methods;
+        public boolean boxed = false;
 
         public ClassStatement(Token identifier, Expression.VariableAccessExpression parent, Map<Statement.VariableDeclarationStatement,Token> properties, Map<Statement.FunctionStatement,Token> methods) {
             this.identifier = identifier;
@@ -4,23 +4,24 @@ import java.util.List;
 
 import com.heinthanth.uit.Interpreter.Environment;
 import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.JIT.CompiledCode;
+import com.heinthanth.uit.JIT.Jit;
+import com.heinthanth.uit.Lexer.Token;
 import com.heinthanth.uit.Runtime.Statement.FunctionStatement;
 import com.heinthanth.uit.Utils.TypeMapper;
 
 public class UitFunction implements UitCallable {
     /**
-     * single for return statement
+     * `return f(...)` ကို caller frame ထဲမှာပဲ ဆက် run ဖို့ return value အဖြစ်
+     * ပို့မယ့် value
      */
-    public static class ReturnSignal extends RuntimeException {
-        /**
-         *
-         */
-        private static final long serialVersionUID = -1082944320718946285L;
-        final Object value;
-
-        public ReturnSignal(Object value) {
-            super(null, null, false, false);
-            this.value = value;
+    public static final class TailCall {
+        public final UitFunction function;
+        public final List<Object> arguments;
+
+        public TailCall(UitFunction function, List<Object> arguments) {
+            this.function = function;
+            this.arguments = arguments;
         }
     }
 
@@ -29,12 +30,22 @@ public class UitFunction implements UitCallable {
      */
     public final FunctionStatement declaration;
 
-    private final boolean isInitializer;
+    protected final boolean isInitializer;
 
     /**
      * closure environment
      */
-    private final Environment closure;
+    protected final Environment closure;
+
+    /**
+     * JIT အတွက် ခေါ်ခဲ့တဲ့ အကြိမ်ရေ၊ loop ပတ်ခဲ့တဲ့ အကြိမ်ရေ
+     */
+    public int invocations = 0;
+    public int backEdges = 0;
+
+    // JIT compile ပြီးသား code
+    private CompiledCode compiled;
+    private boolean jitFailed = false;
 
     public UitFunction(FunctionStatement declaration, Environment closure, boolean isInitializer) {
         this.isInitializer = isInitializer;
@@ -50,32 +61,173 @@ public class UitFunction implements UitCallable {
 
     @Override
     public Object invoke(Interpreter interpreter, List<Object> arguments) {
-        Environment environment = new Environment(closure);
+        UitFunction function = this;
+        // tail call တွေကို java stack မတိုးဘဲ ဒီ loop ထဲမှာပဲ run မယ်။
+        while (true) {
+            boolean compiled = function.tierUp(interpreter);
+            Object value = compiled ? function.invokeCompiled(arguments) : function.execute(interpreter, arguments);
+            if (value instanceof TailCall) {
+                TailCall call = (TailCall) value;
+                // ClosureCompiler က caller ကို မသိလို့ ဒီမှာမှ စစ်မယ်။
+                if (!function.canTailCall(call.function, call.arguments.size()))
+                    return function.returnValue(call.function.invoke(interpreter, call.arguments));
+                function = call.function;
+                arguments = call.arguments;
+                continue;
+            }
+            // compile ပြီးသား code က return check လုပ်ပြီးသား
+            if (compiled)
+                return value;
+            // value မပါတဲ့ return နဲ့ အဆုံးထိ run တာ အတူတူပဲ။
+            return function.returnValue(value);
+        }
+    }
+
+    /**
+     * body ကို တစ်ခါ run မယ်။ return statement ရဲ့ value (သို့) TailCall ကို
+     * return check မလုပ်ဘဲ ပြန်ပေးမယ်။ return မပါဘဲ အဆုံးရောက်ရင် null
+     *
+     * @param interpreter
+     * @param arguments
+     * @return
+     */
+    protected Object execute(Interpreter interpreter, List<Object> arguments) {
+        if (!declaration.reuseFrame)
+            return interpreter.executeBody(this, frame(interpreter, arguments));
+        try {
+            return interpreter.executeBody(this, frame(interpreter, arguments));
+        } finally {
+            interpreter.releaseFrame();
+        }
+    }
+
+    /**
+     * parameter တွေကို define ပြီးသား frame။ closure တွေ capture လုပ်ပြီး value
+     * ပြောင်းတဲ့ parameter ဆို cell နဲ့ ထုပ်ထားမယ်။ reuseFrame ဆို interpreter ရဲ့
+     * frame stack ကယူမယ်၊ caller က releaseFrame နဲ့ ပြန်ပေးရမယ်။
+     *
+     * @param interpreter
+     * @param arguments
+     * @return
+     */
+    protected Environment frame(Interpreter interpreter, List<Object> arguments) {
+        Environment environment = declaration.reuseFrame ? interpreter.acquireFrame(closure)
+                : new Environment(closure);
+        boolean[] boxed = declaration.boxedParameters;
         for (int i = 0; i < declaration.parameters.size(); i++) {
-            environment.define(declaration.parameters.get(i).get(0), declaration.parameters.get(i).get(1),
+            List<Token> parameter = declaration.parameters.get(i);
+            int slot = environment.define(parameter.get(0), parameter.get(1), arguments.get(i));
+            if (boxed != null && boxed[i])
+                environment.box(slot);
+        }
+        return environment;
+    }
+
+    /**
+     * `return callee(...)` ကို ဒီ function ရဲ့ frame နေရာမှာ run လို့ရလား။ callee
+     * ရဲ့ return check က ဒီ function ရဲ့ check နဲ့ တူမှ ဒီ function ကို ကျော်လို့ရမယ်။
+     *
+     * @param callee
+     * @param argc
+     * @return
+     */
+    public boolean canTailCall(Object callee, int argc) {
+        // callee ကို ဒီ function ရဲ့ engine ကပဲ ဆက် run မှာမို့ class တူရမယ်။
+        if (callee == null || callee.getClass() != getClass())
+            return false;
+        UitFunction function = (UitFunction) callee;
+        if (isInitializer || function.isInitializer || function.argsCount() != argc)
+            return false;
+        if (declaration.type == null || function.declaration.type == null)
+            return declaration.type == function.declaration.type;
+        return declaration.type.type == function.declaration.type.type;
+    }
+
+    /**
+     * hot ဖြစ်နေရင် JIT နဲ့ compile မယ်။ compile ပြီးသား code ရှိရင် true
+     *
+     * @param interpreter
+     * @return
+     */
+    protected boolean tierUp(Interpreter interpreter) {
+        if (interpreter.jit == null)
+            return false;
+        if (compiled != null)
+            return true;
+        if (jitFailed)
+            return false;
+        // ယခင် run က compile ထားခဲ့ရင် warm-up မစောင့်ဘဲ တန်းသုံးမယ်။
+        if (invocations == 0 && backEdges == 0) {
+            compiled = interpreter.jit.restore(this, closure);
+            if (compiled != null)
+                return true;
+        }
+        if (++invocations < Jit.INVOCATION_THRESHOLD && backEdges < Jit.BACKEDGE_THRESHOLD)
+            return false;
+        compiled = interpreter.jit.compile(this, closure);
+        jitFailed = compiled == null;
+        return compiled != null;
+    }
+
+    /**
+     * JIT က compile တုန်းက ယူဆထားတာ မမှန်တော့ရင် compile ထားတဲ့ code ကို ဖျက်မယ်။
+     * နောက်တစ်ခါ hot ဖြစ်ရင် ပြန် compile မယ်။
+     */
+    public void deoptimize() {
+        compiled = null;
+    }
+
+    /**
+     * compile ပြီးသား code နဲ့ run မယ်။ parameter type check ကို define လိုပဲ
+     * အရင်လုပ်မယ်။
+     *
+     * @param arguments
+     * @return
+     */
+    protected Object invokeCompiled(List<Object> arguments) {
+        for (int i = 0; i < declaration.parameters.size(); i++) {
+            Environment.checkDeclaration(declaration.parameters.get(i).get(0), declaration.parameters.get(i).get(1),
                     arguments.get(i));
         }
-        try {
-            interpreter.executeBlock(declaration.instructions, environment);
-        } catch (ReturnSignal sig) {
-            if (isInitializer)
-                return closure.getAt(0, "this");
-            if (sig.value.getClass() != TypeMapper.Uit2Java.get(declaration.type.type)) {
-                StringBuilder msg = new StringBuilder();
-                msg.append("Cannot return ");
-                msg.append(TypeMapper.JavaT2String.get(sig.value.getClass()));
-                msg.append(" from ");
-                msg.append(TypeMapper.UitT2String.get(declaration.type.type));
-                msg.append(" function '");
-                msg.append(declaration.identifier.lexeme);
-                msg.append("'.");
-                throw new RuntimeError(declaration.type, msg.toString());
-            }
-            return sig.value;
+        return compiled.invoke(arguments.toArray());
+    }
+
+    /**
+     * return statement ကပေးတဲ့ value ကို function type နဲ့ စစ်ပြီး ပြန်ပေးမယ်။
+     *
+     * @param value
+     * @return
+     */
+    public Object returnValue(Object value) {
+        if (isInitializer)
+            return closure.getAt(0, 0);
+        // value မပါတဲ့ return ဆိုရင် function အဆုံးထိ run ပြီးသလိုပဲ။
+        if (value == null)
+            return "";
+        // type checker က return တွေ အကုန် စစ်ပြီးသားဆို ထပ်မစစ်ဘူး။
+        if (!declaration.checked && declaration.type != null
+                && value.getClass() != TypeMapper.Uit2Java.get(declaration.type.type)) {
+            StringBuilder msg = new StringBuilder();
+            msg.append("Cannot return ");
+            msg.append(TypeMapper.JavaT2String.get(value.getClass()));
+            msg.append(" from ");
+            msg.append(TypeMapper.UitT2String.get(declaration.type.type));
+            msg.append(" function '");
+            msg.append(declaration.identifier.lexeme);
+            msg.append("'.");
+            throw new RuntimeError(declaration.type, msg.toString());
         }
+        return value;
+    }
 
+    /**
+     * return statement မပါဘဲ function အဆုံးရောက်သွားရင် ပြန်ပေးမယ့် value
+     *
+     * @return
+     */
+    public Object voidValue() {
         if (isInitializer)
-            return closure.getAt(0, "this");
+            return closure.getAt(0, 0);
         return "";
     }
 
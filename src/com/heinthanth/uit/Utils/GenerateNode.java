@@ -15,11 +15,11 @@ public class GenerateNode {
 
         generateAst(output, "Expression",
             Arrays.asList(
-                "BinaryExpression   : Expression left, Token operator, Expression right",
+                "BinaryExpression   : Expression left, Token operator, Expression right | boolean numeric = false, token_t operands = null",
                 "GroupingExpression : Expression expression",
                 "LiteralExpression  : Token value",
-                "UnaryExpression    : Token operator, Expression right",
-                "VariableAccessExpression : Token identifier",
+                "UnaryExpression    : Token operator, Expression right | boolean numeric = false, token_t operands = null",
+                "VariableAccessExpression : Token identifier | Token constant = null",
                 "VariableAssignExpression : Token identifier, Expression value",
                 "LogicalExpression  : Expression left, Token operator, Expression right",
                 "InputExpression    : Token identifier",
@@ -32,28 +32,37 @@ public class GenerateNode {
             ),
             Arrays.asList(
                 "java.util.List",
-                "com.heinthanth.uit.Lexer.Token"
+                "com.heinthanth.uit.Interpreter.Environment",
+                "com.heinthanth.uit.Lexer.Token",
+                "com.heinthanth.uit.Lexer.token_t"
+            ),
+            Arrays.asList(
+                "VariableAccessExpression",
+                "VariableAssignExpression",
+                "InputExpression",
+                "ThisExpression"
             )
         );
         generateAst(output, "Statement",
             Arrays.asList(
                 "ExpressionStatement: Expression expression",
                 "OutputStatement    : Expression expression",
-                "VariableDeclarationStatement : Token type, Token identifier, Expression initializer",
-                "BlockStatement     : List<Statement> statements",
+                "VariableDeclarationStatement : Token type, Token identifier, Expression initializer, boolean constant | boolean boxed = false, boolean numeric = false, boolean checked = false",
+                "BlockStatement     : List<Statement> statements | boolean scoped = true",
                 "IfStatement        : Map<Expression,Statement> branches, Statement elseBranch",
                 "WhileStatement     : Expression condition, Statement instructions",
                 "BreakStatement     : ",
                 "ContinueStatement  : ",
-                "FunctionStatement  : Token type, Token identifier, List<List<Token>> parameters, List<Statement> instructions",
-                "ReturnStatement    : Token ret, Expression value",
-                "ClassStatement     : Token identifier, Expression.VariableAccessExpression parent, Map<Statement.VariableDeclarationStatement,Token> properties, Map<Statement.FunctionStatement,Token> methods"
+                "FunctionStatement  : Token type, Token identifier, List<List<Token>> parameters, List<Statement> instructions | boolean boxed = false, int[] captures = {}, boolean[] boxedParameters = null, boolean reuseFrame = false, boolean checked = false",
+                "ReturnStatement    : Token ret, Expression value | boolean tailCall = false",
+                "ClassStatement     : Token identifier, Expression.VariableAccessExpression parent, Map<Statement.VariableDeclarationStatement,Token> properties, Map<Statement.FunctionStatement,Token> methods | boolean boxed = false"
             ),
             Arrays.asList(
                 "java.util.List",
                 "java.util.Map",
                 "com.heinthanth.uit.Lexer.Token"
-            )
+            ),
+            Arrays.asList()
         );
     }
 
@@ -63,10 +72,12 @@ public class GenerateNode {
      * @param output
      * @param baseName
      * @param properties
+     * @param imports
+     * @param references resolver က scope ဆုံးဖြတ်ပေးရမယ့် node တွေ
      * @throws IOException
      */
-    private static void generateAst(String output, String baseName, List<String> properties, List<String> imports)
-            throws IOException {
+    private static void generateAst(String output, String baseName, List<String> properties, List<String> imports,
+            List<String> references) throws IOException {
         String path = output + "/" + baseName + ".java";
         PrintWriter writer = new PrintWriter(path, "UTF-8");
 
@@ -85,10 +96,14 @@ public class GenerateNode {
         writer.println("    public abstract <R> R accept(Visitor<R> visitor);");
         writer.println();
 
+        if (!references.isEmpty())
+            writeReference(writer, baseName);
+
         for (String prop : properties) {
             String className = prop.split(":")[0].trim();
-            String fields = prop.split(":")[1].trim();
-            writeProps(writer, baseName, className, fields);
+            String[] fields = prop.split(":")[1].split("\\|");
+            String parent = references.contains(className) ? "Reference" : baseName;
+            writeProps(writer, parent, className, fields[0].trim(), fields.length > 1 ? fields[1].trim() : "");
             writer.println();
         }
 
@@ -96,6 +111,36 @@ public class GenerateNode {
         writer.close();
     }
 
+    /**
+     * variable reference node တွေရဲ့ parent class ရေးဖို့။ resolver က ဆုံးဖြတ်တဲ့
+     * scope ကို map ထဲမှာ မသိမ်းဘဲ node ပေါ်မှာပဲ ထားမယ်။
+     *
+     * @param writer
+     * @param baseName
+     */
+    private static void writeReference(PrintWriter writer, String baseName) {
+        writer.println("    public abstract static class Reference extends " + baseName + " {");
+        writer.println();
+        writer.println("        // local variable ဆိုရင် resolver က depth နဲ့ slot ကို ဖြည့်မယ်။ မဖြည့်ရင် global");
+        writer.println("        public boolean local = false;");
+        writer.println("        public int depth = -1;");
+        writer.println("        public int slot = -1;");
+        writer.println();
+        writer.println("        // function တွေ capture လုပ်ပြီး value ပြောင်းတဲ့ variable ဆို slot ထဲမှာ Environment.Cell ရှိမယ်။");
+        writer.println("        public boolean boxed = false;");
+        writer.println();
+        writer.println("        // num လို့ ကြေညာထားတဲ့ local variable (assign ဆို value ကလည်း num)။ resolver က ဖြည့်မယ်။");
+        writer.println("        public boolean numeric = false;");
+        writer.println();
+        writer.println("        // type checker က value type ကိုက်တယ်လို့ သက်သေပြပြီးသား assign ဆို runtime မှာ မစစ်တော့ဘူး။");
+        writer.println("        public boolean checked = false;");
+        writer.println();
+        writer.println("        // global ဆိုရင် ပထမဆုံး ရှာပြီးတာနဲ့ cell ကို မှတ်ထားမယ်။");
+        writer.println("        public Environment.Cell cell = null;");
+        writer.println("    }");
+        writer.println();
+    }
+
     /**
      * class ရေးဖို့
      *
@@ -103,8 +148,10 @@ public class GenerateNode {
      * @param baseName
      * @param className
      * @param fieldList
+     * @param stateList resolver ဖြည့်ပေးမယ့် constructor မှာမပါတဲ့ field တွေ
      */
-    private static void writeProps(PrintWriter writer, String baseName, String className, String fieldList) {
+    private static void writeProps(PrintWriter writer, String baseName, String className, String fieldList,
+            String stateList) {
         // static class $name extends $baseName {
         writer.println("    public static class " + className + " extends " + baseName + " {");
 
@@ -123,6 +170,12 @@ public class GenerateNode {
             writer.println("        public final " + field + ";");
         }
 
+        if (!stateList.isEmpty()) {
+            for (String state : stateList.split(", ")) {
+                writer.println("        public " + state + ";");
+            }
+        }
+
         writer.println();
 
         // constructor ရေးမယ်။
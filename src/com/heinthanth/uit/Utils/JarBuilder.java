@@ -0,0 +1,123 @@
+package com.heinthanth.uit.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.heinthanth.uit.VM.Image;
+
+import org.fusesource.jansi.AnsiConsole;
+import org.jline.reader.LineReader;
+
+/**
+ * `uit build` အတွက် compile ပြီးသား program နဲ့ run ဖို့လိုတဲ့ runtime class
+ * တွေကို jar တစ်ခုထဲ ထုပ်ပေးမယ်။ lexer, parser, resolver, type checker,
+ * optimizer, တခြား engine တွေ၊ JIT တွေကိုတော့ မထည့်ဘူး။
+ */
+public final class JarBuilder {
+    // Launcher နဲ့ vm က run တဲ့အခါ သုံးတဲ့ uit class တွေ။ vm က builtin function
+    // တွေကို Interpreter ဆီကယူလို့ Interpreter, Environment ပါရမယ်။
+    private static final String[] RUNTIME = { "com/heinthanth/uit/Launcher", "com/heinthanth/uit/VM/",
+            "com/heinthanth/uit/Runtime/", "com/heinthanth/uit/Interpreter/Interpreter",
+            "com/heinthanth/uit/Interpreter/Environment", "com/heinthanth/uit/Interpreter/completion_t",
+            "com/heinthanth/uit/Lexer/Token", "com/heinthanth/uit/Lexer/token_t",
+            "com/heinthanth/uit/Lexer/value_t", "com/heinthanth/uit/Utils/ErrorHandler",
+            "com/heinthanth/uit/Utils/TypeMapper" };
+
+    private JarBuilder() {
+    }
+
+    /**
+     * jar file ရေးမယ်။
+     *
+     * @param image     compile ပြီးသား program
+     * @param output    jar file path
+     * @param mainClass jar ရဲ့ main class
+     * @throws IOException
+     */
+    public static void write(Image image, String output, String mainClass) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, mainClass);
+
+        // uit class တွေနဲ့ jline, jansi library တွေရှိတဲ့ နေရာ (directory သို့ jar)
+        Set<Path> sources = new LinkedHashSet<>();
+        for (Class<?> klass : new Class<?>[] { JarBuilder.class, LineReader.class, AnsiConsole.class }) {
+            try {
+                sources.add(Paths.get(klass.getProtectionDomain().getCodeSource().getLocation().toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(Paths.get(output)), manifest)) {
+            Set<String> written = new HashSet<>();
+            for (Path source : sources) {
+                if (Files.isDirectory(source)) {
+                    List<Path> files;
+                    try (Stream<Path> walk = Files.walk(source)) {
+                        files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+                    for (Path file : files) {
+                        String name = source.relativize(file).toString().replace('\\', '/');
+                        if (include(name) && written.add(name)) {
+                            try (InputStream in = Files.newInputStream(file)) {
+                                copy(jar, name, in);
+                            }
+                        }
+                    }
+                } else {
+                    try (JarFile file = new JarFile(source.toFile())) {
+                        Enumeration<JarEntry> entries = file.entries();
+                        while (entries.hasMoreElements()) {
+                            JarEntry entry = entries.nextElement();
+                            if (!entry.isDirectory() && include(entry.getName()) && written.add(entry.getName())) {
+                                try (InputStream in = file.getInputStream(entry)) {
+                                    copy(jar, entry.getName(), in);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            jar.putNextEntry(new JarEntry(Image.RESOURCE));
+            image.write(jar);
+            jar.closeEntry();
+        }
+    }
+
+    private static boolean include(String name) {
+        if (name.startsWith("META-INF/") || name.equals(Image.RESOURCE))
+            return false;
+        // jline, jansi library တွေကို အကုန်ထည့်မယ်။
+        if (!name.startsWith("com/heinthanth/uit/"))
+            return true;
+        for (String prefix : RUNTIME) {
+            if (name.startsWith(prefix) && (prefix.endsWith("/") || name.startsWith(".class", prefix.length())
+                    || name.startsWith("$", prefix.length())))
+                return true;
+        }
+        return false;
+    }
+
+    private static void copy(JarOutputStream jar, String name, InputStream in) throws IOException {
+        jar.putNextEntry(new JarEntry(name));
+        in.transferTo(jar);
+        jar.closeEntry();
+    }
+}
@@ -20,6 +20,7 @@ public class TypeMapper {
 
         {
             put(token_t.VT_NUMBER, Double.class);
+            put(token_t.VT_INT, Long.class);
             put(token_t.VT_STRING, String.class);
             put(token_t.VT_BOOLEAN, Boolean.class);
             put(token_t.FRT_VOID, Void.class);
@@ -38,6 +39,7 @@ public class TypeMapper {
 
         {
             put(Double.class, token_t.VT_NUMBER);
+            put(Long.class, token_t.VT_INT);
             put(String.class, token_t.VT_STRING);
             put(Boolean.class, token_t.VT_BOOLEAN);
             put(Void.class, token_t.FRT_VOID);
@@ -53,6 +55,7 @@ public class TypeMapper {
 
         {
             put(token_t.VT_NUMBER, "num");
+            put(token_t.VT_INT, "int");
             put(token_t.VT_STRING, "string");
             put(token_t.VT_BOOLEAN, "boolean");
             put(token_t.FRT_VOID, "void");
@@ -68,6 +71,7 @@ public class TypeMapper {
 
         {
             put(Double.class, "num");
+            put(Long.class, "int");
             put(String.class, "string");
             put(Boolean.class, "boolean");
             put(Void.class, "void");
@@ -0,0 +1,92 @@
+package com.heinthanth.uit.VM;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.heinthanth.uit.Interpreter.Environment;
+import com.heinthanth.uit.Lexer.Token;
+
+/**
+ * compile လုပ်ပြီးသား bytecode တစ်စု။ function တစ်ခုကို chunk တစ်ခုစီ ရှိတယ်။
+ */
+final class Chunk {
+    // instruction နဲ့ operand တွေ
+    int[] code = new int[64];
+
+    // code ထဲက instruction တစ်ခုချင်းစီအတွက် error ပြဖို့ token (operand နေရာတွေမှာ null)
+    Token[] tokens = new Token[64];
+
+    // instruction အရေအတွက်
+    int count = 0;
+
+    // constant pool
+    final List<Object> constants = new ArrayList<>();
+
+    // constant pool ကို vm run တဲ့အခါ array အနေနဲ့ သုံးမယ်။
+    Object[] constantPool;
+
+    // global variable ကို သုံးတဲ့ နေရာတိုင်းရဲ့ name (error position အတွက် မပေါင်းဘူး)။
+    // GET_GLOBAL, SET_GLOBAL တို့ရဲ့ operand က ဒီ table ထဲက index
+    final List<Token> globals = new ArrayList<>();
+    Token[] globalNames;
+
+    // globalNames နဲ့ index တူတဲ့ global cell တွေ။ vm က chunk ကို ပထမဆုံး run မှ ချိတ်မယ်။
+    Environment.Cell[] cells;
+
+    /**
+     * instruction (သို့) operand တစ်ခု ထည့်မယ်။
+     *
+     * @param value
+     * @param token error position အတွက် token
+     * @return ထည့်လိုက်တဲ့ index
+     */
+    int write(int value, Token token) {
+        if (count == code.length) {
+            code = Arrays.copyOf(code, count * 2);
+            tokens = Arrays.copyOf(tokens, count * 2);
+        }
+        code[count] = value;
+        tokens[count] = token;
+        return count++;
+    }
+
+    /**
+     * constant pool ထဲ value ထည့်မယ်။ ရှိပြီးသား value ဆိုရင် ပြန်သုံးမယ်။
+     *
+     * @param value
+     * @return constant index
+     */
+    int addConstant(Object value) {
+        for (int i = 0; i < constants.size(); i++) {
+            Object constant = constants.get(i);
+            if (constant == value || (constant != null && constant.getClass() == value.getClass()
+                    && !(constant instanceof Token) && constant.equals(value))) {
+                return i;
+            }
+        }
+        constants.add(value);
+        return constants.size() - 1;
+    }
+
+    /**
+     * global variable reference တစ်ခု ထည့်မယ်။
+     *
+     * @param identifier
+     * @return global table index
+     */
+    int addGlobal(Token identifier) {
+        globals.add(identifier);
+        return globals.size() - 1;
+    }
+
+    /**
+     * compile ပြီးသွားရင် run ဖို့ပြင်မယ်။
+     */
+    void seal() {
+        code = Arrays.copyOf(code, count);
+        tokens = Arrays.copyOf(tokens, count);
+        constantPool = constants.toArray();
+        globalNames = globals.toArray(new Token[0]);
+    }
+}
@@ -0,0 +1,29 @@
+package com.heinthanth.uit.VM;
+
+import com.heinthanth.uit.Lexer.Token;
+
+/**
+ * class statement တစ်ခုကို compile လုပ်ထားတာ။ property value တွေကိုတော့ stack
+ * ပေါ်ကနေ ယူမယ်။
+ */
+final class ClassPrototype {
+    // class name
+    final Token identifier;
+
+    // property name နဲ့ access modifier တွေ (declare လုပ်တဲ့ အစဥ်အတိုင်း)
+    final Token[] properties;
+    final Token[] propertyAccess;
+
+    // method တွေနဲ့ access modifier တွေ
+    final Prototype[] methods;
+    final Token[] methodAccess;
+
+    ClassPrototype(Token identifier, Token[] properties, Token[] propertyAccess, Prototype[] methods,
+            Token[] methodAccess) {
+        this.identifier = identifier;
+        this.properties = properties;
+        this.propertyAccess = propertyAccess;
+        this.methods = methods;
+        this.methodAccess = methodAccess;
+    }
+}
@@ -0,0 +1,698 @@
+package com.heinthanth.uit.VM;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Expression;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * resolve လုပ်ပြီးသား Statement / Expression tree ကို bytecode အဖြစ် ပြောင်းမယ်။
+ * scope တွေကို tree-walking interpreter ရဲ့ Environment တွေအတိုင်း ခွဲထားပြီး
+ * variable တစ်ခုချင်းစီကို (depth, slot) နဲ့ compile time မှာပဲ ဆုံးဖြတ်ထားတယ်။
+ * ဘယ် scope ထဲမှာမှ မရှိတဲ့ name ကတော့ global ပေါ့။
+ */
+final class Compiler implements Expression.Visitor<Void>, Statement.Visitor<Void> {
+    /**
+     * compile time scope တစ်ခု။ runtime မှာ Frame တစ်ခုနဲ့ ကိုက်တယ်။
+     */
+    private static final class Scope {
+        final Map<String, Integer> slots = new HashMap<>();
+        final Scope enclosing;
+
+        Scope(Scope enclosing) {
+            this.enclosing = enclosing;
+        }
+
+        int declare(String name) {
+            int slot = slots.size();
+            slots.put(name, slot);
+            return slot;
+        }
+    }
+
+    /**
+     * break / continue အတွက် loop information
+     */
+    private static final class Loop {
+        final Loop enclosing;
+        final int start;
+        final int scopeDepth;
+        final List<Integer> breaks = new ArrayList<>();
+
+        Loop(Loop enclosing, int start, int scopeDepth) {
+            this.enclosing = enclosing;
+            this.start = start;
+            this.scopeDepth = scopeDepth;
+        }
+    }
+
+    // လက်ရှိ compile နေတဲ့ function ရဲ့ bytecode
+    private Chunk chunk;
+
+    // အတွင်းဆုံး scope (top-level မှာ null)
+    private Scope scope;
+
+    // လက်ရှိ function ထဲမှာ ဖွင့်ထားတဲ့ block scope အရေအတွက်
+    private int scopeDepth = 0;
+
+    private Loop loop;
+
+    /**
+     * program တစ်ခုလုံး (သို့) REPL input ကို compile မယ်။
+     *
+     * @param statements
+     * @return top-level code ရဲ့ prototype
+     */
+    Prototype compile(List<Statement> statements) {
+        Prototype script = new Prototype(null, false);
+        chunk = script.chunk;
+        for (Statement statement : statements) {
+            compile(statement);
+        }
+        emit(Opcode.RETURN_VOID, null);
+        chunk.seal();
+        return script;
+    }
+
+    /**
+     * REPL ကလာတဲ့ expression တစ်ခုကို value ပြန်ပေးအောင် compile မယ်။
+     *
+     * @param expression
+     * @return
+     */
+    Prototype compileExpression(Expression expression) {
+        Prototype script = new Prototype(null, false);
+        chunk = script.chunk;
+        compile(expression);
+        emit(Opcode.RETURN, null);
+        chunk.seal();
+        return script;
+    }
+
+    @Override
+    public Void visitExpressionStatement(Statement.ExpressionStatement statement) {
+        compile(statement.expression);
+        emit(Opcode.POP, null);
+        return null;
+    }
+
+    @Override
+    public Void visitOutputStatement(Statement.OutputStatement statement) {
+        compile(statement.expression);
+        emit(Opcode.OUTPUT, null);
+        return null;
+    }
+
+    @Override
+    public Void visitVariableDeclarationStatement(Statement.VariableDeclarationStatement statement) {
+        if (statement.initializer != null) {
+            compile(statement.initializer);
+        } else {
+            switch (statement.type.type) {
+                case VT_STRING:
+                    emitConstant("", statement.type);
+                    break;
+                case VT_BOOLEAN:
+                    emitConstant(false, statement.type);
+                    break;
+                case VT_NUMBER:
+                    emitConstant(0.0, statement.type);
+                    break;
+                case VT_INT:
+                    emitConstant(0L, statement.type);
+                    break;
+                default:
+                    emit(Opcode.NIL, statement.type);
+                    break;
+            }
+        }
+        // type checker က စစ်ပြီးသားဆို type မစစ်တဲ့ STORE_* နဲ့ define မယ်။
+        if (statement.checked) {
+            if (scope == null) {
+                emit(Opcode.STORE_GLOBAL, statement.identifier);
+                emit(chunk.addConstant(statement.identifier), null);
+            } else {
+                emit(Opcode.STORE_LOCAL, statement.identifier);
+                emit(scope.declare(statement.identifier.lexeme), null);
+            }
+            return null;
+        }
+        if (scope == null) {
+            emit(Opcode.DEFINE_GLOBAL, statement.identifier);
+            emit(chunk.addConstant(statement.identifier), null);
+        } else {
+            emit(Opcode.DEFINE_LOCAL, statement.identifier);
+            emit(scope.declare(statement.identifier.lexeme), null);
+        }
+        emit(chunk.addConstant(statement.type), null);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStatement(Statement.BlockStatement statement) {
+        // ဘာမှ မကြေညာတဲ့ block ဆို frame အသစ်မဖွင့်ဘူး။ depth တွေကို ဒီ compiler ရဲ့ scope
+        // တွေနဲ့ပဲ တွက်တာမို့ ကိုက်နေမယ်။
+        if (!statement.scoped) {
+            for (Statement stmt : statement.statements) {
+                compile(stmt);
+            }
+            return null;
+        }
+        int size = beginScope();
+        for (Statement stmt : statement.statements) {
+            compile(stmt);
+        }
+        endScope(size);
+        return null;
+    }
+
+    @Override
+    public Void visitIfStatement(Statement.IfStatement statement) {
+        List<Integer> exits = new ArrayList<>();
+        for (Map.Entry<Expression, Statement> branch : statement.branches.entrySet()) {
+            compile(branch.getKey());
+            int next = emitJump(Opcode.JUMP_IF_FALSE, null);
+            compile(branch.getValue());
+            exits.add(emitJump(Opcode.JUMP, null));
+            patchJump(next);
+        }
+        if (statement.elseBranch != null) {
+            compile(statement.elseBranch);
+        }
+        for (int exit : exits) {
+            patchJump(exit);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStatement(Statement.WhileStatement statement) {
+        int start = chunk.count;
+        compile(statement.condition);
+        int exit = emitJump(Opcode.JUMP_IF_FALSE, null);
+
+        loop = new Loop(loop, start, scopeDepth);
+        compile(statement.instructions);
+        emitLoop(start);
+
+        patchJump(exit);
+        for (int jump : loop.breaks) {
+            patchJump(jump);
+        }
+        loop = loop.enclosing;
+        return null;
+    }
+
+    @Override
+    public Void visitBreakStatement(Statement.BreakStatement statement) {
+        popScopes(loop.scopeDepth);
+        loop.breaks.add(emitJump(Opcode.JUMP, null));
+        return null;
+    }
+
+    @Override
+    public Void visitContinueStatement(Statement.ContinueStatement statement) {
+        popScopes(loop.scopeDepth);
+        emitLoop(loop.start);
+        return null;
+    }
+
+    @Override
+    public Void visitFunctionStatement(Statement.FunctionStatement statement) {
+        if (scope == null) {
+            emitClosure(function(statement, false, scope), statement.identifier);
+            emit(Opcode.STORE_GLOBAL, statement.identifier);
+            emit(chunk.addConstant(statement.identifier), null);
+        } else {
+            // recursive call တွေအတွက် body မတိုင်ခင် declare ထားမယ်။
+            int slot = scope.declare(statement.identifier.lexeme);
+            emitClosure(function(statement, false, scope), statement.identifier);
+            emit(Opcode.STORE_LOCAL, statement.identifier);
+            emit(slot, null);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitReturnStatement(Statement.ReturnStatement statement) {
+        if (statement.tailCall) {
+            Expression.CallExpression call = (Expression.CallExpression) statement.value;
+            compile(call.callee);
+            for (Expression argument : call.arguments) {
+                compile(argument);
+            }
+            emit(Opcode.TAIL_CALL, call.paren);
+            emit(call.arguments.size(), null);
+        } else if (statement.value != null) {
+            compile(statement.value);
+        } else {
+            emit(Opcode.NIL, statement.ret);
+        }
+        emit(Opcode.RETURN, statement.ret);
+        return null;
+    }
+
+    @Override
+    public Void visitClassStatement(Statement.ClassStatement statement) {
+        // parent class ကို tree-walking interpreter လိုပဲ global ကနေ ရှာမယ်။
+        if (statement.parent != null) {
+            emit(Opcode.GET_GLOBAL, statement.parent.identifier);
+            emit(chunk.addGlobal(statement.parent.identifier), null);
+            emit(Opcode.CHECK_CLASS, statement.parent.identifier);
+        } else {
+            emit(Opcode.NIL, statement.identifier);
+        }
+
+        // global ဆို function လိုပဲ class ဖန်တီးပြီးမှ define မယ်။
+        int slot = -1;
+        if (scope != null) {
+            slot = scope.declare(statement.identifier.lexeme);
+            emit(Opcode.NIL, statement.identifier);
+            emit(Opcode.STORE_LOCAL, statement.identifier);
+            emit(slot, null);
+        }
+
+        int count = statement.properties.size();
+        Token[] properties = new Token[count];
+        Token[] propertyAccess = new Token[count];
+        int i = 0;
+        for (Map.Entry<Statement.VariableDeclarationStatement, Token> property : statement.properties.entrySet()) {
+            Statement.VariableDeclarationStatement declaration = property.getKey();
+            if (declaration.initializer != null) {
+                compile(declaration.initializer);
+            } else {
+                switch (declaration.type.type) {
+                    case VT_STRING:
+                        emitConstant("", declaration.type);
+                        break;
+                    case VT_BOOLEAN:
+                        emitConstant(false, declaration.type);
+                        break;
+                    case VT_NUMBER:
+                        emitConstant(0.0, declaration.type);
+                        break;
+                    case VT_INT:
+                        emitConstant(0L, declaration.type);
+                        break;
+                    default:
+                        emit(Opcode.NIL, declaration.type);
+                        break;
+                }
+            }
+            properties[i] = declaration.identifier;
+            propertyAccess[i] = property.getValue();
+            i++;
+        }
+
+        // method တွေက bind လုပ်တဲ့ frame ('this') အောက်မှာ ရှိမယ်။
+        Scope thisScope = new Scope(scope);
+        thisScope.declare("this");
+        for (Token property : properties) {
+            if (!thisScope.slots.containsKey(property.lexeme))
+                thisScope.declare(property.lexeme);
+        }
+        Prototype[] methods = new Prototype[statement.methods.size()];
+        Token[] methodAccess = new Token[methods.length];
+        i = 0;
+        for (Map.Entry<Statement.FunctionStatement, Token> method : statement.methods.entrySet()) {
+            Statement.FunctionStatement declaration = method.getKey();
+            methods[i] = function(declaration, "__construct".equals(declaration.identifier.lexeme), thisScope);
+            methods[i].thisSlots = thisScope.slots.size();
+            methodAccess[i] = method.getValue();
+            i++;
+        }
+
+        ClassPrototype klass = new ClassPrototype(statement.identifier, properties, propertyAccess, methods,
+                methodAccess);
+        emit(Opcode.CLASS, statement.identifier);
+        emit(chunk.addConstant(klass), null);
+
+        if (scope == null) {
+            emit(Opcode.STORE_GLOBAL, statement.identifier);
+            emit(chunk.addConstant(statement.identifier), null);
+        } else {
+            emit(Opcode.STORE_LOCAL, statement.identifier);
+            emit(slot, null);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitBinaryExpression(Expression.BinaryExpression expression) {
+        compile(expression.left);
+        compile(expression.right);
+        switch (expression.operator.type) {
+            case PLUS:
+                emit(Opcode.ADD, expression.operator);
+                break;
+            case MINUS:
+                emit(Opcode.SUBTRACT, expression.operator);
+                break;
+            case STAR:
+                emit(Opcode.MULTIPLY, expression.operator);
+                break;
+            case SLASH:
+                emit(Opcode.DIVIDE, expression.operator);
+                break;
+            case PERCENT:
+                emit(Opcode.MODULO, expression.operator);
+                break;
+            case CARET:
+                emit(Opcode.POWER, expression.operator);
+                break;
+            case DOT:
+                emit(Opcode.CONCAT, expression.operator);
+                break;
+            case GREATER:
+                emit(Opcode.GREATER, expression.operator);
+                break;
+            case GREATER_EQUAL:
+                emit(Opcode.GREATER_EQUAL, expression.operator);
+                break;
+            case LESS:
+                emit(Opcode.LESS, expression.operator);
+                break;
+            case LESS_EQUAL:
+                emit(Opcode.LESS_EQUAL, expression.operator);
+                break;
+            case NOT_EQUAL:
+                emit(Opcode.NOT_EQUAL, expression.operator);
+                break;
+            case EQUAL:
+                emit(Opcode.EQUAL, expression.operator);
+                break;
+            case AMPERSAND:
+                emit(Opcode.BIT_AND, expression.operator);
+                break;
+            case PIPE:
+                emit(Opcode.BIT_OR, expression.operator);
+                break;
+            case TILDE:
+                emit(Opcode.BIT_XOR, expression.operator);
+                break;
+            case LESS_LESS:
+                emit(Opcode.SHIFT_LEFT, expression.operator);
+                break;
+            case GREATER_GREATER:
+                emit(Opcode.SHIFT_RIGHT, expression.operator);
+                break;
+            default:
+                emit(Opcode.POP, null);
+                emit(Opcode.POP, null);
+                emit(Opcode.NIL, expression.operator);
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitGroupingExpression(Expression.GroupingExpression expression) {
+        compile(expression.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitLiteralExpression(Expression.LiteralExpression expression) {
+        emitConstant(expression.value.getValue(), expression.value);
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryExpression(Expression.UnaryExpression expression) {
+        compile(expression.right);
+        switch (expression.operator.type) {
+            case NOT:
+                emit(Opcode.NOT, expression.operator);
+                break;
+            case MINUS:
+                emit(Opcode.NEGATE, expression.operator);
+                break;
+            case TILDE:
+                emit(Opcode.COMPLEMENT, expression.operator);
+                break;
+            default:
+                emit(Opcode.POP, null);
+                emit(Opcode.NIL, expression.operator);
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitVariableAccessExpression(Expression.VariableAccessExpression expression) {
+        emitGet(expression.identifier, expression.identifier);
+        return null;
+    }
+
+    @Override
+    public Void visitVariableAssignExpression(Expression.VariableAssignExpression expression) {
+        compile(expression.value);
+        emitSet(expression.identifier);
+        return null;
+    }
+
+    @Override
+    public Void visitLogicalExpression(Expression.LogicalExpression expression) {
+        compile(expression.left);
+        int end = emitJump(expression.operator.type == token_t.OR
+                ? Opcode.JUMP_IF_TRUE_OR_POP
+                : Opcode.JUMP_IF_FALSE_OR_POP, expression.operator);
+        compile(expression.right);
+        patchJump(end);
+        return null;
+    }
+
+    @Override
+    public Void visitInputExpression(Expression.InputExpression expression) {
+        emit(Opcode.INPUT, expression.identifier);
+        emitSet(expression.identifier);
+        return null;
+    }
+
+    @Override
+    public Void visitIncrementExpression(Expression.IncrementExpression expression) {
+        emitStep(expression.identifier, expression.operator, expression.mode, Opcode.INCREMENT_LOCAL,
+                Opcode.INCREMENT_GLOBAL, "Cannot increase non-variable.");
+        return null;
+    }
+
+    @Override
+    public Void visitDecrementExpression(Expression.DecrementExpression expression) {
+        emitStep(expression.identifier, expression.operator, expression.mode, Opcode.DECREMENT_LOCAL,
+                Opcode.DECREMENT_GLOBAL, "Cannot decrease non-variable.");
+        return null;
+    }
+
+    @Override
+    public Void visitCallExpression(Expression.CallExpression expression) {
+        compile(expression.callee);
+        for (Expression argument : expression.arguments) {
+            compile(argument);
+        }
+        emit(Opcode.CALL, expression.paren);
+        emit(expression.arguments.size(), null);
+        return null;
+    }
+
+    @Override
+    public Void visitGetExpression(Expression.GetExpression expression) {
+        compile(expression.object);
+        emit(Opcode.GET_PROPERTY, expression.name);
+        emit(chunk.addConstant(expression.name), null);
+        emit(expression.fromThis ? 1 : 0, null);
+        return null;
+    }
+
+    @Override
+    public Void visitSetExpression(Expression.SetExpression expression) {
+        compile(expression.object);
+        emit(Opcode.CHECK_INSTANCE, expression.name);
+        compile(expression.value);
+        emit(Opcode.SET_PROPERTY, expression.name);
+        emit(chunk.addConstant(expression.name), null);
+        emit(expression.fromThis ? 1 : 0, null);
+        return null;
+    }
+
+    @Override
+    public Void visitThisExpression(Expression.ThisExpression expression) {
+        emitGet(expression.thiss, expression.thiss);
+        return null;
+    }
+
+    /**
+     * function body ကို prototype အသစ်တစ်ခုထဲ compile မယ်။
+     *
+     * @param declaration
+     * @param isInitializer
+     * @param enclosing     function ရဲ့ closure scope
+     * @return
+     */
+    private Prototype function(Statement.FunctionStatement declaration, boolean isInitializer, Scope enclosing) {
+        Chunk enclosingChunk = chunk;
+        Scope enclosingScope = scope;
+        int enclosingDepth = scopeDepth;
+        Loop enclosingLoop = loop;
+
+        Prototype prototype = new Prototype(declaration, isInitializer);
+        chunk = prototype.chunk;
+        scope = new Scope(enclosing);
+        scopeDepth = 0;
+        loop = null;
+
+        for (List<Token> parameter : declaration.parameters) {
+            scope.declare(parameter.get(1).lexeme);
+        }
+        for (Statement statement : declaration.instructions) {
+            compile(statement);
+        }
+        emit(Opcode.RETURN_VOID, declaration.identifier);
+        prototype.slots = scope.slots.size();
+        chunk.seal();
+
+        chunk = enclosingChunk;
+        scope = enclosingScope;
+        scopeDepth = enclosingDepth;
+        loop = enclosingLoop;
+        return prototype;
+    }
+
+    private void compile(Statement statement) {
+        if (statement != null)
+            statement.accept(this);
+    }
+
+    private void compile(Expression expression) {
+        expression.accept(this);
+    }
+
+    /**
+     * name ကို scope တွေထဲမှာ ရှာမယ်။ မတွေ့ရင် null (global)
+     *
+     * @param name
+     * @return { depth, slot }
+     */
+    private int[] resolve(String name) {
+        int depth = 0;
+        for (Scope current = scope; current != null; current = current.enclosing) {
+            Integer slot = current.slots.get(name);
+            if (slot != null)
+                return new int[] { depth, slot };
+            depth++;
+        }
+        return null;
+    }
+
+    private void emitGet(Token identifier, Token position) {
+        int[] local = resolve(identifier.lexeme);
+        if (local != null) {
+            emit(Opcode.GET_LOCAL, position);
+            emit(local[0], null);
+            emit(local[1], null);
+        } else {
+            emit(Opcode.GET_GLOBAL, position);
+            emit(chunk.addGlobal(identifier), null);
+        }
+    }
+
+    private void emitSet(Token identifier) {
+        int[] local = resolve(identifier.lexeme);
+        if (local != null) {
+            emit(Opcode.SET_LOCAL, identifier);
+            emit(local[0], null);
+            emit(local[1], null);
+        } else {
+            emit(Opcode.SET_GLOBAL, identifier);
+            emit(chunk.addGlobal(identifier), null);
+        }
+    }
+
+    /**
+     * increment / decrement instruction တွေ
+     */
+    private void emitStep(Expression target, Token operator, String mode, int localOp, int globalOp,
+            String error) {
+        int prefix = "prefix".equals(mode) ? 1 : 0;
+        if (!(target instanceof Expression.VariableAccessExpression)) {
+            emit(Opcode.THROW, operator);
+            emit(chunk.addConstant(error), null);
+            return;
+        }
+        Token identifier = ((Expression.VariableAccessExpression) target).identifier;
+        int[] local = resolve(identifier.lexeme);
+        if (local != null) {
+            emit(localOp, operator);
+            emit(local[0], null);
+            emit(local[1], null);
+        } else {
+            emit(globalOp, operator);
+            emit(chunk.addGlobal(identifier), null);
+        }
+        emit(prefix, null);
+    }
+
+    private void emitConstant(Object value, Token token) {
+        emit(Opcode.CONSTANT, token);
+        emit(chunk.addConstant(value), null);
+    }
+
+    private void emitClosure(Prototype prototype, Token token) {
+        emit(Opcode.CLOSURE, token);
+        emit(chunk.addConstant(prototype), null);
+    }
+
+    private int emit(int value, Token token) {
+        return chunk.write(value, token);
+    }
+
+    private int emitJump(int instruction, Token token) {
+        emit(instruction, token);
+        return emit(0, null);
+    }
+
+    private void patchJump(int operand) {
+        chunk.code[operand] = chunk.count - (operand + 1);
+    }
+
+    private void emitLoop(int start) {
+        emit(Opcode.JUMP, null);
+        int operand = emit(0, null);
+        chunk.code[operand] = start - (operand + 1);
+    }
+
+    /**
+     * block scope အသစ်ဖွင့်မယ်။ slot အရေအတွက်ကို endScope မှာ patch မယ်။
+     *
+     * @return slot count operand ရဲ့ index
+     */
+    private int beginScope() {
+        emit(Opcode.PUSH_SCOPE, null);
+        int size = emit(0, null);
+        scope = new Scope(scope);
+        scopeDepth++;
+        return size;
+    }
+
+    private void endScope(int size) {
+        chunk.code[size] = scope.slots.size();
+        emit(Opcode.POP_SCOPE, null);
+        scope = scope.enclosing;
+        scopeDepth--;
+    }
+
+    /**
+     * loop ထဲက block scope တွေကို ပိတ်မယ် (break / continue)
+     *
+     * @param depth
+     */
+    private void popScopes(int depth) {
+        for (int i = scopeDepth; i > depth; i--) {
+            emit(Opcode.POP_SCOPE, null);
+        }
+    }
+}
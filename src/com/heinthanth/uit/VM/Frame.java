@@ -0,0 +1,32 @@
+package com.heinthanth.uit.VM;
+
+/**
+ * vm ရဲ့ scope တစ်ခု။ Environment လိုပဲ parent ချိတ်ထားပေမယ့် variable တွေကို
+ * name နဲ့ မရှာဘဲ compiler ပေးထားတဲ့ slot index နဲ့ ရှာတယ်။
+ */
+final class Frame {
+    // slot index အလိုက် variable value တွေ
+    final Object[] slots;
+
+    // enclosing scope
+    final Frame parent;
+
+    Frame(Frame parent, int size) {
+        this.parent = parent;
+        this.slots = new Object[size];
+    }
+
+    /**
+     * depth အဆင့်အပေါ်က frame ကို ယူမယ်။
+     *
+     * @param depth
+     * @return
+     */
+    Frame ancestor(int depth) {
+        Frame frame = this;
+        for (int i = 0; i < depth; i++) {
+            frame = frame.parent;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,295 @@
+package com.heinthanth.uit.VM;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.Statement;
+
+/**
+ * `uit build` နဲ့ compile ထားတဲ့ program။ vm bytecode နဲ့ error message ပြဖို့
+ * source code ကို file တစ်ခုထဲ သိမ်းထားမယ်။ run တဲ့အခါ lexer, parser, resolver
+ * မလိုတော့ဘူး။
+ */
+public final class Image {
+    /**
+     * jar ထဲမှာ image ကို သိမ်းမယ့် နေရာ
+     */
+    public static final String RESOURCE = "com/heinthanth/uit/program.uitc";
+
+    private static final int MAGIC = 0x55495443;
+    private static final int VERSION = 6;
+
+    // constant pool ထဲက value type တွေ
+    private static final int NUMBER = 1;
+    private static final int STRING = 2;
+    private static final int BOOLEAN = 3;
+    private static final int TOKEN = 4;
+    private static final int FUNCTION = 5;
+    private static final int CLASS = 6;
+    private static final int INT = 7;
+
+    /**
+     * error ပြဖို့ မူရင်း source code နဲ့ file name
+     */
+    public final String source;
+    public final String filename;
+
+    // top-level code
+    final Prototype script;
+
+    private Image(String source, String filename, Prototype script) {
+        this.source = source;
+        this.filename = filename;
+        this.script = script;
+    }
+
+    /**
+     * resolve ပြီးသား statement တွေကို vm bytecode အဖြစ် compile မယ်။
+     *
+     * @param statements
+     * @param source
+     * @param filename
+     * @return
+     */
+    public static Image compile(List<Statement> statements, String source, String filename) {
+        return new Image(source, filename, new Compiler().compile(statements));
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, source);
+        out.writeUTF(filename);
+        writePrototype(out, script);
+        out.flush();
+    }
+
+    public static Image read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IOException("not a compiled uit program.");
+        String source = readString(in);
+        String filename = in.readUTF();
+        return new Image(source, filename, readPrototype(in));
+    }
+
+    private static void writePrototype(DataOutputStream out, Prototype prototype) throws IOException {
+        Statement.FunctionStatement declaration = prototype.declaration;
+        out.writeBoolean(declaration != null);
+        if (declaration != null) {
+            writeToken(out, declaration.type);
+            writeToken(out, declaration.identifier);
+            out.writeShort(declaration.parameters.size());
+            for (List<Token> parameter : declaration.parameters) {
+                writeToken(out, parameter.get(0));
+                writeToken(out, parameter.get(1));
+            }
+            out.writeBoolean(declaration.checked);
+        }
+        out.writeBoolean(prototype.isInitializer);
+        out.writeInt(prototype.slots);
+        out.writeInt(prototype.thisSlots);
+
+        Chunk chunk = prototype.chunk;
+        out.writeInt(chunk.count);
+        for (int i = 0; i < chunk.count; i++) {
+            out.writeInt(chunk.code[i]);
+            writeToken(out, chunk.tokens[i]);
+        }
+        out.writeInt(chunk.constantPool.length);
+        for (Object constant : chunk.constantPool) {
+            writeConstant(out, constant);
+        }
+        out.writeInt(chunk.globalNames.length);
+        for (Token identifier : chunk.globalNames) {
+            writeToken(out, identifier);
+        }
+    }
+
+    private static Prototype readPrototype(DataInputStream in) throws IOException {
+        Statement.FunctionStatement declaration = null;
+        if (in.readBoolean()) {
+            Token type = readToken(in);
+            Token identifier = readToken(in);
+            List<List<Token>> parameters = new ArrayList<>();
+            for (int i = in.readShort(); i > 0; i--) {
+                parameters.add(Arrays.asList(readToken(in), readToken(in)));
+            }
+            // vm က function body ကို bytecode ကနေပဲ run တာမို့ statement တွေ မလိုဘူး။
+            declaration = new Statement.FunctionStatement(type, identifier, parameters, new ArrayList<>());
+            declaration.checked = in.readBoolean();
+        }
+        Prototype prototype = new Prototype(declaration, in.readBoolean());
+        prototype.slots = in.readInt();
+        prototype.thisSlots = in.readInt();
+
+        Chunk chunk = prototype.chunk;
+        int count = in.readInt();
+        chunk.code = new int[count];
+        chunk.tokens = new Token[count];
+        for (int i = 0; i < count; i++) {
+            chunk.code[i] = in.readInt();
+            chunk.tokens[i] = readToken(in);
+        }
+        chunk.count = count;
+        for (int i = in.readInt(); i > 0; i--) {
+            chunk.constants.add(readConstant(in));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            chunk.globals.add(readToken(in));
+        }
+        chunk.seal();
+        return prototype;
+    }
+
+    private static void writeConstant(DataOutputStream out, Object constant) throws IOException {
+        if (constant instanceof Double) {
+            out.writeByte(NUMBER);
+            out.writeDouble((double) constant);
+        } else if (constant instanceof Long) {
+            out.writeByte(INT);
+            out.writeLong((long) constant);
+        } else if (constant instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) constant);
+        } else if (constant instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((boolean) constant);
+        } else if (constant instanceof Token) {
+            out.writeByte(TOKEN);
+            writeToken(out, (Token) constant);
+        } else if (constant instanceof Prototype) {
+            out.writeByte(FUNCTION);
+            writePrototype(out, (Prototype) constant);
+        } else if (constant instanceof ClassPrototype) {
+            ClassPrototype klass = (ClassPrototype) constant;
+            out.writeByte(CLASS);
+            writeToken(out, klass.identifier);
+            writeTokens(out, klass.properties);
+            writeTokens(out, klass.propertyAccess);
+            out.writeShort(klass.methods.length);
+            for (Prototype method : klass.methods) {
+                writePrototype(out, method);
+            }
+            writeTokens(out, klass.methodAccess);
+        } else {
+            throw new IOException("cannot write constant '" + constant + "'.");
+        }
+    }
+
+    private static Object readConstant(DataInputStream in) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case NUMBER:
+                return in.readDouble();
+            case INT:
+                return in.readLong();
+            case STRING:
+                return readString(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case TOKEN:
+                return readToken(in);
+            case FUNCTION:
+                return readPrototype(in);
+            case CLASS: {
+                Token identifier = readToken(in);
+                Token[] properties = readTokens(in);
+                Token[] propertyAccess = readTokens(in);
+                Prototype[] methods = new Prototype[in.readShort()];
+                for (int i = 0; i < methods.length; i++) {
+                    methods[i] = readPrototype(in);
+                }
+                return new ClassPrototype(identifier, properties, propertyAccess, methods, readTokens(in));
+            }
+            default:
+                throw new IOException("unknown constant type " + tag + ".");
+        }
+    }
+
+    private static void writeTokens(DataOutputStream out, Token[] tokens) throws IOException {
+        out.writeShort(tokens.length);
+        for (Token token : tokens) {
+            writeToken(out, token);
+        }
+    }
+
+    private static Token[] readTokens(DataInputStream in) throws IOException {
+        Token[] tokens = new Token[in.readShort()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = readToken(in);
+        }
+        return tokens;
+    }
+
+    private static void writeToken(DataOutputStream out, Token token) throws IOException {
+        out.writeBoolean(token != null);
+        if (token == null)
+            return;
+        out.writeUTF(token.type.name());
+        writeString(out, token.lexeme);
+        out.writeInt(token.line);
+        out.writeInt(token.col);
+        out.writeUTF(token.v_type.name());
+        switch (token.v_type) {
+            case VT_STRING:
+                writeString(out, token.v_string);
+                break;
+            case VT_NUMBER:
+                out.writeDouble(token.v_number);
+                break;
+            case VT_INT:
+                out.writeLong(token.v_int);
+                break;
+            case VT_BOOLEAN:
+                out.writeBoolean(token.v_boolean);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Token readToken(DataInputStream in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        token_t type = token_t.valueOf(in.readUTF());
+        String lexeme = readString(in);
+        int line = in.readInt();
+        int col = in.readInt();
+        switch (in.readUTF()) {
+            case "VT_STRING":
+                return new Token(type, lexeme, readString(in), line, col);
+            case "VT_NUMBER":
+                return new Token(type, lexeme, in.readDouble(), line, col);
+            case "VT_INT":
+                return new Token(type, lexeme, in.readLong(), line, col);
+            case "VT_BOOLEAN":
+                return new Token(type, lexeme, in.readBoolean(), line, col);
+            default:
+                return new Token(type, lexeme, line, col);
+        }
+    }
+
+    // writeUTF က 64KB ထက်ရှည်တဲ့ string တွေ မရလို့
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package com.heinthanth.uit.VM;
+
+/**
+ * bytecode instruction တွေ။ instruction တစ်ခုကို int တစ်ခုနဲ့ encode ပြီး
+ * operand တွေကို နောက်က int တွေအဖြစ် ထည့်တယ်။ enum မသုံးတာက dispatch loop
+ * ထဲမှာ ordinal lookup မလိုချင်လို့။
+ */
+final class Opcode {
+    private Opcode() {
+    }
+
+    // CONSTANT <constant>
+    static final int CONSTANT = 0;
+    static final int NIL = 1;
+    static final int POP = 2;
+
+    // GET_LOCAL <depth> <slot>, SET_LOCAL <depth> <slot>, DEFINE_LOCAL <slot> <type constant>
+    static final int GET_LOCAL = 3;
+    static final int SET_LOCAL = 4;
+    static final int DEFINE_LOCAL = 5;
+    static final int STORE_LOCAL = 6;
+
+    // GET_GLOBAL <global>, SET_GLOBAL <global> (global က chunk ရဲ့ global table index)
+    // DEFINE_GLOBAL <name constant> <type constant>, STORE_GLOBAL <name constant>
+    static final int GET_GLOBAL = 7;
+    static final int SET_GLOBAL = 8;
+    static final int DEFINE_GLOBAL = 9;
+    static final int STORE_GLOBAL = 10;
+
+    static final int ADD = 11;
+    static final int SUBTRACT = 12;
+    static final int MULTIPLY = 13;
+    static final int DIVIDE = 14;
+    static final int MODULO = 15;
+    static final int POWER = 16;
+    static final int CONCAT = 17;
+    static final int GREATER = 18;
+    static final int GREATER_EQUAL = 19;
+    static final int LESS = 20;
+    static final int LESS_EQUAL = 21;
+    static final int EQUAL = 22;
+    static final int NOT_EQUAL = 23;
+    static final int NOT = 24;
+    static final int NEGATE = 25;
+
+    // JUMP <offset> ... offset က နောက်ထပ် instruction ကနေ ရေတွက်တယ်။
+    static final int JUMP = 26;
+    static final int JUMP_IF_FALSE = 27;
+    static final int JUMP_IF_FALSE_OR_POP = 28;
+    static final int JUMP_IF_TRUE_OR_POP = 29;
+
+    // PUSH_SCOPE <slot count>
+    static final int PUSH_SCOPE = 30;
+    static final int POP_SCOPE = 31;
+
+    // CALL <argument count>
+    static final int CALL = 32;
+    static final int RETURN = 33;
+    static final int RETURN_VOID = 34;
+    // CLOSURE <prototype constant>
+    static final int CLOSURE = 35;
+
+    static final int OUTPUT = 36;
+    static final int INPUT = 37;
+
+    // INCREMENT_LOCAL <depth> <slot> <prefix>, INCREMENT_GLOBAL <global> <prefix>
+    static final int INCREMENT_LOCAL = 38;
+    static final int DECREMENT_LOCAL = 39;
+    static final int INCREMENT_GLOBAL = 40;
+    static final int DECREMENT_GLOBAL = 41;
+
+    // GET_PROPERTY <name constant> <fromThis>
+    static final int GET_PROPERTY = 42;
+    static final int CHECK_INSTANCE = 43;
+    static final int SET_PROPERTY = 44;
+
+    // CHECK_CLASS, CLASS <class constant>
+    static final int CHECK_CLASS = 45;
+    static final int CLASS = 46;
+
+    // runtime မှာမှ error တက်ရမယ့် code တွေအတွက် (THROW <message constant>)
+    static final int THROW = 47;
+
+    // int operand တွေအတွက် bitwise operator တွေ
+    static final int BIT_AND = 48;
+    static final int BIT_OR = 49;
+    static final int BIT_XOR = 50;
+    static final int SHIFT_LEFT = 51;
+    static final int SHIFT_RIGHT = 52;
+    static final int COMPLEMENT = 53;
+
+    // TAIL_CALL <argument count> ... `return f(...)`။ caller frame ကို ကျော်လို့မရရင် CALL လိုပဲ
+    // ခေါ်ပြီး နောက်က RETURN က ပြန်မယ်။
+    static final int TAIL_CALL = 54;
+}
@@ -0,0 +1,29 @@
+package com.heinthanth.uit.VM;
+
+import com.heinthanth.uit.Runtime.Statement.FunctionStatement;
+
+/**
+ * compile ပြီးသား function တစ်ခု။ runtime မှာ closure frame နဲ့ပေါင်းပြီး
+ * VmFunction ဖြစ်လာမယ်။
+ */
+final class Prototype {
+    // မူရင်း function declaration (type check, error message တွေအတွက်)
+    final FunctionStatement declaration;
+
+    // function body ရဲ့ bytecode
+    final Chunk chunk = new Chunk();
+
+    // constructor ဟုတ်မဟုတ်
+    final boolean isInitializer;
+
+    // function frame ရဲ့ slot အရေအတွက် (parameter တွေ ပါတယ်)
+    int slots;
+
+    // method ဆိုရင် bind လုပ်တဲ့ frame ရဲ့ slot အရေအတွက် ('this' နဲ့ property name တွေ)
+    int thisSlots;
+
+    Prototype(FunctionStatement declaration, boolean isInitializer) {
+        this.declaration = declaration;
+        this.isInitializer = isInitializer;
+    }
+}
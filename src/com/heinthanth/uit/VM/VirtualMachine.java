@@ -0,0 +1,792 @@
+package com.heinthanth.uit.VM;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.heinthanth.uit.Interpreter.Environment;
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Lexer.Token;
+import com.heinthanth.uit.Lexer.token_t;
+import com.heinthanth.uit.Runtime.NumberCache;
+import com.heinthanth.uit.Runtime.Operators;
+import com.heinthanth.uit.Runtime.RuntimeError;
+import com.heinthanth.uit.Runtime.Statement;
+import com.heinthanth.uit.Runtime.UitCallable;
+import com.heinthanth.uit.Runtime.UitClass;
+import com.heinthanth.uit.Runtime.UitFunction;
+import com.heinthanth.uit.Runtime.UitInstance;
+import com.heinthanth.uit.Utils.ErrorHandler;
+import com.heinthanth.uit.Utils.TypeMapper;
+
+import org.jline.reader.EndOfFileException;
+import org.jline.reader.LineReader;
+import org.jline.reader.UserInterruptException;
+
+/**
+ * Compiler ကထုတ်ပေးတဲ့ bytecode ကို run မယ့် stack vm။ tree-walking interpreter
+ * နဲ့ semantics, error position, exit code တွေ တူအောင် Operators, Environment
+ * ရဲ့ check တွေနဲ့ UitClass / UitInstance တွေကို ပြန်သုံးထားတယ်။
+ */
+public class VirtualMachine {
+    /**
+     * function call တစ်ခုရဲ့ state
+     */
+    private static final class CallFrame {
+        VmFunction function;
+        int[] code;
+        Token[] tokens;
+        Object[] constants;
+        Environment.Cell[] cells;
+        Token[] globalNames;
+        int ip;
+        Frame scope;
+    }
+
+    /**
+     * uit function call ဘယ်လောက်အထိ nest လို့ရလဲ (default)။ call frame တွေက
+     * heap ပေါ်မှာမို့ Java stack size နဲ့ မဆိုင်ဘူး။
+     */
+    public static final int MAX_FRAMES = 100000;
+
+    // stack trace မှာ ထပ်နေတဲ့ frame တွေကို စုပြမယ်။ ဒီထက်များရင် ချန်ခဲ့မယ်။
+    private static final int TRACE_LINES = 20;
+
+    private static final Token CONSTRUCTOR = new Token(token_t.IDENTIFIER, "__construct", -1, -1);
+
+    // --max-frames
+    private int maxFrames = MAX_FRAMES;
+
+    // builtin function တွေကို interpreter ဆီကနေ ယူသုံးမယ်။
+    private final Interpreter builtins = new Interpreter();
+
+    // global variable တွေ
+    private final Environment globals = builtins.globals;
+
+    private LineReader reader;
+
+    // value stack
+    private Object[] stack = new Object[256];
+    private int sp = 0;
+
+    // call stack
+    private CallFrame[] frames = new CallFrame[64];
+    private int frameCount = 0;
+
+    /**
+     * parser ကရလာတဲ့ statement တွေကို compile ပြီး run မယ်။
+     *
+     * @param statements
+     * @param errorHandler
+     * @param fromREPL
+     * @param reader
+     */
+    public void interpret(List<Statement> statements, ErrorHandler errorHandler, boolean fromREPL, LineReader reader) {
+        this.reader = reader;
+
+        try {
+            Compiler compiler = new Compiler();
+            if (fromREPL && statements.size() == 1 && statements.get(0) instanceof Statement.ExpressionStatement) {
+                // REPL မှာ expression statement run ခဲ့ရင် auto output ထုတ်ပေးမယ်။
+                Statement.ExpressionStatement statement = (Statement.ExpressionStatement) statements.get(0);
+                Object value = execute(compiler.compileExpression(statement.expression));
+                if (value != null)
+                    System.out.println(Operators.stringify(value));
+            } else {
+                execute(compiler.compile(statements));
+            }
+        } catch (RuntimeError error) {
+            sp = 0;
+            frameCount = 0;
+            errorHandler.reportRuntimeError(error.getMessage(), error.token.line, error.token.col);
+        }
+    }
+
+    /**
+     * `uit build` နဲ့ compile ထားတဲ့ program ကို run မယ်။
+     *
+     * @param image
+     * @param errorHandler
+     * @param reader
+     */
+    public void interpret(Image image, ErrorHandler errorHandler, LineReader reader) {
+        this.reader = reader;
+        try {
+            execute(image.script);
+        } catch (RuntimeError error) {
+            sp = 0;
+            frameCount = 0;
+            errorHandler.reportRuntimeError(error.getMessage(), error.token.line, error.token.col);
+        }
+    }
+
+    /**
+     * uit call frame budget ကို ပြောင်းမယ်။
+     *
+     * @param maxFrames
+     */
+    public void setMaxFrames(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * top-level prototype ကို run မယ်။
+     */
+    private Object execute(Prototype script) {
+        int base = frameCount;
+        push(new VmFunction(this, script, null), null);
+        return run(base);
+    }
+
+    /**
+     * vm အပြင်က (ဥပမာ UitClass constructor) ကနေ function ကိုခေါ်ဖို့။
+     *
+     * @param function
+     * @param arguments
+     * @return
+     */
+    Object call(VmFunction function, List<Object> arguments) {
+        Prototype prototype = function.prototype;
+        Frame scope = new Frame(function.closure, prototype.slots);
+        for (int i = 0; i < arguments.size(); i++) {
+            List<Token> parameter = prototype.declaration.parameters.get(i);
+            Object value = arguments.get(i);
+            Environment.checkDeclaration(parameter.get(0), parameter.get(1), value);
+            scope.slots[i] = value;
+        }
+        int base = frameCount;
+        push(function, scope);
+        return run(base);
+    }
+
+    /**
+     * call frame အသစ်တစ်ခု ထည့်မယ်။
+     */
+    private CallFrame push(VmFunction function, Frame scope) {
+        if (frameCount == frames.length)
+            frames = Arrays.copyOf(frames, frameCount * 2);
+        CallFrame frame = frames[frameCount];
+        if (frame == null) {
+            frame = new CallFrame();
+            frames[frameCount] = frame;
+        }
+        frameCount++;
+        enter(frame, function, scope);
+        return frame;
+    }
+
+    /**
+     * call frame ထဲမှာ function ကို အစကနေ run ဖို့ ပြင်မယ်။
+     */
+    private void enter(CallFrame frame, VmFunction function, Frame scope) {
+        Chunk chunk = function.prototype.chunk;
+        if (chunk.cells == null)
+            link(chunk);
+        frame.function = function;
+        frame.code = chunk.code;
+        frame.tokens = chunk.tokens;
+        frame.constants = chunk.constantPool;
+        frame.cells = chunk.cells;
+        frame.globalNames = chunk.globalNames;
+        frame.ip = 0;
+        frame.scope = scope;
+
+        // instruction တစ်ခုက stack ပေါ်ကို တစ်ခုထက်ပိုမတင်လို့ chunk size လောက် နေရာရှိရင် လုံလောက်တယ်။
+        if (sp + chunk.count >= stack.length)
+            stack = Arrays.copyOf(stack, Math.max(stack.length * 2, sp + chunk.count + 1));
+    }
+
+    /**
+     * chunk ထဲက global name တွေကို global cell တွေနဲ့ ချိတ်မယ်။ cell က name
+     * တစ်ခုအတွက် ဘယ်တော့မှ မလဲလို့ run နေတုန်း hash lookup မလုပ်ဘဲ index နဲ့ပဲ
+     * ဖတ်လို့ရတယ်။ define မလုပ်ရသေးတဲ့ name ဆိုလည်း cell ကို ကြိုယူထားမယ်။
+     */
+    private void link(Chunk chunk) {
+        Environment.Cell[] cells = new Environment.Cell[chunk.globalNames.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = globals.cell(chunk.globalNames[i].lexeme);
+        }
+        chunk.cells = cells;
+    }
+
+    /**
+     * dispatch loop. base အထိ call frame တွေ return ပြန်သွားရင် ရပ်မယ်။
+     *
+     * @param base
+     * @return နောက်ဆုံး return ပြန်တဲ့ value
+     */
+    private Object run(int base) {
+        CallFrame frame = frames[frameCount - 1];
+        int[] code = frame.code;
+        Token[] tokens = frame.tokens;
+        Object[] constants = frame.constants;
+        Environment.Cell[] cells = frame.cells;
+        Token[] globalNames = frame.globalNames;
+        Frame scope = frame.scope;
+        int ip = frame.ip;
+        Object[] stack = this.stack;
+        int sp = this.sp;
+
+        while (true) {
+            int at = ip;
+            switch (code[ip++]) {
+                case Opcode.CONSTANT:
+                    stack[sp++] = constants[code[ip++]];
+                    break;
+                case Opcode.NIL:
+                    stack[sp++] = null;
+                    break;
+                case Opcode.POP:
+                    stack[--sp] = null;
+                    break;
+                case Opcode.GET_LOCAL: {
+                    Frame target = scope;
+                    for (int depth = code[ip++]; depth > 0; depth--)
+                        target = target.parent;
+                    stack[sp++] = target.slots[code[ip++]];
+                    break;
+                }
+                case Opcode.SET_LOCAL: {
+                    Frame target = scope;
+                    for (int depth = code[ip++]; depth > 0; depth--)
+                        target = target.parent;
+                    int slot = code[ip++];
+                    Object value = stack[sp - 1];
+                    Environment.checkAssignment(tokens[at], target.slots[slot], value);
+                    target.slots[slot] = value;
+                    break;
+                }
+                case Opcode.DEFINE_LOCAL: {
+                    int slot = code[ip++];
+                    Token type = (Token) constants[code[ip++]];
+                    Object value = stack[--sp];
+                    Environment.checkDeclaration(type, tokens[at], value);
+                    scope.slots[slot] = value;
+                    break;
+                }
+                case Opcode.STORE_LOCAL:
+                    scope.slots[code[ip++]] = stack[--sp];
+                    break;
+                case Opcode.GET_GLOBAL: {
+                    int global = code[ip++];
+                    stack[sp++] = cells[global].get(globalNames[global]);
+                    break;
+                }
+                case Opcode.SET_GLOBAL: {
+                    int global = code[ip++];
+                    cells[global].assign(globalNames[global], stack[sp - 1]);
+                    break;
+                }
+                case Opcode.DEFINE_GLOBAL: {
+                    Token identifier = (Token) constants[code[ip++]];
+                    Token type = (Token) constants[code[ip++]];
+                    globals.define(type, identifier, stack[--sp]);
+                    break;
+                }
+                case Opcode.STORE_GLOBAL:
+                    globals.define((Token) constants[code[ip++]], stack[--sp]);
+                    break;
+                case Opcode.ADD: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = NumberCache.box((double) left + (double) right);
+                    break;
+                }
+                case Opcode.SUBTRACT: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = NumberCache.box((double) left - (double) right);
+                    break;
+                }
+                case Opcode.MULTIPLY: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = NumberCache.box((double) left * (double) right);
+                    break;
+                }
+                case Opcode.DIVIDE: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    Operators.checkZeroOperand(tokens[at], right);
+                    stack[sp - 1] = NumberCache.box((double) left / (double) right);
+                    break;
+                }
+                case Opcode.MODULO: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    Operators.checkZeroOperand(tokens[at], right);
+                    stack[sp - 1] = NumberCache.box(Operators.modulo((double) left, (double) right));
+                    break;
+                }
+                case Opcode.POWER: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = NumberCache.box(Math.pow((double) left, (double) right));
+                    break;
+                }
+                case Opcode.CONCAT: {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = Operators.stringify(stack[sp - 1]) + Operators.stringify(right);
+                    break;
+                }
+                case Opcode.GREATER: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = (double) left > (double) right;
+                    break;
+                }
+                case Opcode.GREATER_EQUAL: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = (double) left >= (double) right;
+                    break;
+                }
+                case Opcode.LESS: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = (double) left < (double) right;
+                    break;
+                }
+                case Opcode.LESS_EQUAL: {
+                    Object right = stack[--sp];
+                    Object left = stack[sp - 1];
+                    if (!(left instanceof Double && right instanceof Double)) {
+                        stack[sp - 1] = Operators.binary(tokens[at], left, right);
+                        break;
+                    }
+                    stack[sp - 1] = (double) left <= (double) right;
+                    break;
+                }
+                case Opcode.EQUAL: {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = Operators.isEqual(stack[sp - 1], right);
+                    break;
+                }
+                case Opcode.NOT_EQUAL: {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = !Operators.isEqual(stack[sp - 1], right);
+                    break;
+                }
+                case Opcode.NOT:
+                    stack[sp - 1] = !Operators.isTrue(stack[sp - 1]);
+                    break;
+                case Opcode.NEGATE:
+                    if (!(stack[sp - 1] instanceof Double)) {
+                        stack[sp - 1] = Operators.unary(tokens[at], stack[sp - 1]);
+                        break;
+                    }
+                    stack[sp - 1] = NumberCache.box(-(double) stack[sp - 1]);
+                    break;
+                case Opcode.BIT_AND:
+                case Opcode.BIT_OR:
+                case Opcode.BIT_XOR:
+                case Opcode.SHIFT_LEFT:
+                case Opcode.SHIFT_RIGHT: {
+                    Object right = stack[--sp];
+                    stack[sp - 1] = Operators.binary(tokens[at], stack[sp - 1], right);
+                    break;
+                }
+                case Opcode.COMPLEMENT:
+                    stack[sp - 1] = Operators.unary(tokens[at], stack[sp - 1]);
+                    break;
+                case Opcode.JUMP: {
+                    int offset = code[ip++];
+                    ip += offset;
+                    break;
+                }
+                case Opcode.JUMP_IF_FALSE: {
+                    int offset = code[ip++];
+                    if (!Operators.isTrue(stack[--sp]))
+                        ip += offset;
+                    stack[sp] = null;
+                    break;
+                }
+                case Opcode.JUMP_IF_FALSE_OR_POP: {
+                    int offset = code[ip++];
+                    if (!Operators.isTrue(stack[sp - 1])) {
+                        ip += offset;
+                    } else {
+                        stack[--sp] = null;
+                    }
+                    break;
+                }
+                case Opcode.JUMP_IF_TRUE_OR_POP: {
+                    int offset = code[ip++];
+                    if (Operators.isTrue(stack[sp - 1])) {
+                        ip += offset;
+                    } else {
+                        stack[--sp] = null;
+                    }
+                    break;
+                }
+                case Opcode.PUSH_SCOPE:
+                    scope = new Frame(scope, code[ip++]);
+                    break;
+                case Opcode.POP_SCOPE:
+                    scope = scope.parent;
+                    break;
+                case Opcode.CALL:
+                case Opcode.TAIL_CALL: {
+                    int count = code[ip++];
+                    Object callee = stack[sp - count - 1];
+                    if (!(callee instanceof UitCallable)) {
+                        throw new RuntimeError(tokens[at], "Cannot invoke non-functions.");
+                    }
+                    // vm function နဲ့ vm constructor ပါတဲ့ class တွေကို Java stack မသုံးဘဲ frame တင်ပြီး ခေါ်မယ်။
+                    VmFunction function = null;
+                    if (callee instanceof VmFunction) {
+                        function = (VmFunction) callee;
+                    } else if (callee instanceof UitClass) {
+                        function = constructor((UitClass) callee, count, tokens[at]);
+                    }
+                    if (function != null) {
+                        Prototype prototype = function.prototype;
+                        List<List<Token>> parameters = prototype.declaration.parameters;
+                        if (count != parameters.size()) {
+                            throw new RuntimeError(tokens[at],
+                                    "Expected " + parameters.size() + " arguments but got " + count + ".");
+                        }
+                        // return f(...) ဆို caller ရဲ့ call frame ကို callee အတွက် ပြန်သုံးမယ်။
+                        boolean tail = code[at] == Opcode.TAIL_CALL && frame.function != null
+                                && frame.function.canTailCall(callee, count);
+                        // frames[0] က top-level script ရဲ့ frame မို့ call အရေအတွက်ထဲ မထည့်ဘူး။
+                        if (!tail && frameCount > maxFrames) {
+                            frame.ip = ip;
+                            throw new RuntimeError(tokens[at], "Stack overflow: more than " + maxFrames
+                                    + " nested calls." + stackTrace(at));
+                        }
+                        Frame callee_scope = new Frame(function.closure, prototype.slots);
+                        int first = sp - count;
+                        for (int i = 0; i < count; i++) {
+                            List<Token> parameter = parameters.get(i);
+                            Object value = stack[first + i];
+                            Environment.checkDeclaration(parameter.get(0), parameter.get(1), value);
+                            callee_scope.slots[i] = value;
+                            stack[first + i] = null;
+                        }
+                        sp = first - 1;
+                        stack[sp] = null;
+
+                        this.sp = sp;
+                        if (tail) {
+                            enter(frame, function, callee_scope);
+                        } else {
+                            frame.ip = ip;
+                            frame.scope = scope;
+                            frame = push(function, callee_scope);
+                        }
+                        stack = this.stack;
+                        code = frame.code;
+                        tokens = frame.tokens;
+                        constants = frame.constants;
+                        cells = frame.cells;
+                        globalNames = frame.globalNames;
+                        scope = callee_scope;
+                        ip = 0;
+                    } else {
+                        UitCallable builtin = (UitCallable) callee;
+                        if (count != builtin.argsCount()) {
+                            throw new RuntimeError(tokens[at],
+                                    "Expected " + builtin.argsCount() + " arguments but got " + count + ".");
+                        }
+                        List<Object> arguments = new ArrayList<>(count);
+                        for (int i = sp - count; i < sp; i++) {
+                            arguments.add(stack[i]);
+                            stack[i] = null;
+                        }
+                        sp -= count + 1;
+
+                        // UitClass constructor လို vm ထဲ ပြန်ဝင်လာနိုင်လို့ state ကို သိမ်းထားမယ်။
+                        frame.ip = ip;
+                        frame.scope = scope;
+                        this.sp = sp;
+                        Object result;
+                        try {
+                            result = builtin.invoke(builtins, arguments);
+                        } catch (RuntimeError error) {
+                            throw error.at(tokens[at]);
+                        }
+                        stack = this.stack;
+                        stack[sp++] = result;
+                    }
+                    break;
+                }
+                case Opcode.RETURN:
+                case Opcode.RETURN_VOID: {
+                    Object result;
+                    if (code[at] == Opcode.RETURN) {
+                        result = stack[--sp];
+                        stack[sp] = null;
+                        result = returnValue(frame.function, result);
+                    } else {
+                        result = voidValue(frame.function);
+                    }
+                    frame.function = null;
+                    frame.scope = null;
+                    frameCount--;
+                    if (frameCount == base) {
+                        this.sp = sp;
+                        return result;
+                    }
+                    frame = frames[frameCount - 1];
+                    code = frame.code;
+                    tokens = frame.tokens;
+                    constants = frame.constants;
+                    cells = frame.cells;
+                    globalNames = frame.globalNames;
+                    scope = frame.scope;
+                    ip = frame.ip;
+                    stack[sp++] = result;
+                    break;
+                }
+                case Opcode.CLOSURE:
+                    stack[sp++] = new VmFunction(this, (Prototype) constants[code[ip++]], scope);
+                    break;
+                case Opcode.OUTPUT:
+                    System.out.print(Operators.stringify(stack[--sp]));
+                    stack[sp] = null;
+                    break;
+                case Opcode.INPUT:
+                    stack[sp++] = readInput();
+                    break;
+                case Opcode.INCREMENT_LOCAL:
+                case Opcode.DECREMENT_LOCAL: {
+                    Frame target = scope;
+                    for (int depth = code[ip++]; depth > 0; depth--)
+                        target = target.parent;
+                    int slot = code[ip++];
+                    boolean prefix = code[ip++] == 1;
+                    Object previous = target.slots[slot];
+                    Object current = step(code[at] == Opcode.INCREMENT_LOCAL, tokens[at], previous);
+                    target.slots[slot] = current;
+                    stack[sp++] = prefix ? current : previous;
+                    break;
+                }
+                case Opcode.INCREMENT_GLOBAL:
+                case Opcode.DECREMENT_GLOBAL: {
+                    int global = code[ip++];
+                    boolean prefix = code[ip++] == 1;
+                    Environment.Cell cell = cells[global];
+                    Object previous = cell.get(globalNames[global]);
+                    Object current = step(code[at] == Opcode.INCREMENT_GLOBAL, tokens[at], previous);
+                    cell.assign(globalNames[global], current);
+                    stack[sp++] = prefix ? current : previous;
+                    break;
+                }
+                case Opcode.GET_PROPERTY: {
+                    Token name = (Token) constants[code[ip++]];
+                    boolean fromThis = code[ip++] == 1;
+                    Object object = stack[sp - 1];
+                    if (!(object instanceof UitInstance)) {
+                        throw new RuntimeError(name, "Cannot get member from non-object.");
+                    }
+                    frame.ip = ip;
+                    frame.scope = scope;
+                    this.sp = sp;
+                    stack[sp - 1] = ((UitInstance) object).get(name, fromThis);
+                    break;
+                }
+                case Opcode.CHECK_INSTANCE:
+                    if (!(stack[sp - 1] instanceof UitInstance)) {
+                        throw new RuntimeError(tokens[at], "Cannot assign member to non-object.");
+                    }
+                    break;
+                case Opcode.SET_PROPERTY: {
+                    Token name = (Token) constants[code[ip++]];
+                    boolean fromThis = code[ip++] == 1;
+                    Object value = stack[--sp];
+                    ((UitInstance) stack[sp - 1]).set(name, value, fromThis);
+                    stack[sp - 1] = value;
+                    break;
+                }
+                case Opcode.CHECK_CLASS:
+                    if (!(stack[sp - 1] instanceof UitClass)) {
+                        throw new RuntimeError(tokens[at], "Parent must be a class.");
+                    }
+                    break;
+                case Opcode.CLASS: {
+                    ClassPrototype prototype = (ClassPrototype) constants[code[ip++]];
+                    int count = prototype.properties.length;
+                    Map<String, Token> accessModifier = new HashMap<>();
+                    Map<String, UitFunction> methods = new HashMap<>();
+                    Map<String, Object> props = new HashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        props.put(prototype.properties[i].lexeme, stack[sp - count + i]);
+                        accessModifier.put(prototype.properties[i].lexeme, prototype.propertyAccess[i]);
+                        stack[sp - count + i] = null;
+                    }
+                    sp -= count;
+                    for (int i = 0; i < prototype.methods.length; i++) {
+                        Prototype method = prototype.methods[i];
+                        methods.put(method.declaration.identifier.lexeme, new VmFunction(this, method, scope));
+                        accessModifier.put(method.declaration.identifier.lexeme, prototype.methodAccess[i]);
+                    }
+                    stack[sp - 1] = new UitClass(prototype.identifier.lexeme, (UitClass) stack[sp - 1], props,
+                            methods, accessModifier);
+                    break;
+                }
+                case Opcode.THROW:
+                    throw new RuntimeError(tokens[at], (String) constants[code[ip++]]);
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[at] + ".");
+            }
+        }
+    }
+
+    /**
+     * class ရဲ့ constructor က vm function ဆိုရင် instance နဲ့ bind ထားတဲ့
+     * constructor ကို ပြန်ပေးမယ်။ UitClass.invoke နဲ့ check တွေ အစဉ်တူတယ်။ vm
+     * function မဟုတ်ရင် (constructor မပါတာ အပါအဝင်) null
+     */
+    private VmFunction constructor(UitClass klass, int count, Token paren) {
+        UitFunction initializer = klass.findMethod(CONSTRUCTOR, true, false);
+        if (!(initializer instanceof VmFunction))
+            return null;
+        if (count != initializer.argsCount()) {
+            throw new RuntimeError(paren, "Expected " + initializer.argsCount() + " arguments but got " + count + ".");
+        }
+        if (initializer.declaration.type.type != token_t.FRT_VOID)
+            throw new RuntimeError(initializer.declaration.type, "Object constructor must be void method.");
+        return (VmFunction) initializer.bind(new UitInstance(klass));
+    }
+
+    /**
+     * error message နောက်မှာ ထည့်မယ့် uit call stack။ frame တိုင်းရဲ့ ip က CALL
+     * (opcode, argument count) နောက်မှာ ရှိနေမယ်။ အပေါ်ဆုံး frame အတွက်တော့ at ကို
+     * သုံးမယ်။ top-level script frame ကို မပြဘူး။
+     */
+    private String stackTrace(int at) {
+        StringBuilder trace = new StringBuilder();
+        String previous = null;
+        int repeated = 0;
+        int lines = 0;
+        for (int i = frameCount - 1; i >= -1; i--) {
+            String line = null;
+            Statement.FunctionStatement declaration = i >= 0 ? frames[i].function.prototype.declaration : null;
+            if (declaration != null) {
+                CallFrame frame = frames[i];
+                Token token = frame.tokens[i == frameCount - 1 ? at : frame.ip - 2];
+                String name = "__uit_start".equals(declaration.identifier.lexeme) ? "start"
+                        : declaration.identifier.lexeme;
+                line = "\n    at " + name + " (line " + (token.line + 1) + ")";
+            } else if (i >= 0) {
+                continue;
+            }
+            if (line != null && line.equals(previous)) {
+                repeated++;
+                continue;
+            }
+            if (repeated > 0 && lines < TRACE_LINES) {
+                trace.append("\n    ... repeated " + repeated + " more time" + (repeated == 1 ? "" : "s"));
+                lines++;
+            }
+            repeated = 0;
+            previous = line;
+            if (line != null && lines < TRACE_LINES) {
+                trace.append(line);
+                lines++;
+            }
+        }
+        return trace.toString();
+    }
+
+    /**
+     * tree-walking interpreter ရဲ့ UitFunction.invoke လိုပဲ return value ကို စစ်မယ်။
+     */
+    private Object returnValue(VmFunction function, Object value) {
+        Prototype prototype = function.prototype;
+        if (prototype.declaration == null)
+            return value;
+        if (prototype.isInitializer)
+            return function.closure.slots[0];
+        if (value == null)
+            return "";
+        Token type = prototype.declaration.type;
+        if (!prototype.declaration.checked && type != null && value.getClass() != TypeMapper.Uit2Java.get(type.type)) {
+            StringBuilder msg = new StringBuilder();
+            msg.append("Cannot return ");
+            msg.append(TypeMapper.JavaT2String.get(value.getClass()));
+            msg.append(" from ");
+            msg.append(TypeMapper.UitT2String.get(type.type));
+            msg.append(" function '");
+            msg.append(prototype.declaration.identifier.lexeme);
+            msg.append("'.");
+            throw new RuntimeError(type, msg.toString());
+        }
+        return value;
+    }
+
+    /**
+     * return statement မပါဘဲ function အဆုံးရောက်သွားရင် ပြန်ပေးမယ့် value
+     */
+    private Object voidValue(VmFunction function) {
+        Prototype prototype = function.prototype;
+        if (prototype.declaration == null)
+            return null;
+        if (prototype.isInitializer)
+            return function.closure.slots[0];
+        return "";
+    }
+
+    /**
+     * ++ / -- အတွက် value အသစ်တွက်မယ်။
+     */
+    private Object step(boolean increment, Token operator, Object previous) {
+        if (previous instanceof Long)
+            return increment ? (long) previous + 1 : (long) previous - 1;
+        if (!(previous instanceof Double)) {
+            throw new RuntimeError(operator, increment ? "Cannot increase non-number." : "Cannot decrease non-number.");
+        }
+        return NumberCache.box(increment ? (double) previous + 1 : (double) previous - 1);
+    }
+
+    private String readInput() {
+        String input = "";
+        try {
+            input = reader.readLine();
+        } catch (UserInterruptException e) {
+            System.exit(123);
+        } catch (EndOfFileException e) {
+            //
+        }
+        return input;
+    }
+}
@@ -0,0 +1,39 @@
+package com.heinthanth.uit.VM;
+
+import java.util.List;
+
+import com.heinthanth.uit.Interpreter.Interpreter;
+import com.heinthanth.uit.Runtime.UitFunction;
+import com.heinthanth.uit.Runtime.UitInstance;
+
+/**
+ * vm ပေါ်မှာ run မယ့် function။ UitClass, UitInstance တို့က UitFunction ကိုပဲ
+ * သိတာမို့ UitFunction ကို extend ထားတယ်။ body ကိုတော့ tree-walk မလုပ်ဘဲ vm နဲ့
+ * run တယ်။
+ */
+final class VmFunction extends UitFunction {
+    final VirtualMachine vm;
+    final Prototype prototype;
+
+    // function define လုပ်ခဲ့တဲ့ scope
+    final Frame closure;
+
+    VmFunction(VirtualMachine vm, Prototype prototype, Frame closure) {
+        super(prototype.declaration, null, prototype.isInitializer);
+        this.vm = vm;
+        this.prototype = prototype;
+        this.closure = closure;
+    }
+
+    @Override
+    public UitFunction bind(UitInstance instance) {
+        Frame frame = new Frame(closure, prototype.thisSlots);
+        frame.slots[0] = instance;
+        return new VmFunction(vm, prototype, frame);
+    }
+
+    @Override
+    public Object invoke(Interpreter interpreter, List<Object> arguments) {
+        return vm.call(this, arguments);
+    }
+}